@@ -0,0 +1,150 @@
+package org.virtualpowerplant;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.utility.DockerImageName;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to first request of the application started in its own JVM: from launching the process until the
+ * readiness probe reports ready and a battery registration, which goes through the JPA-bootstrapped
+ * {@code Battery} entity and {@code BatteryMapper}, has returned 200. Each variant starts the AOT-processed
+ * jar extracted by {@code ./gradlew cdsArchive -PfastStartup}: plain, with the AOT initializers, and with
+ * the AOT initializers plus the class data sharing archive. Requires Docker and
+ * {@code ./gradlew jmh -PfastStartup -PjmhIncludes=StartupBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class StartupBenchmark {
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(2);
+
+    @Param({"jit", "aot", "aot-cds"})
+    private String variant;
+
+    private PostgreSQLContainer<?> postgres;
+    private Path directory;
+    private String jar;
+    private HttpClient client;
+    private Process process;
+    private int port;
+    private int launches;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        directory = Path.of(System.getProperty("vpp.startup.dir", "build/fast-startup"));
+        jar = System.getProperty("vpp.startup.jar", "virtual-power-plant-system-0.0.1-SNAPSHOT.jar");
+        if (!Files.exists(directory.resolve(jar)) || !Files.exists(directory.resolve("application.jsa"))) {
+            throw new IllegalStateException("No fast-startup build in " + directory
+                    + "; run ./gradlew jmh -PfastStartup -PjmhIncludes=StartupBenchmark");
+        }
+        postgres = new PostgreSQLContainer<>(DockerImageName.parse("postgres:latest"));
+        postgres.start();
+        client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        postgres.stop();
+    }
+
+    @Setup(Level.Invocation)
+    public void choosePort() throws IOException {
+        try (var socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+    }
+
+    @TearDown(Level.Invocation)
+    public void stop() throws InterruptedException {
+        if (process != null) {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+            process = null;
+        }
+    }
+
+    @Benchmark
+    public int timeToFirstRequest() throws IOException, InterruptedException {
+        process = new ProcessBuilder(command())
+                .directory(directory.toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(directory.resolve("startup-" + variant + ".log").toFile())
+                .start();
+
+        var deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+        var readiness = HttpRequest.newBuilder(uri("/actuator/health/readiness")).GET().build();
+        while (status(readiness) != 200) {
+            if (!process.isAlive() || System.nanoTime() > deadline) {
+                throw new IllegalStateException("Application did not become ready, see startup-" + variant + ".log");
+            }
+            Thread.sleep(5);
+        }
+
+        var registration = HttpRequest.newBuilder(uri("/api/v1/batteries"))
+                                      .header("Content-Type", "application/json")
+                                      .POST(HttpRequest.BodyPublishers.ofString(
+                                              "[{\"name\":\"Startup " + variant + " " + launches++
+                                                      + "\",\"postcode\":6000,\"wattCapacity\":13500.0}]"))
+                                      .build();
+        var status = status(registration);
+        if (status != 200) {
+            throw new IllegalStateException("First request returned " + status);
+        }
+        return status;
+    }
+
+    private List<String> command() {
+        var command = new ArrayList<String>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        if (variant.equals("aot-cds")) {
+            command.add("-XX:SharedArchiveFile=application.jsa");
+        }
+        if (!variant.equals("jit")) {
+            command.add("-Dspring.aot.enabled=true");
+        }
+        command.addAll(List.of("-jar", jar,
+                "--server.port=" + port,
+                "--spring.datasource.url=" + postgres.getJdbcUrl(),
+                "--spring.datasource.username=" + postgres.getUsername(),
+                "--spring.datasource.password=" + postgres.getPassword(),
+                "--logging.level.root=WARN"));
+        return command;
+    }
+
+    private int status(HttpRequest request) throws IOException, InterruptedException {
+        try {
+            return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (IOException e) {
+            // Not listening yet.
+            return -1;
+        }
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+}
@@ -0,0 +1,134 @@
+package org.virtualpowerplant.entity;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.utility.DockerImageName;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Insert throughput into a uuid primary key that already holds a large number of rows, for random v4 and
+ * time-ordered v7 ids. The primary key index size and the WAL written per row are reported next to the
+ * throughput as {@link Footprint} counters, sampled after every batch. Requires Docker.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class PrimaryKeyInsertBenchmark {
+    private static final int BATCH_SIZE = 1_000;
+
+    @Param({"UUID_V4", "UUID_V7"})
+    private String strategy;
+
+    @Param({"2000000"})
+    private int existingRows;
+
+    private PostgreSQLContainer<?> postgres;
+    private Connection connection;
+    private EntityIdGenerator generator;
+    private String walPosition;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        generator = "UUID_V7".equals(strategy) ? new UuidV7Generator() : UUID::randomUUID;
+        postgres = new PostgreSQLContainer<>(DockerImageName.parse("postgres:latest"));
+        postgres.start();
+        connection = DriverManager.getConnection(
+                postgres.getJdbcUrl() + "&reWriteBatchedInserts=true", postgres.getUsername(), postgres.getPassword());
+        connection.setAutoCommit(false);
+        try (var statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE pk_benchmark (id uuid PRIMARY KEY, payload integer NOT NULL)");
+        }
+        connection.commit();
+        for (int inserted = 0; inserted < existingRows; inserted += BATCH_SIZE) {
+            insertBatch();
+        }
+        try (var statement = connection.createStatement()) {
+            statement.execute("CHECKPOINT");
+            var rs = statement.executeQuery("SELECT pg_current_wal_lsn()");
+            rs.next();
+            walPosition = rs.getString(1);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        connection.close();
+        postgres.stop();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void insert(Footprint footprint) throws SQLException {
+        insertBatch();
+        try (var statement = connection.prepareStatement("""
+                SELECT pg_wal_lsn_diff(pg_current_wal_lsn(), ?::pg_lsn)::bigint,
+                       pg_current_wal_lsn(),
+                       pg_relation_size('pk_benchmark_pkey')
+                """)) {
+            statement.setString(1, walPosition);
+            try (var rs = statement.executeQuery()) {
+                rs.next();
+                footprint.record(BATCH_SIZE, rs.getLong(1), rs.getLong(3));
+                walPosition = rs.getString(2);
+            }
+        }
+        connection.commit();
+    }
+
+    private void insertBatch() throws SQLException {
+        try (var statement = connection.prepareStatement("INSERT INTO pk_benchmark (id, payload) VALUES (?, ?)")) {
+            for (int i = 0; i < BATCH_SIZE; i++) {
+                statement.setObject(1, generator.generate());
+                statement.setInt(2, i);
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+        connection.commit();
+    }
+
+    /**
+     * Storage cost of the inserts of one iteration, reported by JMH as secondary results.
+     */
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Footprint {
+        public double indexMegabytes;
+        public double walBytesPerRow;
+        private long walBytes;
+        private long rows;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            walBytes = 0;
+            rows = 0;
+        }
+
+        void record(int insertedRows, long insertedWalBytes, long indexBytes) {
+            rows += insertedRows;
+            walBytes += insertedWalBytes;
+            walBytesPerRow = (double) walBytes / rows;
+            indexMegabytes = indexBytes / (1024.0 * 1024.0);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package org.virtualpowerplant.mapper;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.virtualpowerplant.entity.Battery;
+import org.virtualpowerplant.model.BatteryRequestDto;
+import org.virtualpowerplant.model.BatteryResponseDto;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class BatteryMapperBenchmark {
+
+    private final BatteryMapper mapper = BatteryMapper.INSTANCE;
+
+    private final BatteryRequestDto request = BatteryRequestDto.builder()
+                                                               .name("Cannington")
+                                                               .postcode(6107)
+                                                               .wattCapacity(13500.0)
+                                                               .build();
+
+    private final Battery battery = battery();
+
+    @Benchmark
+    public Battery toEntity() {
+        return mapper.toEntity(request);
+    }
+
+    @Benchmark
+    public BatteryResponseDto toResponse() {
+        return mapper.toResponse(battery);
+    }
+
+    private static Battery battery() {
+        var battery = Battery.builder()
+                             .name("Cannington")
+                             .postcode(6107)
+                             .wattCapacity(13500.0)
+                             .build();
+        battery.setId(UUID.randomUUID());
+        return battery;
+    }
+}
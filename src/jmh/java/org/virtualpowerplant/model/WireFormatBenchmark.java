@@ -0,0 +1,110 @@
+package org.virtualpowerplant.model;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.github.luben.zstd.ZstdInputStream;
+import com.github.luben.zstd.ZstdOutputStream;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Time to decompress and bind a 100k-battery registration body in each wire format. The encoded size of
+ * each combination is reported as the {@code bytesPerRecord} secondary result, so one run gives both bytes
+ * on the wire and parse time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class WireFormatBenchmark {
+    private static final int RECORDS = 100_000;
+    private static final TypeReference<List<BatteryRequestDto>> BATCH = new TypeReference<>() {
+    };
+
+    @Param({"json", "cbor", "smile"})
+    public String format;
+
+    @Param({"none", "gzip", "zstd"})
+    public String compression;
+
+    private ObjectMapper mapper;
+    private byte[] payload;
+
+    @Setup
+    public void setUp() throws IOException {
+        mapper = switch (format) {
+            case "cbor" -> new CBORMapper();
+            case "smile" -> new SmileMapper();
+            default -> new ObjectMapper();
+        };
+
+        var random = new Random(42);
+        var batch = new ArrayList<BatteryRequestDto>(RECORDS);
+        for (int i = 0; i < RECORDS; i++) {
+            batch.add(BatteryRequestDto.builder()
+                                       .name("Battery-" + i)
+                                       .postcode(6000 + random.nextInt(1000))
+                                       .wattCapacity(1000.0 + random.nextInt(99_000))
+                                       .build());
+        }
+
+        var encoded = new ByteArrayOutputStream();
+        try (var out = compress(encoded)) {
+            mapper.writeValue(out, batch);
+        }
+        payload = encoded.toByteArray();
+    }
+
+    @Benchmark
+    public List<BatteryRequestDto> parse(Size size) throws IOException {
+        size.bytesPerRecord = payload.length / (double) RECORDS;
+        try (var in = decompress(new ByteArrayInputStream(payload))) {
+            return mapper.readValue(in, BATCH);
+        }
+    }
+
+    /**
+     * Encoded size of the payload, reported next to the parse time.
+     */
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Size {
+        public double bytesPerRecord;
+    }
+
+    private OutputStream compress(OutputStream out) throws IOException {
+        return switch (compression) {
+            case "gzip" -> new GZIPOutputStream(out, 64 * 1024);
+            case "zstd" -> new ZstdOutputStream(out);
+            default -> out;
+        };
+    }
+
+    private InputStream decompress(InputStream in) throws IOException {
+        return switch (compression) {
+            case "gzip" -> new GZIPInputStream(in, 64 * 1024);
+            case "zstd" -> new ZstdInputStream(in);
+            default -> in;
+        };
+    }
+}
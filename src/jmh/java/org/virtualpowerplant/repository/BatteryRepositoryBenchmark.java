@@ -0,0 +1,147 @@
+package org.virtualpowerplant.repository;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.utility.DockerImageName;
+import org.virtualpowerplant.config.IdGenerationConfig;
+import org.virtualpowerplant.config.IdGenerationProperties;
+import org.virtualpowerplant.entity.Battery;
+import org.virtualpowerplant.model.BatteryAggregate;
+import org.virtualpowerplant.model.BatteryRangeStatistics;
+import org.virtualpowerplant.model.BatterySearchCriteria;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link BatteryRepository#filter(BatterySearchCriteria)} against a PostgreSQL container, next to the
+ * scalar aggregate query that replaced it on the statistics path, and {@value #TILES} map tiles queried one
+ * by one against {@link BatteryJdbcRepository#rangeStatistics(List)}. Requires Docker.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class BatteryRepositoryBenchmark {
+    private static final int TILES = 200;
+
+    @Param({"10000", "100000"})
+    private int batteries;
+
+    private PostgreSQLContainer<?> postgres;
+    private ConfigurableApplicationContext context;
+    private BatteryRepository repository;
+    private BatteryJdbcRepository jdbcRepository;
+    private List<BatterySearchCriteria> tiles;
+
+    private final BatterySearchCriteria criteria = BatterySearchCriteria.builder()
+                                                                        .startPostcode(6000)
+                                                                        .endPostcode(6999)
+                                                                        .minCapacity(10_000.0)
+                                                                        .maxCapacity(50_000.0)
+                                                                        .build();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        postgres = new PostgreSQLContainer<>(DockerImageName.parse("postgres:latest"));
+        postgres.start();
+
+        context = new SpringApplicationBuilder(RepositoryBenchmarkConfiguration.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=" + postgres.getJdbcUrl(),
+                        "spring.datasource.username=" + postgres.getUsername(),
+                        "spring.datasource.password=" + postgres.getPassword(),
+                        "spring.jpa.hibernate.ddl-auto=update",
+                        "logging.level.root=WARN")
+                .run();
+        repository = context.getBean(BatteryRepository.class);
+        jdbcRepository = context.getBean(BatteryJdbcRepository.class);
+        tiles = new ArrayList<>(TILES);
+        for (int i = 0; i < TILES; i++) {
+            tiles.add(BatterySearchCriteria.builder().startPostcode(i * 50).endPostcode(i * 50 + 49).build());
+        }
+        seed(context.getBean(JdbcTemplate.class));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+        postgres.stop();
+    }
+
+    @Benchmark
+    public List<Battery> filter() {
+        return repository.filter(criteria);
+    }
+
+    @Benchmark
+    public BatteryAggregate aggregate() {
+        return repository.aggregate(BatterySpecifications.matching(criteria));
+    }
+
+    @Benchmark
+    public List<String> findNames() {
+        return repository.findNames(BatterySpecifications.matching(criteria));
+    }
+
+    @Benchmark
+    public int tilesOneByOne() {
+        var names = 0;
+        for (var tile : tiles) {
+            var spec = BatterySpecifications.matching(tile);
+            repository.aggregate(spec);
+            names += repository.findNames(spec).size();
+        }
+        return names;
+    }
+
+    @Benchmark
+    public List<BatteryRangeStatistics> tilesInOneQuery() {
+        return jdbcRepository.rangeStatistics(tiles);
+    }
+
+    private void seed(JdbcTemplate jdbcTemplate) {
+        var random = new SplittableRandom(42);
+        var rows = new ArrayList<Object[]>(batteries);
+        for (int i = 0; i < batteries; i++) {
+            rows.add(new Object[]{UUID.randomUUID(), "Battery " + i, random.nextInt(0, 10_000),
+                    (double) random.nextInt(5_000, 100_000)});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO battery (id, name, postcode, watt_capacity) VALUES (?, ?, ?, ?)", rows);
+        jdbcTemplate.execute("ANALYZE battery");
+    }
+
+    /**
+     * Wires the repositories as the application does, so they pick up new dependencies without changes here.
+     */
+    @SpringBootConfiguration
+    @EnableAutoConfiguration
+    @EntityScan(basePackageClasses = Battery.class)
+    @EnableJpaRepositories(basePackageClasses = BatteryRepository.class)
+    @EnableConfigurationProperties(IdGenerationProperties.class)
+    @Import({IdGenerationConfig.class, BatteryJdbcRepository.class})
+    static class RepositoryBenchmarkConfiguration {
+    }
+}
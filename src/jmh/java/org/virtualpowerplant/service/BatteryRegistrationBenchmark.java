@@ -0,0 +1,71 @@
+package org.virtualpowerplant.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.virtualpowerplant.entity.Battery;
+import org.virtualpowerplant.mapper.BatteryMapper;
+import org.virtualpowerplant.model.BatteryRequestDto;
+import org.virtualpowerplant.model.BatteryResponseDto;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * The mapping work {@link BatteryService#registerBatteries(List)} does around {@code saveAll}, comparing the
+ * sequential streams it uses now with the parallel streams it used before.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BatteryRegistrationBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    private int batchSize;
+
+    private final BatteryMapper mapper = BatteryMapper.INSTANCE;
+    private List<BatteryRequestDto> requests;
+    private List<Battery> saved;
+
+    @Setup
+    public void setUp() {
+        requests = IntStream.range(0, batchSize)
+                            .mapToObj(i -> BatteryRequestDto.builder()
+                                                            .name("Battery " + i)
+                                                            .postcode(6000 + i % 1000)
+                                                            .wattCapacity(13500.0)
+                                                            .build())
+                            .toList();
+        saved = requests.stream()
+                        .map(mapper::toEntity)
+                        .peek(battery -> battery.setId(UUID.randomUUID()))
+                        .toList();
+    }
+
+    @Benchmark
+    public List<Battery> sequentialToEntity() {
+        return requests.stream().map(mapper::toEntity).toList();
+    }
+
+    @Benchmark
+    public List<Battery> parallelToEntity() {
+        return requests.parallelStream().map(mapper::toEntity).toList();
+    }
+
+    @Benchmark
+    public List<BatteryResponseDto> sequentialToResponse() {
+        return saved.stream().map(mapper::toResponse).toList();
+    }
+
+    @Benchmark
+    public List<BatteryResponseDto> parallelToResponse() {
+        return saved.parallelStream().map(mapper::toResponse).toList();
+    }
+}
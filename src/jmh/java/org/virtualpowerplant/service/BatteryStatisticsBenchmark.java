@@ -0,0 +1,114 @@
+package org.virtualpowerplant.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.virtualpowerplant.entity.Battery;
+import org.virtualpowerplant.model.BatteryAggregate;
+import org.virtualpowerplant.model.BatterySearchCriteria;
+import org.virtualpowerplant.model.BatteryStatisticsDto;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Statistics over a tenth of the postcode space at several fleet sizes: the original approach of summing
+ * loaded entities in Java against the aggregate and names that
+ * {@link BatteryService#getBatteryStatistics(BatterySearchCriteria)} asks of its
+ * {@link BatteryStatisticsSource}, here the in-memory {@link TieredCapacityIndex} as loaded at startup. The
+ * source is benchmarked directly rather than through the service, so the service's other collaborators
+ * need not be wired.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BatteryStatisticsBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    private int batteries;
+
+    private List<Battery> entities;
+    private BatteryStatisticsSource source;
+    private BatteryCapacityIndex index;
+    private final BatterySearchCriteria range = BatterySearchCriteria.builder()
+                                                                     .startPostcode(6000)
+                                                                     .endPostcode(6999)
+                                                                     .build();
+    private final BatterySearchCriteria rangeWithCapacity = BatterySearchCriteria.builder()
+                                                                                 .startPostcode(6000)
+                                                                                 .endPostcode(6999)
+                                                                                 .minCapacity(10_000.0)
+                                                                                 .maxCapacity(50_000.0)
+                                                                                 .build();
+
+    @Setup
+    public void setUp() {
+        var random = new SplittableRandom(42);
+        var builder = new BatteryCapacityIndex.Builder(batteries);
+        entities = new ArrayList<>(batteries);
+        for (int i = 0; i < batteries; i++) {
+            var name = "Battery " + i;
+            var postcode = random.nextInt(0, 10_000);
+            var capacity = (double) random.nextInt(5_000, 100_000);
+            builder.add(name, postcode, capacity);
+            entities.add(Battery.builder().name(name).postcode(postcode).wattCapacity(capacity).build());
+        }
+        index = builder.build();
+        source = new IndexSource(TieredCapacityIndex.of(index));
+    }
+
+    @Benchmark
+    public BatteryStatisticsDto entitySum() {
+        var matching = entities.stream()
+                               .filter(battery -> range.matches(battery.tenantIdOrDefault(), battery.getPostcode(), battery.getWattCapacity()))
+                               .sorted(Comparator.comparing(Battery::getName, String.CASE_INSENSITIVE_ORDER))
+                               .toList();
+        var total = matching.stream().mapToDouble(Battery::getWattCapacity).sum();
+        return BatteryStatisticsDto.builder()
+                                   .batteryNames(matching.stream().map(Battery::getName).toList())
+                                   .totalWattCapacity(total)
+                                   .averageWattCapacity(matching.isEmpty() ? 0 : total / matching.size())
+                                   .build();
+    }
+
+    @Benchmark
+    public BatteryStatisticsDto sourceStatistics() {
+        var aggregate = source.aggregate(range);
+        return BatteryStatisticsDto.builder()
+                                   .batteryNames(source.findNames(range))
+                                   .totalWattCapacity(aggregate.totalWattCapacity())
+                                   .averageWattCapacity(aggregate.averageWattCapacity())
+                                   .build();
+    }
+
+    @Benchmark
+    public BatteryAggregate indexAggregatePostcodeRange() {
+        return index.aggregate(range);
+    }
+
+    @Benchmark
+    public BatteryAggregate indexAggregatePostcodeAndCapacityRange() {
+        return index.aggregate(rangeWithCapacity);
+    }
+
+    private record IndexSource(TieredCapacityIndex index) implements BatteryStatisticsSource {
+
+        @Override
+        public BatteryAggregate aggregate(BatterySearchCriteria criteria) {
+            return index.aggregate(criteria);
+        }
+
+        @Override
+        public List<String> findNames(BatterySearchCriteria criteria) {
+            return index.findNames(criteria);
+        }
+    }
+}
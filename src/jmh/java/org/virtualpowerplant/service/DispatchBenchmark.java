@@ -0,0 +1,88 @@
+package org.virtualpowerplant.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.virtualpowerplant.config.DispatchProperties;
+import org.virtualpowerplant.config.StartupProperties;
+import org.virtualpowerplant.entity.Battery;
+import org.virtualpowerplant.event.BatteriesRegisteredEvent;
+import org.virtualpowerplant.model.DispatchRequestDto;
+import org.virtualpowerplant.model.DispatchResultDto;
+
+import java.util.ArrayList;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Dispatch allocation at fleet sizes up to a million reporting batteries: the allocator alone on
+ * prepared candidates, and the full service call that also collects candidates from the
+ * {@link FleetAggregateEngine} and builds the response. The target is set so roughly half of the
+ * eligible batteries are needed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class DispatchBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    private int batteries;
+
+    private DispatchAllocator allocator;
+    private DispatchService service;
+    private DispatchRequestDto request;
+    private double target;
+
+    @Setup
+    public void setUp() {
+        var random = new SplittableRandom(42);
+        var engine = new FleetAggregateEngine(null, new StartupProperties(true));
+        var registered = new ArrayList<Battery>(batteries);
+        for (int i = 0; i < batteries; i++) {
+            var battery = Battery.builder()
+                                 .name("Battery " + i)
+                                 .postcode(random.nextInt(6000, 7000))
+                                 .wattCapacity((double) random.nextInt(5_000, 20_000))
+                                 .build();
+            battery.setId(UUID.randomUUID());
+            registered.add(battery);
+        }
+        engine.onBatteriesRegistered(new BatteriesRegisteredEvent(registered));
+
+        allocator = new DispatchAllocator(batteries);
+        double total = 0;
+        for (Battery battery : registered) {
+            var id = battery.getId();
+            var stateOfCharge = random.nextDouble(0, 100);
+            engine.record(id.getMostSignificantBits(), id.getLeastSignificantBits(), 1, stateOfCharge, 0);
+            var maxPower = battery.getWattCapacity() * stateOfCharge / 100 / 0.25;
+            allocator.add(id.getMostSignificantBits(), id.getLeastSignificantBits(), maxPower, stateOfCharge);
+            total += maxPower;
+        }
+        target = total / 2;
+
+        service = new DispatchService(engine, new DispatchProperties(0));
+        request = DispatchRequestDto.builder()
+                                    .targetWatts(target)
+                                    .startPostcode(6000)
+                                    .endPostcode(6999)
+                                    .durationMinutes(15)
+                                    .build();
+    }
+
+    @Benchmark
+    public double allocate() {
+        return allocator.allocate(target);
+    }
+
+    @Benchmark
+    public DispatchResultDto dispatch() {
+        return service.dispatch(request);
+    }
+}
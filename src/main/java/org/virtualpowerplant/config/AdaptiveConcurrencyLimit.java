@@ -0,0 +1,124 @@
+package org.virtualpowerplant.config;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrency limit that adapts to observed latency in the style of TCP Vegas. The shortest latency seen
+ * is taken as the cost of a request with nothing queued in front of it; from the latency of each completed
+ * request the limit estimates how many requests are queueing, grows while that queue is small and shrinks
+ * once it builds up, so the lane settles near the concurrency the database can actually serve. A failed
+ * request backs the limit off multiplicatively.
+ * <p>
+ * While fewer than half of the slots are in use, latency says little about capacity and the limit is left
+ * alone. Every {@code probeInterval} samples the no-load latency is re-measured.
+ */
+final class AdaptiveConcurrencyLimit {
+    private static final double BACKOFF = 0.9;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final int probeInterval;
+    private final AtomicInteger inflight = new AtomicInteger();
+    private volatile int limit;
+    private volatile long smoothedRttNanos;
+    private double estimatedLimit;
+    private long noLoadRttNanos;
+    private int samplesUntilProbe;
+
+    AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, int probeInterval) {
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.probeInterval = Math.max(1, probeInterval);
+        this.estimatedLimit = Math.max(this.minLimit, Math.min(this.maxLimit, initialLimit));
+        this.limit = (int) estimatedLimit;
+        this.samplesUntilProbe = this.probeInterval;
+    }
+
+    int limit() {
+        return limit;
+    }
+
+    int minLimit() {
+        return minLimit;
+    }
+
+    int inflight() {
+        return inflight.get();
+    }
+
+    boolean isSaturated() {
+        return inflight.get() >= limit;
+    }
+
+    /**
+     * Typical latency of a completed request, used as the retry hint for rejected ones.
+     */
+    long smoothedRttNanos() {
+        return smoothedRttNanos;
+    }
+
+    /**
+     * Takes a slot if fewer than {@code ceiling} are in use.
+     */
+    boolean tryAcquire(int ceiling) {
+        while (true) {
+            var current = inflight.get();
+            if (current >= ceiling) {
+                return false;
+            }
+            if (inflight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Frees a slot without learning from the request, for requests whose latency says nothing about load.
+     */
+    void release() {
+        inflight.decrementAndGet();
+    }
+
+    /**
+     * Frees a slot and adapts the limit to the request's latency, or backs it off if the request failed.
+     */
+    void release(long rttNanos, boolean failed) {
+        var inflightBefore = inflight.getAndDecrement();
+        update(rttNanos, inflightBefore, failed);
+    }
+
+    private synchronized void update(long rttNanos, int inflightBefore, boolean failed) {
+        if (failed) {
+            setLimit(estimatedLimit * BACKOFF);
+            return;
+        }
+        smoothedRttNanos = smoothedRttNanos == 0 ? rttNanos : smoothedRttNanos + (rttNanos - smoothedRttNanos) / 8;
+        if (--samplesUntilProbe <= 0) {
+            samplesUntilProbe = probeInterval;
+            noLoadRttNanos = rttNanos;
+            return;
+        }
+        if (noLoadRttNanos == 0 || rttNanos < noLoadRttNanos) {
+            noLoadRttNanos = rttNanos;
+            return;
+        }
+        if (inflightBefore * 2 < estimatedLimit) {
+            return;
+        }
+
+        var queued = Math.ceil(estimatedLimit * (1 - (double) noLoadRttNanos / rttNanos));
+        var step = Math.max(1, Math.log10(estimatedLimit));
+        if (queued <= step) {
+            setLimit(estimatedLimit + 6 * step);
+        } else if (queued < 3 * step) {
+            setLimit(estimatedLimit + step);
+        } else if (queued > 6 * step) {
+            setLimit(estimatedLimit - step);
+        }
+    }
+
+    private void setLimit(double next) {
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit, next));
+        limit = (int) estimatedLimit;
+    }
+}
@@ -0,0 +1,92 @@
+package org.virtualpowerplant.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionException;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.DispatcherServlet;
+
+import java.sql.SQLException;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Admits requests to handlers marked {@link AdmissionLimited} through the {@link AdmissionLimiter}, and
+ * releases them once the response is complete. Only successful responses feed their latency back into the
+ * limit. Failures of the database, including timeouts, back it off; anything else releases without a
+ * sample, since a client able to trigger other errors at will could otherwise shrink the limit for
+ * everyone.
+ * <p>
+ * Streamed responses keep their slot until the stream has been written, as they hold a database cursor
+ * for as long, but their duration follows the size of the result rather than the load, so it is not
+ * sampled.
+ */
+@Component
+public class AdmissionInterceptor implements AsyncHandlerInterceptor {
+    static final String ADMISSION_ATTRIBUTE = AdmissionInterceptor.class.getName() + ".admission";
+
+    private final AdmissionLimiter admissionLimiter;
+
+    public AdmissionInterceptor(AdmissionLimiter admissionLimiter) {
+        this.admissionLimiter = admissionLimiter;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // The async dispatch that completes a streamed response is still covered by its original admission.
+        if (request.getAttribute(ADMISSION_ATTRIBUTE) != null || !(handler instanceof HandlerMethod method)) {
+            return true;
+        }
+        var limited = AnnotatedElementUtils.findMergedAnnotation(method.getMethod(), AdmissionLimited.class);
+        if (limited == null) {
+            limited = AnnotatedElementUtils.findMergedAnnotation(method.getBeanType(), AdmissionLimited.class);
+        }
+        if (limited == null) {
+            return true;
+        }
+        admissionLimiter.acquire(limited.value());
+        request.setAttribute(ADMISSION_ATTRIBUTE, new Admission(limited.value(), System.nanoTime(), true));
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getAttribute(ADMISSION_ATTRIBUTE) instanceof Admission admission) {
+            request.setAttribute(ADMISSION_ATTRIBUTE, new Admission(admission.lane(), admission.startNanos(), false));
+        }
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (!(request.getAttribute(ADMISSION_ATTRIBUTE) instanceof Admission admission)) {
+            return;
+        }
+        request.removeAttribute(ADMISSION_ATTRIBUTE);
+        var status = response.getStatus();
+        // Exceptions resolved by an exception handler are not passed in, but exposed as a request attribute.
+        var failure = ex != null ? ex : request.getAttribute(DispatcherServlet.EXCEPTION_ATTRIBUTE);
+        if (isDatabaseFailure(failure)) {
+            admissionLimiter.release(admission.lane(), 0, true);
+        } else if (status >= 400 || !admission.sampled()) {
+            admissionLimiter.release(admission.lane());
+        } else {
+            admissionLimiter.release(admission.lane(), System.nanoTime() - admission.startNanos(), false);
+        }
+    }
+
+    private static boolean isDatabaseFailure(Object failure) {
+        for (var cause = failure instanceof Throwable t ? t : null; cause != null; cause = cause.getCause()) {
+            if (cause instanceof DataAccessException || cause instanceof TransactionException
+                    || cause instanceof SQLException || cause instanceof TimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private record Admission(AdmissionLane lane, long startNanos, boolean sampled) {
+    }
+}
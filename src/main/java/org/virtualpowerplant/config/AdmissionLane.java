@@ -0,0 +1,16 @@
+package org.virtualpowerplant.config;
+
+/**
+ * Classes of battery API traffic that get their own adaptive concurrency limit, so a burst of one cannot
+ * take the database connections the other needs.
+ */
+public enum AdmissionLane {
+    /**
+     * Registrations, streamed ingest and bulk changes.
+     */
+    INGEST,
+    /**
+     * Statistics and distribution queries.
+     */
+    STATS
+}
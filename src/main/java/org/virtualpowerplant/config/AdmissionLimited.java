@@ -0,0 +1,16 @@
+package org.virtualpowerplant.config;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Puts a handler, or every handler of a controller, behind the {@link AdmissionLimiter} lane it names.
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface AdmissionLimited {
+
+    AdmissionLane value();
+}
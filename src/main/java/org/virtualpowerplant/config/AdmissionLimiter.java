@@ -0,0 +1,106 @@
+package org.virtualpowerplant.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.virtualpowerplant.exception.ThrottledException;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * One {@link AdaptiveConcurrencyLimit} per {@link AdmissionLane}. While a lane is at its limit, every lane
+ * of lower priority is held to its minimum, so a burst of ingest sheds itself rather than the control
+ * room's statistics queries it competes with for the database.
+ * <p>
+ * Each lane's limit and requests in flight are published as the {@code vpp.admission.limit} and
+ * {@code vpp.admission.inflight} gauges, and every decision is counted in {@code vpp.admission.requests},
+ * tagged by lane and outcome.
+ */
+@Component
+public class AdmissionLimiter {
+    static final String REQUESTS_METRIC = "vpp.admission.requests";
+
+    private final boolean enabled;
+    private final Map<AdmissionLane, AdaptiveConcurrencyLimit> limits = new EnumMap<>(AdmissionLane.class);
+    private final Map<AdmissionLane, Integer> priorities = new EnumMap<>(AdmissionLane.class);
+    private final MeterRegistry meterRegistry;
+
+    public AdmissionLimiter(AdmissionProperties properties, MeterRegistry meterRegistry) {
+        this.enabled = properties.enabled();
+        this.meterRegistry = meterRegistry;
+        for (AdmissionLane lane : AdmissionLane.values()) {
+            var laneProperties = switch (lane) {
+                case INGEST -> properties.ingest();
+                case STATS -> properties.stats();
+            };
+            var limit = new AdaptiveConcurrencyLimit(laneProperties.initialLimit(), laneProperties.minLimit(),
+                    laneProperties.maxLimit(), properties.probeInterval());
+            limits.put(lane, limit);
+            priorities.put(lane, laneProperties.priority());
+
+            var tag = lane.name().toLowerCase();
+            Gauge.builder("vpp.admission.limit", limit, AdaptiveConcurrencyLimit::limit)
+                 .tag("lane", tag)
+                 .register(meterRegistry);
+            Gauge.builder("vpp.admission.inflight", limit, AdaptiveConcurrencyLimit::inflight)
+                 .tag("lane", tag)
+                 .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Admits a request to the lane or rejects it with 503, suggesting a retry after the lane's typical
+     * latency. Every admitted request must be released exactly once.
+     */
+    public void acquire(AdmissionLane lane) {
+        if (!enabled) {
+            return;
+        }
+        var limit = limits.get(lane);
+        if (!limit.tryAcquire(ceiling(lane))) {
+            count(lane, "rejected");
+            throw new ThrottledException(HttpStatus.SERVICE_UNAVAILABLE,
+                    "Too many concurrent " + lane.name().toLowerCase() + " requests",
+                    Duration.ofNanos(limit.smoothedRttNanos()));
+        }
+        count(lane, "admitted");
+    }
+
+    /**
+     * Releases a request that completed, adapting the lane's limit to its latency; a failed request backs
+     * the limit off instead.
+     */
+    public void release(AdmissionLane lane, long rttNanos, boolean failed) {
+        if (enabled) {
+            limits.get(lane).release(rttNanos, failed);
+        }
+    }
+
+    /**
+     * Releases a request whose latency says nothing about the lane's load, such as one rejected by
+     * validation or handed off to an async response.
+     */
+    public void release(AdmissionLane lane) {
+        if (enabled) {
+            limits.get(lane).release();
+        }
+    }
+
+    private int ceiling(AdmissionLane lane) {
+        var limit = limits.get(lane);
+        var priority = priorities.get(lane);
+        for (var other : limits.entrySet()) {
+            if (priorities.get(other.getKey()) > priority && other.getValue().isSaturated()) {
+                return limit.minLimit();
+            }
+        }
+        return limit.limit();
+    }
+
+    private void count(AdmissionLane lane, String outcome) {
+        meterRegistry.counter(REQUESTS_METRIC, "lane", lane.name().toLowerCase(), "outcome", outcome).increment();
+    }
+}
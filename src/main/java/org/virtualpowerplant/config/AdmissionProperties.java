@@ -0,0 +1,37 @@
+package org.virtualpowerplant.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Adaptive concurrency limits of the battery API lanes.
+ *
+ * @param enabled       whether requests are limited at all
+ * @param probeInterval samples after which a lane re-measures its no-load latency, so the baseline follows
+ *                      slow drift such as a growing table
+ * @param ingest        limits of {@link AdmissionLane#INGEST}
+ * @param stats         limits of {@link AdmissionLane#STATS}
+ */
+@ConfigurationProperties(prefix = "vpp.admission")
+public record AdmissionProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("1000") int probeInterval,
+        @DefaultValue Lane ingest,
+        @DefaultValue Lane stats
+) {
+
+    /**
+     * @param initialLimit concurrent requests admitted before any latency has been observed
+     * @param minLimit     floor the limit never shrinks below, and the most a lane may run while a lane of
+     *                     higher priority is at its limit
+     * @param maxLimit     ceiling the limit never grows above
+     * @param priority     lanes with a higher value keep their full limit when the database is contended
+     */
+    public record Lane(
+            @DefaultValue("20") int initialLimit,
+            @DefaultValue("4") int minLimit,
+            @DefaultValue("200") int maxLimit,
+            @DefaultValue("0") int priority
+    ) {
+    }
+}
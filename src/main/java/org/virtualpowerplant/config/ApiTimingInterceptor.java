@@ -1,31 +1,87 @@
 package org.virtualpowerplant.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.DispatcherType;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
 
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records every handled request into a per-route {@link Timer} tagged with method, URI template and
+ * status, publishing a percentile histogram for the Prometheus scrape. Requests per tenant are counted by
+ * {@link TenantInterceptor} instead, as a histogram per tenant would be too many series. Logging is opt-in: a sampled
+ * fraction of requests, plus anything slower than the configured threshold.
+ */
 @Component
 public class ApiTimingInterceptor implements HandlerInterceptor {
-    private static final String START_TIME = "startTime";
+    static final String METRIC_NAME = "vpp.api.requests";
+    static final String START_NANOS = ApiTimingInterceptor.class.getName() + ".startNanos";
+    private static final String UNKNOWN_URI = "UNKNOWN";
     private static final Logger logger = LoggerFactory.getLogger(ApiTimingInterceptor.class);
 
+    private final MeterRegistry meterRegistry;
+    private final double logSampleRate;
+    private final long slowRequestNanos;
+    private final ConcurrentMap<TimerKey, Timer> timers = new ConcurrentHashMap<>();
+
+    public ApiTimingInterceptor(MeterRegistry meterRegistry, ApiTimingProperties properties) {
+        this.meterRegistry = meterRegistry;
+        this.logSampleRate = properties.logSampleRate();
+        this.slowRequestNanos = properties.slowRequestThreshold().toNanos();
+    }
+
     @Override
     public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
-        request.setAttribute(START_TIME, System.currentTimeMillis());
+        // The async dispatch that completes a streamed response keeps the start of the original request.
+        if (request.getDispatcherType() != DispatcherType.ASYNC) {
+            request.setAttribute(START_NANOS, System.nanoTime());
+        }
         return true;
     }
 
     @Override
     public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
-        var startTime = (Long) request.getAttribute(START_TIME);
-        if (startTime != null) {
-            var duration = System.currentTimeMillis() - startTime;
-            var method = request.getMethod();
-            var uri = request.getRequestURI();
-            logger.info("{} {} took {} ms", method, uri, duration);
+        if (!(request.getAttribute(START_NANOS) instanceof Long startNanos)) {
+            return;
+        }
+        var durationNanos = System.nanoTime() - startNanos;
+        var uri = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE) instanceof String pattern
+                ? pattern
+                : UNKNOWN_URI;
+        var key = new TimerKey(request.getMethod(), uri, response.getStatus());
+        timers.computeIfAbsent(key, this::register).record(durationNanos, TimeUnit.NANOSECONDS);
+
+        if (shouldLog(durationNanos)) {
+            logger.info("{} {} {} took {} ms", key.method(), request.getRequestURI(), key.status(),
+                    TimeUnit.NANOSECONDS.toMillis(durationNanos));
         }
     }
-}
\ No newline at end of file
+
+    private boolean shouldLog(long durationNanos) {
+        return (slowRequestNanos > 0 && durationNanos >= slowRequestNanos)
+                || (logSampleRate > 0 && ThreadLocalRandom.current().nextDouble() < logSampleRate);
+    }
+
+    private Timer register(TimerKey key) {
+        return Timer.builder(METRIC_NAME)
+                    .description("Latency of battery API requests")
+                    .tag("method", key.method())
+                    .tag("uri", key.uri())
+                    .tag("status", Integer.toString(key.status()))
+                    .publishPercentileHistogram()
+                    .register(meterRegistry);
+    }
+
+    private record TimerKey(String method, String uri, int status) {
+    }
+}
@@ -0,0 +1,17 @@
+package org.virtualpowerplant.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * @param logSampleRate        fraction of requests, between 0 and 1, that also get an INFO log line
+ * @param slowRequestThreshold requests slower than this are always logged; zero disables it
+ */
+@ConfigurationProperties(prefix = "vpp.api.timing")
+public record ApiTimingProperties(
+        @DefaultValue("0") double logSampleRate,
+        @DefaultValue("0s") Duration slowRequestThreshold
+) {
+}
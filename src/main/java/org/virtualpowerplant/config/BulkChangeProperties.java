@@ -0,0 +1,17 @@
+package org.virtualpowerplant.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Limits for bulk capacity updates and decommissions.
+ *
+ * @param chunkSize number of batteries changed per statement and transaction
+ * @param maxIds    upper bound on the ids one request may list, or its filter may match
+ */
+@ConfigurationProperties(prefix = "vpp.bulk")
+public record BulkChangeProperties(
+        @DefaultValue("5000") int chunkSize,
+        @DefaultValue("100000") int maxIds
+) {
+}
@@ -0,0 +1,24 @@
+package org.virtualpowerplant.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * @param maxBatchSize        most outbox events returned by one poll or pushed in one SSE burst
+ * @param maxWait             upper bound on how long a long-poll waits for new events
+ * @param recheckInterval     how often waiting consumers re-read the outbox, which picks up commits made
+ *                            by other instances
+ * @param retention           how long outbox events are kept for consumers to catch up
+ * @param subscriptionTimeout how long an SSE subscription is kept open
+ */
+@ConfigurationProperties(prefix = "vpp.changes")
+public record ChangeFeedProperties(
+        @DefaultValue("1000") int maxBatchSize,
+        @DefaultValue("30s") Duration maxWait,
+        @DefaultValue("1s") Duration recheckInterval,
+        @DefaultValue("7d") Duration retention,
+        @DefaultValue("30m") Duration subscriptionTimeout
+) {
+}
@@ -0,0 +1,13 @@
+package org.virtualpowerplant.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * @param reserveStateOfCharge state of charge, in percent, that dispatch never draws a battery below
+ */
+@ConfigurationProperties(prefix = "vpp.dispatch")
+public record DispatchProperties(
+        @DefaultValue("10") double reserveStateOfCharge
+) {
+}
@@ -0,0 +1,17 @@
+package org.virtualpowerplant.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.virtualpowerplant.entity.EntityIdGenerator;
+import org.virtualpowerplant.entity.EntityIds;
+
+@Configuration
+public class IdGenerationConfig {
+
+    @Bean
+    public EntityIdGenerator entityIdGenerator(IdGenerationProperties properties) {
+        var generator = properties.strategy().generator();
+        EntityIds.use(generator);
+        return generator;
+    }
+}
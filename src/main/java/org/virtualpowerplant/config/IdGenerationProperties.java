@@ -0,0 +1,33 @@
+package org.virtualpowerplant.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.virtualpowerplant.entity.EntityIdGenerator;
+import org.virtualpowerplant.entity.UuidV7Generator;
+
+import java.util.UUID;
+
+/**
+ * @param strategy how primary keys are generated: {@code uuid-v7} (time-ordered, default) or
+ *                 {@code uuid-v4} (random)
+ */
+@ConfigurationProperties(prefix = "vpp.id")
+public record IdGenerationProperties(@DefaultValue("uuid-v7") Strategy strategy) {
+
+    public enum Strategy {
+        UUID_V7 {
+            @Override
+            EntityIdGenerator generator() {
+                return new UuidV7Generator();
+            }
+        },
+        UUID_V4 {
+            @Override
+            EntityIdGenerator generator() {
+                return UUID::randomUUID;
+            }
+        };
+
+        abstract EntityIdGenerator generator();
+    }
+}
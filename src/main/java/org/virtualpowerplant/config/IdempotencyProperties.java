@@ -0,0 +1,17 @@
+package org.virtualpowerplant.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * @param retention     how long an {@code Idempotency-Key} and its response are kept for replay
+ * @param purgeInterval how often keys older than {@code retention} are deleted
+ */
+@ConfigurationProperties(prefix = "vpp.idempotency")
+public record IdempotencyProperties(
+        @DefaultValue("24h") Duration retention,
+        @DefaultValue("1m") Duration purgeInterval
+) {
+}
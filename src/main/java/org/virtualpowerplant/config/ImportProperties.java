@@ -0,0 +1,39 @@
+package org.virtualpowerplant.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Tuning for asynchronous battery import jobs.
+ *
+ * @param directory          where uploads are spooled until their job completes; must survive a restart
+ *                           for unfinished jobs to resume, which a directory under the system temporary
+ *                           directory may not
+ * @param maxUploadSize      largest upload accepted; a larger one is rejected with 413 and its partial spool
+ *                           file deleted
+ * @param chunkSize          validated batteries written per transaction; fixed per job when it is submitted
+ * @param maxParallelWriters chunks of one job being written at the same time; the parser blocks once this
+ *                           many are in flight
+ * @param maxConcurrentJobs  jobs parsed at the same time; further jobs stay queued
+ * @param progressInterval   how often parse progress is saved and pushed to SSE subscribers
+ * @param subscriptionTimeout how long an SSE progress subscription is kept open
+ * @param instanceId         identifies this instance as the owner of the jobs it accepts, since only it has
+ *                           their uploads; must stay the same across restarts for jobs to resume, and
+ *                           defaults to the host name
+ */
+@ConfigurationProperties(prefix = "vpp.imports")
+public record ImportProperties(
+        Path directory,
+        @DefaultValue("1GB") DataSize maxUploadSize,
+        @DefaultValue("1000") int chunkSize,
+        @DefaultValue("4") int maxParallelWriters,
+        @DefaultValue("2") int maxConcurrentJobs,
+        @DefaultValue("500ms") Duration progressInterval,
+        @DefaultValue("30m") Duration subscriptionTimeout,
+        String instanceId
+) {
+}
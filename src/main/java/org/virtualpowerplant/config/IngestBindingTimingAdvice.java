@@ -0,0 +1,50 @@
+package org.virtualpowerplant.config;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.RequestBodyAdviceAdapter;
+import org.virtualpowerplant.controller.BatteryController;
+import org.virtualpowerplant.service.IngestMetrics;
+
+import java.lang.reflect.Type;
+
+/**
+ * Times JSON binding of battery registration bodies, which happens before the controller is invoked. Only
+ * handlers marked {@link TimedIngestBinding} are timed, so the other bodies of the controller do not count
+ * as ingest.
+ */
+@ControllerAdvice(assignableTypes = BatteryController.class)
+@RequiredArgsConstructor
+public class IngestBindingTimingAdvice extends RequestBodyAdviceAdapter {
+    private static final ThreadLocal<Long> BIND_STARTED_NANOS = new ThreadLocal<>();
+    private final IngestMetrics ingestMetrics;
+
+    @Override
+    public boolean supports(MethodParameter methodParameter, Type targetType,
+                            Class<? extends HttpMessageConverter<?>> converterType) {
+        return methodParameter.hasMethodAnnotation(TimedIngestBinding.class);
+    }
+
+    @Override
+    public HttpInputMessage beforeBodyRead(HttpInputMessage inputMessage, MethodParameter parameter, Type targetType,
+                                           Class<? extends HttpMessageConverter<?>> converterType) {
+        BIND_STARTED_NANOS.set(System.nanoTime());
+        return inputMessage;
+    }
+
+    @Override
+    public Object afterBodyRead(Object body, HttpInputMessage inputMessage, MethodParameter parameter, Type targetType,
+                                Class<? extends HttpMessageConverter<?>> converterType) {
+        var started = BIND_STARTED_NANOS.get();
+        BIND_STARTED_NANOS.remove();
+        if (started != null) {
+            var completed = System.nanoTime();
+            ingestMetrics.record(IngestMetrics.Path.BATCH, IngestMetrics.Stage.BIND, completed - started);
+            ingestMetrics.bindCompleted(completed);
+        }
+        return body;
+    }
+}
@@ -0,0 +1,17 @@
+package org.virtualpowerplant.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Tuning for the streaming battery ingest pipeline.
+ *
+ * @param chunkSize         number of validated batteries written per JDBC batch and transaction
+ * @param maxReportedErrors upper bound on validation errors echoed back to the client
+ */
+@ConfigurationProperties(prefix = "vpp.ingest")
+public record IngestProperties(
+        @DefaultValue("1000") int chunkSize,
+        @DefaultValue("100") int maxReportedErrors
+) {
+}
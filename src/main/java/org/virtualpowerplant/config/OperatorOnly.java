@@ -0,0 +1,15 @@
+package org.virtualpowerplant.config;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Restricts a handler, or every handler of a controller, to the operator tenant configured in
+ * {@code vpp.tenants.operator}, for endpoints that see or act on every tenant's batteries.
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface OperatorOnly {
+}
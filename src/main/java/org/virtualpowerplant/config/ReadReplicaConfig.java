@@ -0,0 +1,66 @@
+package org.virtualpowerplant.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.jdbc.JdbcConnectionDetails;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Replaces the auto-configured datasource when at least one read replica is configured. The application
+ * datasource becomes a {@link LazyConnectionDataSourceProxy} that defers choosing a physical connection
+ * until the transaction's read-only flag is known: read-only transactions (the statistics paths) go to
+ * the {@link ReplicaRoutingDataSource}, everything else to the primary pool.
+ * <p>
+ * Reads may trail writes by up to {@code vpp.datasource.max-replica-lag}.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "vpp.datasource.replicas[0]", name = "url")
+public class ReadReplicaConfig {
+
+    @Bean
+    @ConfigurationProperties(prefix = "spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties,
+                                              ObjectProvider<JdbcConnectionDetails> connectionDetails) {
+        var details = connectionDetails.getIfAvailable();
+        var builder = DataSourceBuilder.create(properties.getClassLoader()).type(HikariDataSource.class);
+        if (details != null) {
+            builder.url(details.getJdbcUrl())
+                   .username(details.getUsername())
+                   .password(details.getPassword())
+                   .driverClassName(details.getDriverClassName());
+        } else {
+            builder.url(properties.determineUrl())
+                   .username(properties.determineUsername())
+                   .password(properties.determinePassword())
+                   .driverClassName(properties.determineDriverClassName());
+        }
+        var dataSource = builder.build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(HikariDataSource primaryDataSource,
+                                                             ReadReplicaProperties properties,
+                                                             MeterRegistry meterRegistry) {
+        return new ReplicaRoutingDataSource(primaryDataSource, properties, meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, ReplicaRoutingDataSource replicaRoutingDataSource) {
+        var dataSource = new LazyConnectionDataSourceProxy(primaryDataSource);
+        dataSource.setReadOnlyDataSource(replicaRoutingDataSource);
+        return dataSource;
+    }
+}
@@ -0,0 +1,31 @@
+package org.virtualpowerplant.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Read replicas that serve read-only transactions. Without any replicas every query uses the primary
+ * {@code spring.datasource}.
+ *
+ * @param replicas            replica connection settings
+ * @param maxReplicaLag       a replica further behind the primary than this is skipped until it catches up
+ * @param healthCheckInterval how often each replica's reachability and replay lag are probed
+ */
+@ConfigurationProperties(prefix = "vpp.datasource")
+public record ReadReplicaProperties(
+        @DefaultValue List<Replica> replicas,
+        @DefaultValue("5s") Duration maxReplicaLag,
+        @DefaultValue("5s") Duration healthCheckInterval
+) {
+
+    public record Replica(
+            String url,
+            String username,
+            String password,
+            @DefaultValue("10") int maximumPoolSize
+    ) {
+    }
+}
@@ -0,0 +1,17 @@
+package org.virtualpowerplant.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.core.io.Resource;
+
+/**
+ * @param file       CSV of {@code postcode,feeder,substation,latitude,longitude} rows with a header line;
+ *                   without it no regions are defined
+ * @param cellSizeKm edge length of the grid cells used for radius queries
+ */
+@ConfigurationProperties(prefix = "vpp.regions")
+public record RegionProperties(
+        Resource file,
+        @DefaultValue("5") double cellSizeKm
+) {
+}
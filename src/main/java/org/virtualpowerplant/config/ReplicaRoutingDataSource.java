@@ -0,0 +1,161 @@
+package org.virtualpowerplant.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hands out connections from a round-robin over healthy read replicas, falling back to the primary when
+ * none is usable. A background probe marks a replica unhealthy when it cannot be reached or its replay
+ * lag exceeds the configured tolerance; a replica that fails to hand out a connection is marked
+ * unhealthy straight away. Replicas start out unhealthy, so reads stay on the primary until the first
+ * probe succeeds.
+ * <p>
+ * Lag is measured as the age of the last replayed transaction, but only while the replica has WAL it
+ * has not replayed yet, so an idle primary does not make a caught-up replica look stale.
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource implements InitializingBean, DisposableBean {
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+    private static final String LAG_SQL = """
+            SELECT CASE
+                WHEN NOT pg_is_in_recovery() THEN 0
+                WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0)
+            END
+            """;
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final Duration maxLag;
+    private final Duration checkInterval;
+    private final AtomicInteger next = new AtomicInteger();
+    private ScheduledExecutorService scheduler;
+
+    public ReplicaRoutingDataSource(DataSource primary, ReadReplicaProperties properties, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.maxLag = properties.maxReplicaLag();
+        this.checkInterval = properties.healthCheckInterval();
+        this.replicas = new ArrayList<>();
+        for (int i = 0; i < properties.replicas().size(); i++) {
+            var replica = new Replica("replica-" + i, createPool("replica-" + i, properties.replicas().get(i)));
+            Gauge.builder("vpp.datasource.replica.lag", replica, r -> r.lagSeconds)
+                 .tag("replica", replica.name)
+                 .baseUnit("seconds")
+                 .description("Replay lag of the read replica at the last health check")
+                 .register(meterRegistry);
+            Gauge.builder("vpp.datasource.replica.healthy", replica, r -> r.healthy ? 1 : 0)
+                 .tag("replica", replica.name)
+                 .description("Whether read-only transactions are currently routed to the replica")
+                 .register(meterRegistry);
+            replicas.add(replica);
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        var size = replicas.size();
+        var start = Math.floorMod(next.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            var replica = replicas.get((start + i) % size);
+            if (!replica.healthy) {
+                continue;
+            }
+            try {
+                return replica.pool.getConnection();
+            } catch (SQLException e) {
+                markUnhealthy(replica, e.getMessage());
+            }
+        }
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLException("Replica routing does not support per-call credentials");
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform()
+                                                                     .name("replica-health")
+                                                                     .daemon(true)
+                                                                     .factory());
+        scheduler.scheduleWithFixedDelay(this::checkReplicas, 0, checkInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void destroy() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+        replicas.forEach(replica -> replica.pool.close());
+    }
+
+    void checkReplicas() {
+        for (Replica replica : replicas) {
+            try (var connection = replica.pool.getConnection();
+                 var statement = connection.createStatement();
+                 var resultSet = statement.executeQuery(LAG_SQL)) {
+                resultSet.next();
+                replica.lagSeconds = resultSet.getDouble(1);
+                if (replica.lagSeconds * 1000 > maxLag.toMillis()) {
+                    markUnhealthy(replica, "replay lag of " + replica.lagSeconds + "s");
+                } else if (!replica.healthy) {
+                    replica.healthy = true;
+                    logger.info("Routing read-only transactions to {}", replica.name);
+                }
+            } catch (SQLException | RuntimeException e) {
+                markUnhealthy(replica, e.getMessage());
+            }
+        }
+    }
+
+    private void markUnhealthy(Replica replica, String reason) {
+        if (replica.healthy) {
+            replica.healthy = false;
+            logger.warn("Taking {} out of read rotation: {}", replica.name, reason);
+        }
+    }
+
+    private static HikariDataSource createPool(String name, ReadReplicaProperties.Replica replica) {
+        var pool = new HikariDataSource();
+        pool.setPoolName(name);
+        pool.setJdbcUrl(replica.url());
+        pool.setUsername(replica.username());
+        pool.setPassword(replica.password());
+        pool.setMaximumPoolSize(replica.maximumPoolSize());
+        pool.setReadOnly(true);
+        pool.setConnectionTimeout(2_000);
+        // Let the application start while a replica is down; the health probe brings it in later.
+        pool.setInitializationFailTimeout(-1);
+        return pool;
+    }
+
+    private static final class Replica {
+        private final String name;
+        private final HikariDataSource pool;
+        private volatile boolean healthy;
+        private volatile double lagSeconds;
+
+        Replica(String name, HikariDataSource pool) {
+            this.name = name;
+            this.pool = pool;
+        }
+    }
+}
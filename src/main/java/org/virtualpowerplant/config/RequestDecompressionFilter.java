@@ -0,0 +1,255 @@
+package org.virtualpowerplant.config;
+
+import com.github.luben.zstd.ZstdIOException;
+import com.github.luben.zstd.ZstdInputStream;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.virtualpowerplant.exception.InvalidRequestBodyException;
+
+import java.io.BufferedReader;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.Locale;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipException;
+
+/**
+ * Inflates request bodies sent with {@code Content-Encoding: gzip} or {@code zstd} before they reach the
+ * message converters, so every endpoint accepts compressed uploads without knowing about them. The body is
+ * inflated as it is read rather than up front; other encodings are rejected with 415, and a body whose
+ * gzip header is missing or corrupt with 400. A body that turns out to be corrupt further in, or inflates
+ * beyond its limit, fails the read with an {@link InvalidRequestBodyException} answered with 400 or 413.
+ * <p>
+ * Most endpoints bind the whole body into memory, so they are held to {@code max-inflated-size}; the
+ * endpoints listed in {@code streamed-paths} read it record by record and may inflate up to
+ * {@code max-streamed-inflated-size}.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class RequestDecompressionFilter extends OncePerRequestFilter {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final long maxInflatedBytes;
+    private final long maxStreamedInflatedBytes;
+    private final Set<String> streamedPaths;
+
+    public RequestDecompressionFilter(RequestDecompressionProperties properties) {
+        this.maxInflatedBytes = properties.maxInflatedSize().toBytes();
+        this.maxStreamedInflatedBytes = properties.maxStreamedInflatedSize().toBytes();
+        this.streamedPaths = Set.copyOf(properties.streamedPaths());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        var encoding = request.getHeader(HttpHeaders.CONTENT_ENCODING);
+        if (encoding == null || encoding.isBlank() || encoding.equalsIgnoreCase("identity")) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        InputStream inflated;
+        try {
+            inflated = switch (encoding.trim().toLowerCase(Locale.ROOT)) {
+                case "gzip", "x-gzip" -> new GZIPInputStream(request.getInputStream(), BUFFER_SIZE);
+                case "zstd" -> new ZstdInputStream(request.getInputStream());
+                default -> null;
+            };
+        } catch (ZipException | EOFException e) {
+            // GZIPInputStream reads the header straight away, so an empty or corrupt body fails here.
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Request body is not valid " + encoding);
+            return;
+        }
+        if (inflated == null) {
+            response.sendError(HttpServletResponse.SC_UNSUPPORTED_MEDIA_TYPE,
+                    "Unsupported Content-Encoding " + encoding + "; use gzip or zstd");
+            return;
+        }
+        var path = request.getRequestURI().substring(request.getContextPath().length());
+        var limit = streamedPaths.contains(path) ? maxStreamedInflatedBytes : maxInflatedBytes;
+        chain.doFilter(new InflatedRequest(request, new LimitedInputStream(inflated, encoding, limit)), response);
+    }
+
+    /**
+     * Hides the encoding and the compressed length from everything downstream.
+     */
+    private static final class InflatedRequest extends HttpServletRequestWrapper {
+        private final ServletInputStream body;
+        private BufferedReader reader;
+
+        InflatedRequest(HttpServletRequest request, InputStream inflated) {
+            super(request);
+            this.body = new InflatedServletInputStream(inflated);
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            return body;
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            if (reader == null) {
+                var encoding = getCharacterEncoding();
+                var charset = encoding == null ? StandardCharsets.UTF_8 : Charset.forName(encoding);
+                reader = new BufferedReader(new InputStreamReader(body, charset));
+            }
+            return reader;
+        }
+
+        @Override
+        public int getContentLength() {
+            return -1;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return -1;
+        }
+
+        @Override
+        public String getHeader(String name) {
+            return isHidden(name) ? null : super.getHeader(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaders(String name) {
+            return isHidden(name) ? Collections.emptyEnumeration() : super.getHeaders(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaderNames() {
+            var names = Collections.list(super.getHeaderNames());
+            names.removeIf(InflatedRequest::isHidden);
+            return Collections.enumeration(names);
+        }
+
+        private static boolean isHidden(String name) {
+            return HttpHeaders.CONTENT_ENCODING.equalsIgnoreCase(name) || HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name);
+        }
+    }
+
+    private static final class InflatedServletInputStream extends ServletInputStream {
+        private final InputStream delegate;
+        private boolean finished;
+
+        InflatedServletInputStream(InputStream delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public int read() throws IOException {
+            var b = delegate.read();
+            finished = b < 0;
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            var read = delegate.read(buffer, offset, length);
+            finished = read < 0;
+            return read;
+        }
+
+        @Override
+        public boolean isFinished() {
+            return finished;
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setReadListener(ReadListener readListener) {
+            throw new UnsupportedOperationException("Compressed request bodies are read blocking");
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+    }
+
+    /**
+     * Counts the inflated bytes and turns decoding failures into {@link InvalidRequestBodyException}s, so
+     * neither is mistaken for an I/O failure of the server.
+     */
+    private static final class LimitedInputStream extends InputStream {
+        private final InputStream delegate;
+        private final String encoding;
+        private final long limit;
+        private long count;
+
+        LimitedInputStream(InputStream delegate, String encoding, long limit) {
+            this.delegate = delegate;
+            this.encoding = encoding;
+            this.limit = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b;
+            try {
+                b = delegate.read();
+            } catch (ZipException | EOFException | ZstdIOException e) {
+                throw corrupt(e);
+            }
+            if (b >= 0) {
+                advance(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read;
+            try {
+                read = delegate.read(buffer, offset, length);
+            } catch (ZipException | EOFException | ZstdIOException e) {
+                throw corrupt(e);
+            }
+            if (read > 0) {
+                advance(read);
+            }
+            return read;
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+
+        private void advance(int bytes) {
+            count += bytes;
+            if (count > limit) {
+                throw new InvalidRequestBodyException(HttpStatus.PAYLOAD_TOO_LARGE,
+                        "Decompressed request body exceeds " + limit + " bytes", null);
+            }
+        }
+
+        private InvalidRequestBodyException corrupt(IOException cause) {
+            return new InvalidRequestBodyException(HttpStatus.BAD_REQUEST,
+                    "Request body is not valid " + encoding, cause);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package org.virtualpowerplant.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.util.List;
+
+/**
+ * @param maxInflatedSize         upper bound on a decompressed request body, so a small compressed upload
+ *                                cannot expand without limit; most bodies are bound into memory whole
+ * @param maxStreamedInflatedSize upper bound on a decompressed body sent to one of {@code streamedPaths}
+ * @param streamedPaths           endpoints that read their body record by record rather than binding it
+ *                                whole, and so may inflate up to {@code maxStreamedInflatedSize}
+ */
+@ConfigurationProperties(prefix = "vpp.http.decompression")
+public record RequestDecompressionProperties(
+        @DefaultValue("16MB") DataSize maxInflatedSize,
+        @DefaultValue("1GB") DataSize maxStreamedInflatedSize,
+        @DefaultValue({"/api/v1/batteries/stream", "/api/v1/batteries/imports"}) List<String> streamedPaths
+) {
+}
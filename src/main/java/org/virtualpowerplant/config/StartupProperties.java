@@ -0,0 +1,17 @@
+package org.virtualpowerplant.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * What the application does before it reports ready.
+ *
+ * @param preload whether the in-memory capacity index, capacity sketches and fleet aggregates are loaded
+ *                from the database at startup; turned off only for the class data sharing training run,
+ *                which starts without a database
+ */
+@ConfigurationProperties(prefix = "vpp.startup")
+public record StartupProperties(
+        @DefaultValue("true") boolean preload
+) {
+}
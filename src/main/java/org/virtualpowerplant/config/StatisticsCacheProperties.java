@@ -0,0 +1,19 @@
+package org.virtualpowerplant.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * @param enabled     whether statistics responses are cached at all
+ * @param maximumSize upper bound on cached criteria before least-recently-used entries are evicted
+ * @param ttl         how long an entry may be served after it was computed
+ */
+@ConfigurationProperties(prefix = "vpp.stats.cache")
+public record StatisticsCacheProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("1000") long maximumSize,
+        @DefaultValue("30s") Duration ttl
+) {
+}
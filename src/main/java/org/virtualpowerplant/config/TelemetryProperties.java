@@ -0,0 +1,22 @@
+package org.virtualpowerplant.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * @param chunkSize         readings buffered per COPY into the telemetry table
+ * @param maxAge            readings older than this are rejected, which also bounds how far back daily
+ *                          partitions are created
+ * @param maxClockSkew      how far in the future a reading may be stamped
+ * @param maxReportedErrors upper bound on rejected readings echoed back to the client
+ */
+@ConfigurationProperties(prefix = "vpp.telemetry")
+public record TelemetryProperties(
+        @DefaultValue("8192") int chunkSize,
+        @DefaultValue("7d") Duration maxAge,
+        @DefaultValue("5m") Duration maxClockSkew,
+        @DefaultValue("100") int maxReportedErrors
+) {
+}
@@ -0,0 +1,37 @@
+package org.virtualpowerplant.config;
+
+import org.virtualpowerplant.entity.Battery;
+
+import java.util.regex.Pattern;
+
+/**
+ * The tenant (retailer fleet) the current thread is acting for. Set per request by
+ * {@link TenantInterceptor} from the {@code X-Tenant-Id} header; code running outside a request, and
+ * requests without the header, act for {@link Battery#DEFAULT_TENANT}. Background work that outlives the
+ * request, such as import jobs, records the tenant when it is submitted instead of relying on this.
+ */
+public final class TenantContext {
+    public static final int MAX_TENANT_ID_LENGTH = 64;
+    private static final Pattern TENANT_ID = Pattern.compile("[A-Za-z0-9][A-Za-z0-9_.-]{0," + (MAX_TENANT_ID_LENGTH - 1) + "}");
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private TenantContext() {
+    }
+
+    public static String current() {
+        var tenantId = CURRENT.get();
+        return tenantId == null ? Battery.DEFAULT_TENANT : tenantId;
+    }
+
+    public static boolean isValid(String tenantId) {
+        return tenantId != null && TENANT_ID.matcher(tenantId).matches();
+    }
+
+    static void set(String tenantId) {
+        CURRENT.set(tenantId);
+    }
+
+    static void clear() {
+        CURRENT.remove();
+    }
+}
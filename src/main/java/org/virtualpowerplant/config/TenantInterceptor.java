@@ -0,0 +1,109 @@
+package org.virtualpowerplant.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.virtualpowerplant.entity.Battery;
+import org.virtualpowerplant.exception.BadRequestException;
+import org.virtualpowerplant.exception.ThrottledException;
+
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Resolves the tenant of each API request from {@code X-Tenant-Id}, applies its rate limit and binds it to
+ * {@link TenantContext} for the rest of the request. Requests without the header act for the default
+ * tenant, and handlers marked {@link OperatorOnly} are refused to every tenant but the operator. Every
+ * decision is counted in {@code vpp.tenant.requests}, tagged by tenant and outcome; without an
+ * allow-list the ids are chosen by clients, so tenants other than the default one are counted as
+ * {@code other}.
+ */
+@Component
+public class TenantInterceptor implements AsyncHandlerInterceptor {
+    public static final String TENANT_HEADER = "X-Tenant-Id";
+    static final String TENANT_ATTRIBUTE = TenantInterceptor.class.getName() + ".tenant";
+    static final String METRIC_NAME = "vpp.tenant.requests";
+    static final String OTHER_TENANT = "other";
+
+    private final TenantRateLimiter rateLimiter;
+    private final MeterRegistry meterRegistry;
+    private final Set<String> allowed;
+    private final String operator;
+
+    public TenantInterceptor(TenantRateLimiter rateLimiter, MeterRegistry meterRegistry, TenantProperties properties) {
+        this.rateLimiter = rateLimiter;
+        this.meterRegistry = meterRegistry;
+        this.allowed = Set.copyOf(properties.allowed());
+        this.operator = properties.operator();
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // The async dispatch that completes a streamed response was already resolved and rate limited.
+        if (request.getDispatcherType() == DispatcherType.ASYNC
+                && request.getAttribute(TENANT_ATTRIBUTE) instanceof String resolved) {
+            TenantContext.set(resolved);
+            return true;
+        }
+        var tenantId = resolve(request.getHeader(TENANT_HEADER));
+        request.setAttribute(TENANT_ATTRIBUTE, tenantId);
+        if (!operator.equals(tenantId) && isOperatorOnly(handler)) {
+            count(tenantId, "forbidden");
+            throw new BadRequestException(HttpStatus.FORBIDDEN,
+                    request.getRequestURI() + " is only available to the operator");
+        }
+
+        var waitNanos = rateLimiter.tryAcquire(tenantId);
+        if (waitNanos > 0) {
+            count(tenantId, "throttled");
+            var retryAfter = Duration.ofNanos(waitNanos);
+            throw new ThrottledException(HttpStatus.TOO_MANY_REQUESTS,
+                    "Rate limit exceeded for tenant " + tenantId, retryAfter);
+        }
+        count(tenantId, "allowed");
+        TenantContext.set(tenantId);
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        TenantContext.clear();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        TenantContext.clear();
+    }
+
+    private String resolve(String header) {
+        if (header == null || header.isBlank()) {
+            return TenantContext.current();
+        }
+        var tenantId = header.strip();
+        if (!TenantContext.isValid(tenantId)) {
+            throw new BadRequestException(TENANT_HEADER + " must be 1-" + TenantContext.MAX_TENANT_ID_LENGTH
+                    + " letters, digits, '.', '_' or '-'");
+        }
+        if (!allowed.isEmpty() && !allowed.contains(tenantId)) {
+            throw new BadRequestException(HttpStatus.FORBIDDEN, "Unknown tenant " + tenantId);
+        }
+        return tenantId;
+    }
+
+    private static boolean isOperatorOnly(Object handler) {
+        return handler instanceof HandlerMethod method
+                && (AnnotatedElementUtils.hasAnnotation(method.getMethod(), OperatorOnly.class)
+                || AnnotatedElementUtils.hasAnnotation(method.getBeanType(), OperatorOnly.class));
+    }
+
+    private void count(String tenantId, String outcome) {
+        var tag = allowed.isEmpty() && !Battery.DEFAULT_TENANT.equals(tenantId) ? OTHER_TENANT : tenantId;
+        meterRegistry.counter(METRIC_NAME, "tenant", tag, "outcome", outcome).increment();
+    }
+}
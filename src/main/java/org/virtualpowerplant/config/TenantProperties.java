@@ -0,0 +1,35 @@
+package org.virtualpowerplant.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @param allowed   tenant ids accepted in {@code X-Tenant-Id}; empty accepts any well-formed id. Required
+ *                  for rate limiting, and the only way to get per-tenant meters.
+ * @param rateLimit per-tenant request rate limit
+ * @param operator  the tenant that runs the virtual power plant; only it may use the endpoints marked
+ *                  {@link OperatorOnly}, which cover every tenant's batteries
+ */
+@ConfigurationProperties(prefix = "vpp.tenants")
+public record TenantProperties(
+        @DefaultValue List<String> allowed,
+        @DefaultValue RateLimit rateLimit,
+        @DefaultValue("default") String operator
+) {
+
+    /**
+     * @param requestsPerSecond sustained API requests per second per tenant; 0 disables rate limiting. Any
+     *                          other value requires {@code allowed}
+     * @param burst             requests a tenant may make at once before being throttled
+     * @param overrides         requests per second for specific tenants, replacing the default
+     */
+    public record RateLimit(
+            @DefaultValue("0") double requestsPerSecond,
+            @DefaultValue("50") int burst,
+            @DefaultValue Map<String, Double> overrides
+    ) {
+    }
+}
@@ -0,0 +1,66 @@
+package org.virtualpowerplant.config;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One token bucket per tenant, so a tenant that floods the API is throttled without touching the others'
+ * budgets. Buckets refill continuously at the tenant's rate up to the configured burst.
+ * <p>
+ * Rate limiting requires {@code vpp.tenants.allowed}: with any id accepted, a client could start every
+ * request under a new id with a full bucket, and the buckets would never be evicted.
+ */
+@Component
+public class TenantRateLimiter {
+    private final TenantProperties.RateLimit properties;
+    private final ConcurrentMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+    public TenantRateLimiter(TenantProperties properties) {
+        this.properties = properties.rateLimit();
+        var enabled = this.properties.requestsPerSecond() > 0
+                || this.properties.overrides().values().stream().anyMatch(rate -> rate > 0);
+        if (enabled && properties.allowed().isEmpty()) {
+            throw new IllegalStateException("vpp.tenants.rate-limit requires vpp.tenants.allowed to list the tenants");
+        }
+    }
+
+    /**
+     * Takes one token for the tenant. Returns 0 if it was available, otherwise how many nanoseconds until
+     * one will be.
+     */
+    public long tryAcquire(String tenantId) {
+        var rate = properties.overrides().getOrDefault(tenantId, properties.requestsPerSecond());
+        if (rate <= 0) {
+            return 0;
+        }
+        return buckets.computeIfAbsent(tenantId, ignored -> new TokenBucket(rate, Math.max(1, properties.burst())))
+                      .tryAcquire(System.nanoTime());
+    }
+
+    private static final class TokenBucket {
+        private final double tokensPerNano;
+        private final double capacity;
+        private double tokens;
+        private long refilledAtNanos;
+
+        TokenBucket(double tokensPerSecond, int capacity) {
+            this.tokensPerNano = tokensPerSecond / TimeUnit.SECONDS.toNanos(1);
+            this.capacity = capacity;
+            this.tokens = capacity;
+            this.refilledAtNanos = System.nanoTime();
+        }
+
+        synchronized long tryAcquire(long nowNanos) {
+            tokens = Math.min(capacity, tokens + (nowNanos - refilledAtNanos) * tokensPerNano);
+            refilledAtNanos = nowNanos;
+            if (tokens >= 1) {
+                tokens -= 1;
+                return 0;
+            }
+            return (long) Math.ceil((1 - tokens) / tokensPerNano);
+        }
+    }
+}
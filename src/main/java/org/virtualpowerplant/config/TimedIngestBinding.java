@@ -0,0 +1,15 @@
+package org.virtualpowerplant.config;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a battery registration handler whose request body binding is recorded as the
+ * {@code BIND} stage of batch ingest by {@link IngestBindingTimingAdvice}.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface TimedIngestBinding {
+}
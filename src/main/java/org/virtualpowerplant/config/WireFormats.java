@@ -0,0 +1,14 @@
+package org.virtualpowerplant.config;
+
+/**
+ * Media types accepted and produced by the battery API besides JSON. Both are binary encodings of the same
+ * Jackson data model, so every DTO works unchanged and clients pick a format through {@code Content-Type}
+ * and {@code Accept}.
+ */
+public final class WireFormats {
+    public static final String APPLICATION_CBOR_VALUE = "application/cbor";
+    public static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+
+    private WireFormats() {
+    }
+}
@@ -0,0 +1,48 @@
+package org.virtualpowerplant.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.virtualpowerplant.model.BatteryChangesDto;
+import org.virtualpowerplant.service.BatteryChangeFeed;
+
+import java.time.Duration;
+
+@RestController
+@RequestMapping("/api/v1/batteries/changes")
+@RequiredArgsConstructor
+public class BatteryChangeController {
+    private static final String LAST_EVENT_ID_HEADER = "Last-Event-ID";
+
+    private final BatteryChangeFeed batteryChangeFeed;
+
+    /**
+     * Long-poll: returns as soon as there are events after {@code after}, or an empty batch once
+     * {@code waitSeconds} have passed. Without {@code after} the feed is read from its current end.
+     */
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<BatteryChangesDto> pollChanges(
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(defaultValue = "0") long waitSeconds
+    ) throws InterruptedException {
+        return ResponseEntity.ok(batteryChangeFeed.poll(after, limit, Duration.ofSeconds(Math.max(0, waitSeconds))));
+    }
+
+    /**
+     * A reconnecting {@code EventSource} resumes from its {@code Last-Event-ID}.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges(
+            @RequestParam(required = false) Long after,
+            @RequestHeader(name = LAST_EVENT_ID_HEADER, required = false) Long lastEventId
+    ) {
+        return batteryChangeFeed.subscribe(lastEventId != null ? lastEventId : after);
+    }
+}
@@ -8,36 +8,185 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.virtualpowerplant.config.AdmissionLane;
+import org.virtualpowerplant.config.AdmissionLimited;
+import org.virtualpowerplant.config.TenantContext;
+import org.virtualpowerplant.config.TimedIngestBinding;
+import org.virtualpowerplant.config.WireFormats;
+import org.virtualpowerplant.model.BatteryBatchResultDto;
+import org.virtualpowerplant.model.BatteryBulkResultDto;
+import org.virtualpowerplant.model.BatteryCapacityDistributionDto;
+import org.virtualpowerplant.model.BatteryCapacityUpdateRequestDto;
+import org.virtualpowerplant.model.BatteryDecommissionRequestDto;
+import org.virtualpowerplant.model.BatteryIngestResultDto;
+import org.virtualpowerplant.model.BatteryNamePageRequest;
 import org.virtualpowerplant.model.BatteryRequestDto;
 import org.virtualpowerplant.model.BatteryResponseDto;
 import org.virtualpowerplant.model.BatterySearchCriteria;
+import org.virtualpowerplant.service.BatteryBatchValidator;
+import org.virtualpowerplant.service.BatteryBulkChangeService;
+import org.virtualpowerplant.service.BatteryIngestService;
 import org.virtualpowerplant.service.BatteryService;
+import org.virtualpowerplant.service.BatteryStatisticsCache;
+import org.virtualpowerplant.service.CapacityDistributionIndex;
+import org.virtualpowerplant.service.IdempotentRegistrationService;
+import org.virtualpowerplant.service.IngestMetrics;
 import org.virtualpowerplant.model.BatteryStatisticsDto;
 
+import java.io.InputStream;
 import java.util.List;
 
 @RestController
 @RequestMapping(value = "/api/v1/batteries",
-        consumes = MediaType.APPLICATION_JSON_VALUE,
-        produces = MediaType.APPLICATION_JSON_VALUE
+        consumes = {MediaType.APPLICATION_JSON_VALUE, WireFormats.APPLICATION_CBOR_VALUE, WireFormats.APPLICATION_SMILE_VALUE},
+        produces = {MediaType.APPLICATION_JSON_VALUE, WireFormats.APPLICATION_CBOR_VALUE, WireFormats.APPLICATION_SMILE_VALUE}
 )
 @RequiredArgsConstructor
 public class BatteryController {
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String PARTIAL_VALIDATION = "validation=partial";
 
     private final BatteryService batteryService;
+    private final BatteryIngestService batteryIngestService;
+    private final BatteryStatisticsCache batteryStatisticsCache;
+    private final IngestMetrics ingestMetrics;
+    private final IdempotentRegistrationService idempotentRegistrationService;
+    private final BatteryBatchValidator batteryBatchValidator;
+    private final CapacityDistributionIndex capacityDistributionIndex;
+    private final BatteryBulkChangeService batteryBulkChangeService;
 
+    /**
+     * With an {@code Idempotency-Key} header the batch is registered by natural key (name and postcode)
+     * and a retry with the same key replays the original response; without one every battery is inserted.
+     */
+    @AdmissionLimited(AdmissionLane.INGEST)
+    @TimedIngestBinding
     @PostMapping()
-    public ResponseEntity<List<BatteryResponseDto>> registerBatteries(@Valid @RequestBody List<BatteryRequestDto> request) {
+    public ResponseEntity<List<BatteryResponseDto>> registerBatteries(
+            @RequestHeader(name = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+            @Valid @RequestBody List<BatteryRequestDto> request
+    ) {
+        ingestMetrics.validationCompleted(IngestMetrics.Path.BATCH);
+        if (idempotencyKey != null) {
+            return ResponseEntity.ok(idempotentRegistrationService.register(idempotencyKey, request));
+        }
         return ResponseEntity.ok(batteryService.registerBatteries(request));
     }
 
+    /**
+     * Same as {@link #registerBatteries(String, List)}, but registers the valid elements and reports the
+     * invalid ones by index instead of rejecting the whole batch.
+     */
+    @AdmissionLimited(AdmissionLane.INGEST)
+    @TimedIngestBinding
+    @PostMapping(params = PARTIAL_VALIDATION)
+    public ResponseEntity<BatteryBatchResultDto> registerValidBatteries(
+            @RequestHeader(name = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+            @RequestBody List<BatteryRequestDto> request
+    ) {
+        var validation = batteryBatchValidator.validate(request);
+        ingestMetrics.validationCompleted(IngestMetrics.Path.BATCH);
+
+        List<BatteryResponseDto> batteries;
+        if (validation.valid().isEmpty()) {
+            batteries = List.of();
+        } else if (idempotencyKey != null) {
+            batteries = idempotentRegistrationService.register(idempotencyKey, validation.valid());
+        } else {
+            batteries = batteryService.registerBatteries(validation.valid());
+        }
+
+        return ResponseEntity.ok(BatteryBatchResultDto.builder()
+                                                      .received(request.size())
+                                                      .accepted(validation.valid().size())
+                                                      .rejected(validation.rejected())
+                                                      .batteries(batteries)
+                                                      .errors(validation.errors())
+                                                      .build());
+    }
+
+    @AdmissionLimited(AdmissionLane.INGEST)
+    @PostMapping(value = "/stream",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE}
+    )
+    public ResponseEntity<BatteryIngestResultDto> ingestBatteries(InputStream body) {
+        return ResponseEntity.ok(batteryIngestService.ingest(body));
+    }
+
+    /**
+     * Sets or scales the capacity of the listed or filtered batteries in chunked set-based updates.
+     */
+    @AdmissionLimited(AdmissionLane.INGEST)
+    @PostMapping(value = "/capacity")
+    public ResponseEntity<BatteryBulkResultDto> updateCapacity(@Valid @RequestBody BatteryCapacityUpdateRequestDto request) {
+        return ResponseEntity.ok(batteryBulkChangeService.updateCapacity(request));
+    }
+
+    /**
+     * Removes the listed or filtered batteries in chunked set-based deletes.
+     */
+    @AdmissionLimited(AdmissionLane.INGEST)
+    @PostMapping(value = "/decommission")
+    public ResponseEntity<BatteryBulkResultDto> decommission(@Valid @RequestBody BatteryDecommissionRequestDto request) {
+        return ResponseEntity.ok(batteryBulkChangeService.decommission(request));
+    }
+
+    @AdmissionLimited(AdmissionLane.STATS)
     @GetMapping(value = "/stats")
     public ResponseEntity<BatteryStatisticsDto> getBatteriesInRange(
-            @Valid @ModelAttribute BatterySearchCriteria batterySearchCriteria
+            @Valid @ModelAttribute BatterySearchCriteria batterySearchCriteria,
+            @Valid @ModelAttribute BatteryNamePageRequest pageRequest
     ) {
-        BatteryStatisticsDto stats = batteryService.getBatteryStatistics(batterySearchCriteria);
+        var criteria = batterySearchCriteria.withTenantId(TenantContext.current());
+        BatteryStatisticsDto stats = batteryStatisticsCache.get(criteria, pageRequest,
+                () -> batteryService.getBatteryStatistics(criteria, pageRequest));
         return ResponseEntity.ok(stats);
     }
+
+    /**
+     * Statistics for a list of criteria in one round trip, one result per criterion in request order.
+     */
+    @AdmissionLimited(AdmissionLane.STATS)
+    @PostMapping(value = "/stats/batch")
+    public ResponseEntity<List<BatteryStatisticsDto>> getBatteriesInRanges(
+            @RequestBody List<BatterySearchCriteria> batterySearchCriteria
+    ) {
+        var tenantId = TenantContext.current();
+        var criteria = batterySearchCriteria.stream()
+                                            .map(range -> range == null ? null : range.withTenantId(tenantId))
+                                            .toList();
+        return ResponseEntity.ok(batteryService.getBatteryStatistics(criteria));
+    }
+
+    /**
+     * Percentiles and a histogram of capacity over the batteries matching the criteria, answered from
+     * quantile sketches rather than by reading the batteries.
+     */
+    @AdmissionLimited(AdmissionLane.STATS)
+    @GetMapping(value = "/stats/distribution")
+    public ResponseEntity<BatteryCapacityDistributionDto> getCapacityDistribution(
+            @Valid @ModelAttribute BatterySearchCriteria batterySearchCriteria,
+            @RequestParam(required = false) List<Double> quantiles,
+            @RequestParam(defaultValue = "10") int bins
+    ) {
+        var criteria = batterySearchCriteria.withTenantId(TenantContext.current());
+        return ResponseEntity.ok(capacityDistributionIndex.distribution(criteria, quantiles, bins));
+    }
+
+    @AdmissionLimited(AdmissionLane.STATS)
+    @GetMapping(value = "/stats/stream", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamBatteriesInRange(
+            @Valid @ModelAttribute BatterySearchCriteria batterySearchCriteria
+    ) {
+        // Pinned now: the body is written on another thread, after the request's tenant has been unbound.
+        var criteria = batterySearchCriteria.withTenantId(TenantContext.current());
+        return ResponseEntity.ok()
+                             .contentType(MediaType.APPLICATION_JSON)
+                             .body(out -> batteryService.writeStatistics(criteria, out));
+    }
 }
@@ -0,0 +1,34 @@
+package org.virtualpowerplant.controller;
+
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.virtualpowerplant.config.OperatorOnly;
+import org.virtualpowerplant.model.DispatchRequestDto;
+import org.virtualpowerplant.model.DispatchResultDto;
+import org.virtualpowerplant.service.DispatchService;
+
+/**
+ * Dispatches setpoints onto reporting batteries of every tenant.
+ */
+@OperatorOnly
+@RestController
+@RequestMapping(value = "/api/v1/dispatch",
+        consumes = MediaType.APPLICATION_JSON_VALUE,
+        produces = MediaType.APPLICATION_JSON_VALUE
+)
+@RequiredArgsConstructor
+public class DispatchController {
+
+    private final DispatchService dispatchService;
+
+    @PostMapping()
+    public ResponseEntity<DispatchResultDto> dispatch(@Valid @RequestBody DispatchRequestDto request) {
+        return ResponseEntity.ok(dispatchService.dispatch(request));
+    }
+}
@@ -0,0 +1,44 @@
+package org.virtualpowerplant.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.virtualpowerplant.config.OperatorOnly;
+import org.virtualpowerplant.exception.BadRequestException;
+import org.virtualpowerplant.model.FleetCapacityDto;
+import org.virtualpowerplant.service.FleetAggregateEngine;
+
+/**
+ * Live capacity of the whole fleet, across every tenant.
+ */
+@OperatorOnly
+@RestController
+@RequestMapping(value = "/api/v1/fleet",
+        produces = MediaType.APPLICATION_JSON_VALUE
+)
+@RequiredArgsConstructor
+public class FleetController {
+
+    private final FleetAggregateEngine fleetAggregateEngine;
+
+    /**
+     * Capacity within an inclusive postcode range, or of the whole fleet when neither bound is given.
+     */
+    @GetMapping(value = "/capacity")
+    public ResponseEntity<FleetCapacityDto> getCapacity(
+            @RequestParam(required = false) Integer startPostcode,
+            @RequestParam(required = false) Integer endPostcode
+    ) {
+        if ((startPostcode == null) != (endPostcode == null)) {
+            throw new BadRequestException("startPostcode and endPostcode must be given together");
+        }
+        if (startPostcode != null && startPostcode > endPostcode) {
+            throw new BadRequestException("startPostcode must not be greater than endPostcode");
+        }
+        return ResponseEntity.ok(fleetAggregateEngine.capacity(startPostcode, endPostcode));
+    }
+}
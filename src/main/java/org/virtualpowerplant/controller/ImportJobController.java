@@ -0,0 +1,49 @@
+package org.virtualpowerplant.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.virtualpowerplant.config.AdmissionLane;
+import org.virtualpowerplant.config.AdmissionLimited;
+import org.virtualpowerplant.model.ImportJobDto;
+import org.virtualpowerplant.service.ImportJobService;
+
+import java.io.InputStream;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/v1/batteries/imports")
+@RequiredArgsConstructor
+public class ImportJobController {
+
+    private final ImportJobService importJobService;
+
+    @AdmissionLimited(AdmissionLane.INGEST)
+    @PostMapping(consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE},
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ImportJobDto> submitImport(InputStream body) {
+        var job = importJobService.submit(body);
+        var location = ServletUriComponentsBuilder.fromCurrentRequest()
+                                                  .path("/{id}")
+                                                  .buildAndExpand(job.id())
+                                                  .toUri();
+        return ResponseEntity.accepted().location(location).body(job);
+    }
+
+    @GetMapping(value = "/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ImportJobDto> getImport(@PathVariable UUID id) {
+        return ResponseEntity.ok(importJobService.getJob(id));
+    }
+
+    @GetMapping(value = "/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribeToImport(@PathVariable UUID id) {
+        return importJobService.subscribe(id);
+    }
+}
@@ -0,0 +1,28 @@
+package org.virtualpowerplant.controller;
+
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ModelAttribute;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.virtualpowerplant.model.BatteryStatisticsDto;
+import org.virtualpowerplant.model.RegionQuery;
+import org.virtualpowerplant.service.RegionService;
+
+@RestController
+@RequestMapping(value = "/api/v1/regions",
+        produces = MediaType.APPLICATION_JSON_VALUE
+)
+@RequiredArgsConstructor
+public class RegionController {
+
+    private final RegionService regionService;
+
+    @GetMapping(value = "/stats")
+    public ResponseEntity<BatteryStatisticsDto> getRegionStatistics(@Valid @ModelAttribute RegionQuery regionQuery) {
+        return ResponseEntity.ok(regionService.getStatistics(regionQuery));
+    }
+}
@@ -0,0 +1,32 @@
+package org.virtualpowerplant.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.virtualpowerplant.config.OperatorOnly;
+import org.virtualpowerplant.model.TelemetryIngestResultDto;
+import org.virtualpowerplant.service.TelemetryIngestService;
+
+import java.io.InputStream;
+
+/**
+ * Telemetry is reported per battery id by the operator's gateways, for batteries of every tenant.
+ */
+@OperatorOnly
+@RestController
+@RequestMapping(value = "/api/v1/telemetry",
+        produces = MediaType.APPLICATION_JSON_VALUE
+)
+@RequiredArgsConstructor
+public class TelemetryController {
+
+    private final TelemetryIngestService telemetryIngestService;
+
+    @PostMapping(consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<TelemetryIngestResultDto> ingestTelemetry(InputStream body) {
+        return ResponseEntity.ok(telemetryIngestService.ingest(body));
+    }
+}
@@ -3,7 +3,9 @@ package org.virtualpowerplant.entity;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Index;
+import jakarta.persistence.PrePersist;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import lombok.AllArgsConstructor;
@@ -13,6 +15,8 @@ import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 import lombok.experimental.FieldNameConstants;
 
+import java.util.Locale;
+
 
 
 @Data
@@ -24,11 +28,22 @@ import lombok.experimental.FieldNameConstants;
 @EqualsAndHashCode(callSuper = true)
 @Table(name = "battery",
         indexes = {
-                @Index(name = "idx_battery_postcode", columnList = "postcode"),
-                @Index(name = "idx_battery_watt_capacity", columnList = "wattCapacity")
-        }
+                // Tenant-leading, so each tenant's range scans stay within its own part of the index.
+                @Index(name = "idx_battery_tenant_postcode", columnList = "tenant_id, postcode"),
+                @Index(name = "idx_battery_tenant_watt_capacity", columnList = "tenant_id, watt_capacity")
+        },
+        uniqueConstraints = @UniqueConstraint(name = "uk_battery_tenant_natural_key",
+                columnNames = {"tenant_id", "natural_key"})
 )
 public class Battery extends BaseEntity {
+    public static final String DEFAULT_TENANT = "default";
+
+    /**
+     * The retailer fleet this battery belongs to; every read is scoped to one tenant.
+     */
+    @Column(name = "tenant_id", nullable = false, length = 64, columnDefinition = "varchar(64) default 'default'")
+    String tenantId;
+
     @NotBlank
     @Column(nullable = false)
     String name;
@@ -41,4 +56,31 @@ public class Battery extends BaseEntity {
     @Column(name = "watt_capacity", nullable = false)
     Double wattCapacity;
 
+    /**
+     * Set only for batteries registered through the idempotent path, where it identifies a battery across
+     * retried uploads; see {@link #naturalKey(String, String, int)}. Unique within the tenant only.
+     */
+    @Column(name = "natural_key")
+    String naturalKey;
+
+    /**
+     * Prefixed with the tenant for tenants other than the default one, whose keys match those stored before
+     * tenants existed. Names may contain {@code |}, so a key alone does not tell tenants apart; keys are
+     * only ever compared together with {@code tenant_id}.
+     */
+    public static String naturalKey(String tenantId, String name, int postcode) {
+        var key = name.strip().toLowerCase(Locale.ROOT) + "|" + postcode;
+        return DEFAULT_TENANT.equals(tenantId) ? key : tenantId + "|" + key;
+    }
+
+    public String tenantIdOrDefault() {
+        return tenantId == null ? DEFAULT_TENANT : tenantId;
+    }
+
+    @Override
+    @PrePersist
+    public void prePersist() {
+        super.prePersist();
+        tenantId = tenantIdOrDefault();
+    }
 }
\ No newline at end of file
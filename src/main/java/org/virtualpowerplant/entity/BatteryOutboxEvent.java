@@ -0,0 +1,66 @@
+package org.virtualpowerplant.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.OffsetDateTime;
+
+/**
+ * One committed change to the battery table, holding every battery of one tenant the transaction touched. Offsets are
+ * handed out in commit order (see {@code BatteryOutboxRepository}), so a consumer that has seen an offset
+ * has seen everything before it. Written and read with plain SQL; mapped here so the table is managed with
+ * the rest of the schema.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "battery_outbox",
+        indexes = {
+                @Index(name = "idx_battery_outbox_created_at", columnList = "created_at"),
+                @Index(name = "idx_battery_outbox_tenant_offset", columnList = "tenant_id, event_offset")
+        }
+)
+public class BatteryOutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "event_offset")
+    private Long offset;
+
+    @Column(name = "tenant_id", nullable = false, length = 64, columnDefinition = "varchar(64) default 'default'")
+    private String tenantId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false, length = 32)
+    private Type type;
+
+    @Column(name = "battery_count", nullable = false)
+    private int batteryCount;
+
+    @Column(name = "payload", nullable = false, columnDefinition = "jsonb")
+    private String payload;
+
+    @Column(name = "created_at", nullable = false)
+    private OffsetDateTime createdAt;
+
+    /**
+     * What happened to the event's batteries; they are listed as they are after a registration or capacity
+     * update, and as they were before a decommission.
+     */
+    public enum Type {
+        REGISTERED,
+        CAPACITY_UPDATED,
+        DECOMMISSIONED
+    }
+}
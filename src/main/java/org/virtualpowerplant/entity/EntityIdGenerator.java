@@ -0,0 +1,13 @@
+package org.virtualpowerplant.entity;
+
+import java.util.UUID;
+
+/**
+ * Strategy for primary keys assigned by the application, both in {@link BaseEntity#prePersist()} and on
+ * the plain JDBC insert paths.
+ */
+@FunctionalInterface
+public interface EntityIdGenerator {
+
+    UUID generate();
+}
@@ -0,0 +1,22 @@
+package org.virtualpowerplant.entity;
+
+import java.util.UUID;
+
+/**
+ * Holds the configured {@link EntityIdGenerator} for JPA lifecycle callbacks, which are not Spring beans
+ * and cannot have it injected. Defaults to UUIDv7 until configuration replaces it.
+ */
+public final class EntityIds {
+    private static volatile EntityIdGenerator generator = new UuidV7Generator();
+
+    private EntityIds() {
+    }
+
+    public static UUID next() {
+        return generator.generate();
+    }
+
+    public static void use(EntityIdGenerator idGenerator) {
+        generator = idGenerator;
+    }
+}
@@ -0,0 +1,58 @@
+package org.virtualpowerplant.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.time.OffsetDateTime;
+
+/**
+ * A client-supplied {@code Idempotency-Key} together with a hash of the request it was first used with
+ * and, once that request has committed, the response to replay. Keys are scoped to the tenant that used
+ * them, so tenants cannot see or block each other's keys. Read and written with plain SQL by
+ * {@code IdempotencyRepository}; mapped here so the table is managed with the rest of the schema.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "idempotency_record",
+        indexes = @Index(name = "idx_idempotency_record_created_at", columnList = "created_at")
+)
+@IdClass(IdempotencyRecord.Key.class)
+public class IdempotencyRecord {
+
+    @Id
+    @Column(name = "tenant_id", length = 64, columnDefinition = "varchar(64) default 'default'")
+    private String tenantId;
+
+    @Id
+    @Column(name = "idempotency_key", length = 255)
+    private String idempotencyKey;
+
+    @Column(name = "request_hash", nullable = false, length = 64)
+    private String requestHash;
+
+    @Column(name = "response", columnDefinition = "text")
+    private String response;
+
+    @Column(name = "created_at", nullable = false)
+    private OffsetDateTime createdAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private String tenantId;
+        private String idempotencyKey;
+    }
+}
@@ -0,0 +1,83 @@
+package org.virtualpowerplant.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * An asynchronous battery import. Parse counters are saved periodically by the job while it runs;
+ * {@code rowsWritten} and {@code chunksCommitted} are incremented in the same transaction as each chunk,
+ * so they always match what is in the battery table.
+ * <p>
+ * A job that fails keeps the chunks it already committed, {@code rowsWritten} batteries in all, and they are
+ * not tied back to the job. Uploading the same file again registers those batteries a second time, so retry
+ * with only the records after them, or register by natural key with an {@code Idempotency-Key}.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "import_job",
+        indexes = @Index(name = "idx_import_job_owner_status", columnList = "owner, status")
+)
+public class ImportJob extends BaseEntity {
+    public static final int MAX_ERROR_MESSAGE_LENGTH = 1024;
+
+    /**
+     * The tenant that submitted the import; its batteries are registered for this tenant and only it can
+     * see the job.
+     */
+    @Column(name = "tenant_id", nullable = false, length = 64, columnDefinition = "varchar(64) default 'default'")
+    private String tenantId;
+
+    /**
+     * The instance that accepted the upload and holds its spool file; only it runs or resumes the job.
+     */
+    @Column(name = "owner", length = 255)
+    private String owner;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 16)
+    private Status status;
+
+    @Column(name = "spool_file", nullable = false, length = 1024)
+    private String spoolFile;
+
+    @Column(name = "chunk_size", nullable = false)
+    private int chunkSize;
+
+    @Column(name = "rows_parsed", nullable = false)
+    private long rowsParsed;
+
+    @Column(name = "rows_validated", nullable = false)
+    private long rowsValidated;
+
+    @Column(name = "rows_failed", nullable = false)
+    private long rowsFailed;
+
+    @Column(name = "rows_written", nullable = false)
+    private long rowsWritten;
+
+    @Column(name = "chunks_committed", nullable = false)
+    private long chunksCommitted;
+
+    @Column(name = "error_message", length = MAX_ERROR_MESSAGE_LENGTH)
+    private String errorMessage;
+
+    public enum Status {
+        QUEUED,
+        RUNNING,
+        COMPLETED,
+        FAILED;
+
+        public boolean isTerminal() {
+            return this == COMPLETED || this == FAILED;
+        }
+    }
+}
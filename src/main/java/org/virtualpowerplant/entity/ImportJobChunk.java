@@ -0,0 +1,48 @@
+package org.virtualpowerplant.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.util.UUID;
+
+/**
+ * Marks one chunk of an {@link ImportJob} as written. Inserted in the chunk's own transaction, so after a
+ * restart the job skips exactly the chunks whose batteries are already stored. Written with plain SQL by
+ * {@code ImportJobChunkRepository}; mapped here so the table is managed with the rest of the schema.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "import_job_chunk")
+@IdClass(ImportJobChunk.Key.class)
+public class ImportJobChunk {
+
+    @Id
+    @Column(name = "job_id", columnDefinition = "uuid")
+    private UUID jobId;
+
+    @Id
+    @Column(name = "chunk_index")
+    private int chunkIndex;
+
+    @Column(name = "rows_written", nullable = false)
+    private int rowsWritten;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private UUID jobId;
+        private int chunkIndex;
+    }
+}
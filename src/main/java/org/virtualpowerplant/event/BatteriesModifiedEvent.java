@@ -0,0 +1,17 @@
+package org.virtualpowerplant.event;
+
+import org.virtualpowerplant.entity.Battery;
+
+import java.util.List;
+
+/**
+ * Published inside the modifying transaction once a bulk change has been written. {@code before} holds
+ * every changed row as it was; {@code after} holds the same rows as they are now, and is empty when they
+ * were decommissioned. Listeners that maintain derived state should react after commit.
+ */
+public record BatteriesModifiedEvent(List<Battery> before, List<Battery> after) {
+
+    public boolean decommissioned() {
+        return after.isEmpty();
+    }
+}
@@ -0,0 +1,12 @@
+package org.virtualpowerplant.event;
+
+import org.virtualpowerplant.entity.Battery;
+
+import java.util.List;
+
+/**
+ * Published inside the registering transaction once new batteries have been written. Listeners that
+ * maintain derived state should react after commit.
+ */
+public record BatteriesRegisteredEvent(List<Battery> batteries) {
+}
@@ -0,0 +1,10 @@
+package org.virtualpowerplant.event;
+
+import org.virtualpowerplant.model.TelemetryBuffer;
+
+/**
+ * Published after a chunk of telemetry readings has been stored. The buffer is reused for the next
+ * chunk as soon as listeners return, so listeners must consume it synchronously and not keep it.
+ */
+public record TelemetryRecordedEvent(TelemetryBuffer readings) {
+}
@@ -1,8 +1,10 @@
 package org.virtualpowerplant.exception;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -26,6 +28,19 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(response, ex.getStatus());
     }
 
+    @ExceptionHandler(ThrottledException.class)
+    public ResponseEntity<ExceptionResponse> throttledException(ThrottledException ex) {
+        ExceptionResponse response = new ExceptionResponse();
+        response.setMessage(ex.getMessage());
+        response.setTimestamp(LocalDateTime.now());
+
+        // Retry-After is whole seconds; round up so a client honouring it is not throttled again.
+        var retryAfterSeconds = Math.max(1, (ex.getRetryAfter().toMillis() + 999) / 1000);
+        return ResponseEntity.status(ex.getStatus())
+                             .header(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds))
+                             .body(response);
+    }
+
 
     @ExceptionHandler(HandlerMethodValidationException.class)
     public ResponseEntity<Object> handleMethodParamValidation(HandlerMethodValidationException ex) {
@@ -43,6 +58,51 @@ public class GlobalExceptionHandler {
     }
 
 
+    @ExceptionHandler(MethodArgumentNotValidException.class)
+    public ResponseEntity<Object> handleArgumentValidation(MethodArgumentNotValidException ex) {
+
+        ExceptionResponse response = new ExceptionResponse();
+        response.setMessage("Bad Request");
+        List<Error.ErrorDetail> fieldErrors = ex.getBindingResult()
+                                                .getFieldErrors()
+                                                .stream()
+                                                .map(e -> new Error.ErrorDetail(e.getField(), e.getDefaultMessage()))
+                                                .toList();
+        response.setErrors(fieldErrors);
+        response.setTimestamp(LocalDateTime.now());
+
+        return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
+    }
+
+
+    @ExceptionHandler(InvalidRequestBodyException.class)
+    public ResponseEntity<ExceptionResponse> invalidRequestBodyException(InvalidRequestBodyException ex) {
+        log.debug("Invalid request body", ex);
+        ExceptionResponse response = new ExceptionResponse();
+        response.setMessage(ex.getMessage());
+        response.setTimestamp(LocalDateTime.now());
+
+        return new ResponseEntity<>(response, ex.getStatus());
+    }
+
+
+    /**
+     * A body that cannot be read or bound is the client's fault, not the server's.
+     */
+    @ExceptionHandler(HttpMessageNotReadableException.class)
+    public ResponseEntity<ExceptionResponse> handleUnreadableMessage(HttpMessageNotReadableException ex) {
+        if (ex.getCause() instanceof InvalidRequestBodyException invalid) {
+            return invalidRequestBodyException(invalid);
+        }
+        log.debug("Unreadable request body", ex);
+        ExceptionResponse response = new ExceptionResponse();
+        response.setMessage("Malformed request body");
+        response.setTimestamp(LocalDateTime.now());
+
+        return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
+    }
+
+
     @ExceptionHandler(value = {Exception.class})
     public ResponseEntity<Object> handleAllExceptions(Exception ex) {
         log.error("Internal server error", ex);
@@ -0,0 +1,19 @@
+package org.virtualpowerplant.exception;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Thrown while a request body is being read, when it turns out to be corrupt or larger than allowed. It is
+ * unchecked so it passes through message converters and services reading the body unchanged, and is
+ * answered with {@link #getStatus()} rather than as a server error.
+ */
+@Getter
+public class InvalidRequestBodyException extends RuntimeException {
+    private final HttpStatus status;
+
+    public InvalidRequestBodyException(HttpStatus status, String message, Throwable cause) {
+        super(message, cause);
+        this.status = status;
+    }
+}
@@ -0,0 +1,22 @@
+package org.virtualpowerplant.exception;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+
+/**
+ * Rejects a request that is over a limit; the client should retry after {@link #getRetryAfter()}, which is
+ * returned in the {@code Retry-After} header.
+ */
+@Getter
+public class ThrottledException extends RuntimeException {
+    private final HttpStatus status;
+    private final Duration retryAfter;
+
+    public ThrottledException(HttpStatus status, String message, Duration retryAfter) {
+        super(message);
+        this.status = status;
+        this.retryAfter = retryAfter;
+    }
+}
@@ -0,0 +1,12 @@
+package org.virtualpowerplant.model;
+
+/**
+ * Read-only aggregate over a set of batteries, computed by the database rather than from loaded entities.
+ */
+public record BatteryAggregate(
+        long count,
+        double totalWattCapacity,
+        double averageWattCapacity
+) {
+    public static final BatteryAggregate EMPTY = new BatteryAggregate(0, 0, 0);
+}
@@ -0,0 +1,16 @@
+package org.virtualpowerplant.model;
+
+import lombok.Builder;
+import org.virtualpowerplant.exception.Error;
+
+import java.util.List;
+
+@Builder
+public record BatteryBatchResultDto(
+        int received,
+        int accepted,
+        int rejected,
+        List<BatteryResponseDto> batteries,
+        List<Error.ErrorDetail> errors
+) {
+}
@@ -0,0 +1,18 @@
+package org.virtualpowerplant.model;
+
+import lombok.Builder;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * @param affected number of batteries changed
+ * @param skipped  requested ids that were not changed, because the tenant has no such battery or its
+ *                 version no longer matched; always empty for filter requests
+ */
+@Builder
+public record BatteryBulkResultDto(
+        long affected,
+        List<UUID> skipped
+) {
+}
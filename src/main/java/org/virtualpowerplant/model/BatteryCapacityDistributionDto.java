@@ -0,0 +1,32 @@
+package org.virtualpowerplant.model;
+
+import lombok.Builder;
+
+import java.util.List;
+
+/**
+ * Distribution of {@code wattCapacity} over the batteries matching a search, taken from quantile
+ * sketches. Percentiles and bin counts are within {@code relativeAccuracy} of the exact values;
+ * the minimum and maximum are exact unless capacity bounds were given or batteries were changed since
+ * startup, in which case they are within it too.
+ */
+@Builder
+public record BatteryCapacityDistributionDto(
+        long count,
+        double minWattCapacity,
+        double maxWattCapacity,
+        double relativeAccuracy,
+        List<Percentile> percentiles,
+        List<HistogramBin> histogram
+) {
+
+    public record Percentile(double quantile, double wattCapacity) {
+    }
+
+    /**
+     * Batteries with a capacity from {@code fromWattCapacity} up to, but excluding, {@code toWattCapacity};
+     * the last bin includes its upper bound.
+     */
+    public record HistogramBin(double fromWattCapacity, double toWattCapacity, long count) {
+    }
+}
@@ -0,0 +1,21 @@
+package org.virtualpowerplant.model;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Positive;
+import lombok.Builder;
+
+import java.util.List;
+
+/**
+ * Selects batteries by id or by filter, exactly one of the two, and either sets their capacity to
+ * {@code wattCapacity} or multiplies it by {@code capacityFactor}, e.g. 0.8 to derate by a fifth.
+ */
+@Builder
+public record BatteryCapacityUpdateRequestDto(
+        @Valid List<BatteryRefDto> batteries,
+        BatterySearchCriteria filter,
+        @Min(0) Double wattCapacity,
+        @Positive Double capacityFactor
+) {
+}
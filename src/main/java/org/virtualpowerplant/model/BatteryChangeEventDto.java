@@ -0,0 +1,19 @@
+package org.virtualpowerplant.model;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import lombok.Builder;
+import org.virtualpowerplant.entity.BatteryOutboxEvent;
+
+import java.time.OffsetDateTime;
+
+/**
+ * @param batteries the stored JSON array of {@link BatteryResponseDto}, passed through without re-parsing
+ */
+@Builder
+public record BatteryChangeEventDto(
+        long offset,
+        BatteryOutboxEvent.Type type,
+        OffsetDateTime committedAt,
+        @JsonRawValue String batteries
+) {
+}
@@ -0,0 +1,12 @@
+package org.virtualpowerplant.model;
+
+import java.util.List;
+
+/**
+ * @param nextOffset offset to pass as {@code after} on the next poll
+ */
+public record BatteryChangesDto(
+        List<BatteryChangeEventDto> events,
+        long nextOffset
+) {
+}
@@ -0,0 +1,16 @@
+package org.virtualpowerplant.model;
+
+import jakarta.validation.Valid;
+import lombok.Builder;
+
+import java.util.List;
+
+/**
+ * Selects the batteries to remove either by id or by filter; exactly one of the two must be given.
+ */
+@Builder
+public record BatteryDecommissionRequestDto(
+        @Valid List<BatteryRefDto> batteries,
+        BatterySearchCriteria filter
+) {
+}
@@ -0,0 +1,17 @@
+package org.virtualpowerplant.model;
+
+import lombok.Builder;
+import org.virtualpowerplant.exception.Error;
+
+import java.util.List;
+
+@Builder
+public record BatteryIngestResultDto(
+        long received,
+        long accepted,
+        long rejected,
+        long elapsedMillis,
+        double rowsPerSecond,
+        List<Error.ErrorDetail> errors
+) {
+}
@@ -0,0 +1,33 @@
+package org.virtualpowerplant.model;
+
+import org.virtualpowerplant.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Keyset position in the case-insensitive name ordering used by the statistics endpoint. The id breaks
+ * ties between batteries sharing a name. Clients see it only as an opaque string.
+ *
+ * @param sortKey the database's {@code lower(name)} of the last returned battery
+ * @param id      the id of the last returned battery
+ */
+public record BatteryNameCursor(String sortKey, UUID id) {
+    private static final char SEPARATOR = ':';
+
+    public String encode() {
+        var raw = id.toString() + SEPARATOR + sortKey;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static BatteryNameCursor decode(String cursor) {
+        try {
+            var raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            var separator = raw.indexOf(SEPARATOR);
+            return new BatteryNameCursor(raw.substring(separator + 1), UUID.fromString(raw.substring(0, separator)));
+        } catch (IllegalArgumentException | StringIndexOutOfBoundsException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package org.virtualpowerplant.model;
+
+import java.util.List;
+
+/**
+ * One page of battery names and the cursor to continue from, or {@code null} after the last page.
+ */
+public record BatteryNamePage(List<String> names, BatteryNameCursor next) {
+    public static final BatteryNamePage EMPTY = new BatteryNamePage(List.of(), null);
+}
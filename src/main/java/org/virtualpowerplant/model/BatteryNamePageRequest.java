@@ -0,0 +1,20 @@
+package org.virtualpowerplant.model;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import lombok.Builder;
+import org.springframework.web.bind.annotation.RequestParam;
+
+@Builder
+public record BatteryNamePageRequest(@RequestParam(required = false) String cursor,
+                                     @RequestParam(required = false) @Min(1) @Max(10_000) Integer limit) {
+    public static final int DEFAULT_LIMIT = 1000;
+
+    public boolean isPaged() {
+        return cursor != null || limit != null;
+    }
+
+    public int limitOrDefault() {
+        return limit == null ? DEFAULT_LIMIT : limit;
+    }
+}
@@ -0,0 +1,13 @@
+package org.virtualpowerplant.model;
+
+import java.util.List;
+
+/**
+ * Aggregate and case-insensitively sorted names of the batteries matching one set of criteria.
+ */
+public record BatteryRangeStatistics(
+        BatteryAggregate aggregate,
+        List<String> names
+) {
+    public static final BatteryRangeStatistics EMPTY = new BatteryRangeStatistics(BatteryAggregate.EMPTY, List.of());
+}
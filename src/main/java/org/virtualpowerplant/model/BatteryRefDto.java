@@ -0,0 +1,12 @@
+package org.virtualpowerplant.model;
+
+import jakarta.validation.constraints.NotNull;
+
+import java.util.UUID;
+
+/**
+ * @param version the version the client last read; when given, the battery is only changed if it still
+ *                has that version
+ */
+public record BatteryRefDto(@NotNull UUID id, Long version) {
+}
@@ -9,6 +9,7 @@ public record BatteryResponseDto(
         UUID id,
         String name,
         Integer postcode,
-        Double wattCapacity
+        Double wattCapacity,
+        Long version
 ) {
 }
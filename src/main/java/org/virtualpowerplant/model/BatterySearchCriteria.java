@@ -2,10 +2,46 @@ package org.virtualpowerplant.model;
 
 import lombok.Builder;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.virtualpowerplant.config.TenantContext;
 
+/**
+ * @param tenantId the tenant whose batteries are searched; {@code null} means the tenant of the current
+ *                 request. Controllers always overwrite it, so it cannot be chosen through a query parameter.
+ */
 @Builder
 public record BatterySearchCriteria(@RequestParam Integer startPostcode,
                                     @RequestParam Integer endPostcode,
                                     @RequestParam(required = false) Double minCapacity,
-                                    @RequestParam(required = false) Double maxCapacity) {
+                                    @RequestParam(required = false) Double maxCapacity,
+                                    String tenantId) {
+
+    public BatterySearchCriteria withTenantId(String tenantId) {
+        return new BatterySearchCriteria(startPostcode, endPostcode, minCapacity, maxCapacity, tenantId);
+    }
+
+    public String effectiveTenantId() {
+        return tenantId == null ? TenantContext.current() : tenantId;
+    }
+
+    /**
+     * A postcode range only applies when both ends are given; this drops a half-open one and resolves the
+     * tenant so that equivalent criteria compare equal.
+     */
+    public BatterySearchCriteria normalized() {
+        if ((startPostcode == null) == (endPostcode == null)) {
+            return tenantId == null ? withTenantId(effectiveTenantId()) : this;
+        }
+        return new BatterySearchCriteria(null, null, minCapacity, maxCapacity, effectiveTenantId());
+    }
+
+    /**
+     * Whether a battery of the given tenant, postcode and capacity falls inside these criteria, using the
+     * same inclusive bounds as the database filter.
+     */
+    public boolean matches(String batteryTenantId, int postcode, double wattCapacity) {
+        return effectiveTenantId().equals(batteryTenantId)
+                && (startPostcode == null || endPostcode == null || (postcode >= startPostcode && postcode <= endPostcode))
+                && (minCapacity == null || wattCapacity >= minCapacity)
+                && (maxCapacity == null || wattCapacity <= maxCapacity);
+    }
 }
@@ -1,5 +1,6 @@
 package org.virtualpowerplant.model;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Builder;
 
 import java.util.List;
@@ -8,6 +9,7 @@ import java.util.List;
 public record BatteryStatisticsDto(
         List<String> batteryNames,
         double totalWattCapacity,
-        double averageWattCapacity
+        double averageWattCapacity,
+        @JsonInclude(JsonInclude.Include.NON_NULL) String nextCursor
 ) {
-}
\ No newline at end of file
+}
@@ -0,0 +1,10 @@
+package org.virtualpowerplant.model;
+
+import java.util.UUID;
+
+public record DispatchAllocationDto(
+        UUID batteryId,
+        double setpointWatts,
+        double stateOfCharge
+) {
+}
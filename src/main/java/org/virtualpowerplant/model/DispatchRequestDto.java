@@ -0,0 +1,18 @@
+package org.virtualpowerplant.model;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.Builder;
+
+/**
+ * A grid dispatch signal: deliver {@code targetWatts} from the batteries in the inclusive postcode range
+ * for {@code durationMinutes}.
+ */
+@Builder
+public record DispatchRequestDto(
+        @NotNull @Positive Double targetWatts,
+        @NotNull Integer startPostcode,
+        @NotNull Integer endPostcode,
+        @NotNull @Positive Integer durationMinutes
+) {
+}
@@ -0,0 +1,17 @@
+package org.virtualpowerplant.model;
+
+import lombok.Builder;
+
+import java.util.List;
+
+@Builder
+public record DispatchResultDto(
+        double targetWatts,
+        double allocatedWatts,
+        double shortfallWatts,
+        int durationMinutes,
+        int eligibleBatteryCount,
+        long elapsedMicros,
+        List<DispatchAllocationDto> allocations
+) {
+}
@@ -0,0 +1,20 @@
+package org.virtualpowerplant.model;
+
+import lombok.Builder;
+
+/**
+ * Live capacity of the batteries in a postcode range. Energy is in watt-hours, treating a battery's
+ * {@code wattCapacity} as its storage capacity; power is in watts, positive while discharging.
+ */
+@Builder
+public record FleetCapacityDto(
+        Integer startPostcode,
+        Integer endPostcode,
+        long batteryCount,
+        long reportingBatteryCount,
+        double registeredCapacityWattHours,
+        double availableEnergyWattHours,
+        double currentOutputWatts,
+        double averageStateOfCharge
+) {
+}
@@ -0,0 +1,22 @@
+package org.virtualpowerplant.model;
+
+import lombok.Builder;
+import org.virtualpowerplant.entity.ImportJob;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Builder
+public record ImportJobDto(
+        UUID id,
+        ImportJob.Status status,
+        long rowsParsed,
+        long rowsValidated,
+        long rowsFailed,
+        long rowsWritten,
+        long chunksCommitted,
+        String errorMessage,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt
+) {
+}
@@ -0,0 +1,33 @@
+package org.virtualpowerplant.model;
+
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Positive;
+import lombok.Builder;
+import org.springframework.web.bind.annotation.RequestParam;
+
+/**
+ * Selects batteries by grid topology: a feeder, a substation, or every postcode within {@code radiusKm}
+ * of a point. Exactly one selector must be given; the capacity bounds narrow it like they do for
+ * {@link BatterySearchCriteria}.
+ */
+@Builder
+public record RegionQuery(@RequestParam(required = false) String feeder,
+                          @RequestParam(required = false) String substation,
+                          @RequestParam(required = false) @DecimalMin("-90") @DecimalMax("90") Double latitude,
+                          @RequestParam(required = false) @DecimalMin("-180") @DecimalMax("180") Double longitude,
+                          @RequestParam(required = false) @Positive @DecimalMax("1000") Double radiusKm,
+                          @RequestParam(required = false) Double minCapacity,
+                          @RequestParam(required = false) Double maxCapacity) {
+
+    public boolean hasPoint() {
+        return latitude != null || longitude != null || radiusKm != null;
+    }
+
+    public BatterySearchCriteria capacityCriteria() {
+        return BatterySearchCriteria.builder()
+                                    .minCapacity(minCapacity)
+                                    .maxCapacity(maxCapacity)
+                                    .build();
+    }
+}
@@ -0,0 +1,75 @@
+package org.virtualpowerplant.model;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Reusable columnar buffer of telemetry readings. Battery ids are held as their two 64-bit halves and
+ * timestamps as epoch microseconds, so filling and draining the buffer allocates nothing per reading.
+ * Not thread-safe; each ingest request owns one.
+ */
+public final class TelemetryBuffer {
+    private final long[] batteryIdMsb;
+    private final long[] batteryIdLsb;
+    private final long[] recordedAtMicros;
+    private final double[] stateOfCharge;
+    private final double[] powerWatts;
+    private final ByteBuffer scratch;
+    private int size;
+
+    public TelemetryBuffer(int capacity, int bytesPerReading) {
+        this.batteryIdMsb = new long[capacity];
+        this.batteryIdLsb = new long[capacity];
+        this.recordedAtMicros = new long[capacity];
+        this.stateOfCharge = new double[capacity];
+        this.powerWatts = new double[capacity];
+        this.scratch = ByteBuffer.allocate(capacity * bytesPerReading + 64);
+    }
+
+    public void add(long idMsb, long idLsb, long recordedAt, double soc, double power) {
+        batteryIdMsb[size] = idMsb;
+        batteryIdLsb[size] = idLsb;
+        recordedAtMicros[size] = recordedAt;
+        stateOfCharge[size] = soc;
+        powerWatts[size] = power;
+        size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isFull() {
+        return size == batteryIdMsb.length;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    public long batteryIdMsb(int index) {
+        return batteryIdMsb[index];
+    }
+
+    public long batteryIdLsb(int index) {
+        return batteryIdLsb[index];
+    }
+
+    public long recordedAtMicros(int index) {
+        return recordedAtMicros[index];
+    }
+
+    public double stateOfCharge(int index) {
+        return stateOfCharge[index];
+    }
+
+    public double powerWatts(int index) {
+        return powerWatts[index];
+    }
+
+    /**
+     * Byte buffer sized for encoding the whole buffer, reused across flushes by the repository.
+     */
+    public ByteBuffer scratch() {
+        return scratch.clear();
+    }
+}
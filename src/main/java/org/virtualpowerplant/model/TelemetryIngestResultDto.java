@@ -0,0 +1,17 @@
+package org.virtualpowerplant.model;
+
+import lombok.Builder;
+import org.virtualpowerplant.exception.Error;
+
+import java.util.List;
+
+@Builder
+public record TelemetryIngestResultDto(
+        long received,
+        long accepted,
+        long rejected,
+        long elapsedMillis,
+        double readingsPerSecond,
+        List<Error.ErrorDetail> errors
+) {
+}
@@ -0,0 +1,13 @@
+package org.virtualpowerplant.repository;
+
+import java.util.UUID;
+
+/**
+ * Receives the identity, postcode and capacity of each battery from
+ * {@link BatteryJdbcRepository#scanCapacities(BatteryCapacityRowHandler)}.
+ */
+@FunctionalInterface
+public interface BatteryCapacityRowHandler {
+
+    void accept(UUID id, int postcode, double wattCapacity);
+}
@@ -0,0 +1,444 @@
+package org.virtualpowerplant.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import org.virtualpowerplant.entity.Battery;
+import org.virtualpowerplant.entity.EntityIdGenerator;
+import org.virtualpowerplant.model.BatteryAggregate;
+import org.virtualpowerplant.model.BatteryRangeStatistics;
+import org.virtualpowerplant.model.BatteryRefDto;
+import org.virtualpowerplant.model.BatterySearchCriteria;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Plain JDBC access to the battery table for bulk paths where the per-entity cost of the
+ * persistence context (dirty tracking, lifecycle callbacks, identity map) is not wanted.
+ */
+@Repository
+@RequiredArgsConstructor
+public class BatteryJdbcRepository {
+    private static final String INSERT_SQL = """
+            INSERT INTO battery (id, tenant_id, name, postcode, watt_capacity, created_at, updated_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?)
+            """;
+    private static final String INSERT_MISSING_SQL = """
+            INSERT INTO battery (id, tenant_id, name, postcode, watt_capacity, natural_key, created_at, updated_at)
+            SELECT t.id, t.tenant_id, t.name, t.postcode, t.watt_capacity, t.natural_key, ?, ?
+            FROM unnest(?::uuid[], ?::varchar[], ?::varchar[], ?::int[], ?::float8[], ?::varchar[])
+                 AS t(id, tenant_id, name, postcode, watt_capacity, natural_key)
+            ON CONFLICT (tenant_id, natural_key) DO NOTHING
+            RETURNING tenant_id, natural_key
+            """;
+    private static final String FIND_BY_NATURAL_KEYS_SQL = """
+            SELECT id, tenant_id, name, postcode, watt_capacity, natural_key, created_at, updated_at, version
+            FROM battery
+            WHERE (tenant_id, natural_key) IN (SELECT * FROM unnest(?::varchar[], ?::varchar[]))
+            """;
+    private static final int INSERT_MISSING_CHUNK_SIZE = 10_000;
+    // One row per range, joined to the tenant-leading postcode index; ranges without batteries still get
+    // a row from the LEFT JOIN, so rows come back one per range in input order.
+    private static final String RANGE_STATISTICS_SQL = """
+            SELECT count(b.id),
+                   coalesce(sum(b.watt_capacity), 0),
+                   array_agg(b.name ORDER BY lower(b.name)) FILTER (WHERE b.id IS NOT NULL)
+            FROM unnest(?::varchar[], ?::int[], ?::int[], ?::float8[], ?::float8[]) WITH ORDINALITY
+                 AS r(tenant_id, start_postcode, end_postcode, min_capacity, max_capacity, ordinal)
+            LEFT JOIN battery b
+                   ON b.tenant_id = r.tenant_id
+                  AND b.postcode BETWEEN r.start_postcode AND r.end_postcode
+                  AND b.watt_capacity BETWEEN r.min_capacity AND r.max_capacity
+            GROUP BY r.ordinal
+            ORDER BY r.ordinal
+            """;
+    private static final String FIND_MATCHING_IDS_SQL = """
+            SELECT id
+            FROM battery
+            WHERE tenant_id = ?
+              AND postcode BETWEEN ? AND ?
+              AND watt_capacity BETWEEN ? AND ?
+            ORDER BY id
+            LIMIT ?
+            """;
+    // Locks the requested rows that still match, in id order so concurrent bulk changes cannot deadlock.
+    // Reading the old values here means they belong to the row version actually changed, even when
+    // another change to it commits while this statement waits for the lock.
+    private static final String LOCK_MATCHING_SQL = """
+            WITH locked AS (
+                SELECT b.id, b.watt_capacity, b.version, b.updated_at
+                FROM battery b
+                JOIN unnest(?::uuid[], ?::int8[]) AS r(id, version) ON r.id = b.id
+                WHERE b.tenant_id = ?
+                  AND b.postcode BETWEEN ? AND ?
+                  AND b.watt_capacity BETWEEN ? AND ?
+                  AND (r.version IS NULL OR b.version = r.version)
+                ORDER BY b.id
+                FOR UPDATE OF b
+            )
+            """;
+    private static final String UPDATE_CAPACITY_SQL = LOCK_MATCHING_SQL + """
+            UPDATE battery b
+            SET watt_capacity = coalesce(?::float8, b.watt_capacity * ?::float8),
+                version = b.version + 1,
+                updated_at = ?
+            FROM locked
+            WHERE b.id = locked.id
+            RETURNING b.id, b.tenant_id, b.name, b.postcode, b.watt_capacity, b.created_at, b.updated_at, b.version,
+                      locked.watt_capacity, locked.updated_at, locked.version
+            """;
+    private static final String DECOMMISSION_SQL = LOCK_MATCHING_SQL + """
+            DELETE FROM battery b
+            USING locked
+            WHERE b.id = locked.id
+            RETURNING b.id, b.tenant_id, b.name, b.postcode, b.watt_capacity, b.created_at, b.updated_at, b.version
+            """;
+    private static final String SCAN_SQL = "SELECT tenant_id, name, postcode, watt_capacity FROM battery";
+    private static final String SCAN_CAPACITIES_SQL = "SELECT id, postcode, watt_capacity FROM battery";
+    private static final int SCAN_FETCH_SIZE = 10_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityIdGenerator entityIdGenerator;
+
+    /**
+     * Inserts the given batteries as a single JDBC batch. Ids and timestamps are assigned here,
+     * mirroring what {@code BaseEntity} does for JPA-managed inserts.
+     */
+    public void insertAll(List<Battery> batteries) {
+        var now = LocalDateTime.now();
+        for (Battery battery : batteries) {
+            battery.setId(entityIdGenerator.generate());
+            battery.setTenantId(battery.tenantIdOrDefault());
+            battery.setCreatedAt(now);
+            battery.setUpdatedAt(now);
+            battery.setVersion(0L);
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_SQL, batteries, batteries.size(), (ps, battery) -> {
+            ps.setObject(1, battery.getId());
+            ps.setString(2, battery.getTenantId());
+            ps.setString(3, battery.getName());
+            ps.setInt(4, battery.getPostcode());
+            ps.setDouble(5, battery.getWattCapacity());
+            ps.setObject(6, battery.getCreatedAt());
+            ps.setObject(7, battery.getUpdatedAt());
+        });
+    }
+
+    /**
+     * Inserts the batteries whose natural key (name and postcode) is not stored yet for their tenant and
+     * resolves the rest to the tenant's rows already there, using one set-based {@code INSERT ... SELECT
+     * unnest(...) ON CONFLICT DO NOTHING} plus one lookup per chunk rather than a query per battery. Repeats of a key within the input
+     * resolve to the same row. Existing rows are left untouched, so a retried upload writes nothing.
+     */
+    public InsertMissingResult insertMissing(List<Battery> batteries) {
+        var stored = new ArrayList<Battery>(batteries.size());
+        var inserted = new ArrayList<Battery>();
+        for (int from = 0; from < batteries.size(); from += INSERT_MISSING_CHUNK_SIZE) {
+            var chunk = batteries.subList(from, Math.min(from + INSERT_MISSING_CHUNK_SIZE, batteries.size()));
+            insertMissingChunk(chunk, stored, inserted);
+        }
+        return new InsertMissingResult(stored, inserted);
+    }
+
+    private void insertMissingChunk(List<Battery> chunk, List<Battery> stored, List<Battery> inserted) {
+        var now = LocalDateTime.now();
+        var byKey = new LinkedHashMap<TenantKey, Battery>();
+        for (Battery battery : chunk) {
+            battery.setTenantId(battery.tenantIdOrDefault());
+            var key = Battery.naturalKey(battery.getTenantId(), battery.getName(), battery.getPostcode());
+            byKey.computeIfAbsent(new TenantKey(battery.getTenantId(), key), ignored -> {
+                battery.setId(entityIdGenerator.generate());
+                battery.setNaturalKey(key);
+                battery.setCreatedAt(now);
+                battery.setUpdatedAt(now);
+                battery.setVersion(0L);
+                return battery;
+            });
+        }
+
+        var candidates = List.copyOf(byKey.values());
+        var insertedKeys = new HashSet<TenantKey>();
+        jdbcTemplate.query(connection -> {
+            var statement = connection.prepareStatement(INSERT_MISSING_SQL);
+            statement.setObject(1, now);
+            statement.setObject(2, now);
+            bindColumns(connection, statement, candidates);
+            return statement;
+        }, (RowCallbackHandler) rs -> insertedKeys.add(new TenantKey(rs.getString(1), rs.getString(2))));
+
+        var existingKeys = byKey.keySet().stream().filter(key -> !insertedKeys.contains(key)).toList();
+        var resolved = new HashMap<TenantKey, Battery>(byKey);
+        if (!existingKeys.isEmpty()) {
+            var tenantIds = existingKeys.stream().map(TenantKey::tenantId).toArray(String[]::new);
+            var keys = existingKeys.stream().map(TenantKey::naturalKey).toArray(String[]::new);
+            jdbcTemplate.query(connection -> {
+                var statement = connection.prepareStatement(FIND_BY_NATURAL_KEYS_SQL);
+                statement.setArray(1, connection.createArrayOf("varchar", tenantIds));
+                statement.setArray(2, connection.createArrayOf("varchar", keys));
+                return statement;
+            }, (RowCallbackHandler) rs -> {
+                var existing = Battery.builder()
+                                      .tenantId(rs.getString(2))
+                                      .name(rs.getString(3))
+                                      .postcode(rs.getInt(4))
+                                      .wattCapacity(rs.getDouble(5))
+                                      .naturalKey(rs.getString(6))
+                                      .build();
+                existing.setId(rs.getObject(1, UUID.class));
+                existing.setCreatedAt(rs.getObject(7, LocalDateTime.class));
+                existing.setUpdatedAt(rs.getObject(8, LocalDateTime.class));
+                existing.setVersion(rs.getLong(9));
+                resolved.put(TenantKey.of(existing), existing);
+            });
+        }
+
+        for (Battery battery : candidates) {
+            if (insertedKeys.contains(TenantKey.of(battery))) {
+                inserted.add(battery);
+            }
+        }
+        for (Battery battery : chunk) {
+            var key = Battery.naturalKey(battery.getTenantId(), battery.getName(), battery.getPostcode());
+            stored.add(resolved.get(new TenantKey(battery.getTenantId(), key)));
+        }
+    }
+
+    private static void bindColumns(Connection connection, PreparedStatement statement,
+                                    List<Battery> batteries) throws SQLException {
+        var size = batteries.size();
+        var ids = new UUID[size];
+        var tenantIds = new String[size];
+        var names = new String[size];
+        var postcodes = new Integer[size];
+        var capacities = new Double[size];
+        var keys = new String[size];
+        for (int i = 0; i < size; i++) {
+            var battery = batteries.get(i);
+            ids[i] = battery.getId();
+            tenantIds[i] = battery.getTenantId();
+            names[i] = battery.getName();
+            postcodes[i] = battery.getPostcode();
+            capacities[i] = battery.getWattCapacity();
+            keys[i] = battery.getNaturalKey();
+        }
+        statement.setArray(3, connection.createArrayOf("uuid", ids));
+        statement.setArray(4, connection.createArrayOf("varchar", tenantIds));
+        statement.setArray(5, connection.createArrayOf("varchar", names));
+        statement.setArray(6, connection.createArrayOf("int4", postcodes));
+        statement.setArray(7, connection.createArrayOf("float8", capacities));
+        statement.setArray(8, connection.createArrayOf("varchar", keys));
+    }
+
+    /**
+     * Evaluates every range in one query instead of an aggregate and a name query per range, returning
+     * the statistics of each in input order. Open bounds match everything, like in
+     * {@link BatterySpecifications#matching(BatterySearchCriteria)}.
+     */
+    public List<BatteryRangeStatistics> rangeStatistics(List<BatterySearchCriteria> criteria) {
+        var size = criteria.size();
+        var tenantIds = new String[size];
+        var startPostcodes = new Integer[size];
+        var endPostcodes = new Integer[size];
+        var minCapacities = new Double[size];
+        var maxCapacities = new Double[size];
+        for (int i = 0; i < size; i++) {
+            var bounds = Bounds.of(criteria.get(i));
+            tenantIds[i] = bounds.tenantId();
+            startPostcodes[i] = bounds.startPostcode();
+            endPostcodes[i] = bounds.endPostcode();
+            minCapacities[i] = bounds.minCapacity();
+            maxCapacities[i] = bounds.maxCapacity();
+        }
+
+        var result = new ArrayList<BatteryRangeStatistics>(size);
+        jdbcTemplate.query(connection -> {
+            var statement = connection.prepareStatement(RANGE_STATISTICS_SQL);
+            statement.setArray(1, connection.createArrayOf("varchar", tenantIds));
+            statement.setArray(2, connection.createArrayOf("int4", startPostcodes));
+            statement.setArray(3, connection.createArrayOf("int4", endPostcodes));
+            statement.setArray(4, connection.createArrayOf("float8", minCapacities));
+            statement.setArray(5, connection.createArrayOf("float8", maxCapacities));
+            return statement;
+        }, (RowCallbackHandler) rs -> {
+            var count = rs.getLong(1);
+            if (count == 0) {
+                result.add(BatteryRangeStatistics.EMPTY);
+                return;
+            }
+            var total = rs.getDouble(2);
+            var names = List.of((String[]) rs.getArray(3).getArray());
+            result.add(new BatteryRangeStatistics(new BatteryAggregate(count, total, total / count), names));
+        });
+        return result;
+    }
+
+    /**
+     * Ids of at most {@code limit} batteries matching the criteria, in the order bulk changes lock them.
+     */
+    public List<UUID> findMatchingIds(BatterySearchCriteria criteria, int limit) {
+        var bounds = Bounds.of(criteria);
+        return jdbcTemplate.queryForList(FIND_MATCHING_IDS_SQL, UUID.class, bounds.tenantId(),
+                bounds.startPostcode(), bounds.endPostcode(), bounds.minCapacity(), bounds.maxCapacity(), limit);
+    }
+
+    /**
+     * Sets the capacity of the listed batteries that belong to the criteria's tenant, still match its
+     * bounds and, where a version is given, still have that version, in one {@code UPDATE} that also bumps
+     * their version and {@code updated_at}. Exactly one of {@code wattCapacity} and {@code capacityFactor}
+     * is expected: the new capacity, or the factor to scale the current one by.
+     */
+    public ModifiedRows updateCapacity(List<BatteryRefDto> batteries, BatterySearchCriteria criteria,
+                                       Double wattCapacity, Double capacityFactor) {
+        var now = LocalDateTime.now();
+        var before = new ArrayList<Battery>(batteries.size());
+        var after = new ArrayList<Battery>(batteries.size());
+        jdbcTemplate.query(connection -> {
+            var statement = connection.prepareStatement(UPDATE_CAPACITY_SQL);
+            bindSelection(connection, statement, batteries, criteria);
+            statement.setObject(8, wattCapacity, Types.DOUBLE);
+            statement.setObject(9, capacityFactor, Types.DOUBLE);
+            statement.setObject(10, now);
+            return statement;
+        }, (RowCallbackHandler) rs -> {
+            var updated = mapBattery(rs);
+            var previous = mapBattery(rs);
+            previous.setWattCapacity(rs.getDouble(9));
+            previous.setUpdatedAt(rs.getObject(10, LocalDateTime.class));
+            previous.setVersion(rs.getLong(11));
+            after.add(updated);
+            before.add(previous);
+        });
+        return new ModifiedRows(before, after);
+    }
+
+    /**
+     * Deletes the listed batteries under the same conditions as
+     * {@link #updateCapacity(List, BatterySearchCriteria, Double, Double)}, in one {@code DELETE}.
+     */
+    public ModifiedRows decommission(List<BatteryRefDto> batteries, BatterySearchCriteria criteria) {
+        var removed = new ArrayList<Battery>(batteries.size());
+        jdbcTemplate.query(connection -> {
+            var statement = connection.prepareStatement(DECOMMISSION_SQL);
+            bindSelection(connection, statement, batteries, criteria);
+            return statement;
+        }, (RowCallbackHandler) rs -> removed.add(mapBattery(rs)));
+        return new ModifiedRows(removed, List.of());
+    }
+
+    private static void bindSelection(Connection connection, PreparedStatement statement,
+                                      List<BatteryRefDto> batteries, BatterySearchCriteria criteria) throws SQLException {
+        var ids = new UUID[batteries.size()];
+        var versions = new Long[batteries.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = batteries.get(i).id();
+            versions[i] = batteries.get(i).version();
+        }
+        var bounds = Bounds.of(criteria);
+        statement.setArray(1, connection.createArrayOf("uuid", ids));
+        statement.setArray(2, connection.createArrayOf("int8", versions));
+        statement.setString(3, bounds.tenantId());
+        statement.setInt(4, bounds.startPostcode());
+        statement.setInt(5, bounds.endPostcode());
+        statement.setDouble(6, bounds.minCapacity());
+        statement.setDouble(7, bounds.maxCapacity());
+    }
+
+    /**
+     * Maps the leading id, tenant_id, name, postcode, watt_capacity, created_at, updated_at, version columns.
+     */
+    private static Battery mapBattery(ResultSet rs) throws SQLException {
+        var battery = Battery.builder()
+                             .tenantId(rs.getString(2))
+                             .name(rs.getString(3))
+                             .postcode(rs.getInt(4))
+                             .wattCapacity(rs.getDouble(5))
+                             .build();
+        battery.setId(rs.getObject(1, UUID.class));
+        battery.setCreatedAt(rs.getObject(6, LocalDateTime.class));
+        battery.setUpdatedAt(rs.getObject(7, LocalDateTime.class));
+        battery.setVersion(rs.getLong(8));
+        return battery;
+    }
+
+    /**
+     * Streams every battery row through the handler using a server-side cursor, so the whole table is
+     * never held in memory at once. The transaction is what lets PostgreSQL honour the fetch size. It is
+     * deliberately not read-only, so the scan runs on the primary: the in-memory views seeded from it only
+     * follow this node's events afterwards, and would otherwise miss rows still within a replica's lag.
+     */
+    @Transactional
+    public void scan(BatteryRowHandler handler) {
+        jdbcTemplate.query(connection -> {
+            var statement = connection.prepareStatement(SCAN_SQL);
+            statement.setFetchSize(SCAN_FETCH_SIZE);
+            return statement;
+        }, (RowCallbackHandler) rs -> handler.accept(rs.getString(1), rs.getString(2), rs.getInt(3), rs.getDouble(4)));
+    }
+
+    /**
+     * Same as {@link #scan(BatteryRowHandler)}, also on the primary, but hands over the battery id instead
+     * of its name.
+     */
+    @Transactional
+    public void scanCapacities(BatteryCapacityRowHandler handler) {
+        jdbcTemplate.query(connection -> {
+            var statement = connection.prepareStatement(SCAN_CAPACITIES_SQL);
+            statement.setFetchSize(SCAN_FETCH_SIZE);
+            return statement;
+        }, (RowCallbackHandler) rs -> handler.accept(rs.getObject(1, UUID.class), rs.getInt(2), rs.getDouble(3)));
+    }
+
+    /**
+     * A natural key is only unique within its tenant.
+     */
+    private record TenantKey(String tenantId, String naturalKey) {
+        static TenantKey of(Battery battery) {
+            return new TenantKey(battery.getTenantId(), battery.getNaturalKey());
+        }
+    }
+
+    /**
+     * Criteria as closed bounds; open bounds match everything, like in
+     * {@link BatterySpecifications#matching(BatterySearchCriteria)}.
+     */
+    private record Bounds(String tenantId, int startPostcode, int endPostcode, double minCapacity, double maxCapacity) {
+
+        static Bounds of(BatterySearchCriteria criteria) {
+            var range = criteria.normalized();
+            var postcodeRange = range.startPostcode() != null;
+            return new Bounds(range.tenantId(),
+                    postcodeRange ? range.startPostcode() : Integer.MIN_VALUE,
+                    postcodeRange ? range.endPostcode() : Integer.MAX_VALUE,
+                    range.minCapacity() == null ? -Double.MAX_VALUE : range.minCapacity(),
+                    range.maxCapacity() == null ? Double.MAX_VALUE : range.maxCapacity());
+        }
+    }
+
+    /**
+     * @param before the changed rows as they were
+     * @param after  the same rows as they are now; empty when they were deleted
+     */
+    public record ModifiedRows(List<Battery> before, List<Battery> after) {
+    }
+
+    /**
+     * @param stored   the stored battery for each input battery, in input order
+     * @param inserted the batteries that were newly written, each once
+     */
+    public record InsertMissingResult(List<Battery> stored, List<Battery> inserted) {
+    }
+}
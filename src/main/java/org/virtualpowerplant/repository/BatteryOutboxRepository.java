@@ -0,0 +1,73 @@
+package org.virtualpowerplant.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.virtualpowerplant.entity.BatteryOutboxEvent;
+import org.virtualpowerplant.model.BatteryChangeEventDto;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+/**
+ * Appends to and reads from {@code battery_outbox}. Identity values are drawn when a row is inserted, not
+ * when it commits, so two concurrent appends could otherwise become visible out of order and a consumer
+ * tailing by offset would skip the later-committing, lower offset. Appends therefore take a transaction
+ * advisory lock first; they run just before commit, so the lock covers only the insert and the commit
+ * itself.
+ * <p>
+ * Reads are issued outside any transaction so they always go to the primary.
+ */
+@Repository
+@RequiredArgsConstructor
+public class BatteryOutboxRepository {
+    // Arbitrary key shared by every writer of battery_outbox.
+    private static final long APPEND_LOCK_KEY = 0x6261_7474_6f75_746cL;
+    private static final String LOCK_SQL = "SELECT pg_advisory_xact_lock(?)";
+    private static final String APPEND_SQL = """
+            INSERT INTO battery_outbox (tenant_id, event_type, battery_count, payload, created_at)
+            VALUES (?, ?, ?, ?::jsonb, now())
+            """;
+    private static final String READ_SQL = """
+            SELECT event_offset, event_type, payload::text, created_at
+            FROM battery_outbox
+            WHERE tenant_id = ? AND event_offset > ?
+            ORDER BY event_offset
+            LIMIT ?
+            """;
+    private static final String LATEST_OFFSET_SQL = "SELECT coalesce(max(event_offset), 0) FROM battery_outbox";
+    private static final String PURGE_SQL = "DELETE FROM battery_outbox WHERE created_at < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Must run inside the transaction whose changes are being recorded.
+     */
+    public void append(String tenantId, BatteryOutboxEvent.Type type, int batteryCount, String payload) {
+        jdbcTemplate.query(LOCK_SQL, rs -> null, APPEND_LOCK_KEY);
+        jdbcTemplate.update(APPEND_SQL, tenantId, type.name(), batteryCount, payload);
+    }
+
+    /**
+     * Events of one tenant only; offsets are shared by all tenants, so a tenant's offsets have gaps.
+     */
+    public List<BatteryChangeEventDto> readAfter(String tenantId, long offset, int limit) {
+        return jdbcTemplate.query(READ_SQL, (rs, rowNum) -> BatteryChangeEventDto.builder()
+                                                                         .offset(rs.getLong(1))
+                                                                         .type(BatteryOutboxEvent.Type.valueOf(rs.getString(2)))
+                                                                         .batteries(rs.getString(3))
+                                                                         .committedAt(rs.getObject(4, OffsetDateTime.class))
+                                                                         .build(),
+                tenantId, offset, limit);
+    }
+
+    public long latestOffset() {
+        var latest = jdbcTemplate.queryForObject(LATEST_OFFSET_SQL, Long.class);
+        return latest == null ? 0 : latest;
+    }
+
+    public int purgeOlderThan(Duration retention) {
+        return jdbcTemplate.update(PURGE_SQL, OffsetDateTime.now().minus(retention));
+    }
+}
@@ -1,38 +1,21 @@
 package org.virtualpowerplant.repository;
 
 import org.springframework.data.domain.Sort;
-import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.virtualpowerplant.entity.Battery;
 import org.virtualpowerplant.model.BatterySearchCriteria;
 
 import java.util.List;
+import java.util.UUID;
 
-public interface BatteryRepository extends JpaRepository<Battery, Long>, JpaSpecificationExecutor<Battery> {
+public interface BatteryRepository extends JpaRepository<Battery, UUID>, JpaSpecificationExecutor<Battery>,
+        BatteryStatisticsRepository {
 
     default List<Battery> filter(BatterySearchCriteria criteria) {
-        Specification<Battery> spec = Specification.where(null);
-
-        if (criteria.startPostcode() != null && criteria.endPostcode() != null) {
-            spec = spec.and((root, query, cb) ->
-                    cb.between(root.get(Battery.Fields.postcode), criteria.startPostcode(), criteria.endPostcode()));
-        }
-
-        if (criteria.minCapacity() != null) {
-            spec = spec.and((root, query, cb) ->
-                    cb.ge(root.get(Battery.Fields.wattCapacity), criteria.minCapacity()));
-        }
-
-        if (criteria.maxCapacity() != null) {
-            spec = spec.and((root, query, cb) ->
-                    cb.le(root.get(Battery.Fields.wattCapacity), criteria.maxCapacity()));
-        }
-
-        return findAll(spec, Sort.by(Sort.Order.asc(Battery.Fields.name).ignoreCase())
+        return findAll(BatterySpecifications.matching(criteria),
+                Sort.by(Sort.Order.asc(Battery.Fields.name).ignoreCase())
         );
     }
 
 }
-
-
@@ -0,0 +1,11 @@
+package org.virtualpowerplant.repository;
+
+/**
+ * Receives battery rows one at a time from {@link BatteryJdbcRepository#scan(BatteryRowHandler)} without
+ * materialising an entity or DTO per row.
+ */
+@FunctionalInterface
+public interface BatteryRowHandler {
+
+    void accept(String tenantId, String name, int postcode, double wattCapacity);
+}
@@ -0,0 +1,50 @@
+package org.virtualpowerplant.repository;
+
+import org.springframework.data.jpa.domain.Specification;
+import org.virtualpowerplant.entity.Battery;
+import org.virtualpowerplant.model.BatterySearchCriteria;
+
+import java.util.Arrays;
+
+public final class BatterySpecifications {
+
+    private BatterySpecifications() {
+    }
+
+    /**
+     * Always scoped to one tenant, the criteria's or else the current request's.
+     */
+    public static Specification<Battery> matching(BatterySearchCriteria criteria) {
+        var tenantId = criteria.effectiveTenantId();
+        Specification<Battery> spec = Specification.where((root, query, cb) ->
+                cb.equal(root.get(Battery.Fields.tenantId), tenantId));
+
+        if (criteria.startPostcode() != null && criteria.endPostcode() != null) {
+            spec = spec.and((root, query, cb) ->
+                    cb.between(root.get(Battery.Fields.postcode), criteria.startPostcode(), criteria.endPostcode()));
+        }
+
+        if (criteria.minCapacity() != null) {
+            spec = spec.and((root, query, cb) ->
+                    cb.ge(root.get(Battery.Fields.wattCapacity), criteria.minCapacity()));
+        }
+
+        if (criteria.maxCapacity() != null) {
+            spec = spec.and((root, query, cb) ->
+                    cb.le(root.get(Battery.Fields.wattCapacity), criteria.maxCapacity()));
+        }
+
+        return spec;
+    }
+
+    /**
+     * Batteries whose postcode is one of the given ones; an empty array matches nothing.
+     */
+    public static Specification<Battery> postcodeIn(int[] postcodes) {
+        if (postcodes.length == 0) {
+            return (root, query, cb) -> cb.disjunction();
+        }
+        var values = Arrays.stream(postcodes).boxed().toList();
+        return (root, query, cb) -> root.get(Battery.Fields.postcode).in(values);
+    }
+}
@@ -0,0 +1,33 @@
+package org.virtualpowerplant.repository;
+
+import org.springframework.data.jpa.domain.Specification;
+import org.virtualpowerplant.entity.Battery;
+import org.virtualpowerplant.model.BatteryAggregate;
+import org.virtualpowerplant.model.BatteryNameCursor;
+import org.virtualpowerplant.model.BatteryNamePage;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Scalar, non-entity queries backing the statistics endpoints. Nothing returned here is attached to
+ * the persistence context.
+ */
+public interface BatteryStatisticsRepository {
+
+    BatteryAggregate aggregate(Specification<Battery> spec);
+
+    List<String> findNames(Specification<Battery> spec);
+
+    /**
+     * Keyset page of names ordered by {@code lower(name), id}, starting after {@code after} (or from the
+     * beginning when it is {@code null}).
+     */
+    BatteryNamePage findNamePage(Specification<Battery> spec, BatteryNameCursor after, int limit);
+
+    /**
+     * Names in the same order as {@link #findNames(Specification)}, read through a database cursor. Must be
+     * consumed and closed inside a transaction.
+     */
+    Stream<String> streamNames(Specification<Battery> spec);
+}
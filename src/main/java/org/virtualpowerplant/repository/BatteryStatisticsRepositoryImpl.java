@@ -0,0 +1,122 @@
+package org.virtualpowerplant.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.domain.Specification;
+import org.virtualpowerplant.entity.Battery;
+import org.virtualpowerplant.model.BatteryAggregate;
+import org.virtualpowerplant.model.BatteryNameCursor;
+import org.virtualpowerplant.model.BatteryNamePage;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+class BatteryStatisticsRepositoryImpl implements BatteryStatisticsRepository {
+    private static final int STREAM_FETCH_SIZE = 1_000;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public BatteryAggregate aggregate(Specification<Battery> spec) {
+        var cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Battery> root = query.from(Battery.class);
+        var capacity = root.<Double>get(Battery.Fields.wattCapacity);
+
+        query.multiselect(cb.count(root), cb.sum(capacity), cb.avg(capacity));
+        applyWhere(spec, root, query);
+
+        var result = entityManager.createQuery(query)
+                                  .setHint(HibernateHints.HINT_READ_ONLY, true)
+                                  .getSingleResult();
+        var count = result.get(0, Long.class);
+        if (count == null || count == 0) {
+            return BatteryAggregate.EMPTY;
+        }
+        return new BatteryAggregate(count, result.get(1, Double.class), result.get(2, Double.class));
+    }
+
+    @Override
+    public List<String> findNames(Specification<Battery> spec) {
+        var cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<String> query = cb.createQuery(String.class);
+        Root<Battery> root = query.from(Battery.class);
+        var name = root.<String>get(Battery.Fields.name);
+
+        query.select(name).orderBy(cb.asc(cb.lower(name)));
+        applyWhere(spec, root, query);
+
+        return entityManager.createQuery(query)
+                            .setHint(HibernateHints.HINT_READ_ONLY, true)
+                            .getResultList();
+    }
+
+    @Override
+    public BatteryNamePage findNamePage(Specification<Battery> spec, BatteryNameCursor after, int limit) {
+        var cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Battery> root = query.from(Battery.class);
+        var name = root.<String>get(Battery.Fields.name);
+        var sortKey = cb.lower(name);
+        var id = root.<UUID>get("id");
+
+        query.multiselect(name, sortKey, id).orderBy(cb.asc(sortKey), cb.asc(id));
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (after != null) {
+            var keyset = cb.or(
+                    cb.greaterThan(sortKey, after.sortKey()),
+                    cb.and(cb.equal(sortKey, after.sortKey()), cb.greaterThan(id, after.id())));
+            predicate = predicate == null ? keyset : cb.and(predicate, keyset);
+        }
+        if (predicate != null) {
+            query.where(predicate);
+        }
+
+        var rows = entityManager.createQuery(query)
+                                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                                .setMaxResults(limit + 1)
+                                .getResultList();
+
+        var pageSize = Math.min(rows.size(), limit);
+        var names = new ArrayList<String>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            names.add(rows.get(i).get(0, String.class));
+        }
+        if (rows.size() <= limit) {
+            return new BatteryNamePage(names, null);
+        }
+        var last = rows.get(limit - 1);
+        return new BatteryNamePage(names, new BatteryNameCursor(last.get(1, String.class), last.get(2, UUID.class)));
+    }
+
+    @Override
+    public Stream<String> streamNames(Specification<Battery> spec) {
+        var cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<String> query = cb.createQuery(String.class);
+        Root<Battery> root = query.from(Battery.class);
+        var name = root.<String>get(Battery.Fields.name);
+
+        query.select(name).orderBy(cb.asc(cb.lower(name)));
+        applyWhere(spec, root, query);
+
+        return entityManager.createQuery(query)
+                            .setHint(HibernateHints.HINT_READ_ONLY, true)
+                            .setHint(HibernateHints.HINT_FETCH_SIZE, STREAM_FETCH_SIZE)
+                            .getResultStream();
+    }
+
+    private <T> void applyWhere(Specification<Battery> spec, Root<Battery> root, CriteriaQuery<T> query) {
+        var predicate = spec.toPredicate(root, query, entityManager.getCriteriaBuilder());
+        if (predicate != null) {
+            query.where(predicate);
+        }
+    }
+}
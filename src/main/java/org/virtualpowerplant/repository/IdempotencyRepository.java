@@ -0,0 +1,61 @@
+package org.virtualpowerplant.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.Optional;
+
+/**
+ * Claims and completes {@code idempotency_record} rows, keyed by tenant and key. A claim is an
+ * {@code INSERT ... ON CONFLICT DO NOTHING}, so a second request with the same key waits on the first
+ * one's uncommitted row and only proceeds once that transaction has committed or rolled back.
+ */
+@Repository
+@RequiredArgsConstructor
+public class IdempotencyRepository {
+    private static final String CLAIM_SQL = """
+            INSERT INTO idempotency_record (tenant_id, idempotency_key, request_hash, created_at)
+            VALUES (?, ?, ?, now())
+            ON CONFLICT (tenant_id, idempotency_key) DO NOTHING
+            """;
+    private static final String FIND_SQL = """
+            SELECT request_hash, response
+            FROM idempotency_record
+            WHERE tenant_id = ? AND idempotency_key = ?
+            """;
+    private static final String COMPLETE_SQL =
+            "UPDATE idempotency_record SET response = ? WHERE tenant_id = ? AND idempotency_key = ?";
+    private static final String PURGE_SQL = "DELETE FROM idempotency_record WHERE created_at < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Returns true if this call took ownership of the key.
+     */
+    public boolean claim(String tenantId, String idempotencyKey, String requestHash) {
+        return jdbcTemplate.update(CLAIM_SQL, tenantId, idempotencyKey, requestHash) == 1;
+    }
+
+    public Optional<StoredRequest> find(String tenantId, String idempotencyKey) {
+        return jdbcTemplate.query(FIND_SQL,
+                (rs, rowNum) -> new StoredRequest(rs.getString(1), rs.getString(2)),
+                tenantId, idempotencyKey).stream().findFirst();
+    }
+
+    public void complete(String tenantId, String idempotencyKey, String response) {
+        jdbcTemplate.update(COMPLETE_SQL, response, tenantId, idempotencyKey);
+    }
+
+    public int purgeOlderThan(Duration retention) {
+        return jdbcTemplate.update(PURGE_SQL, OffsetDateTime.now().minus(retention));
+    }
+
+    /**
+     * @param response {@code null} while the first request with this key has not completed
+     */
+    public record StoredRequest(String requestHash, String response) {
+    }
+}
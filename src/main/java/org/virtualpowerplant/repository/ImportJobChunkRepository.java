@@ -0,0 +1,31 @@
+package org.virtualpowerplant.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+import org.virtualpowerplant.entity.ImportJobChunk;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface ImportJobChunkRepository extends JpaRepository<ImportJobChunk, ImportJobChunk.Key> {
+
+    @Transactional
+    @Query("select c.chunkIndex from ImportJobChunk c where c.jobId = :jobId")
+    List<Integer> findCommittedChunkIndexes(UUID jobId);
+
+    /**
+     * Fails with a key violation if the chunk was already written, rolling back the duplicate write.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO import_job_chunk (job_id, chunk_index, rows_written) VALUES (:jobId, :chunkIndex, :rows)",
+            nativeQuery = true)
+    void markCommitted(UUID jobId, int chunkIndex, int rows);
+
+    @Transactional
+    @Modifying
+    @Query("delete from ImportJobChunk c where c.jobId = :jobId")
+    int deleteByJobId(UUID jobId);
+}
@@ -0,0 +1,57 @@
+package org.virtualpowerplant.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+import org.virtualpowerplant.entity.ImportJob;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Reads are declared read-write so they go to the primary: a job is looked up straight after it is
+ * submitted, before a replica may have seen it. The bulk updates bump the version themselves, as JPQL
+ * updates bypass {@code @Version}.
+ */
+public interface ImportJobRepository extends JpaRepository<ImportJob, UUID> {
+
+    @Override
+    @Transactional
+    Optional<ImportJob> findById(UUID id);
+
+    @Transactional
+    List<ImportJob> findByOwnerAndStatusIn(String owner, Collection<ImportJob.Status> statuses);
+
+    @Transactional
+    @Modifying
+    @Query("""
+            update ImportJob j
+            set j.status = :status, j.errorMessage = :errorMessage, j.version = j.version + 1,
+                j.updatedAt = local datetime
+            where j.id = :id
+            """)
+    int updateStatus(UUID id, ImportJob.Status status, String errorMessage);
+
+    @Transactional
+    @Modifying
+    @Query("""
+            update ImportJob j
+            set j.rowsParsed = :parsed, j.rowsValidated = :validated, j.rowsFailed = :failed,
+                j.version = j.version + 1, j.updatedAt = local datetime
+            where j.id = :id
+            """)
+    int updateParseProgress(UUID id, long parsed, long validated, long failed);
+
+    @Transactional
+    @Modifying
+    @Query("""
+            update ImportJob j
+            set j.rowsWritten = j.rowsWritten + :rows, j.chunksCommitted = j.chunksCommitted + 1,
+                j.version = j.version + 1, j.updatedAt = local datetime
+            where j.id = :id
+            """)
+    int addCommittedChunk(UUID id, long rows);
+}
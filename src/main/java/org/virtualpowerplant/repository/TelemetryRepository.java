@@ -0,0 +1,144 @@
+package org.virtualpowerplant.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.virtualpowerplant.model.TelemetryBuffer;
+
+import java.nio.ByteBuffer;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Append-only storage for battery telemetry. Readings go to {@code battery_telemetry}, which is range
+ * partitioned by day on {@code recorded_at}; partitions are created the first time a day is written to
+ * and carry only a BRIN index, which stays tiny and cheap to maintain for insert-ordered time series.
+ * Rows are written with binary {@code COPY}, encoded straight from the primitive buffer.
+ */
+@Repository
+@RequiredArgsConstructor
+public class TelemetryRepository {
+    /**
+     * Encoded size of one row: field count, then length-prefixed uuid, timestamptz and two float8 values.
+     */
+    public static final int BYTES_PER_ROW = 2 + (4 + 16) + (4 + 8) + (4 + 8) + (4 + 8);
+
+    private static final String CREATE_TABLE_SQL = """
+            CREATE TABLE IF NOT EXISTS battery_telemetry (
+                battery_id uuid NOT NULL,
+                recorded_at timestamptz NOT NULL,
+                state_of_charge double precision NOT NULL,
+                power_watts double precision NOT NULL
+            ) PARTITION BY RANGE (recorded_at)
+            """;
+    private static final String CREATE_INDEX_SQL =
+            "CREATE INDEX IF NOT EXISTS idx_battery_telemetry_recorded_at ON battery_telemetry USING brin (recorded_at)";
+    private static final String CREATE_PARTITION_SQL = """
+            CREATE TABLE IF NOT EXISTS %s PARTITION OF battery_telemetry
+            FOR VALUES FROM ('%s 00:00:00+00') TO ('%s 00:00:00+00')
+            """;
+    private static final String COPY_SQL = """
+            COPY battery_telemetry (battery_id, recorded_at, state_of_charge, power_watts)
+            FROM STDIN WITH (FORMAT binary)
+            """;
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.BASIC_ISO_DATE;
+    private static final byte[] COPY_SIGNATURE = {'P', 'G', 'C', 'O', 'P', 'Y', '\n', (byte) 0xff, '\r', '\n', 0};
+    private static final long POSTGRES_EPOCH_MICROS = TimeUnit.SECONDS.toMicros(946_684_800L);
+    private static final long MICROS_PER_DAY = TimeUnit.DAYS.toMicros(1);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Set<LocalDate> knownPartitions = ConcurrentHashMap.newKeySet();
+    private volatile boolean schemaReady;
+
+    /**
+     * Writes every reading in the buffer with one binary COPY and returns the number of rows stored.
+     */
+    public long copy(TelemetryBuffer buffer) {
+        if (buffer.size() == 0) {
+            return 0;
+        }
+        ensurePartitions(buffer);
+
+        var encoded = encode(buffer);
+        return jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            CopyIn copyIn = connection.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY_SQL);
+            try {
+                copyIn.writeToCopy(encoded.array(), 0, encoded.position());
+                return copyIn.endCopy();
+            } catch (SQLException e) {
+                if (copyIn.isActive()) {
+                    copyIn.cancelCopy();
+                }
+                throw e;
+            }
+        });
+    }
+
+    static ByteBuffer encode(TelemetryBuffer buffer) {
+        var out = buffer.scratch();
+        out.put(COPY_SIGNATURE).putInt(0).putInt(0);
+        for (int i = 0; i < buffer.size(); i++) {
+            out.putShort((short) 4)
+               .putInt(16).putLong(buffer.batteryIdMsb(i)).putLong(buffer.batteryIdLsb(i))
+               .putInt(8).putLong(buffer.recordedAtMicros(i) - POSTGRES_EPOCH_MICROS)
+               .putInt(8).putDouble(buffer.stateOfCharge(i))
+               .putInt(8).putDouble(buffer.powerWatts(i));
+        }
+        return out.putShort((short) -1);
+    }
+
+    private void ensurePartitions(TelemetryBuffer buffer) {
+        if (!schemaReady) {
+            createSchema();
+        }
+
+        var minDay = Long.MAX_VALUE;
+        var maxDay = Long.MIN_VALUE;
+        for (int i = 0; i < buffer.size(); i++) {
+            var day = Math.floorDiv(buffer.recordedAtMicros(i), MICROS_PER_DAY);
+            minDay = Math.min(minDay, day);
+            maxDay = Math.max(maxDay, day);
+        }
+        for (var day = minDay; day <= maxDay; day++) {
+            var date = LocalDate.ofEpochDay(day);
+            if (!knownPartitions.contains(date)) {
+                createPartition(date);
+            }
+        }
+    }
+
+    private synchronized void createSchema() {
+        if (!schemaReady) {
+            jdbcTemplate.execute(CREATE_TABLE_SQL);
+            jdbcTemplate.execute(CREATE_INDEX_SQL);
+            schemaReady = true;
+        }
+    }
+
+    private void createPartition(LocalDate date) {
+        var name = "battery_telemetry_p" + date.format(PARTITION_SUFFIX);
+        try {
+            jdbcTemplate.execute(CREATE_PARTITION_SQL.formatted(name, date, date.plusDays(1)));
+        } catch (DataAccessException e) {
+            // Another node may have created the same partition between our IF NOT EXISTS check and the
+            // catalog insert; only rethrow if it is still missing.
+            if (!partitionExists(name)) {
+                throw e;
+            }
+        }
+        knownPartitions.add(date);
+    }
+
+    private boolean partitionExists(String name) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT to_regclass(?) IS NOT NULL", Boolean.class, name));
+    }
+}
@@ -0,0 +1,49 @@
+package org.virtualpowerplant.service;
+
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.virtualpowerplant.exception.Error;
+import org.virtualpowerplant.model.BatteryRequestDto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Validates a registration batch element by element in a single pass. Violations are turned straight into
+ * indexed {@link Error.ErrorDetail}s instead of failing the whole batch, so nothing is thrown however many
+ * elements are invalid.
+ */
+@Component
+@RequiredArgsConstructor
+public class BatteryBatchValidator {
+    private final Validator validator;
+
+    public Result validate(List<BatteryRequestDto> requests) {
+        var valid = new ArrayList<BatteryRequestDto>(requests.size());
+        var errors = new ArrayList<Error.ErrorDetail>();
+        for (int i = 0; i < requests.size(); i++) {
+            var request = requests.get(i);
+            if (request == null) {
+                errors.add(new Error.ErrorDetail("[" + i + "]", "must not be null"));
+                continue;
+            }
+            var violations = validator.validate(request);
+            if (violations.isEmpty()) {
+                valid.add(request);
+                continue;
+            }
+            for (var violation : violations) {
+                errors.add(new Error.ErrorDetail("[" + i + "]." + violation.getPropertyPath(), violation.getMessage()));
+            }
+        }
+        return new Result(valid, requests.size() - valid.size(), errors);
+    }
+
+    /**
+     * @param valid    the valid elements in their original order
+     * @param rejected number of invalid elements, which may each have several errors
+     */
+    public record Result(List<BatteryRequestDto> valid, int rejected, List<Error.ErrorDetail> errors) {
+    }
+}
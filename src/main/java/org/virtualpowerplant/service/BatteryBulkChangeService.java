@@ -0,0 +1,126 @@
+package org.virtualpowerplant.service;
+
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.virtualpowerplant.config.BulkChangeProperties;
+import org.virtualpowerplant.config.TenantContext;
+import org.virtualpowerplant.entity.Battery;
+import org.virtualpowerplant.exception.BadRequestException;
+import org.virtualpowerplant.model.BatteryBulkResultDto;
+import org.virtualpowerplant.model.BatteryCapacityUpdateRequestDto;
+import org.virtualpowerplant.model.BatteryDecommissionRequestDto;
+import org.virtualpowerplant.model.BatteryRefDto;
+import org.virtualpowerplant.model.BatterySearchCriteria;
+import org.virtualpowerplant.repository.BatteryJdbcRepository;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Bulk capacity updates and decommissions of the current tenant's batteries, selected by id or by a filter
+ * with a closed postcode range. A filter is resolved to ids once up front, and rejected before anything
+ * changes if it matches more than {@code maxIds}; the ids are then changed in chunks of {@code chunkSize}, each
+ * with one set-based statement in its own transaction, so a large change neither holds its locks until
+ * the end nor loads any entities. A failure leaves the chunks already committed in place.
+ * <p>
+ * Batteries listed with a version are only changed if they still have it; the rest are reported back as
+ * skipped rather than failing the request.
+ */
+@Service
+@RequiredArgsConstructor
+public class BatteryBulkChangeService {
+    private static final Logger logger = LoggerFactory.getLogger(BatteryBulkChangeService.class);
+
+    private final BatteryService batteryService;
+    private final BatteryJdbcRepository batteryJdbcRepository;
+    private final BulkChangeProperties bulkChangeProperties;
+
+    public BatteryBulkResultDto updateCapacity(BatteryCapacityUpdateRequestDto request) {
+        if ((request.wattCapacity() == null) == (request.capacityFactor() == null)) {
+            throw new BadRequestException("Exactly one of wattCapacity and capacityFactor must be given");
+        }
+        var selection = select(request.batteries(), request.filter());
+        logger.info("Updating capacity of {} batteries", selection.batteries().size());
+        return apply(selection, chunk -> batteryService.updateCapacityChunk(chunk, selection.criteria(),
+                request.wattCapacity(), request.capacityFactor()));
+    }
+
+    public BatteryBulkResultDto decommission(BatteryDecommissionRequestDto request) {
+        var selection = select(request.batteries(), request.filter());
+        logger.info("Decommissioning {} batteries", selection.batteries().size());
+        return apply(selection, chunk -> batteryService.decommissionChunk(chunk, selection.criteria()));
+    }
+
+    private Selection select(List<BatteryRefDto> batteries, BatterySearchCriteria filter) {
+        var tenantId = TenantContext.current();
+        if ((batteries == null) == (filter == null)) {
+            throw new BadRequestException("Exactly one of batteries and filter must be given");
+        }
+        if (filter != null) {
+            // normalized() drops a half-open range, which would select the whole fleet.
+            if (filter.startPostcode() == null || filter.endPostcode() == null) {
+                throw new BadRequestException("A filter must give both startPostcode and endPostcode");
+            }
+            var criteria = filter.withTenantId(tenantId).normalized();
+            var ids = batteryJdbcRepository.findMatchingIds(criteria, bulkChangeProperties.maxIds() + 1);
+            if (ids.size() > bulkChangeProperties.maxIds()) {
+                throw new BadRequestException("The filter matches more than " + bulkChangeProperties.maxIds()
+                        + " batteries; narrow it");
+            }
+            var refs = ids.stream()
+                          .map(id -> new BatteryRefDto(id, null))
+                          .toList();
+            return new Selection(refs, criteria, false);
+        }
+
+        if (batteries.size() > bulkChangeProperties.maxIds()) {
+            throw new BadRequestException("At most " + bulkChangeProperties.maxIds() + " batteries can be changed at once");
+        }
+        if (batteries.stream().anyMatch(Objects::isNull)) {
+            throw new BadRequestException("Batteries must not contain null elements");
+        }
+        // A repeated id is changed once, under the last version given for it.
+        var unique = new LinkedHashMap<UUID, BatteryRefDto>();
+        for (BatteryRefDto battery : batteries) {
+            unique.put(battery.id(), battery);
+        }
+        var criteria = BatterySearchCriteria.builder().tenantId(tenantId).build();
+        return new Selection(List.copyOf(unique.values()), criteria, true);
+    }
+
+    private BatteryBulkResultDto apply(Selection selection, Function<List<BatteryRefDto>, List<Battery>> writer) {
+        var batteries = selection.batteries();
+        var changed = new HashSet<UUID>(batteries.size());
+        var chunkSize = bulkChangeProperties.chunkSize();
+        for (int from = 0; from < batteries.size(); from += chunkSize) {
+            var chunk = batteries.subList(from, Math.min(from + chunkSize, batteries.size()));
+            for (Battery battery : writer.apply(chunk)) {
+                changed.add(battery.getId());
+            }
+        }
+
+        var skipped = !selection.byId()
+                ? List.<UUID>of()
+                : batteries.stream()
+                           .map(BatteryRefDto::id)
+                           .filter(id -> !changed.contains(id))
+                           .toList();
+        return BatteryBulkResultDto.builder()
+                                   .affected(changed.size())
+                                   .skipped(skipped)
+                                   .build();
+    }
+
+    /**
+     * @param criteria the tenant and bounds every changed battery must still match when its chunk runs
+     * @param byId     whether the batteries were listed by the client, so unchanged ones are worth reporting
+     */
+    private record Selection(List<BatteryRefDto> batteries, BatterySearchCriteria criteria, boolean byId) {
+    }
+}
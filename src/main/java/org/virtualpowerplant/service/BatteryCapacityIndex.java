@@ -0,0 +1,356 @@
+package org.virtualpowerplant.service;
+
+import org.virtualpowerplant.model.BatteryAggregate;
+import org.virtualpowerplant.model.BatterySearchCriteria;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Immutable snapshot of every battery held as parallel primitive arrays sorted by postcode, with
+ * cumulative capacity so that the total and count for a postcode range come from two binary searches.
+ * A second, capacity-sorted array with its own prefix sums answers capacity-only ranges the same way;
+ * ranges constrained on both dimensions fall back to scanning the postcode slice.
+ * <p>
+ * New and removed batteries are merged into a fresh snapshot in linear time, so readers never need a lock;
+ * {@link TieredCapacityIndex} keeps frequent small merges from copying a large snapshot each time.
+ */
+public final class BatteryCapacityIndex {
+    public static final BatteryCapacityIndex EMPTY = new Builder(0).build();
+
+    private final int[] postcodes;
+    private final double[] capacities;
+    private final String[] names;
+    private final double[] capacityPrefix;
+    private final double[] sortedCapacities;
+    private final double[] sortedCapacityPrefix;
+
+    private BatteryCapacityIndex(int[] postcodes, double[] capacities, String[] names, double[] sortedCapacities) {
+        this.postcodes = postcodes;
+        this.capacities = capacities;
+        this.names = names;
+        this.capacityPrefix = prefixSums(capacities);
+        this.sortedCapacities = sortedCapacities;
+        this.sortedCapacityPrefix = prefixSums(sortedCapacities);
+    }
+
+    public int size() {
+        return postcodes.length;
+    }
+
+    public BatteryAggregate aggregate(BatterySearchCriteria criteria) {
+        var minCapacity = criteria.minCapacity();
+        var maxCapacity = criteria.maxCapacity();
+        long count;
+        double total;
+
+        if (minCapacity == null && maxCapacity == null) {
+            var from = fromIndex(criteria);
+            var to = Math.max(from, toIndex(criteria));
+            count = to - from;
+            total = capacityPrefix[to] - capacityPrefix[from];
+        } else if (!hasPostcodeRange(criteria)) {
+            var from = minCapacity == null ? 0 : lowerBound(sortedCapacities, minCapacity);
+            var to = Math.max(from, maxCapacity == null ? sortedCapacities.length : upperBound(sortedCapacities, maxCapacity));
+            count = to - from;
+            total = sortedCapacityPrefix[to] - sortedCapacityPrefix[from];
+        } else {
+            count = 0;
+            total = 0;
+            for (int i = fromIndex(criteria), to = toIndex(criteria); i < to; i++) {
+                if (withinCapacity(capacities[i], minCapacity, maxCapacity)) {
+                    count++;
+                    total += capacities[i];
+                }
+            }
+        }
+
+        return count == 0 ? BatteryAggregate.EMPTY : new BatteryAggregate(count, total, total / count);
+    }
+
+    public List<String> findNames(BatterySearchCriteria criteria) {
+        var result = new ArrayList<String>();
+        collectNames(criteria, result);
+        result.sort(String.CASE_INSENSITIVE_ORDER);
+        return result;
+    }
+
+    /**
+     * Adds the names of the matching batteries to {@code result}, unsorted.
+     */
+    void collectNames(BatterySearchCriteria criteria, List<String> result) {
+        var minCapacity = criteria.minCapacity();
+        var maxCapacity = criteria.maxCapacity();
+        for (int i = fromIndex(criteria), to = toIndex(criteria); i < to; i++) {
+            if (withinCapacity(capacities[i], minCapacity, maxCapacity)) {
+                result.add(names[i]);
+            }
+        }
+    }
+
+    /**
+     * Returns a new snapshot containing this one plus the given batteries.
+     */
+    public BatteryCapacityIndex merge(Builder additions) {
+        return merge(additions.build());
+    }
+
+    BatteryCapacityIndex merge(BatteryCapacityIndex added) {
+        if (added.size() == 0) {
+            return this;
+        }
+
+        var size = size() + added.size();
+        var mergedPostcodes = new int[size];
+        var mergedCapacities = new double[size];
+        var mergedNames = new String[size];
+        int i = 0;
+        int j = 0;
+        for (int k = 0; k < size; k++) {
+            if (j == added.size() || (i < size() && postcodes[i] <= added.postcodes[j])) {
+                mergedPostcodes[k] = postcodes[i];
+                mergedCapacities[k] = capacities[i];
+                mergedNames[k] = names[i++];
+            } else {
+                mergedPostcodes[k] = added.postcodes[j];
+                mergedCapacities[k] = added.capacities[j];
+                mergedNames[k] = added.names[j++];
+            }
+        }
+
+        var mergedSorted = new double[size];
+        i = 0;
+        j = 0;
+        for (int k = 0; k < size; k++) {
+            if (j == added.size() || (i < size() && sortedCapacities[i] <= added.sortedCapacities[j])) {
+                mergedSorted[k] = sortedCapacities[i++];
+            } else {
+                mergedSorted[k] = added.sortedCapacities[j++];
+            }
+        }
+
+        return new BatteryCapacityIndex(mergedPostcodes, mergedCapacities, mergedNames, mergedSorted);
+    }
+
+    /**
+     * Returns a new snapshot without one occurrence of each given battery, matched by name, postcode and
+     * capacity; batteries it does not hold are ignored.
+     */
+    public BatteryCapacityIndex remove(Builder removals) {
+        return remove(removals.build());
+    }
+
+    /**
+     * Same as {@link #remove(Builder)}, but uses up the entries of {@code removed} it matches, so removing the
+     * same batteries from several snapshots in turn takes out one occurrence of each across all of them.
+     */
+    BatteryCapacityIndex remove(BatteryCapacityIndex removed) {
+        if (removed.size() == 0 || !holdsAnyPostcodeOf(removed)) {
+            return this;
+        }
+
+        var keptPostcodes = new int[size()];
+        var keptCapacities = new double[size()];
+        var keptNames = new String[size()];
+        var takenCapacities = new double[removed.size()];
+        var kept = 0;
+        var taken = 0;
+        var j = 0;
+        for (int i = 0; i < size(); i++) {
+            while (j < removed.size() && removed.postcodes[j] < postcodes[i]) {
+                j++;
+            }
+            if (takeMatch(removed, j, postcodes[i], capacities[i], names[i])) {
+                takenCapacities[taken++] = capacities[i];
+            } else {
+                keptPostcodes[kept] = postcodes[i];
+                keptCapacities[kept] = capacities[i];
+                keptNames[kept++] = names[i];
+            }
+        }
+        if (taken == 0) {
+            return this;
+        }
+
+        // Drop the capacities of exactly the batteries taken out above, so both orderings stay in step.
+        Arrays.sort(takenCapacities, 0, taken);
+        var keptSorted = new double[kept];
+        var keptSortedCount = 0;
+        j = 0;
+        for (double capacity : sortedCapacities) {
+            if (j < taken && takenCapacities[j] == capacity) {
+                j++;
+            } else {
+                keptSorted[keptSortedCount++] = capacity;
+            }
+        }
+
+        return new BatteryCapacityIndex(Arrays.copyOf(keptPostcodes, kept), Arrays.copyOf(keptCapacities, kept),
+                Arrays.copyOf(keptNames, kept), keptSorted);
+    }
+
+    /**
+     * Looks for an unused removal of the given battery among those of its postcode, starting at {@code from},
+     * and uses it up by clearing its name.
+     */
+    private static boolean takeMatch(BatteryCapacityIndex removed, int from, int postcode, double capacity, String name) {
+        for (int k = from; k < removed.size() && removed.postcodes[k] == postcode; k++) {
+            if (removed.names[k] != null && removed.capacities[k] == capacity && removed.names[k].equals(name)) {
+                removed.names[k] = null;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean holdsAnyPostcodeOf(BatteryCapacityIndex removed) {
+        for (int j = 0; j < removed.size(); j++) {
+            var i = lowerBound(postcodes, removed.postcodes[j]);
+            if (i < postcodes.length && postcodes[i] == removed.postcodes[j]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int fromIndex(BatterySearchCriteria criteria) {
+        return hasPostcodeRange(criteria) ? lowerBound(postcodes, criteria.startPostcode()) : 0;
+    }
+
+    private int toIndex(BatterySearchCriteria criteria) {
+        return hasPostcodeRange(criteria) ? upperBound(postcodes, criteria.endPostcode()) : postcodes.length;
+    }
+
+    private static boolean hasPostcodeRange(BatterySearchCriteria criteria) {
+        return criteria.startPostcode() != null && criteria.endPostcode() != null;
+    }
+
+    private static boolean withinCapacity(double capacity, Double minCapacity, Double maxCapacity) {
+        return (minCapacity == null || capacity >= minCapacity) && (maxCapacity == null || capacity <= maxCapacity);
+    }
+
+    private static double[] prefixSums(double[] values) {
+        var prefix = new double[values.length + 1];
+        for (int i = 0; i < values.length; i++) {
+            prefix[i + 1] = prefix[i] + values[i];
+        }
+        return prefix;
+    }
+
+    /**
+     * First index whose value is {@code >= key}.
+     */
+    private static int lowerBound(int[] values, int key) {
+        int low = 0;
+        int high = values.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (values[mid] < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * First index whose value is {@code > key}.
+     */
+    private static int upperBound(int[] values, int key) {
+        int low = 0;
+        int high = values.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (values[mid] <= key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static int lowerBound(double[] values, double key) {
+        int low = 0;
+        int high = values.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (values[mid] < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static int upperBound(double[] values, double key) {
+        int low = 0;
+        int high = values.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (values[mid] <= key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Accumulates unsorted rows into growable primitive arrays and sorts them into an index.
+     */
+    public static final class Builder {
+        private int[] postcodes;
+        private double[] capacities;
+        private String[] names;
+        private int size;
+
+        public Builder(int expectedSize) {
+            var capacity = Math.max(expectedSize, 16);
+            this.postcodes = new int[capacity];
+            this.capacities = new double[capacity];
+            this.names = new String[capacity];
+        }
+
+        public Builder add(String name, int postcode, double wattCapacity) {
+            if (size == postcodes.length) {
+                var grown = size + (size >> 1);
+                postcodes = Arrays.copyOf(postcodes, grown);
+                capacities = Arrays.copyOf(capacities, grown);
+                names = Arrays.copyOf(names, grown);
+            }
+            postcodes[size] = postcode;
+            capacities[size] = wattCapacity;
+            names[size] = name;
+            size++;
+            return this;
+        }
+
+        public BatteryCapacityIndex build() {
+            // Sort (postcode, position) pairs packed into longs so the sort stays on primitives.
+            var keys = new long[size];
+            for (int i = 0; i < size; i++) {
+                keys[i] = ((long) postcodes[i] << 32) | i;
+            }
+            Arrays.sort(keys);
+
+            var sortedPostcodes = new int[size];
+            var sortedCapacities = new double[size];
+            var sortedNames = new String[size];
+            for (int i = 0; i < size; i++) {
+                var position = (int) keys[i];
+                sortedPostcodes[i] = postcodes[position];
+                sortedCapacities[i] = capacities[position];
+                sortedNames[i] = names[position];
+            }
+
+            var byCapacity = Arrays.copyOf(capacities, size);
+            Arrays.sort(byCapacity);
+            return new BatteryCapacityIndex(sortedPostcodes, sortedCapacities, sortedNames, byCapacity);
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package org.virtualpowerplant.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.virtualpowerplant.config.ChangeFeedProperties;
+import org.virtualpowerplant.config.TenantContext;
+import org.virtualpowerplant.entity.Battery;
+import org.virtualpowerplant.entity.BatteryOutboxEvent;
+import org.virtualpowerplant.event.BatteriesModifiedEvent;
+import org.virtualpowerplant.event.BatteriesRegisteredEvent;
+import org.virtualpowerplant.exception.BadRequestException;
+import org.virtualpowerplant.mapper.BatteryMapper;
+import org.virtualpowerplant.model.BatteryChangeEventDto;
+import org.virtualpowerplant.model.BatteryChangesDto;
+import org.virtualpowerplant.repository.BatteryOutboxRepository;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * Change data capture feed of battery registrations, capacity updates and decommissions. Every changing
+ * transaction appends one outbox event per tenant, holding all of its batteries, just before it commits, so
+ * the feed contains exactly the committed changes in commit order. Consumers tail it from an offset, either by long-polling or over SSE, and
+ * receive events in batches read with a single query. Each consumer sees only its own tenant's events.
+ * <p>
+ * Waiting consumers are woken as soon as a local change commits and otherwise re-read the outbox
+ * every {@code recheckInterval}, which is how they see commits made by other instances.
+ */
+@Service
+public class BatteryChangeFeed {
+    private static final Logger logger = LoggerFactory.getLogger(BatteryChangeFeed.class);
+    private static final long PURGE_INTERVAL_NANOS = TimeUnit.HOURS.toNanos(1);
+
+    private final BatteryOutboxRepository batteryOutboxRepository;
+    private final BatteryMapper batteryMapper;
+    private final ObjectMapper objectMapper;
+    private final ChangeFeedProperties changeFeedProperties;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition committed = lock.newCondition();
+    private long commits;
+    private volatile long nextPurgeNanos = System.nanoTime();
+
+    public BatteryChangeFeed(BatteryOutboxRepository batteryOutboxRepository, BatteryMapper batteryMapper,
+                             ObjectMapper objectMapper, ChangeFeedProperties changeFeedProperties) {
+        this.batteryOutboxRepository = batteryOutboxRepository;
+        this.batteryMapper = batteryMapper;
+        this.objectMapper = objectMapper;
+        this.changeFeedProperties = changeFeedProperties;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onBatteriesRegistered(BatteriesRegisteredEvent event) {
+        append(BatteryOutboxEvent.Type.REGISTERED, event.batteries());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onBatteriesModified(BatteriesModifiedEvent event) {
+        if (event.decommissioned()) {
+            append(BatteryOutboxEvent.Type.DECOMMISSIONED, event.before());
+        } else {
+            append(BatteryOutboxEvent.Type.CAPACITY_UPDATED, event.after());
+        }
+    }
+
+    @TransactionalEventListener
+    public void onBatteriesCommitted(BatteriesRegisteredEvent event) {
+        signalCommit();
+    }
+
+    @TransactionalEventListener
+    public void onModificationCommitted(BatteriesModifiedEvent event) {
+        signalCommit();
+    }
+
+    /**
+     * @param after offset of the last event the consumer has seen, or {@code null} to start from the end
+     *              of the feed
+     * @param wait  how long to wait for a new event if there is none yet; capped at {@code maxWait}
+     */
+    public BatteryChangesDto poll(Long after, Integer limit, Duration wait) throws InterruptedException {
+        var tenantId = TenantContext.current();
+        var offset = resolveOffset(after);
+        var batchSize = batchSize(limit);
+        var waitNanos = Math.min(wait.toNanos(), changeFeedProperties.maxWait().toNanos());
+        var deadline = System.nanoTime() + waitNanos;
+
+        while (true) {
+            var observed = commits();
+            var events = batteryOutboxRepository.readAfter(tenantId, offset, batchSize);
+            var remaining = deadline - System.nanoTime();
+            if (!events.isEmpty() || remaining <= 0) {
+                return new BatteryChangesDto(events, nextOffset(offset, events));
+            }
+            awaitCommit(observed, Math.min(remaining, changeFeedProperties.recheckInterval().toNanos()));
+        }
+    }
+
+    /**
+     * Pushes every event after {@code after} as a {@code battery-change} SSE event whose id is its offset,
+     * then keeps the connection open and pushes new events as they commit.
+     */
+    public SseEmitter subscribe(Long after) {
+        var tenantId = TenantContext.current();
+        var start = resolveOffset(after);
+        var emitter = new SseEmitter(changeFeedProperties.subscriptionTimeout().toMillis());
+        var open = new AtomicBoolean(true);
+        emitter.onCompletion(() -> open.set(false));
+        emitter.onTimeout(() -> open.set(false));
+        emitter.onError(e -> open.set(false));
+
+        Thread.ofVirtual().name("battery-change-feed").start(() -> {
+            var offset = start;
+            try {
+                while (open.get()) {
+                    var observed = commits();
+                    var events = batteryOutboxRepository.readAfter(tenantId, offset, changeFeedProperties.maxBatchSize());
+                    for (var event : events) {
+                        emitter.send(SseEmitter.event()
+                                               .id(Long.toString(event.offset()))
+                                               .name("battery-change")
+                                               .data(event, MediaType.APPLICATION_JSON));
+                    }
+                    offset = nextOffset(offset, events);
+                    if (events.size() < changeFeedProperties.maxBatchSize()) {
+                        awaitCommit(observed, changeFeedProperties.recheckInterval().toNanos());
+                    }
+                }
+            } catch (IOException e) {
+                logger.debug("Battery change feed subscriber went away at offset {}", offset);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                emitter.complete();
+            } catch (RuntimeException e) {
+                emitter.completeWithError(e);
+            }
+        });
+        return emitter;
+    }
+
+    private void append(BatteryOutboxEvent.Type type, List<Battery> changed) {
+        if (changed.isEmpty()) {
+            return;
+        }
+        purgeExpiredEvents();
+        var byTenant = changed.stream()
+                              .collect(Collectors.groupingBy(Battery::tenantIdOrDefault, TreeMap::new,
+                                      Collectors.mapping(batteryMapper::toResponse, Collectors.toList())));
+        byTenant.forEach((tenantId, batteries) ->
+                batteryOutboxRepository.append(tenantId, type, batteries.size(), write(batteries)));
+    }
+
+    private void signalCommit() {
+        lock.lock();
+        try {
+            commits++;
+            committed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private long resolveOffset(Long after) {
+        if (after == null) {
+            return batteryOutboxRepository.latestOffset();
+        }
+        if (after < 0) {
+            throw new BadRequestException("after must not be negative");
+        }
+        return after;
+    }
+
+    private int batchSize(Integer limit) {
+        if (limit == null) {
+            return changeFeedProperties.maxBatchSize();
+        }
+        if (limit <= 0) {
+            throw new BadRequestException("limit must be positive");
+        }
+        return Math.min(limit, changeFeedProperties.maxBatchSize());
+    }
+
+    private static long nextOffset(long offset, List<BatteryChangeEventDto> events) {
+        return events.isEmpty() ? offset : events.getLast().offset();
+    }
+
+    private long commits() {
+        lock.lock();
+        try {
+            return commits;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Waits until a local change commits after {@code observed} was read, or the timeout passes.
+     */
+    private void awaitCommit(long observed, long timeoutNanos) throws InterruptedException {
+        lock.lock();
+        try {
+            var remaining = timeoutNanos;
+            while (commits == observed && remaining > 0) {
+                remaining = committed.awaitNanos(remaining);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void purgeExpiredEvents() {
+        var now = System.nanoTime();
+        if (now - nextPurgeNanos < 0) {
+            return;
+        }
+        nextPurgeNanos = now + PURGE_INTERVAL_NANOS;
+        var purged = batteryOutboxRepository.purgeOlderThan(changeFeedProperties.retention());
+        if (purged > 0) {
+            logger.debug("Purged {} expired battery change events", purged);
+        }
+    }
+
+    private String write(Object batteries) {
+        try {
+            return objectMapper.writeValueAsString(batteries);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not record battery change event", e);
+        }
+    }
+}
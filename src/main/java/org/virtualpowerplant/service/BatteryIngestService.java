@@ -0,0 +1,152 @@
+package org.virtualpowerplant.service;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.virtualpowerplant.config.IngestProperties;
+import org.virtualpowerplant.entity.Battery;
+import org.virtualpowerplant.exception.BadRequestException;
+import org.virtualpowerplant.exception.Error;
+import org.virtualpowerplant.mapper.BatteryMapper;
+import org.virtualpowerplant.model.BatteryIngestResultDto;
+import org.virtualpowerplant.model.BatteryRequestDto;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Streaming registration of large battery payloads. The body is read one record at a time (either a
+ * JSON array or newline-delimited JSON), each record is validated on its own and valid records are
+ * written in fixed-size chunks, so memory use is bounded by the chunk size rather than the payload.
+ */
+@Service
+@RequiredArgsConstructor
+public class BatteryIngestService {
+    private static final Logger logger = LoggerFactory.getLogger(BatteryIngestService.class);
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final BatteryMapper batteryMapper;
+    private final BatteryService batteryService;
+    private final IngestProperties ingestProperties;
+    private final IngestMetrics ingestMetrics;
+
+    public BatteryIngestResultDto ingest(InputStream body) {
+        var startNanos = System.nanoTime();
+        var chunkSize = ingestProperties.chunkSize();
+        var errors = new ArrayList<Error.ErrorDetail>();
+        var chunk = new ArrayList<Battery>(chunkSize);
+        long received = 0;
+        long accepted = 0;
+        long rejected = 0;
+
+        var timings = new StageTimings();
+        try (MappingIterator<BatteryRequestDto> records = objectMapper.readerFor(BatteryRequestDto.class)
+                                                                      .readValues(body)) {
+            var markNanos = System.nanoTime();
+            while (records.hasNextValue()) {
+                var request = records.nextValue();
+                markNanos = timings.add(IngestMetrics.Stage.BIND, markNanos);
+                if (request == null) {
+                    rejected++;
+                    if (errors.size() < ingestProperties.maxReportedErrors()) {
+                        errors.add(new Error.ErrorDetail("[" + received + "]", "must not be null"));
+                    }
+                    received++;
+                    continue;
+                }
+                var violations = validator.validate(request);
+                markNanos = timings.add(IngestMetrics.Stage.VALIDATE, markNanos);
+                if (violations.isEmpty()) {
+                    chunk.add(batteryMapper.toEntity(request));
+                    markNanos = timings.add(IngestMetrics.Stage.MAP, markNanos);
+                    if (chunk.size() == chunkSize) {
+                        writeChunk(chunk, timings);
+                        accepted += chunk.size();
+                        chunk = new ArrayList<>(chunkSize);
+                        markNanos = System.nanoTime();
+                    }
+                } else {
+                    rejected++;
+                    report(received, violations, errors);
+                    markNanos = System.nanoTime();
+                }
+                received++;
+            }
+        } catch (IOException e) {
+            logger.warn("Malformed ingest payload after {} records", received, e);
+            throw new BadRequestException("Malformed battery payload at record " + received
+                    + "; " + accepted + " batteries were already stored");
+        }
+
+        if (!chunk.isEmpty()) {
+            writeChunk(chunk, timings);
+            accepted += chunk.size();
+        }
+
+        var elapsedNanos = System.nanoTime() - startNanos;
+        var rowsPerSecond = elapsedNanos == 0 ? 0 : accepted * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+        logger.info("Ingested {} of {} batteries in {} ms ({} rows/s)",
+                accepted, received, TimeUnit.NANOSECONDS.toMillis(elapsedNanos), Math.round(rowsPerSecond));
+
+        return BatteryIngestResultDto.builder()
+                                     .received(received)
+                                     .accepted(accepted)
+                                     .rejected(rejected)
+                                     .elapsedMillis(TimeUnit.NANOSECONDS.toMillis(elapsedNanos))
+                                     .rowsPerSecond(rowsPerSecond)
+                                     .errors(errors)
+                                     .build();
+    }
+
+    private void writeChunk(List<Battery> chunk, StageTimings timings) {
+        var startNanos = System.nanoTime();
+        batteryService.registerChunk(chunk);
+        var writtenNanos = System.nanoTime();
+        ingestMetrics.record(IngestMetrics.Path.STREAM, IngestMetrics.Stage.WRITE, writtenNanos - startNanos);
+        ingestMetrics.recordBatch(IngestMetrics.Path.STREAM, chunk.size(), writtenNanos - timings.chunkStartNanos);
+        timings.flush();
+    }
+
+    private void report(long index, Iterable<ConstraintViolation<BatteryRequestDto>> violations,
+                        List<Error.ErrorDetail> errors) {
+        for (var violation : violations) {
+            if (errors.size() >= ingestProperties.maxReportedErrors()) {
+                return;
+            }
+            errors.add(new Error.ErrorDetail("[" + index + "]." + violation.getPropertyPath(), violation.getMessage()));
+        }
+    }
+
+    /**
+     * Sums per-record stage durations over one chunk so each timer gets one sample per chunk rather than
+     * one per record.
+     */
+    private final class StageTimings {
+        private final long[] nanos = new long[IngestMetrics.Stage.values().length];
+        private long chunkStartNanos = System.nanoTime();
+
+        long add(IngestMetrics.Stage stage, long sinceNanos) {
+            var now = System.nanoTime();
+            nanos[stage.ordinal()] += now - sinceNanos;
+            return now;
+        }
+
+        void flush() {
+            for (IngestMetrics.Stage stage : IngestMetrics.Stage.values()) {
+                if (nanos[stage.ordinal()] > 0) {
+                    ingestMetrics.record(IngestMetrics.Path.STREAM, stage, nanos[stage.ordinal()]);
+                    nanos[stage.ordinal()] = 0;
+                }
+            }
+            chunkStartNanos = System.nanoTime();
+        }
+    }
+}
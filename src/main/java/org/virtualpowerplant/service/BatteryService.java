@@ -1,26 +1,48 @@
 package org.virtualpowerplant.service;
 
-import jakarta.transaction.Transactional;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.virtualpowerplant.config.TenantContext;
 import org.virtualpowerplant.entity.Battery;
+import org.virtualpowerplant.event.BatteriesModifiedEvent;
+import org.virtualpowerplant.event.BatteriesRegisteredEvent;
+import org.virtualpowerplant.exception.BadRequestException;
 import org.virtualpowerplant.mapper.BatteryMapper;
+import org.virtualpowerplant.model.BatteryNameCursor;
+import org.virtualpowerplant.model.BatteryNamePage;
+import org.virtualpowerplant.model.BatteryNamePageRequest;
+import org.virtualpowerplant.model.BatteryRefDto;
 import org.virtualpowerplant.model.BatteryRequestDto;
 import org.virtualpowerplant.model.BatteryResponseDto;
 import org.virtualpowerplant.model.BatterySearchCriteria;
 import org.virtualpowerplant.model.BatteryStatisticsDto;
+import org.virtualpowerplant.repository.BatteryJdbcRepository;
 import org.virtualpowerplant.repository.BatteryRepository;
+import org.virtualpowerplant.repository.BatterySpecifications;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
+import java.util.Objects;
 
 @Service
 @RequiredArgsConstructor
 public class BatteryService {
+    public static final int MAX_BATCH_CRITERIA = 1000;
     private static final Logger logger = LoggerFactory.getLogger(BatteryService.class);
     private final BatteryRepository batteryRepository;
+    private final BatteryJdbcRepository batteryJdbcRepository;
     private final BatteryMapper batteryMapper;
+    private final BatteryStatisticsSource batteryStatisticsSource;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    private final IngestMetrics ingestMetrics;
 
     @Transactional
     public List<BatteryResponseDto> registerBatteries(List<BatteryRequestDto> batteryRequests) {
@@ -29,30 +51,209 @@ public class BatteryService {
             return List.of();
         }
 
-        logger.info("Registering batteries: {}", batteryRequests);
-        var batteries = batteryRequests.parallelStream()
+        logger.info("Registering {} batteries", batteryRequests.size());
+        var startNanos = System.nanoTime();
+        var batteries = batteryRequests.stream()
                                        .map(batteryMapper::toEntity)
                                        .toList();
+        assignTenant(batteries);
+        var mappedNanos = System.nanoTime();
+        ingestMetrics.record(IngestMetrics.Path.BATCH, IngestMetrics.Stage.MAP, mappedNanos - startNanos);
 
-        return batteryRepository.saveAll(batteries)
-                                .parallelStream()
-                                .map(batteryMapper::toResponse)
-                                .toList();
+        var saved = batteryRepository.saveAll(batteries);
+        var persistedNanos = System.nanoTime();
+        ingestMetrics.record(IngestMetrics.Path.BATCH, IngestMetrics.Stage.PERSIST, persistedNanos - mappedNanos);
+
+        batteryRepository.flush();
+        var flushedNanos = System.nanoTime();
+        ingestMetrics.record(IngestMetrics.Path.BATCH, IngestMetrics.Stage.FLUSH, flushedNanos - persistedNanos);
+        eventPublisher.publishEvent(new BatteriesRegisteredEvent(saved));
+
+        var responses = saved.stream()
+                             .map(batteryMapper::toResponse)
+                             .toList();
+        var respondedNanos = System.nanoTime();
+        ingestMetrics.record(IngestMetrics.Path.BATCH, IngestMetrics.Stage.RESPOND, respondedNanos - flushedNanos);
+        ingestMetrics.recordBatch(IngestMetrics.Path.BATCH, responses.size(), respondedNanos - startNanos);
+        return responses;
+    }
+
+    /**
+     * Registers batteries by natural key (name and postcode): batteries not stored yet are inserted, the
+     * rest resolve to the existing rows, and the response lists the stored battery for each request in
+     * request order. Only newly inserted batteries are announced to listeners.
+     */
+    @Transactional
+    public List<BatteryResponseDto> registerBatteriesIfAbsent(List<BatteryRequestDto> batteryRequests) {
+        if (batteryRequests.isEmpty()) {
+            return List.of();
+        }
+        logger.info("Registering {} batteries by natural key", batteryRequests.size());
+
+        var batteries = batteryRequests.stream()
+                                       .map(batteryMapper::toEntity)
+                                       .toList();
+        assignTenant(batteries);
+        var result = batteryJdbcRepository.insertMissing(batteries);
+        if (!result.inserted().isEmpty()) {
+            eventPublisher.publishEvent(new BatteriesRegisteredEvent(result.inserted()));
+        }
+        logger.debug("Inserted {} of {} batteries; the rest were already registered",
+                result.inserted().size(), batteryRequests.size());
+
+        return result.stored().stream()
+                     .map(batteryMapper::toResponse)
+                     .toList();
+    }
+
+    /**
+     * Writes one chunk of already validated batteries from the streaming ingest pipeline in its
+     * own transaction, bypassing the persistence context.
+     */
+    @Transactional
+    public void registerChunk(List<Battery> batteries) {
+        if (batteries.isEmpty()) {
+            return;
+        }
+        logger.debug("Writing ingest chunk of {} batteries", batteries.size());
+        assignTenant(batteries);
+        batteryJdbcRepository.insertAll(batteries);
+        eventPublisher.publishEvent(new BatteriesRegisteredEvent(batteries));
+    }
+
+    /**
+     * Applies one chunk of a bulk capacity update in its own transaction and returns the batteries it
+     * changed, as they are now.
+     */
+    @Transactional
+    public List<Battery> updateCapacityChunk(List<BatteryRefDto> batteries, BatterySearchCriteria criteria,
+                                             Double wattCapacity, Double capacityFactor) {
+        logger.debug("Updating capacity of up to {} batteries", batteries.size());
+        var modified = batteryJdbcRepository.updateCapacity(batteries, criteria, wattCapacity, capacityFactor);
+        if (!modified.after().isEmpty()) {
+            eventPublisher.publishEvent(new BatteriesModifiedEvent(modified.before(), modified.after()));
+        }
+        return modified.after();
+    }
+
+    /**
+     * Decommissions one chunk of a bulk request in its own transaction and returns the batteries it
+     * removed.
+     */
+    @Transactional
+    public List<Battery> decommissionChunk(List<BatteryRefDto> batteries, BatterySearchCriteria criteria) {
+        logger.debug("Decommissioning up to {} batteries", batteries.size());
+        var modified = batteryJdbcRepository.decommission(batteries, criteria);
+        if (!modified.before().isEmpty()) {
+            eventPublisher.publishEvent(new BatteriesModifiedEvent(modified.before(), modified.after()));
+        }
+        return modified.before();
+    }
+
+    /**
+     * Batteries without a tenant belong to the tenant of the current request; import jobs assign theirs
+     * up front because they run after the request has gone.
+     */
+    private static void assignTenant(List<Battery> batteries) {
+        var tenantId = TenantContext.current();
+        for (Battery battery : batteries) {
+            if (battery.getTenantId() == null) {
+                battery.setTenantId(tenantId);
+            }
+        }
     }
 
+    @Transactional(readOnly = true)
     public BatteryStatisticsDto getBatteryStatistics(BatterySearchCriteria criteria) {
         logger.info("Getting battery statistics for criteria: {}", criteria);
 
-        var batteries = batteryRepository.filter(criteria);
-        var total = batteries.stream()
-                             .mapToDouble(Battery::getWattCapacity)
-                             .sum();
-        var average = batteries.isEmpty() ? 0 : total / batteries.size();
+        var aggregate = batteryStatisticsSource.aggregate(criteria);
+        var names = aggregate.count() == 0 ? List.<String>of() : batteryStatisticsSource.findNames(criteria);
 
         return BatteryStatisticsDto.builder()
-                                   .batteryNames(batteries.stream().map(Battery::getName).toList())
-                                   .totalWattCapacity(total)
-                                   .averageWattCapacity(average)
+                                   .batteryNames(names)
+                                   .totalWattCapacity(aggregate.totalWattCapacity())
+                                   .averageWattCapacity(aggregate.averageWattCapacity())
                                    .build();
     }
-}
\ No newline at end of file
+
+    /**
+     * Statistics for many ranges at once, in request order, evaluated together by the statistics source so
+     * the cost grows with the batteries matched rather than with the number of ranges.
+     */
+    @Transactional(readOnly = true)
+    public List<BatteryStatisticsDto> getBatteryStatistics(List<BatterySearchCriteria> criteria) {
+        if (criteria.size() > MAX_BATCH_CRITERIA) {
+            throw new BadRequestException("At most " + MAX_BATCH_CRITERIA + " criteria can be requested at once");
+        }
+        if (criteria.stream().anyMatch(Objects::isNull)) {
+            throw new BadRequestException("Criteria must not contain null elements");
+        }
+        if (criteria.isEmpty()) {
+            return List.of();
+        }
+        logger.info("Getting battery statistics for {} criteria", criteria.size());
+
+        return batteryStatisticsSource.rangeStatistics(criteria)
+                                      .stream()
+                                      .map(statistics -> BatteryStatisticsDto.builder()
+                                                                             .batteryNames(statistics.names())
+                                                                             .totalWattCapacity(statistics.aggregate().totalWattCapacity())
+                                                                             .averageWattCapacity(statistics.aggregate().averageWattCapacity())
+                                                                             .build())
+                                      .toList();
+    }
+
+    /**
+     * Same aggregates as {@link #getBatteryStatistics(BatterySearchCriteria)}, but with only one keyset
+     * page of names. The totals always cover the whole range.
+     */
+    @Transactional(readOnly = true)
+    public BatteryStatisticsDto getBatteryStatistics(BatterySearchCriteria criteria, BatteryNamePageRequest page) {
+        if (!page.isPaged()) {
+            return getBatteryStatistics(criteria);
+        }
+        logger.info("Getting battery statistics page for criteria: {}, page: {}", criteria, page);
+
+        var after = page.cursor() == null ? null : BatteryNameCursor.decode(page.cursor());
+        var aggregate = batteryStatisticsSource.aggregate(criteria);
+        var namePage = aggregate.count() == 0
+                ? BatteryNamePage.EMPTY
+                : batteryRepository.findNamePage(BatterySpecifications.matching(criteria), after, page.limitOrDefault());
+
+        return BatteryStatisticsDto.builder()
+                                   .batteryNames(namePage.names())
+                                   .totalWattCapacity(aggregate.totalWattCapacity())
+                                   .averageWattCapacity(aggregate.averageWattCapacity())
+                                   .nextCursor(namePage.next() == null ? null : namePage.next().encode())
+                                   .build();
+    }
+
+    /**
+     * Writes the statistics document straight to {@code out}, copying names from a database cursor as
+     * they arrive so the name list is never held in memory.
+     */
+    @Transactional(readOnly = true)
+    public void writeStatistics(BatterySearchCriteria criteria, OutputStream out) throws IOException {
+        logger.info("Streaming battery statistics for criteria: {}", criteria);
+
+        var aggregate = batteryStatisticsSource.aggregate(criteria);
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+            generator.writeStartObject();
+            generator.writeNumberField("totalWattCapacity", aggregate.totalWattCapacity());
+            generator.writeNumberField("averageWattCapacity", aggregate.averageWattCapacity());
+            generator.writeArrayFieldStart("batteryNames");
+            if (aggregate.count() > 0) {
+                try (var names = batteryRepository.streamNames(BatterySpecifications.matching(criteria))) {
+                    var iterator = names.iterator();
+                    while (iterator.hasNext()) {
+                        generator.writeString(iterator.next());
+                    }
+                }
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package org.virtualpowerplant.service;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Open-addressing map from a battery id, held as its two 64-bit halves, to a dense slot number. Lookups
+ * are lock-free and allocate nothing; inserts must come from a single writer at a time.
+ * <p>
+ * An entry is published by the volatile write of its high half, which happens after the low half and
+ * slot are in place, so a reader that sees the key also sees its slot. Growing the table builds a new
+ * one and swaps the reference, leaving readers of the old one with a consistent view. A high half of
+ * zero marks an empty entry, which only the nil UUID would collide with.
+ */
+final class BatterySlotTable {
+    static final int MISSING = -1;
+
+    private volatile Table table;
+    private int size;
+
+    BatterySlotTable(int expectedSize) {
+        this.table = new Table(capacityFor(expectedSize));
+    }
+
+    int get(long idMsb, long idLsb) {
+        return table.get(idMsb, idLsb);
+    }
+
+    /**
+     * Adds a new id; callers must serialize inserts and must not insert an id twice.
+     */
+    void put(long idMsb, long idLsb, int slot) {
+        if (idMsb == 0) {
+            throw new IllegalArgumentException("Battery id must not have an all-zero high half");
+        }
+        var current = table;
+        if ((size + 1) * 2 > current.slots.length) {
+            current = current.grow();
+            table = current;
+        }
+        current.put(idMsb, idLsb, slot);
+        size++;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private static int capacityFor(int expectedSize) {
+        return Integer.highestOneBit(Math.max(16, expectedSize * 2 - 1)) << 1;
+    }
+
+    private static final class Table {
+        private final AtomicLongArray msbs;
+        private final long[] lsbs;
+        private final int[] slots;
+        private final int mask;
+
+        Table(int capacity) {
+            this.msbs = new AtomicLongArray(capacity);
+            this.lsbs = new long[capacity];
+            this.slots = new int[capacity];
+            this.mask = capacity - 1;
+        }
+
+        int get(long idMsb, long idLsb) {
+            for (int i = index(idMsb, idLsb); ; i = (i + 1) & mask) {
+                var msb = msbs.get(i);
+                if (msb == 0) {
+                    return MISSING;
+                }
+                if (msb == idMsb && lsbs[i] == idLsb) {
+                    return slots[i];
+                }
+            }
+        }
+
+        void put(long idMsb, long idLsb, int slot) {
+            var i = index(idMsb, idLsb);
+            while (msbs.getPlain(i) != 0) {
+                i = (i + 1) & mask;
+            }
+            lsbs[i] = idLsb;
+            slots[i] = slot;
+            msbs.set(i, idMsb);
+        }
+
+        Table grow() {
+            var grown = new Table(slots.length << 1);
+            for (int i = 0; i < slots.length; i++) {
+                var msb = msbs.getPlain(i);
+                if (msb != 0) {
+                    grown.put(msb, lsbs[i], slots[i]);
+                }
+            }
+            return grown;
+        }
+
+        private int index(long idMsb, long idLsb) {
+            var hash = (idMsb ^ Long.rotateLeft(idLsb, 32)) * 0x9E3779B97F4A7C15L;
+            return (int) (hash >>> 32) & mask;
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package org.virtualpowerplant.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.virtualpowerplant.config.ReadReplicaProperties;
+import org.virtualpowerplant.config.StatisticsCacheProperties;
+import org.virtualpowerplant.entity.Battery;
+import org.virtualpowerplant.event.BatteriesModifiedEvent;
+import org.virtualpowerplant.event.BatteriesRegisteredEvent;
+import org.virtualpowerplant.model.BatteryNamePageRequest;
+import org.virtualpowerplant.model.BatterySearchCriteria;
+import org.virtualpowerplant.model.BatteryStatisticsDto;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Bounded, TTL-limited cache of statistics responses keyed by normalized criteria. When batteries are
+ * registered or changed, only entries whose range contains at least one of them are dropped.
+ * <p>
+ * A write generation guards against caching a result computed from data that a concurrent commit has
+ * already made stale: if any invalidation happens while a value is being loaded, the value is served but
+ * not kept. With read replicas, statistics may be loaded from one that has not replayed the write yet, so
+ * for {@code vpp.datasource.max-replica-lag} after an invalidation values are served but not kept either.
+ */
+@Component
+public class BatteryStatisticsCache {
+    static final String CACHE_NAME = "batteryStatistics";
+
+    private final boolean enabled;
+    private final Cache<Key, BatteryStatisticsDto> cache;
+    private final AtomicLong generation = new AtomicLong();
+    private final long replicaLagNanos;
+    private volatile long uncachedUntilNanos = System.nanoTime();
+
+    public BatteryStatisticsCache(StatisticsCacheProperties properties, ReadReplicaProperties replicaProperties,
+                                  MeterRegistry meterRegistry) {
+        this.enabled = properties.enabled();
+        this.replicaLagNanos = replicaProperties.replicas().isEmpty() ? 0 : replicaProperties.maxReplicaLag().toNanos();
+        this.cache = Caffeine.newBuilder()
+                             .maximumSize(properties.maximumSize())
+                             .expireAfterWrite(properties.ttl())
+                             .recordStats()
+                             .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    public BatteryStatisticsDto get(BatterySearchCriteria criteria, BatteryNamePageRequest page,
+                                    Supplier<BatteryStatisticsDto> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+
+        var key = new Key(criteria.normalized(), page.isPaged() ? page : null);
+        var cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        var generationBefore = generation.get();
+        var value = loader.get();
+        if (System.nanoTime() - uncachedUntilNanos < 0) {
+            return value;
+        }
+        cache.put(key, value);
+        if (generation.get() != generationBefore) {
+            cache.invalidate(key);
+        }
+        return value;
+    }
+
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBatteriesRegistered(BatteriesRegisteredEvent event) {
+        invalidated();
+        List<Battery> batteries = event.batteries();
+        cache.asMap().keySet().removeIf(key -> overlaps(key.criteria(), batteries));
+    }
+
+    /**
+     * A changed battery can leave one range and enter another, so entries covering either its old or its
+     * new values are dropped.
+     */
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBatteriesModified(BatteriesModifiedEvent event) {
+        invalidated();
+        cache.asMap().keySet().removeIf(key -> overlaps(key.criteria(), event.before())
+                || overlaps(key.criteria(), event.after()));
+    }
+
+    private void invalidated() {
+        generation.incrementAndGet();
+        uncachedUntilNanos = System.nanoTime() + replicaLagNanos;
+    }
+
+    private static boolean overlaps(BatterySearchCriteria criteria, List<Battery> batteries) {
+        for (Battery battery : batteries) {
+            if (criteria.matches(battery.tenantIdOrDefault(), battery.getPostcode(), battery.getWattCapacity())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private record Key(BatterySearchCriteria criteria, BatteryNamePageRequest page) {
+    }
+}
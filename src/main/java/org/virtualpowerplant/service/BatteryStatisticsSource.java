@@ -0,0 +1,36 @@
+package org.virtualpowerplant.service;
+
+import org.virtualpowerplant.model.BatteryAggregate;
+import org.virtualpowerplant.model.BatteryRangeStatistics;
+import org.virtualpowerplant.model.BatterySearchCriteria;
+
+import java.util.List;
+
+/**
+ * Where {@link BatteryService#getBatteryStatistics(BatterySearchCriteria)} gets its numbers from.
+ * Selected with {@code vpp.stats.source}: {@code database} (default) or {@code memory}.
+ */
+public interface BatteryStatisticsSource {
+
+    BatteryAggregate aggregate(BatterySearchCriteria criteria);
+
+    /**
+     * Names of the matching batteries, sorted case-insensitively.
+     */
+    List<String> findNames(BatterySearchCriteria criteria);
+
+    /**
+     * Statistics for each of the criteria, in the same order. The default answers them one at a time;
+     * sources that can evaluate many ranges in one pass override it.
+     */
+    default List<BatteryRangeStatistics> rangeStatistics(List<BatterySearchCriteria> criteria) {
+        return criteria.stream()
+                       .map(range -> {
+                           var aggregate = aggregate(range);
+                           return aggregate.count() == 0
+                                   ? BatteryRangeStatistics.EMPTY
+                                   : new BatteryRangeStatistics(aggregate, findNames(range));
+                       })
+                       .toList();
+    }
+}
@@ -0,0 +1,218 @@
+package org.virtualpowerplant.service;
+
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.virtualpowerplant.config.StartupProperties;
+import org.virtualpowerplant.entity.Battery;
+import org.virtualpowerplant.event.BatteriesModifiedEvent;
+import org.virtualpowerplant.event.BatteriesRegisteredEvent;
+import org.virtualpowerplant.exception.BadRequestException;
+import org.virtualpowerplant.model.BatteryCapacityDistributionDto;
+import org.virtualpowerplant.model.BatterySearchCriteria;
+import org.virtualpowerplant.repository.BatteryJdbcRepository;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Capacity percentiles and histograms for any postcode range from {@link CapacitySketch}es kept per
+ * tenant and postcode, plus one per block of {@value #BLOCK_SIZE} postcodes. A range query merges the
+ * whole blocks it covers and the postcodes at its two ends, so it touches at most a few hundred sketches
+ * however many batteries the range holds.
+ * <p>
+ * The sketches are loaded at startup and updated from {@link BatteriesRegisteredEvent}s and
+ * {@link BatteriesModifiedEvent}s after commit; like the in-memory statistics source, they only see
+ * changes made through this node.
+ */
+@Component
+@RequiredArgsConstructor
+public class CapacityDistributionIndex implements SmartInitializingSingleton {
+    public static final List<Double> DEFAULT_QUANTILES = List.of(0.1, 0.5, 0.9);
+    public static final int MAX_QUANTILES = 100;
+    public static final int MAX_BINS = 100;
+    private static final int BLOCK_SIZE = 100;
+    private static final Logger logger = LoggerFactory.getLogger(CapacityDistributionIndex.class);
+
+    private final BatteryJdbcRepository batteryJdbcRepository;
+    private final StartupProperties startupProperties;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, TenantSketches> tenants = new HashMap<>();
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!startupProperties.preload()) {
+            logger.info("Skipping the startup load of the capacity sketches");
+            return;
+        }
+        var startNanos = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            batteryJdbcRepository.scan((tenantId, name, postcode, wattCapacity) ->
+                    tenants.computeIfAbsent(tenantId, ignored -> new TenantSketches()).add(postcode, wattCapacity));
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Loaded capacity sketches of {} tenants in {} ms",
+                tenants.size(), (System.nanoTime() - startNanos) / 1_000_000);
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBatteriesRegistered(BatteriesRegisteredEvent event) {
+        lock.writeLock().lock();
+        try {
+            for (Battery battery : event.batteries()) {
+                tenants.computeIfAbsent(battery.tenantIdOrDefault(), ignored -> new TenantSketches())
+                       .add(battery.getPostcode(), battery.getWattCapacity());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBatteriesModified(BatteriesModifiedEvent event) {
+        lock.writeLock().lock();
+        try {
+            for (Battery battery : event.before()) {
+                var sketches = tenants.get(battery.tenantIdOrDefault());
+                if (sketches != null) {
+                    sketches.remove(battery.getPostcode(), battery.getWattCapacity());
+                }
+            }
+            for (Battery battery : event.after()) {
+                tenants.computeIfAbsent(battery.tenantIdOrDefault(), ignored -> new TenantSketches())
+                       .add(battery.getPostcode(), battery.getWattCapacity());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @param quantiles quantiles to report, each between 0 and 1; {@link #DEFAULT_QUANTILES} if empty
+     * @param bins      number of equal-width histogram bins between the smallest and largest capacity
+     */
+    public BatteryCapacityDistributionDto distribution(BatterySearchCriteria criteria, List<Double> quantiles, int bins) {
+        var requested = quantiles == null || quantiles.isEmpty() ? DEFAULT_QUANTILES : quantiles;
+        validate(requested, bins);
+        var range = criteria.normalized();
+
+        CapacitySketch merged;
+        lock.readLock().lock();
+        try {
+            var sketches = tenants.get(range.tenantId());
+            merged = sketches == null ? new CapacitySketch() : sketches.merge(range.startPostcode(), range.endPostcode());
+        } finally {
+            lock.readLock().unlock();
+        }
+        var sketch = merged.restrict(range.minCapacity(), range.maxCapacity());
+
+        var percentiles = requested.stream()
+                                   .map(q -> new BatteryCapacityDistributionDto.Percentile(q, sketch.quantile(q)))
+                                   .toList();
+        return BatteryCapacityDistributionDto.builder()
+                                             .count(sketch.count())
+                                             .minWattCapacity(sketch.min())
+                                             .maxWattCapacity(sketch.max())
+                                             .relativeAccuracy(CapacitySketch.RELATIVE_ACCURACY)
+                                             .percentiles(sketch.count() == 0 ? List.of() : percentiles)
+                                             .histogram(histogram(sketch, bins))
+                                             .build();
+    }
+
+    private static void validate(List<Double> quantiles, int bins) {
+        if (quantiles.size() > MAX_QUANTILES) {
+            throw new BadRequestException("At most " + MAX_QUANTILES + " quantiles can be requested");
+        }
+        for (Double quantile : quantiles) {
+            if (quantile == null || !(quantile >= 0 && quantile <= 1)) {
+                throw new BadRequestException("Quantiles must be between 0 and 1");
+            }
+        }
+        if (bins < 1 || bins > MAX_BINS) {
+            throw new BadRequestException("bins must be between 1 and " + MAX_BINS);
+        }
+    }
+
+    private static List<BatteryCapacityDistributionDto.HistogramBin> histogram(CapacitySketch sketch, int bins) {
+        if (sketch.count() == 0) {
+            return List.of();
+        }
+        var counts = sketch.histogram(bins);
+        var width = (sketch.max() - sketch.min()) / bins;
+        var histogram = new ArrayList<BatteryCapacityDistributionDto.HistogramBin>(bins);
+        for (int i = 0; i < bins; i++) {
+            var from = sketch.min() + i * width;
+            var to = i == bins - 1 ? sketch.max() : from + width;
+            histogram.add(new BatteryCapacityDistributionDto.HistogramBin(from, to, counts[i]));
+        }
+        return histogram;
+    }
+
+    private static final class TenantSketches {
+        private final NavigableMap<Integer, CapacitySketch> postcodes = new TreeMap<>();
+        private final NavigableMap<Integer, CapacitySketch> blocks = new TreeMap<>();
+        private final CapacitySketch total = new CapacitySketch();
+
+        void add(int postcode, double wattCapacity) {
+            postcodes.computeIfAbsent(postcode, ignored -> new CapacitySketch()).add(wattCapacity);
+            blocks.computeIfAbsent(Math.floorDiv(postcode, BLOCK_SIZE), ignored -> new CapacitySketch()).add(wattCapacity);
+            total.add(wattCapacity);
+        }
+
+        void remove(int postcode, double wattCapacity) {
+            var sketch = postcodes.get(postcode);
+            if (sketch == null || !sketch.remove(wattCapacity)) {
+                return;
+            }
+            if (sketch.count() == 0) {
+                postcodes.remove(postcode);
+            }
+            blocks.get(Math.floorDiv(postcode, BLOCK_SIZE)).remove(wattCapacity);
+            total.remove(wattCapacity);
+        }
+
+        /**
+         * A new sketch of the inclusive postcode range, or of every postcode if it is open.
+         */
+        CapacitySketch merge(Integer startPostcode, Integer endPostcode) {
+            var merged = new CapacitySketch();
+            if (startPostcode == null || endPostcode == null) {
+                merged.merge(total);
+                return merged;
+            }
+            if (startPostcode > endPostcode) {
+                return merged;
+            }
+            var firstBlock = Math.ceilDiv(startPostcode, BLOCK_SIZE);
+            var endBlock = Math.floorDiv(endPostcode + 1, BLOCK_SIZE);
+            if (firstBlock >= endBlock) {
+                mergeAll(merged, postcodes.subMap(startPostcode, true, endPostcode, true));
+                return merged;
+            }
+            mergeAll(merged, postcodes.subMap(startPostcode, true, firstBlock * BLOCK_SIZE, false));
+            mergeAll(merged, blocks.subMap(firstBlock, true, endBlock, false));
+            mergeAll(merged, postcodes.subMap(endBlock * BLOCK_SIZE, true, endPostcode, true));
+            return merged;
+        }
+
+        private static void mergeAll(CapacitySketch target, Map<Integer, CapacitySketch> sketches) {
+            for (CapacitySketch sketch : sketches.values()) {
+                target.merge(sketch);
+            }
+        }
+    }
+}
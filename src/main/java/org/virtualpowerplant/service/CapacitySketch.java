@@ -0,0 +1,216 @@
+package org.virtualpowerplant.service;
+
+/**
+ * Mergeable quantile sketch of battery capacities with bounded relative error. Values are counted in
+ * logarithmic buckets, bucket {@code i} covering {@code (gamma^(i-1), gamma^i]} with
+ * {@code gamma = (1 + a) / (1 - a)} for the relative accuracy {@code a}, so any quantile it reports is
+ * within {@link #RELATIVE_ACCURACY} of a value at that rank. Merging two sketches adds their bucket counts, which makes the sketch of a range
+ * exactly the merge of the sketches of its parts.
+ * <p>
+ * Values below one watt share a single bucket reported as the minimum. Not thread-safe.
+ */
+public final class CapacitySketch {
+    public static final double RELATIVE_ACCURACY = 0.01;
+    private static final double GAMMA = (1 + RELATIVE_ACCURACY) / (1 - RELATIVE_ACCURACY);
+    private static final double LOG_GAMMA = Math.log(GAMMA);
+    private static final double MIN_INDEXED_VALUE = 1.0;
+
+    private long[] counts = new long[0];
+    private int offset;
+    private long lowCount;
+    private long count;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    public long count() {
+        return count;
+    }
+
+    public double min() {
+        return count == 0 ? 0 : min;
+    }
+
+    public double max() {
+        return count == 0 ? 0 : max;
+    }
+
+    public void add(double value) {
+        if (value < MIN_INDEXED_VALUE) {
+            lowCount++;
+        } else {
+            addToBucket(index(value), 1);
+        }
+        count++;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+
+    /**
+     * Takes out one occurrence of a value previously added. The sketch no longer knows the exact extremes
+     * after removing one of them, so it narrows them to its outermost remaining buckets, which keeps them
+     * within the relative accuracy. Returns false, changing nothing, if the sketch holds no such value.
+     */
+    public boolean remove(double value) {
+        if (value < MIN_INDEXED_VALUE) {
+            if (lowCount == 0) {
+                return false;
+            }
+            lowCount--;
+        } else {
+            var bucket = index(value) - offset;
+            if (bucket < 0 || bucket >= counts.length || counts[bucket] == 0) {
+                return false;
+            }
+            counts[bucket]--;
+        }
+        count--;
+        if (count == 0) {
+            min = Double.POSITIVE_INFINITY;
+            max = Double.NEGATIVE_INFINITY;
+        } else if (value <= min || value >= max) {
+            narrowBounds(value <= min, value >= max);
+        }
+        return true;
+    }
+
+    public void merge(CapacitySketch other) {
+        if (other.count == 0) {
+            return;
+        }
+        for (int i = 0; i < other.counts.length; i++) {
+            if (other.counts[i] != 0) {
+                addToBucket(other.offset + i, other.counts[i]);
+            }
+        }
+        lowCount += other.lowCount;
+        count += other.count;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    /**
+     * A new sketch of only the values between the bounds, either of which may be {@code null}. Buckets
+     * are kept or dropped whole by their reported value, so values within the relative accuracy of a bound
+     * may fall on either side of it, and the minimum and maximum become bucket values too.
+     */
+    public CapacitySketch restrict(Double minValue, Double maxValue) {
+        if (minValue == null && maxValue == null) {
+            var copy = new CapacitySketch();
+            copy.merge(this);
+            return copy;
+        }
+        var lower = minValue == null ? Double.NEGATIVE_INFINITY : minValue;
+        var upper = maxValue == null ? Double.POSITIVE_INFINITY : maxValue;
+        var restricted = new CapacitySketch();
+        if (lowCount > 0 && min <= upper && MIN_INDEXED_VALUE > lower) {
+            restricted.lowCount = lowCount;
+            restricted.count = lowCount;
+            restricted.min = Math.max(min, lower);
+            restricted.max = Math.min(MIN_INDEXED_VALUE, upper);
+        }
+        for (int i = 0; i < counts.length; i++) {
+            var value = clamp(value(offset + i));
+            if (counts[i] != 0 && value >= lower && value <= upper) {
+                restricted.addToBucket(offset + i, counts[i]);
+                restricted.count += counts[i];
+                restricted.min = Math.min(restricted.min, value);
+                restricted.max = Math.max(restricted.max, value);
+            }
+        }
+        return restricted;
+    }
+
+    /**
+     * The value at the given quantile, between 0 and 1, or 0 for an empty sketch. The extremes are exact.
+     */
+    public double quantile(double quantile) {
+        if (count == 0) {
+            return 0;
+        }
+        var rank = (long) Math.floor(quantile * (count - 1));
+        if (rank >= count - 1) {
+            return max;
+        }
+        var seen = lowCount;
+        if (seen > rank) {
+            return min;
+        }
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen > rank) {
+                return clamp(value(offset + i));
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Counts per equal-width bin between the minimum and the maximum.
+     */
+    public long[] histogram(int bins) {
+        var histogram = new long[bins];
+        if (count == 0) {
+            return histogram;
+        }
+        histogram[0] += lowCount;
+        var width = max - min;
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == 0) {
+                continue;
+            }
+            var bin = width <= 0 ? 0 : (int) ((clamp(value(offset + i)) - min) / width * bins);
+            histogram[Math.min(bins - 1, bin)] += counts[i];
+        }
+        return histogram;
+    }
+
+    private void addToBucket(int index, long n) {
+        if (counts.length == 0) {
+            counts = new long[16];
+            offset = index - 8;
+        } else if (index < offset || index >= offset + counts.length) {
+            var from = Math.min(offset, index);
+            var to = Math.max(offset + counts.length, index + 1);
+            // Grow by at least half so a run of slowly widening values does not copy on every add.
+            var length = Math.max(to - from, counts.length + (counts.length >> 1));
+            var newOffset = index < offset ? to - length : from;
+            var grown = new long[length];
+            System.arraycopy(counts, 0, grown, offset - newOffset, counts.length);
+            counts = grown;
+            offset = newOffset;
+        }
+        counts[index - offset] += n;
+    }
+
+    private void narrowBounds(boolean lower, boolean upper) {
+        var first = -1;
+        var last = -1;
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] != 0) {
+                first = first < 0 ? i : first;
+                last = i;
+            }
+        }
+        if (lower && lowCount == 0) {
+            min = clamp(value(offset + first));
+        }
+        if (upper) {
+            max = last < 0 ? Math.min(max, MIN_INDEXED_VALUE) : clamp(value(offset + last));
+        }
+    }
+
+    private double clamp(double value) {
+        return Math.max(min, Math.min(max, value));
+    }
+
+    private static int index(double value) {
+        return (int) Math.ceil(Math.log(value) / LOG_GAMMA);
+    }
+
+    /**
+     * The point of bucket {@code index} within {@link #RELATIVE_ACCURACY} of both of its bounds.
+     */
+    private static double value(int index) {
+        return 2 * Math.pow(GAMMA, index) / (GAMMA + 1);
+    }
+}
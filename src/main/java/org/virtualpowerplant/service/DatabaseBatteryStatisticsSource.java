@@ -0,0 +1,36 @@
+package org.virtualpowerplant.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.virtualpowerplant.model.BatteryAggregate;
+import org.virtualpowerplant.model.BatteryRangeStatistics;
+import org.virtualpowerplant.model.BatterySearchCriteria;
+import org.virtualpowerplant.repository.BatteryJdbcRepository;
+import org.virtualpowerplant.repository.BatteryRepository;
+import org.virtualpowerplant.repository.BatterySpecifications;
+
+import java.util.List;
+
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "vpp.stats", name = "source", havingValue = "database", matchIfMissing = true)
+public class DatabaseBatteryStatisticsSource implements BatteryStatisticsSource {
+    private final BatteryRepository batteryRepository;
+    private final BatteryJdbcRepository batteryJdbcRepository;
+
+    @Override
+    public BatteryAggregate aggregate(BatterySearchCriteria criteria) {
+        return batteryRepository.aggregate(BatterySpecifications.matching(criteria));
+    }
+
+    @Override
+    public List<String> findNames(BatterySearchCriteria criteria) {
+        return batteryRepository.findNames(BatterySpecifications.matching(criteria));
+    }
+
+    @Override
+    public List<BatteryRangeStatistics> rangeStatistics(List<BatterySearchCriteria> criteria) {
+        return batteryJdbcRepository.rangeStatistics(criteria);
+    }
+}
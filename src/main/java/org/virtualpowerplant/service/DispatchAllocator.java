@@ -0,0 +1,104 @@
+package org.virtualpowerplant.service;
+
+import java.util.Arrays;
+
+/**
+ * Greedy allocation of a power target across candidate batteries, fullest first. Candidates are held in
+ * growable primitive arrays and ordered with a counting sort on whole state-of-charge percent, so an
+ * allocation is linear in the number of candidates. Every battery but the last one used runs at its
+ * maximum sustainable power for the dispatch window.
+ */
+public final class DispatchAllocator {
+    private static final int BUCKETS = 101;
+
+    private long[] idMsb;
+    private long[] idLsb;
+    private double[] maxPowerWatts;
+    private double[] stateOfCharge;
+    private double[] setpoints = new double[0];
+    private int size;
+
+    public DispatchAllocator(int expectedSize) {
+        var capacity = Math.max(expectedSize, 16);
+        this.idMsb = new long[capacity];
+        this.idLsb = new long[capacity];
+        this.maxPowerWatts = new double[capacity];
+        this.stateOfCharge = new double[capacity];
+    }
+
+    public void add(long batteryIdMsb, long batteryIdLsb, double maxPower, double soc) {
+        if (size == idMsb.length) {
+            var grown = size + (size >> 1);
+            idMsb = Arrays.copyOf(idMsb, grown);
+            idLsb = Arrays.copyOf(idLsb, grown);
+            maxPowerWatts = Arrays.copyOf(maxPowerWatts, grown);
+            stateOfCharge = Arrays.copyOf(stateOfCharge, grown);
+        }
+        idMsb[size] = batteryIdMsb;
+        idLsb[size] = batteryIdLsb;
+        maxPowerWatts[size] = maxPower;
+        stateOfCharge[size] = soc;
+        size++;
+    }
+
+    /**
+     * Assigns setpoints for the target and returns the total allocated, which is less than the target
+     * when the candidates cannot cover it. Setpoints from a previous call are discarded.
+     */
+    public double allocate(double targetWatts) {
+        if (setpoints.length < size) {
+            setpoints = new double[size];
+        } else {
+            Arrays.fill(setpoints, 0, size, 0);
+        }
+
+        var bucketStarts = new int[BUCKETS + 1];
+        for (int i = 0; i < size; i++) {
+            bucketStarts[bucket(stateOfCharge[i]) + 1]++;
+        }
+        for (int b = 0; b < BUCKETS; b++) {
+            bucketStarts[b + 1] += bucketStarts[b];
+        }
+        var order = new int[size];
+        var next = Arrays.copyOf(bucketStarts, BUCKETS);
+        for (int i = 0; i < size; i++) {
+            order[next[bucket(stateOfCharge[i])]++] = i;
+        }
+
+        var remaining = targetWatts;
+        for (int k = size - 1; k >= 0 && remaining > 0; k--) {
+            var candidate = order[k];
+            var setpoint = Math.min(remaining, maxPowerWatts[candidate]);
+            setpoints[candidate] = setpoint;
+            remaining -= setpoint;
+        }
+        return targetWatts - Math.max(remaining, 0);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long batteryIdMsb(int index) {
+        return idMsb[index];
+    }
+
+    public long batteryIdLsb(int index) {
+        return idLsb[index];
+    }
+
+    public double stateOfCharge(int index) {
+        return stateOfCharge[index];
+    }
+
+    /**
+     * Setpoint from the last {@link #allocate(double)}; zero for batteries that were not needed.
+     */
+    public double setpoint(int index) {
+        return setpoints[index];
+    }
+
+    private static int bucket(double soc) {
+        return Math.clamp((long) soc, 0, BUCKETS - 1);
+    }
+}
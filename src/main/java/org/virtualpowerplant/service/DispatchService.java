@@ -0,0 +1,72 @@
+package org.virtualpowerplant.service;
+
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.virtualpowerplant.config.DispatchProperties;
+import org.virtualpowerplant.exception.BadRequestException;
+import org.virtualpowerplant.model.DispatchAllocationDto;
+import org.virtualpowerplant.model.DispatchRequestDto;
+import org.virtualpowerplant.model.DispatchResultDto;
+
+import java.util.ArrayList;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Splits a dispatch target across the reporting batteries of a postcode range using the live state held
+ * by the {@link FleetAggregateEngine}. A battery can sustain the energy it holds above the configured
+ * reserve spread over the dispatch window; batteries with the highest state of charge are used first.
+ */
+@Service
+@RequiredArgsConstructor
+public class DispatchService {
+    private static final Logger logger = LoggerFactory.getLogger(DispatchService.class);
+    private final FleetAggregateEngine fleetAggregateEngine;
+    private final DispatchProperties dispatchProperties;
+
+    public DispatchResultDto dispatch(DispatchRequestDto request) {
+        if (request.startPostcode() > request.endPostcode()) {
+            throw new BadRequestException("startPostcode must not be greater than endPostcode");
+        }
+        var startNanos = System.nanoTime();
+        var hours = request.durationMinutes() / 60.0;
+        var reserve = dispatchProperties.reserveStateOfCharge();
+
+        var allocator = new DispatchAllocator(1024);
+        fleetAggregateEngine.forEachReporting(request.startPostcode(), request.endPostcode(),
+                (idMsb, idLsb, wattCapacity, stateOfCharge, powerWatts) -> {
+                    if (stateOfCharge > reserve) {
+                        var usableEnergy = wattCapacity * (stateOfCharge - reserve) / 100;
+                        allocator.add(idMsb, idLsb, usableEnergy / hours, stateOfCharge);
+                    }
+                });
+        var allocated = allocator.allocate(request.targetWatts());
+
+        var allocations = new ArrayList<DispatchAllocationDto>();
+        for (int i = 0; i < allocator.size(); i++) {
+            if (allocator.setpoint(i) > 0) {
+                allocations.add(new DispatchAllocationDto(
+                        new UUID(allocator.batteryIdMsb(i), allocator.batteryIdLsb(i)),
+                        allocator.setpoint(i),
+                        allocator.stateOfCharge(i)));
+            }
+        }
+
+        var elapsedMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos);
+        logger.info("Dispatched {} W of {} W across {} of {} eligible batteries in {} us",
+                Math.round(allocated), Math.round(request.targetWatts()), allocations.size(), allocator.size(),
+                elapsedMicros);
+
+        return DispatchResultDto.builder()
+                                .targetWatts(request.targetWatts())
+                                .allocatedWatts(allocated)
+                                .shortfallWatts(request.targetWatts() - allocated)
+                                .durationMinutes(request.durationMinutes())
+                                .eligibleBatteryCount(allocator.size())
+                                .elapsedMicros(elapsedMicros)
+                                .allocations(allocations)
+                                .build();
+    }
+}
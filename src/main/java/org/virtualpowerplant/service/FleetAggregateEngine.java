@@ -0,0 +1,342 @@
+package org.virtualpowerplant.service;
+
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.virtualpowerplant.config.StartupProperties;
+import org.virtualpowerplant.entity.Battery;
+import org.virtualpowerplant.event.BatteriesModifiedEvent;
+import org.virtualpowerplant.event.BatteriesRegisteredEvent;
+import org.virtualpowerplant.event.TelemetryRecordedEvent;
+import org.virtualpowerplant.model.FleetCapacityDto;
+import org.virtualpowerplant.repository.BatteryJdbcRepository;
+
+import java.util.Arrays;
+import java.util.NavigableMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Live per-postcode aggregates of registered capacity, available energy, output and state of charge,
+ * maintained incrementally from telemetry instead of being recomputed per query.
+ * <p>
+ * Each battery owns a slot holding its last reading. A new reading swaps the slot's values under one of
+ * a fixed set of striped locks and adds only the differences to its postcode bucket, whose totals are
+ * {@link LongAdder}/{@link DoubleAdder}s so writers on different threads do not contend. A region query
+ * sums the buckets in the postcode range, so its cost depends on the number of postcodes, not batteries.
+ * Readings older than the slot's last one are ignored.
+ * <p>
+ * Like the in-memory statistics source, registrations, capacity updates and decommissions are only seen
+ * through this node's events. The aggregates cover every tenant, so the endpoints built on them are
+ * {@link org.virtualpowerplant.config.OperatorOnly}.
+ */
+@Component
+@RequiredArgsConstructor
+public class FleetAggregateEngine implements SmartInitializingSingleton {
+    private static final Logger logger = LoggerFactory.getLogger(FleetAggregateEngine.class);
+    private static final int SEGMENT_SHIFT = 12;
+    private static final int SEGMENT_SIZE = 1 << SEGMENT_SHIFT;
+    private static final int LOCK_STRIPES = 256;
+    private static final long NEVER = Long.MIN_VALUE;
+    // Newer than any reading, so a retired slot rejects them all.
+    private static final long RETIRED = Long.MAX_VALUE;
+
+    private final BatteryJdbcRepository batteryJdbcRepository;
+    private final StartupProperties startupProperties;
+    private final NavigableMap<Integer, Bucket> buckets = new ConcurrentSkipListMap<>();
+    private final Object[] locks = newLocks();
+    private final Object registerLock = new Object();
+    private final BatterySlotTable slotTable = new BatterySlotTable(1024);
+    private volatile Segment[] segments = new Segment[0];
+    private volatile int publishedSlots;
+    private int slotCount;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!startupProperties.preload()) {
+            logger.info("Skipping the startup load of the fleet aggregate engine");
+            return;
+        }
+        var startNanos = System.nanoTime();
+        synchronized (registerLock) {
+            batteryJdbcRepository.scanCapacities(this::register);
+        }
+        logger.info("Loaded {} batteries into the fleet aggregate engine in {} ms",
+                slotCount, (System.nanoTime() - startNanos) / 1_000_000);
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBatteriesRegistered(BatteriesRegisteredEvent event) {
+        synchronized (registerLock) {
+            for (Battery battery : event.batteries()) {
+                register(battery.getId(), battery.getPostcode(), battery.getWattCapacity());
+            }
+        }
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBatteriesModified(BatteriesModifiedEvent event) {
+        if (event.decommissioned()) {
+            for (Battery battery : event.before()) {
+                retire(battery.getId());
+            }
+        } else {
+            for (Battery battery : event.after()) {
+                updateCapacity(battery.getId(), battery.getWattCapacity());
+            }
+        }
+    }
+
+    @EventListener
+    public void onTelemetryRecorded(TelemetryRecordedEvent event) {
+        var readings = event.readings();
+        for (int i = 0; i < readings.size(); i++) {
+            record(readings.batteryIdMsb(i), readings.batteryIdLsb(i), readings.recordedAtMicros(i),
+                    readings.stateOfCharge(i), readings.powerWatts(i));
+        }
+    }
+
+    /**
+     * Applies one reading; returns false if the battery is unknown or the reading is older than the one
+     * already applied.
+     */
+    boolean record(long idMsb, long idLsb, long recordedAtMicros, double stateOfCharge, double powerWatts) {
+        var slot = slotTable.get(idMsb, idLsb);
+        if (slot == BatterySlotTable.MISSING) {
+            return false;
+        }
+        var segment = segments[slot >>> SEGMENT_SHIFT];
+        var offset = slot & (SEGMENT_SIZE - 1);
+
+        boolean first;
+        double capacity;
+        double stateOfChargeDelta;
+        double powerDelta;
+        synchronized (locks[slot & (LOCK_STRIPES - 1)]) {
+            var previous = segment.recordedAt[offset];
+            if (recordedAtMicros <= previous) {
+                return false;
+            }
+            first = previous == NEVER;
+            capacity = segment.capacity[offset];
+            stateOfChargeDelta = stateOfCharge - segment.stateOfCharge[offset];
+            powerDelta = powerWatts - segment.powerWatts[offset];
+            segment.recordedAt[offset] = recordedAtMicros;
+            segment.stateOfCharge[offset] = stateOfCharge;
+            segment.powerWatts[offset] = powerWatts;
+        }
+
+        var bucket = segment.buckets[offset];
+        if (first) {
+            bucket.reporting.increment();
+        }
+        bucket.stateOfChargeSum.add(stateOfChargeDelta);
+        bucket.availableEnergy.add(capacity * stateOfChargeDelta / 100);
+        bucket.output.add(powerDelta);
+        return true;
+    }
+
+    /**
+     * Sums the live aggregates of every postcode in the inclusive range, or of the whole fleet when both
+     * bounds are missing. The caller checks that the bounds are given together and in order.
+     */
+    public FleetCapacityDto capacity(Integer startPostcode, Integer endPostcode) {
+        var range = startPostcode == null
+                ? buckets
+                : buckets.subMap(startPostcode, true, endPostcode, true);
+
+        long batteries = 0;
+        long reporting = 0;
+        double registeredCapacity = 0;
+        double availableEnergy = 0;
+        double output = 0;
+        double stateOfChargeSum = 0;
+        for (Bucket bucket : range.values()) {
+            batteries += bucket.batteries.sum();
+            reporting += bucket.reporting.sum();
+            registeredCapacity += bucket.registeredCapacity.sum();
+            availableEnergy += bucket.availableEnergy.sum();
+            output += bucket.output.sum();
+            stateOfChargeSum += bucket.stateOfChargeSum.sum();
+        }
+
+        return FleetCapacityDto.builder()
+                               .startPostcode(startPostcode)
+                               .endPostcode(endPostcode)
+                               .batteryCount(batteries)
+                               .reportingBatteryCount(reporting)
+                               .registeredCapacityWattHours(registeredCapacity)
+                               .availableEnergyWattHours(availableEnergy)
+                               .currentOutputWatts(output)
+                               .averageStateOfCharge(reporting == 0 ? 0 : stateOfChargeSum / reporting)
+                               .build();
+    }
+
+    /**
+     * Visits the last reading of every battery in the inclusive postcode range that has reported at least
+     * once; a missing bound means the whole fleet. Slots are read without locking, so a battery may be
+     * seen one reading behind a concurrent update.
+     */
+    public void forEachReporting(Integer startPostcode, Integer endPostcode, ReportingBatteryVisitor visitor) {
+        var bounded = startPostcode != null && endPostcode != null;
+        var slots = publishedSlots;
+        var current = segments;
+        for (int slot = 0; slot < slots; slot++) {
+            var segment = current[slot >>> SEGMENT_SHIFT];
+            var offset = slot & (SEGMENT_SIZE - 1);
+            var postcode = segment.postcode[offset];
+            if (segment.recordedAt[offset] == NEVER || segment.recordedAt[offset] == RETIRED
+                    || (bounded && (postcode < startPostcode || postcode > endPostcode))) {
+                continue;
+            }
+            visitor.accept(segment.idMsb[offset], segment.idLsb[offset], segment.capacity[offset],
+                    segment.stateOfCharge[offset], segment.powerWatts[offset]);
+        }
+    }
+
+    /**
+     * Moves the battery's registered capacity, and the energy its last reading makes available, to the new
+     * capacity.
+     */
+    private void updateCapacity(UUID id, double wattCapacity) {
+        var slot = slotTable.get(id.getMostSignificantBits(), id.getLeastSignificantBits());
+        if (slot == BatterySlotTable.MISSING) {
+            return;
+        }
+        var segment = segments[slot >>> SEGMENT_SHIFT];
+        var offset = slot & (SEGMENT_SIZE - 1);
+
+        double capacityDelta;
+        double energyDelta;
+        synchronized (locks[slot & (LOCK_STRIPES - 1)]) {
+            if (segment.recordedAt[offset] == RETIRED) {
+                return;
+            }
+            capacityDelta = wattCapacity - segment.capacity[offset];
+            energyDelta = segment.recordedAt[offset] == NEVER ? 0 : capacityDelta * segment.stateOfCharge[offset] / 100;
+            segment.capacity[offset] = wattCapacity;
+        }
+        var bucket = segment.buckets[offset];
+        bucket.registeredCapacity.add(capacityDelta);
+        bucket.availableEnergy.add(energyDelta);
+    }
+
+    /**
+     * Takes a decommissioned battery out of its postcode's totals. Its slot is kept, marked so that it
+     * ignores any reading still in flight, because slot numbers are never reused.
+     */
+    private void retire(UUID id) {
+        var slot = slotTable.get(id.getMostSignificantBits(), id.getLeastSignificantBits());
+        if (slot == BatterySlotTable.MISSING) {
+            return;
+        }
+        var segment = segments[slot >>> SEGMENT_SHIFT];
+        var offset = slot & (SEGMENT_SIZE - 1);
+
+        long previous;
+        double capacity;
+        double stateOfCharge;
+        double powerWatts;
+        synchronized (locks[slot & (LOCK_STRIPES - 1)]) {
+            previous = segment.recordedAt[offset];
+            if (previous == RETIRED) {
+                return;
+            }
+            capacity = segment.capacity[offset];
+            stateOfCharge = segment.stateOfCharge[offset];
+            powerWatts = segment.powerWatts[offset];
+            segment.recordedAt[offset] = RETIRED;
+        }
+        var bucket = segment.buckets[offset];
+        bucket.batteries.decrement();
+        bucket.registeredCapacity.add(-capacity);
+        if (previous != NEVER) {
+            bucket.reporting.decrement();
+            bucket.stateOfChargeSum.add(-stateOfCharge);
+            bucket.availableEnergy.add(-capacity * stateOfCharge / 100);
+            bucket.output.add(-powerWatts);
+        }
+    }
+
+    private void register(UUID id, int postcode, double wattCapacity) {
+        var idMsb = id.getMostSignificantBits();
+        var idLsb = id.getLeastSignificantBits();
+        if (slotTable.get(idMsb, idLsb) != BatterySlotTable.MISSING) {
+            return;
+        }
+
+        var slot = slotCount++;
+        var segmentIndex = slot >>> SEGMENT_SHIFT;
+        if (segmentIndex == segments.length) {
+            var grown = Arrays.copyOf(segments, segmentIndex + 1);
+            grown[segmentIndex] = new Segment();
+            segments = grown;
+        }
+        var segment = segments[segmentIndex];
+        var offset = slot & (SEGMENT_SIZE - 1);
+        var bucket = buckets.computeIfAbsent(postcode, ignored -> new Bucket());
+        segment.buckets[offset] = bucket;
+        segment.idMsb[offset] = idMsb;
+        segment.idLsb[offset] = idLsb;
+        segment.postcode[offset] = postcode;
+        segment.capacity[offset] = wattCapacity;
+        segment.recordedAt[offset] = NEVER;
+        slotTable.put(idMsb, idLsb, slot);
+        publishedSlots = slotCount;
+
+        bucket.batteries.increment();
+        bucket.registeredCapacity.add(wattCapacity);
+    }
+
+    private static Object[] newLocks() {
+        var locks = new Object[LOCK_STRIPES];
+        Arrays.setAll(locks, ignored -> new Object());
+        return locks;
+    }
+
+    /**
+     * Running totals for one postcode.
+     */
+    private static final class Bucket {
+        private final LongAdder batteries = new LongAdder();
+        private final LongAdder reporting = new LongAdder();
+        private final DoubleAdder registeredCapacity = new DoubleAdder();
+        private final DoubleAdder availableEnergy = new DoubleAdder();
+        private final DoubleAdder output = new DoubleAdder();
+        private final DoubleAdder stateOfChargeSum = new DoubleAdder();
+    }
+
+    /**
+     * Fixed-size block of battery slots; the segment table only ever grows, so slot numbers are stable.
+     */
+    private static final class Segment {
+        private final Bucket[] buckets = new Bucket[SEGMENT_SIZE];
+        private final long[] idMsb = new long[SEGMENT_SIZE];
+        private final long[] idLsb = new long[SEGMENT_SIZE];
+        private final int[] postcode = new int[SEGMENT_SIZE];
+        private final double[] capacity = new double[SEGMENT_SIZE];
+        private final long[] recordedAt = new long[SEGMENT_SIZE];
+        private final double[] stateOfCharge = new double[SEGMENT_SIZE];
+        private final double[] powerWatts = new double[SEGMENT_SIZE];
+    }
+
+    /**
+     * Receives one reporting battery's capacity and last reading from
+     * {@link #forEachReporting(Integer, Integer, ReportingBatteryVisitor)}.
+     */
+    @FunctionalInterface
+    public interface ReportingBatteryVisitor {
+
+        void accept(long idMsb, long idLsb, double wattCapacity, double stateOfCharge, double powerWatts);
+    }
+}
@@ -0,0 +1,110 @@
+package org.virtualpowerplant.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.virtualpowerplant.config.IdempotencyProperties;
+import org.virtualpowerplant.config.TenantContext;
+import org.virtualpowerplant.exception.BadRequestException;
+import org.virtualpowerplant.model.BatteryRequestDto;
+import org.virtualpowerplant.model.BatteryResponseDto;
+import org.virtualpowerplant.repository.IdempotencyRepository;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Batch registration guarded by a client-supplied {@code Idempotency-Key}. The first request with a key
+ * registers its batteries by natural key and stores its response in the same transaction; a retry with
+ * the same key and body gets that response back without touching the battery table, and reusing a key
+ * for a different body is rejected. Keys belong to the tenant that used them. Expired keys are purged by a
+ * scheduled task rather than by the registrations, so a purge neither slows a registration nor rolls back
+ * with it.
+ */
+@Service
+@RequiredArgsConstructor
+public class IdempotentRegistrationService {
+    public static final int MAX_KEY_LENGTH = 255;
+    private static final Logger logger = LoggerFactory.getLogger(IdempotentRegistrationService.class);
+    private static final TypeReference<List<BatteryResponseDto>> RESPONSE_TYPE = new TypeReference<>() {
+    };
+
+    private final IdempotencyRepository idempotencyRepository;
+    private final BatteryService batteryService;
+    private final ObjectMapper objectMapper;
+    private final IdempotencyProperties idempotencyProperties;
+
+    @Transactional
+    public List<BatteryResponseDto> register(String idempotencyKey, List<BatteryRequestDto> requests) {
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new BadRequestException("Idempotency-Key must be between 1 and " + MAX_KEY_LENGTH + " characters");
+        }
+        var tenantId = TenantContext.current();
+        var requestHash = hash(requests);
+        if (idempotencyRepository.claim(tenantId, idempotencyKey, requestHash)) {
+            var responses = batteryService.registerBatteriesIfAbsent(requests);
+            idempotencyRepository.complete(tenantId, idempotencyKey, write(responses));
+            return responses;
+        }
+
+        logger.info("Replaying registration for Idempotency-Key {}", idempotencyKey);
+        var stored = idempotencyRepository.find(tenantId, idempotencyKey)
+                                          .orElseThrow(() -> new BadRequestException(HttpStatus.CONFLICT,
+                                                  "Idempotency-Key expired while the request was retried"));
+        if (!stored.requestHash().equals(requestHash)) {
+            throw new BadRequestException(HttpStatus.UNPROCESSABLE_ENTITY,
+                    "Idempotency-Key was already used with a different request body");
+        }
+        if (stored.response() == null) {
+            throw new BadRequestException(HttpStatus.CONFLICT,
+                    "A request with this Idempotency-Key has not completed yet");
+        }
+        return read(stored.response());
+    }
+
+    /**
+     * Runs outside any registration, as a single statement in its own transaction.
+     */
+    @Scheduled(fixedDelayString = "${vpp.idempotency.purge-interval:1m}",
+            initialDelayString = "${vpp.idempotency.purge-interval:1m}")
+    public void purgeExpiredKeys() {
+        var purged = idempotencyRepository.purgeOlderThan(idempotencyProperties.retention());
+        if (purged > 0) {
+            logger.debug("Purged {} expired idempotency keys", purged);
+        }
+    }
+
+    private String hash(List<BatteryRequestDto> requests) {
+        try {
+            var digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(objectMapper.writeValueAsBytes(requests)));
+        } catch (NoSuchAlgorithmException | JsonProcessingException e) {
+            throw new IllegalStateException("Could not hash registration request", e);
+        }
+    }
+
+    private String write(List<BatteryResponseDto> responses) {
+        try {
+            return objectMapper.writeValueAsString(responses);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not store registration response", e);
+        }
+    }
+
+    private List<BatteryResponseDto> read(String response) {
+        try {
+            return objectMapper.readValue(response, RESPONSE_TYPE);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not replay stored registration response", e);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package org.virtualpowerplant.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.virtualpowerplant.entity.Battery;
+import org.virtualpowerplant.repository.ImportJobChunkRepository;
+import org.virtualpowerplant.repository.ImportJobRepository;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Writes one chunk of an import job together with its progress marker, so a chunk is either fully stored
+ * and counted or not at all.
+ */
+@Component
+@RequiredArgsConstructor
+public class ImportChunkWriter {
+    private final BatteryService batteryService;
+    private final ImportJobRepository importJobRepository;
+    private final ImportJobChunkRepository importJobChunkRepository;
+
+    @Transactional
+    public void write(UUID jobId, int chunkIndex, List<Battery> batteries) {
+        batteryService.registerChunk(batteries);
+        importJobChunkRepository.markCommitted(jobId, chunkIndex, batteries.size());
+        importJobRepository.addCommittedChunk(jobId, batteries.size());
+    }
+}
@@ -0,0 +1,276 @@
+package org.virtualpowerplant.service;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.virtualpowerplant.config.ImportProperties;
+import org.virtualpowerplant.entity.Battery;
+import org.virtualpowerplant.entity.ImportJob;
+import org.virtualpowerplant.mapper.BatteryMapper;
+import org.virtualpowerplant.model.BatteryRequestDto;
+import org.virtualpowerplant.repository.ImportJobChunkRepository;
+import org.virtualpowerplant.repository.ImportJobRepository;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Runs import jobs on virtual threads. Each job parses its spooled upload on one thread and hands chunks of
+ * validated batteries to at most {@code maxParallelWriters} writer threads; once that many chunks are in
+ * flight the parser blocks, so memory stays bounded however fast the file parses.
+ * <p>
+ * Chunking is deterministic for a given file and chunk size, and every written chunk is recorded in the
+ * same transaction as its batteries. Jobs left unfinished by a restart are picked up again on startup,
+ * re-parse their upload and skip the chunks already recorded. Uploads are spooled to local disk, so an
+ * instance only resumes the jobs it accepted itself and leaves those of other instances alone.
+ */
+@Component
+public class ImportJobRunner implements DisposableBean {
+    private static final Logger logger = LoggerFactory.getLogger(ImportJobRunner.class);
+
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final BatteryMapper batteryMapper;
+    private final ImportChunkWriter importChunkWriter;
+    private final ImportJobRepository importJobRepository;
+    private final ImportJobChunkRepository importJobChunkRepository;
+    private final ImportProperties importProperties;
+    private final ExecutorService executor =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("battery-import-", 0).factory());
+    private final Semaphore jobPermits;
+    private final Set<UUID> activeJobs = ConcurrentHashMap.newKeySet();
+    private final String instanceId;
+
+    public ImportJobRunner(ObjectMapper objectMapper, Validator validator, BatteryMapper batteryMapper,
+                           ImportChunkWriter importChunkWriter, ImportJobRepository importJobRepository,
+                           ImportJobChunkRepository importJobChunkRepository, ImportProperties importProperties) {
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.batteryMapper = batteryMapper;
+        this.importChunkWriter = importChunkWriter;
+        this.importJobRepository = importJobRepository;
+        this.importJobChunkRepository = importJobChunkRepository;
+        this.importProperties = importProperties;
+        this.jobPermits = new Semaphore(importProperties.maxConcurrentJobs());
+        this.instanceId = importProperties.instanceId() == null || importProperties.instanceId().isBlank()
+                ? hostName()
+                : importProperties.instanceId();
+    }
+
+    /**
+     * The owner recorded on the jobs this instance accepts.
+     */
+    public String instanceId() {
+        return instanceId;
+    }
+
+    public void submit(UUID jobId) {
+        if (!activeJobs.add(jobId)) {
+            return;
+        }
+        executor.execute(() -> {
+            try {
+                run(jobId);
+            } finally {
+                activeJobs.remove(jobId);
+            }
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeUnfinishedJobs() {
+        var tmpdir = Path.of(System.getProperty("java.io.tmpdir")).toAbsolutePath();
+        if (importProperties.directory().toAbsolutePath().startsWith(tmpdir)) {
+            logger.warn("Import uploads are spooled under the temporary directory {}; unfinished jobs fail if it "
+                    + "is cleared on restart, so set vpp.imports.directory to a persistent path", tmpdir);
+        }
+        var unfinished = importJobRepository.findByOwnerAndStatusIn(instanceId,
+                List.of(ImportJob.Status.QUEUED, ImportJob.Status.RUNNING));
+        for (var job : unfinished) {
+            if (Files.exists(Path.of(job.getSpoolFile()))) {
+                logger.info("Resuming import job {} after {} committed chunks", job.getId(), job.getChunksCommitted());
+                submit(job.getId());
+            } else {
+                logger.warn("Import job {} cannot resume, its upload {} is gone", job.getId(), job.getSpoolFile());
+                importJobRepository.updateStatus(job.getId(), ImportJob.Status.FAILED,
+                        "Upload was lost before the import completed");
+            }
+        }
+    }
+
+    void run(UUID jobId) {
+        try {
+            jobPermits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        try {
+            var job = importJobRepository.findById(jobId).orElse(null);
+            if (job == null || job.getStatus().isTerminal()) {
+                return;
+            }
+            importJobRepository.updateStatus(jobId, ImportJob.Status.RUNNING, null);
+            var failure = execute(job);
+            finish(job, failure);
+        } catch (InterruptedException e) {
+            // Shutting down: the job stays RUNNING and resumes from its committed chunks on the next start.
+            logger.info("Import job {} interrupted, it will resume on restart", jobId);
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            logger.error("Import job {} failed", jobId, e);
+            importJobRepository.updateStatus(jobId, ImportJob.Status.FAILED, truncate("Import failed: " + e.getMessage()));
+        } finally {
+            jobPermits.release();
+        }
+    }
+
+    /**
+     * Returns the reason the job failed, or {@code null} once every chunk has been written.
+     */
+    private String execute(ImportJob job) throws InterruptedException {
+        var jobId = job.getId();
+        var chunkSize = job.getChunkSize();
+        var writers = new Semaphore(importProperties.maxParallelWriters());
+        var failure = new AtomicReference<String>();
+        var committed = new HashSet<>(importJobChunkRepository.findCommittedChunkIndexes(jobId));
+        var progress = new ParseProgress(jobId);
+        var chunkIndex = 0;
+        var chunk = new ArrayList<Battery>(chunkSize);
+
+        try (MappingIterator<BatteryRequestDto> records = objectMapper.readerFor(BatteryRequestDto.class)
+                                                                      .readValues(Path.of(job.getSpoolFile()).toFile())) {
+            while (failure.get() == null && records.hasNextValue()) {
+                var request = records.nextValue();
+                progress.parsed++;
+                if (validator.validate(request).isEmpty()) {
+                    progress.validated++;
+                    var battery = batteryMapper.toEntity(request);
+                    battery.setTenantId(job.getTenantId());
+                    chunk.add(battery);
+                    if (chunk.size() == chunkSize) {
+                        writeChunk(jobId, chunkIndex++, chunk, committed, writers, failure);
+                        chunk = new ArrayList<>(chunkSize);
+                    }
+                } else {
+                    progress.failed++;
+                }
+                progress.saveIfDue();
+            }
+            if (failure.get() == null && !chunk.isEmpty()) {
+                writeChunk(jobId, chunkIndex, chunk, committed, writers, failure);
+            }
+        } catch (IOException e) {
+            logger.warn("Malformed import payload for job {} after {} records", jobId, progress.parsed, e);
+            failure.compareAndSet(null, "Malformed battery payload at record " + progress.parsed);
+        }
+
+        // Wait for the chunks still in flight before reporting the outcome.
+        writers.acquire(importProperties.maxParallelWriters());
+        progress.save();
+        return failure.get();
+    }
+
+    private void writeChunk(UUID jobId, int chunkIndex, List<Battery> chunk, Set<Integer> committed,
+                            Semaphore writers, AtomicReference<String> failure) throws InterruptedException {
+        if (committed.contains(chunkIndex)) {
+            return;
+        }
+        writers.acquire();
+        executor.execute(() -> {
+            try {
+                importChunkWriter.write(jobId, chunkIndex, chunk);
+            } catch (RuntimeException e) {
+                logger.error("Import job {} failed to write chunk {}", jobId, chunkIndex, e);
+                failure.compareAndSet(null, "Failed to write chunk " + chunkIndex + ": " + e.getMessage());
+            } finally {
+                writers.release();
+            }
+        });
+    }
+
+    private void finish(ImportJob job, String failure) {
+        var jobId = job.getId();
+        if (failure == null) {
+            importJobRepository.updateStatus(jobId, ImportJob.Status.COMPLETED, null);
+            logger.info("Import job {} completed", jobId);
+        } else {
+            var kept = importJobRepository.findById(jobId).map(ImportJob::getRowsWritten).orElse(0L);
+            importJobRepository.updateStatus(jobId, ImportJob.Status.FAILED,
+                    truncate(failure + "; " + kept + " batteries from committed chunks were kept"));
+        }
+        // Markers only matter for resuming, which a finished job never does; drop them after the status.
+        importJobChunkRepository.deleteByJobId(jobId);
+        try {
+            Files.deleteIfExists(Path.of(job.getSpoolFile()));
+        } catch (IOException e) {
+            logger.warn("Could not delete import upload {}", job.getSpoolFile(), e);
+        }
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            throw new IllegalStateException("Cannot resolve the host name; set vpp.imports.instance-id", e);
+        }
+    }
+
+    private static String truncate(String message) {
+        return message.length() <= ImportJob.MAX_ERROR_MESSAGE_LENGTH
+                ? message
+                : message.substring(0, ImportJob.MAX_ERROR_MESSAGE_LENGTH);
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Parse counters of one run, saved at most once per {@code progressInterval}. They restart from zero
+     * when a job resumes, since the whole upload is parsed again.
+     */
+    private final class ParseProgress {
+        private final UUID jobId;
+        private final long intervalNanos = importProperties.progressInterval().toNanos();
+        private long nextSaveNanos = System.nanoTime() + intervalNanos;
+        private long parsed;
+        private long validated;
+        private long failed;
+
+        ParseProgress(UUID jobId) {
+            this.jobId = jobId;
+        }
+
+        void saveIfDue() {
+            if (System.nanoTime() - nextSaveNanos >= 0) {
+                save();
+            }
+        }
+
+        void save() {
+            importJobRepository.updateParseProgress(jobId, parsed, validated, failed);
+            nextSaveNanos = System.nanoTime() + intervalNanos;
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package org.virtualpowerplant.service;
+
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.virtualpowerplant.config.ImportProperties;
+import org.virtualpowerplant.config.TenantContext;
+import org.virtualpowerplant.entity.ImportJob;
+import org.virtualpowerplant.exception.BadRequestException;
+import org.virtualpowerplant.model.ImportJobDto;
+import org.virtualpowerplant.repository.ImportJobRepository;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Accepts battery imports too large to register within one HTTP request. The upload is spooled to disk
+ * as fast as it arrives, a job is recorded and the request returns straight away; {@link ImportJobRunner}
+ * does the parsing and writing in the background while clients poll the job or subscribe to its progress.
+ */
+@Service
+@RequiredArgsConstructor
+public class ImportJobService {
+    private static final Logger logger = LoggerFactory.getLogger(ImportJobService.class);
+    private static final int SPOOL_BUFFER_SIZE = 64 * 1024;
+    private final ImportJobRepository importJobRepository;
+    private final ImportJobRunner importJobRunner;
+    private final ImportProperties importProperties;
+
+    public ImportJobDto submit(InputStream body) {
+        var spoolFile = spool(body);
+        var job = new ImportJob();
+        job.setTenantId(TenantContext.current());
+        job.setOwner(importJobRunner.instanceId());
+        job.setStatus(ImportJob.Status.QUEUED);
+        job.setSpoolFile(spoolFile.toString());
+        job.setChunkSize(importProperties.chunkSize());
+        job = importJobRepository.save(job);
+
+        logger.info("Queued import job {} ({} bytes)", job.getId(), size(spoolFile));
+        importJobRunner.submit(job.getId());
+        return toDto(job);
+    }
+
+    public ImportJobDto getJob(UUID id) {
+        return getJob(id, TenantContext.current());
+    }
+
+    /**
+     * Sends a {@code progress} event whenever the job's counters change and completes once it has finished.
+     * The job is polled from the database, so this works whichever instance is running it.
+     */
+    public SseEmitter subscribe(UUID id) {
+        var tenantId = TenantContext.current();
+        var current = getJob(id, tenantId);
+        var emitter = new SseEmitter(importProperties.subscriptionTimeout().toMillis());
+        var open = new AtomicBoolean(true);
+        emitter.onCompletion(() -> open.set(false));
+        emitter.onTimeout(() -> open.set(false));
+        emitter.onError(e -> open.set(false));
+
+        Thread.ofVirtual().name("battery-import-progress-" + id).start(() -> {
+            ImportJobDto last = null;
+            var job = current;
+            try {
+                while (open.get()) {
+                    if (!job.equals(last)) {
+                        emitter.send(SseEmitter.event().name("progress").data(job, MediaType.APPLICATION_JSON));
+                        last = job;
+                    }
+                    if (job.status().isTerminal()) {
+                        emitter.complete();
+                        return;
+                    }
+                    Thread.sleep(importProperties.progressInterval());
+                    job = getJob(id, tenantId);
+                }
+            } catch (IOException e) {
+                logger.debug("Import progress subscriber for job {} went away", id);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                emitter.complete();
+            } catch (RuntimeException e) {
+                emitter.completeWithError(e);
+            }
+        });
+        return emitter;
+    }
+
+    /**
+     * Jobs of other tenants are reported as missing, so their ids reveal nothing.
+     */
+    private ImportJobDto getJob(UUID id, String tenantId) {
+        return importJobRepository.findById(id)
+                                  .filter(job -> tenantId.equals(job.getTenantId()))
+                                  .map(ImportJobService::toDto)
+                                  .orElseThrow(() -> notFound(id));
+    }
+
+    /**
+     * Copies the upload to the spool directory, giving up with 413 as soon as it exceeds
+     * {@code max-upload-size} rather than after filling the disk.
+     */
+    private Path spool(InputStream body) {
+        var maxBytes = importProperties.maxUploadSize().toBytes();
+        Path file = null;
+        try {
+            Files.createDirectories(importProperties.directory());
+            file = Files.createTempFile(importProperties.directory(), "battery-import-", ".json");
+            try (var out = Files.newOutputStream(file)) {
+                var buffer = new byte[SPOOL_BUFFER_SIZE];
+                long copied = 0;
+                int read;
+                while ((read = body.read(buffer)) >= 0) {
+                    copied += read;
+                    if (copied > maxBytes) {
+                        throw new BadRequestException(HttpStatus.PAYLOAD_TOO_LARGE,
+                                "Battery import exceeds " + maxBytes + " bytes");
+                    }
+                    out.write(buffer, 0, read);
+                }
+            }
+            return file;
+        } catch (IOException e) {
+            deleteQuietly(file);
+            throw new UncheckedIOException("Could not spool battery import", e);
+        } catch (RuntimeException e) {
+            // over the size limit, or a compressed upload that is corrupt or inflates beyond its limit
+            deleteQuietly(file);
+            throw e;
+        }
+    }
+
+    private static long size(Path file) {
+        try {
+            return Files.size(file);
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.warn("Could not delete partial import upload {}", file, e);
+        }
+    }
+
+    private static BadRequestException notFound(UUID id) {
+        return new BadRequestException(HttpStatus.NOT_FOUND, "Import job " + id + " not found");
+    }
+
+    private static ImportJobDto toDto(ImportJob job) {
+        return ImportJobDto.builder()
+                           .id(job.getId())
+                           .status(job.getStatus())
+                           .rowsParsed(job.getRowsParsed())
+                           .rowsValidated(job.getRowsValidated())
+                           .rowsFailed(job.getRowsFailed())
+                           .rowsWritten(job.getRowsWritten())
+                           .chunksCommitted(job.getChunksCommitted())
+                           .errorMessage(job.getErrorMessage())
+                           .createdAt(job.getCreatedAt())
+                           .updatedAt(job.getUpdatedAt())
+                           .build();
+    }
+}
@@ -0,0 +1,118 @@
+package org.virtualpowerplant.service;
+
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.virtualpowerplant.config.StartupProperties;
+import org.virtualpowerplant.entity.Battery;
+import org.virtualpowerplant.event.BatteriesModifiedEvent;
+import org.virtualpowerplant.event.BatteriesRegisteredEvent;
+import org.virtualpowerplant.model.BatteryAggregate;
+import org.virtualpowerplant.model.BatterySearchCriteria;
+import org.virtualpowerplant.repository.BatteryJdbcRepository;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Answers statistics from a {@link BatteryCapacityIndex} held in this process instead of querying
+ * PostgreSQL. The index is loaded before the web server starts accepting requests and is kept current
+ * from {@link BatteriesRegisteredEvent}s and {@link BatteriesModifiedEvent}s after commit, so it only sees
+ * changes made through this node; use it for single-writer deployments or read-heavy nodes that take all writes.
+ * <p>
+ * Each tenant gets its own index, so a query only ever searches the batteries of its tenant. Indexes are
+ * {@link TieredCapacityIndex}es, so ingest committing in small chunks does not copy the tenant's whole
+ * index on every chunk.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "vpp.stats", name = "source", havingValue = "memory")
+public class InMemoryBatteryStatisticsSource implements BatteryStatisticsSource, SmartInitializingSingleton {
+    private static final Logger logger = LoggerFactory.getLogger(InMemoryBatteryStatisticsSource.class);
+    private final BatteryJdbcRepository batteryJdbcRepository;
+    private final StartupProperties startupProperties;
+    private final Object writeLock = new Object();
+    private volatile Map<String, TieredCapacityIndex> indexes = Map.of();
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!startupProperties.preload()) {
+            logger.info("Skipping the startup load of the in-memory capacity index");
+            return;
+        }
+        var startNanos = System.nanoTime();
+        var size = 0;
+        synchronized (writeLock) {
+            var builders = new HashMap<String, BatteryCapacityIndex.Builder>();
+            batteryJdbcRepository.scan((tenantId, name, postcode, wattCapacity) ->
+                    builders.computeIfAbsent(tenantId, ignored -> new BatteryCapacityIndex.Builder(1024))
+                            .add(name, postcode, wattCapacity));
+            var loaded = new HashMap<String, TieredCapacityIndex>(builders.size());
+            for (var entry : builders.entrySet()) {
+                var index = TieredCapacityIndex.of(entry.getValue().build());
+                loaded.put(entry.getKey(), index);
+                size += index.size();
+            }
+            indexes = Map.copyOf(loaded);
+        }
+        logger.info("Loaded {} batteries of {} tenants into the in-memory capacity index in {} ms",
+                size, indexes.size(), (System.nanoTime() - startNanos) / 1_000_000);
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBatteriesRegistered(BatteriesRegisteredEvent event) {
+        var additions = byTenant(event.batteries());
+        synchronized (writeLock) {
+            var merged = new HashMap<>(indexes);
+            additions.forEach((tenantId, added) ->
+                    merged.put(tenantId, merged.getOrDefault(tenantId, TieredCapacityIndex.EMPTY).merge(added)));
+            indexes = Map.copyOf(merged);
+        }
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBatteriesModified(BatteriesModifiedEvent event) {
+        var removals = byTenant(event.before());
+        var additions = byTenant(event.after());
+        synchronized (writeLock) {
+            var modified = new HashMap<>(indexes);
+            removals.forEach((tenantId, removed) ->
+                    modified.computeIfPresent(tenantId, (ignored, index) -> index.remove(removed)));
+            additions.forEach((tenantId, added) ->
+                    modified.put(tenantId, modified.getOrDefault(tenantId, TieredCapacityIndex.EMPTY).merge(added)));
+            indexes = Map.copyOf(modified);
+        }
+    }
+
+    private static Map<String, BatteryCapacityIndex.Builder> byTenant(List<Battery> batteries) {
+        var builders = new HashMap<String, BatteryCapacityIndex.Builder>();
+        for (Battery battery : batteries) {
+            builders.computeIfAbsent(battery.tenantIdOrDefault(), ignored -> new BatteryCapacityIndex.Builder(batteries.size()))
+                    .add(battery.getName(), battery.getPostcode(), battery.getWattCapacity());
+        }
+        return builders;
+    }
+
+    @Override
+    public BatteryAggregate aggregate(BatterySearchCriteria criteria) {
+        return indexFor(criteria).aggregate(criteria);
+    }
+
+    @Override
+    public List<String> findNames(BatterySearchCriteria criteria) {
+        return indexFor(criteria).findNames(criteria);
+    }
+
+    private TieredCapacityIndex indexFor(BatterySearchCriteria criteria) {
+        return indexes.getOrDefault(criteria.effectiveTenantId(), TieredCapacityIndex.EMPTY);
+    }
+}
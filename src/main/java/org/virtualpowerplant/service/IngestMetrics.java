@@ -0,0 +1,120 @@
+package org.virtualpowerplant.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-stage timers, batch size distribution and row throughput for battery registration. All meters are
+ * registered up front so recording is a map-free array lookup.
+ * <ul>
+ *     <li>{@code vpp.ingest.stage{path,stage}}: time spent in each stage, per batch or per stream chunk</li>
+ *     <li>{@code vpp.ingest.batch.size{path}}: batteries per request or chunk</li>
+ *     <li>{@code vpp.ingest.rows{path}}: batteries written</li>
+ *     <li>{@code vpp.ingest.throughput{path}}: rows per second of the most recent batch</li>
+ * </ul>
+ * Flush and statement counts come from Hibernate statistics, published as {@code hibernate.*}.
+ */
+@Component
+public class IngestMetrics {
+    static final String BIND_COMPLETED_NANOS = IngestMetrics.class.getName() + ".bindCompletedNanos";
+
+    public enum Path {
+        BATCH, STREAM
+    }
+
+    public enum Stage {
+        /** JSON body binding. */
+        BIND,
+        /** Bean validation of each request. */
+        VALIDATE,
+        /** MapStruct mapping from requests to entities. */
+        MAP,
+        /** {@code saveAll}, including {@code @PrePersist} id assignment. */
+        PERSIST,
+        /** Flushing the persistence context, i.e. the actual INSERT batches. */
+        FLUSH,
+        /** Mapping saved entities to responses. */
+        RESPOND,
+        /** JDBC batch insert and commit of one streamed chunk. */
+        WRITE
+    }
+
+    private final Map<Path, Map<Stage, Timer>> stageTimers = new EnumMap<>(Path.class);
+    private final Map<Path, DistributionSummary> batchSizes = new EnumMap<>(Path.class);
+    private final Map<Path, Counter> rows = new EnumMap<>(Path.class);
+    private final Map<Path, AtomicLong> throughputBits = new EnumMap<>(Path.class);
+
+    public IngestMetrics(MeterRegistry meterRegistry) {
+        for (Path path : Path.values()) {
+            var tag = path.name().toLowerCase();
+            var timers = new EnumMap<Stage, Timer>(Stage.class);
+            for (Stage stage : Stage.values()) {
+                timers.put(stage, Timer.builder("vpp.ingest.stage")
+                                       .tag("path", tag)
+                                       .tag("stage", stage.name().toLowerCase())
+                                       .publishPercentileHistogram()
+                                       .register(meterRegistry));
+            }
+            stageTimers.put(path, timers);
+            batchSizes.put(path, DistributionSummary.builder("vpp.ingest.batch.size")
+                                                    .tag("path", tag)
+                                                    .baseUnit("batteries")
+                                                    .publishPercentileHistogram()
+                                                    .register(meterRegistry));
+            rows.put(path, Counter.builder("vpp.ingest.rows")
+                                  .tag("path", tag)
+                                  .register(meterRegistry));
+            var throughput = new AtomicLong(Double.doubleToLongBits(0));
+            throughputBits.put(path, throughput);
+            Gauge.builder("vpp.ingest.throughput", throughput, bits -> Double.longBitsToDouble(bits.get()))
+                 .tag("path", tag)
+                 .register(meterRegistry);
+        }
+    }
+
+    public void record(Path path, Stage stage, long nanos) {
+        stageTimers.get(path).get(stage).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordBatch(Path path, int batchSize, long elapsedNanos) {
+        batchSizes.get(path).record(batchSize);
+        rows.get(path).increment(batchSize);
+        if (elapsedNanos > 0) {
+            var rowsPerSecond = batchSize * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+            throughputBits.get(path).set(Double.doubleToLongBits(rowsPerSecond));
+        }
+    }
+
+    /**
+     * Marks the end of body binding for the current request.
+     */
+    public void bindCompleted(long nanos) {
+        var attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null) {
+            attributes.setAttribute(BIND_COMPLETED_NANOS, nanos, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    /**
+     * Records the time since {@link #bindCompleted(long)} as the validation stage. Argument validation runs
+     * between body binding and the handler call, so this is called first thing in the handler.
+     */
+    public void validationCompleted(Path path) {
+        var attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null
+                && attributes.getAttribute(BIND_COMPLETED_NANOS, RequestAttributes.SCOPE_REQUEST) instanceof Long bindCompleted) {
+            record(path, Stage.VALIDATE, System.nanoTime() - bindCompleted);
+        }
+    }
+}
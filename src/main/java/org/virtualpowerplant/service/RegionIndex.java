@@ -0,0 +1,265 @@
+package org.virtualpowerplant.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Immutable postcode-to-grid-topology mapping held as compact primitive arrays. Feeder and substation
+ * membership are stored in compressed sparse row form (an offsets array into one flat array of row
+ * numbers per grouping), and coordinates are bucketed into a uniform latitude/longitude grid stored the
+ * same way, with cells sorted by key so a radius query binary-searches only the cells its bounding box
+ * touches before checking exact distances.
+ * <p>
+ * A postcode may appear on several rows, e.g. when it is served by more than one feeder; queries return
+ * each matching postcode once, in ascending order.
+ */
+public final class RegionIndex {
+    public static final RegionIndex EMPTY = new Builder(1).build();
+    private static final double KM_PER_DEGREE = 111.32;
+    private static final double EARTH_RADIUS_KM = 6371.0088;
+
+    private final int[] postcodes;
+    private final double[] latitudes;
+    private final double[] longitudes;
+    private final Grouping feeders;
+    private final Grouping substations;
+    private final double cellDegrees;
+    private final long[] cellKeys;
+    private final int[] cellOffsets;
+    private final int[] cellRows;
+
+    private RegionIndex(Builder builder, double cellSizeKm) {
+        var size = builder.size;
+        this.postcodes = Arrays.copyOf(builder.postcodes, size);
+        this.latitudes = Arrays.copyOf(builder.latitudes, size);
+        this.longitudes = Arrays.copyOf(builder.longitudes, size);
+        this.feeders = new Grouping(builder.feederIds, Arrays.copyOf(builder.feederOf, size));
+        this.substations = new Grouping(builder.substationIds, Arrays.copyOf(builder.substationOf, size));
+        this.cellDegrees = cellSizeKm / KM_PER_DEGREE;
+
+        var rowKeys = new long[size];
+        for (int row = 0; row < size; row++) {
+            rowKeys[row] = cellKey(cell(latitudes[row]), cell(longitudes[row]));
+        }
+        var sortedKeys = rowKeys.clone();
+        Arrays.sort(sortedKeys);
+        var distinct = 0;
+        for (int i = 0; i < size; i++) {
+            if (i == 0 || sortedKeys[i] != sortedKeys[i - 1]) {
+                sortedKeys[distinct++] = sortedKeys[i];
+            }
+        }
+        this.cellKeys = Arrays.copyOf(sortedKeys, distinct);
+
+        var cellOfRow = new int[size];
+        this.cellOffsets = new int[distinct + 1];
+        for (int row = 0; row < size; row++) {
+            cellOfRow[row] = Arrays.binarySearch(cellKeys, rowKeys[row]);
+            cellOffsets[cellOfRow[row] + 1]++;
+        }
+        this.cellRows = fill(cellOffsets, cellOfRow);
+    }
+
+    public int size() {
+        return postcodes.length;
+    }
+
+    public int[] postcodesForFeeder(String feeder) {
+        return distinctPostcodes(feeders.rows(feeder));
+    }
+
+    public int[] postcodesForSubstation(String substation) {
+        return distinctPostcodes(substations.rows(substation));
+    }
+
+    /**
+     * Postcodes whose reference point is within {@code radiusKm} (great-circle distance) of the given point.
+     */
+    public int[] postcodesWithin(double latitude, double longitude, double radiusKm) {
+        var latitudeDelta = radiusKm / KM_PER_DEGREE;
+        var longitudeDelta = radiusKm / (KM_PER_DEGREE * Math.max(Math.cos(Math.toRadians(latitude)), 0.01));
+        long fromLatitudeCell = cell(latitude - latitudeDelta);
+        long toLatitudeCell = cell(latitude + latitudeDelta);
+        long fromLongitudeCell = cell(longitude - longitudeDelta);
+        long toLongitudeCell = cell(longitude + longitudeDelta);
+
+        var matches = new int[16];
+        var count = 0;
+        var candidateCells = (toLatitudeCell - fromLatitudeCell + 1) * (toLongitudeCell - fromLongitudeCell + 1);
+        if (candidateCells > cellKeys.length) {
+            // The box covers more cells than exist; scanning every row is cheaper than probing empty cells.
+            for (int row = 0; row < postcodes.length; row++) {
+                if (distanceKm(latitude, longitude, latitudes[row], longitudes[row]) <= radiusKm) {
+                    matches = append(matches, count++, row);
+                }
+            }
+        } else {
+            for (long latitudeCell = fromLatitudeCell; latitudeCell <= toLatitudeCell; latitudeCell++) {
+                for (long longitudeCell = fromLongitudeCell; longitudeCell <= toLongitudeCell; longitudeCell++) {
+                    var cell = Arrays.binarySearch(cellKeys, cellKey((int) latitudeCell, (int) longitudeCell));
+                    if (cell < 0) {
+                        continue;
+                    }
+                    for (int i = cellOffsets[cell]; i < cellOffsets[cell + 1]; i++) {
+                        var row = cellRows[i];
+                        if (distanceKm(latitude, longitude, latitudes[row], longitudes[row]) <= radiusKm) {
+                            matches = append(matches, count++, row);
+                        }
+                    }
+                }
+            }
+        }
+        return distinctPostcodes(Arrays.copyOf(matches, count));
+    }
+
+    public static RegionIndex load(Reader source, double cellSizeKm) throws IOException {
+        var builder = new Builder(1024);
+        var reader = new BufferedReader(source);
+        String line;
+        var lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            var trimmed = line.strip();
+            if (trimmed.isEmpty() || trimmed.startsWith("#") || (lineNumber == 1 && trimmed.startsWith("postcode"))) {
+                continue;
+            }
+            var columns = trimmed.split(",", -1);
+            if (columns.length != 5) {
+                throw new IllegalArgumentException("Line " + lineNumber + ": expected 5 columns but found " + columns.length);
+            }
+            try {
+                builder.add(Integer.parseInt(columns[0].strip()), columns[1].strip(), columns[2].strip(),
+                        Double.parseDouble(columns[3].strip()), Double.parseDouble(columns[4].strip()));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Line " + lineNumber + ": " + e.getMessage(), e);
+            }
+        }
+        return builder.build(cellSizeKm);
+    }
+
+    private int[] distinctPostcodes(int[] rows) {
+        var result = new int[rows.length];
+        for (int i = 0; i < rows.length; i++) {
+            result[i] = postcodes[rows[i]];
+        }
+        Arrays.sort(result);
+        var distinct = 0;
+        for (int i = 0; i < result.length; i++) {
+            if (i == 0 || result[i] != result[i - 1]) {
+                result[distinct++] = result[i];
+            }
+        }
+        return Arrays.copyOf(result, distinct);
+    }
+
+    private int cell(double degrees) {
+        return (int) Math.floor(degrees / cellDegrees);
+    }
+
+    private static long cellKey(int latitudeCell, int longitudeCell) {
+        return ((long) latitudeCell << 32) | (longitudeCell & 0xffffffffL);
+    }
+
+    static double distanceKm(double fromLatitude, double fromLongitude, double toLatitude, double toLongitude) {
+        var latitudeDelta = Math.toRadians(toLatitude - fromLatitude);
+        var longitudeDelta = Math.toRadians(toLongitude - fromLongitude);
+        var a = Math.pow(Math.sin(latitudeDelta / 2), 2)
+                + Math.cos(Math.toRadians(fromLatitude)) * Math.cos(Math.toRadians(toLatitude))
+                * Math.pow(Math.sin(longitudeDelta / 2), 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    private static int[] append(int[] values, int index, int value) {
+        var target = index == values.length ? Arrays.copyOf(values, index * 2) : values;
+        target[index] = value;
+        return target;
+    }
+
+    /**
+     * Turns per-group counts (shifted by one) into offsets and returns row numbers laid out by group.
+     */
+    private static int[] fill(int[] offsets, int[] groupOfRow) {
+        for (int g = 0; g + 1 < offsets.length; g++) {
+            offsets[g + 1] += offsets[g];
+        }
+        var rows = new int[groupOfRow.length];
+        var next = Arrays.copyOf(offsets, offsets.length - 1);
+        for (int row = 0; row < groupOfRow.length; row++) {
+            rows[next[groupOfRow[row]]++] = row;
+        }
+        return rows;
+    }
+
+    /**
+     * Rows grouped by a dictionary-encoded name.
+     */
+    private static final class Grouping {
+        private final Map<String, Integer> ids;
+        private final int[] offsets;
+        private final int[] rows;
+
+        Grouping(Map<String, Integer> ids, int[] groupOfRow) {
+            this.ids = Map.copyOf(ids);
+            this.offsets = new int[ids.size() + 1];
+            for (int group : groupOfRow) {
+                offsets[group + 1]++;
+            }
+            this.rows = fill(offsets, groupOfRow);
+        }
+
+        int[] rows(String name) {
+            var id = ids.get(name);
+            return id == null ? new int[0] : Arrays.copyOfRange(rows, offsets[id], offsets[id + 1]);
+        }
+    }
+
+    public static final class Builder {
+        private final Map<String, Integer> feederIds = new HashMap<>();
+        private final Map<String, Integer> substationIds = new HashMap<>();
+        private int[] postcodes;
+        private int[] feederOf;
+        private int[] substationOf;
+        private double[] latitudes;
+        private double[] longitudes;
+        private int size;
+
+        public Builder(int expectedSize) {
+            var capacity = Math.max(expectedSize, 16);
+            this.postcodes = new int[capacity];
+            this.feederOf = new int[capacity];
+            this.substationOf = new int[capacity];
+            this.latitudes = new double[capacity];
+            this.longitudes = new double[capacity];
+        }
+
+        public Builder add(int postcode, String feeder, String substation, double latitude, double longitude) {
+            if (size == postcodes.length) {
+                var grown = size + (size >> 1);
+                postcodes = Arrays.copyOf(postcodes, grown);
+                feederOf = Arrays.copyOf(feederOf, grown);
+                substationOf = Arrays.copyOf(substationOf, grown);
+                latitudes = Arrays.copyOf(latitudes, grown);
+                longitudes = Arrays.copyOf(longitudes, grown);
+            }
+            postcodes[size] = postcode;
+            feederOf[size] = feederIds.computeIfAbsent(feeder, ignored -> feederIds.size());
+            substationOf[size] = substationIds.computeIfAbsent(substation, ignored -> substationIds.size());
+            latitudes[size] = latitude;
+            longitudes[size] = longitude;
+            size++;
+            return this;
+        }
+
+        public RegionIndex build() {
+            return build(5);
+        }
+
+        public RegionIndex build(double cellSizeKm) {
+            return new RegionIndex(this, cellSizeKm);
+        }
+    }
+}
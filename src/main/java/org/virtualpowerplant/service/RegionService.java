@@ -0,0 +1,89 @@
+package org.virtualpowerplant.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.virtualpowerplant.config.RegionProperties;
+import org.virtualpowerplant.exception.BadRequestException;
+import org.virtualpowerplant.model.BatteryStatisticsDto;
+import org.virtualpowerplant.model.RegionQuery;
+import org.virtualpowerplant.repository.BatteryRepository;
+import org.virtualpowerplant.repository.BatterySpecifications;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Battery statistics for grid regions. The {@link RegionIndex} is built once from the configured file
+ * when the service is created; a query resolves to a set of postcodes, which then filters batteries
+ * through the same aggregate and name queries as the postcode-range statistics.
+ */
+@Service
+public class RegionService {
+    private static final Logger logger = LoggerFactory.getLogger(RegionService.class);
+    private final BatteryRepository batteryRepository;
+    private final RegionIndex regionIndex;
+
+    public RegionService(BatteryRepository batteryRepository, RegionProperties regionProperties) {
+        this.batteryRepository = batteryRepository;
+        this.regionIndex = loadIndex(regionProperties);
+    }
+
+    public int[] resolvePostcodes(RegionQuery query) {
+        var selectors = (query.feeder() != null ? 1 : 0) + (query.substation() != null ? 1 : 0) + (query.hasPoint() ? 1 : 0);
+        if (selectors != 1) {
+            throw new BadRequestException("Exactly one of feeder, substation or latitude/longitude/radiusKm is required");
+        }
+        if (query.feeder() != null) {
+            return regionIndex.postcodesForFeeder(query.feeder());
+        }
+        if (query.substation() != null) {
+            return regionIndex.postcodesForSubstation(query.substation());
+        }
+        if (query.latitude() == null || query.longitude() == null || query.radiusKm() == null) {
+            throw new BadRequestException("latitude, longitude and radiusKm must be given together");
+        }
+        return regionIndex.postcodesWithin(query.latitude(), query.longitude(), query.radiusKm());
+    }
+
+    @Transactional(readOnly = true)
+    public BatteryStatisticsDto getStatistics(RegionQuery query) {
+        logger.info("Getting battery statistics for region: {}", query);
+
+        var postcodes = resolvePostcodes(query);
+        if (postcodes.length == 0) {
+            return BatteryStatisticsDto.builder().batteryNames(List.of()).build();
+        }
+        var spec = BatterySpecifications.postcodeIn(postcodes)
+                                        .and(BatterySpecifications.matching(query.capacityCriteria()));
+        var aggregate = batteryRepository.aggregate(spec);
+        var names = aggregate.count() == 0 ? List.<String>of() : batteryRepository.findNames(spec);
+
+        return BatteryStatisticsDto.builder()
+                                   .batteryNames(names)
+                                   .totalWattCapacity(aggregate.totalWattCapacity())
+                                   .averageWattCapacity(aggregate.averageWattCapacity())
+                                   .build();
+    }
+
+    private static RegionIndex loadIndex(RegionProperties properties) {
+        var file = properties.file();
+        if (file == null) {
+            logger.info("No region file configured (vpp.regions.file); region queries will match nothing");
+            return RegionIndex.EMPTY;
+        }
+        var startNanos = System.nanoTime();
+        try (var reader = new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8)) {
+            var index = RegionIndex.load(reader, properties.cellSizeKm());
+            logger.info("Loaded {} region rows from {} in {} ms",
+                    index.size(), file.getDescription(), (System.nanoTime() - startNanos) / 1_000_000);
+            return index;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read region file " + file.getDescription(), e);
+        }
+    }
+}
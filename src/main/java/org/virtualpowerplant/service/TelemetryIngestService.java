@@ -0,0 +1,271 @@
+package org.virtualpowerplant.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.virtualpowerplant.config.TelemetryProperties;
+import org.virtualpowerplant.event.TelemetryRecordedEvent;
+import org.virtualpowerplant.exception.BadRequestException;
+import org.virtualpowerplant.exception.Error;
+import org.virtualpowerplant.model.TelemetryBuffer;
+import org.virtualpowerplant.model.TelemetryIngestResultDto;
+import org.virtualpowerplant.repository.TelemetryRepository;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * High-rate ingestion of battery telemetry. Readings are pulled off the request with the streaming
+ * {@link JsonParser} rather than data binding, decoded field by field into a reusable
+ * {@link TelemetryBuffer}, and flushed with one binary COPY per chunk. Apart from ISO-8601 timestamps
+ * nothing is allocated per reading. Each stored chunk is announced with a {@link TelemetryRecordedEvent}
+ * so live aggregates can be updated from the same buffer.
+ * <p>
+ * Accepts either a JSON array of readings or newline-delimited JSON. A reading looks like
+ * {@code {"batteryId": "...", "timestamp": 1760781600000, "stateOfCharge": 87.5, "powerWatts": -2500}},
+ * where {@code timestamp} is epoch milliseconds or an ISO-8601 instant and negative power means the
+ * battery is charging.
+ */
+@Service
+@RequiredArgsConstructor
+public class TelemetryIngestService {
+    private static final Logger logger = LoggerFactory.getLogger(TelemetryIngestService.class);
+    private final ObjectMapper objectMapper;
+    private final TelemetryRepository telemetryRepository;
+    private final TelemetryProperties telemetryProperties;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public TelemetryIngestResultDto ingest(InputStream body) {
+        var startNanos = System.nanoTime();
+        var nowMicros = toMicros(Instant.now());
+        var reading = new Reading(nowMicros - telemetryProperties.maxAge().toNanos() / 1000,
+                nowMicros + telemetryProperties.maxClockSkew().toNanos() / 1000);
+        var buffer = new TelemetryBuffer(telemetryProperties.chunkSize(), TelemetryRepository.BYTES_PER_ROW);
+        var errors = new ArrayList<Error.ErrorDetail>();
+        long received = 0;
+        long accepted = 0;
+        long rejected = 0;
+
+        try (JsonParser parser = objectMapper.createParser(body)) {
+            var token = parser.nextToken();
+            if (token == JsonToken.START_ARRAY) {
+                token = parser.nextToken();
+            }
+            while (token != null && token != JsonToken.END_ARRAY) {
+                if (token != JsonToken.START_OBJECT) {
+                    throw new BadRequestException("Expected a telemetry reading object at reading " + received
+                            + "; " + accepted + " readings were already stored");
+                }
+                reading.read(parser);
+                if (reading.valid()) {
+                    buffer.add(reading.batteryIdMsb, reading.batteryIdLsb, reading.recordedAtMicros,
+                            reading.stateOfCharge, reading.powerWatts);
+                    if (buffer.isFull()) {
+                        accepted += flush(buffer);
+                    }
+                } else {
+                    rejected++;
+                    report(received, reading, errors);
+                }
+                received++;
+                token = parser.nextToken();
+            }
+        } catch (IOException e) {
+            logger.warn("Malformed telemetry payload after {} readings", received, e);
+            throw new BadRequestException("Malformed telemetry payload at reading " + received
+                    + "; " + accepted + " readings were already stored");
+        }
+
+        accepted += flush(buffer);
+
+        var elapsedNanos = System.nanoTime() - startNanos;
+        var readingsPerSecond = elapsedNanos == 0 ? 0 : accepted * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+        logger.debug("Ingested {} of {} telemetry readings in {} ms ({} readings/s)",
+                accepted, received, TimeUnit.NANOSECONDS.toMillis(elapsedNanos), Math.round(readingsPerSecond));
+
+        return TelemetryIngestResultDto.builder()
+                                       .received(received)
+                                       .accepted(accepted)
+                                       .rejected(rejected)
+                                       .elapsedMillis(TimeUnit.NANOSECONDS.toMillis(elapsedNanos))
+                                       .readingsPerSecond(readingsPerSecond)
+                                       .errors(errors)
+                                       .build();
+    }
+
+    private long flush(TelemetryBuffer buffer) {
+        if (buffer.size() == 0) {
+            return 0;
+        }
+        var stored = telemetryRepository.copy(buffer);
+        eventPublisher.publishEvent(new TelemetryRecordedEvent(buffer));
+        buffer.clear();
+        return stored;
+    }
+
+    private void report(long index, Reading reading, List<Error.ErrorDetail> errors) {
+        if (errors.size() < telemetryProperties.maxReportedErrors()) {
+            errors.add(new Error.ErrorDetail("[" + index + "]." + reading.errorField, reading.errorMessage));
+        }
+    }
+
+    private static long toMicros(Instant instant) {
+        return Math.addExact(Math.multiplyExact(instant.getEpochSecond(), 1_000_000L), instant.getNano() / 1000);
+    }
+
+    /**
+     * Mutable holder for the reading currently being decoded, reused for every reading in a request.
+     * Only the first problem found in a reading is reported.
+     */
+    private static final class Reading {
+        private static final long MISSING = Long.MIN_VALUE;
+
+        private final long oldestMicros;
+        private final long newestMicros;
+        private boolean hasBatteryId;
+        private long batteryIdMsb;
+        private long batteryIdLsb;
+        private long recordedAtMicros;
+        private double stateOfCharge;
+        private double powerWatts;
+        private String errorField;
+        private String errorMessage;
+
+        Reading(long oldestMicros, long newestMicros) {
+            this.oldestMicros = oldestMicros;
+            this.newestMicros = newestMicros;
+        }
+
+        void read(JsonParser parser) throws IOException {
+            hasBatteryId = false;
+            recordedAtMicros = MISSING;
+            stateOfCharge = Double.NaN;
+            powerWatts = Double.NaN;
+            errorField = null;
+            errorMessage = null;
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                var field = parser.currentName();
+                var token = parser.nextToken();
+                switch (field) {
+                    case "batteryId" -> readBatteryId(parser, token);
+                    case "timestamp" -> readTimestamp(parser, token);
+                    case "stateOfCharge" -> stateOfCharge = readDouble(parser, token, field);
+                    case "powerWatts" -> powerWatts = readDouble(parser, token, field);
+                    default -> parser.skipChildren();
+                }
+            }
+        }
+
+        boolean valid() {
+            if (errorField != null) {
+                return false;
+            }
+            if (!hasBatteryId) {
+                return reject("batteryId", "must not be null");
+            }
+            if (recordedAtMicros == MISSING) {
+                return reject("timestamp", "must not be null");
+            }
+            if (recordedAtMicros < oldestMicros || recordedAtMicros > newestMicros) {
+                return reject("timestamp", "must be within the accepted ingest window");
+            }
+            if (Double.isNaN(stateOfCharge)) {
+                return reject("stateOfCharge", "must not be null");
+            }
+            if (stateOfCharge < 0 || stateOfCharge > 100) {
+                return reject("stateOfCharge", "must be between 0 and 100");
+            }
+            if (!Double.isFinite(powerWatts)) {
+                return reject("powerWatts", "must not be null");
+            }
+            return true;
+        }
+
+        private void readBatteryId(JsonParser parser, JsonToken token) throws IOException {
+            if (token == JsonToken.VALUE_STRING
+                    && parseUuid(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength())) {
+                hasBatteryId = true;
+            } else {
+                parser.skipChildren();
+                reject("batteryId", "must be a UUID");
+            }
+        }
+
+        /**
+         * Parses the canonical 36-character UUID form straight from the parser's character buffer.
+         */
+        private boolean parseUuid(char[] chars, int offset, int length) {
+            if (length != 36) {
+                return false;
+            }
+            long msb = 0;
+            long lsb = 0;
+            for (int i = 0; i < 36; i++) {
+                var ch = chars[offset + i];
+                if (i == 8 || i == 13 || i == 18 || i == 23) {
+                    if (ch != '-') {
+                        return false;
+                    }
+                    continue;
+                }
+                var digit = Character.digit(ch, 16);
+                if (digit < 0) {
+                    return false;
+                }
+                if (i < 19) {
+                    msb = (msb << 4) | digit;
+                } else {
+                    lsb = (lsb << 4) | digit;
+                }
+            }
+            batteryIdMsb = msb;
+            batteryIdLsb = lsb;
+            return true;
+        }
+
+        private void readTimestamp(JsonParser parser, JsonToken token) throws IOException {
+            try {
+                if (token == JsonToken.VALUE_NUMBER_INT) {
+                    recordedAtMicros = Math.multiplyExact(parser.getLongValue(), 1000L);
+                } else if (token == JsonToken.VALUE_STRING) {
+                    recordedAtMicros = toMicros(Instant.parse(parser.getText()));
+                } else {
+                    parser.skipChildren();
+                    reject("timestamp", "must be epoch milliseconds or an ISO-8601 instant");
+                }
+            } catch (ArithmeticException | DateTimeParseException e) {
+                reject("timestamp", "must be epoch milliseconds or an ISO-8601 instant");
+            }
+        }
+
+        private double readDouble(JsonParser parser, JsonToken token, String field) throws IOException {
+            if (token.isNumeric()) {
+                return parser.getDoubleValue();
+            }
+            if (token != JsonToken.VALUE_NULL) {
+                reject(field, "must be a number");
+            }
+            parser.skipChildren();
+            return Double.NaN;
+        }
+
+        private boolean reject(String field, String message) {
+            if (errorField == null) {
+                errorField = field;
+                errorMessage = message;
+            }
+            return false;
+        }
+    }
+}
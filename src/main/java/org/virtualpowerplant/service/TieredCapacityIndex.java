@@ -0,0 +1,102 @@
+package org.virtualpowerplant.service;
+
+import org.virtualpowerplant.model.BatteryAggregate;
+import org.virtualpowerplant.model.BatterySearchCriteria;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A tenant's batteries held as a few {@link BatteryCapacityIndex} levels rather than one, so registrations
+ * arriving in many small chunks do not copy every battery of the tenant on each chunk.
+ * <p>
+ * A new chunk becomes the newest level and is merged into the levels before it for as long as they are at
+ * most twice its size, the way a binary counter carries. Levels therefore shrink geometrically from the
+ * oldest to the newest, a battery is copied O(log n) times over its life instead of once per later chunk,
+ * and a query combines O(log n) levels. Removals only rewrite the levels holding a removed battery's
+ * postcode.
+ * <p>
+ * Immutable like its levels, so readers never need a lock.
+ */
+public final class TieredCapacityIndex {
+    public static final TieredCapacityIndex EMPTY = new TieredCapacityIndex(List.of());
+
+    /**
+     * Oldest and largest first.
+     */
+    private final List<BatteryCapacityIndex> levels;
+
+    private TieredCapacityIndex(List<BatteryCapacityIndex> levels) {
+        this.levels = levels;
+    }
+
+    public static TieredCapacityIndex of(BatteryCapacityIndex index) {
+        return index.size() == 0 ? EMPTY : new TieredCapacityIndex(List.of(index));
+    }
+
+    public int size() {
+        var size = 0;
+        for (var level : levels) {
+            size += level.size();
+        }
+        return size;
+    }
+
+    int levelCount() {
+        return levels.size();
+    }
+
+    public BatteryAggregate aggregate(BatterySearchCriteria criteria) {
+        long count = 0;
+        double total = 0;
+        for (var level : levels) {
+            var aggregate = level.aggregate(criteria);
+            count += aggregate.count();
+            total += aggregate.totalWattCapacity();
+        }
+        return count == 0 ? BatteryAggregate.EMPTY : new BatteryAggregate(count, total, total / count);
+    }
+
+    public List<String> findNames(BatterySearchCriteria criteria) {
+        var result = new ArrayList<String>();
+        for (var level : levels) {
+            level.collectNames(criteria, result);
+        }
+        result.sort(String.CASE_INSENSITIVE_ORDER);
+        return result;
+    }
+
+    /**
+     * Returns a new index containing this one plus the given batteries.
+     */
+    public TieredCapacityIndex merge(BatteryCapacityIndex.Builder additions) {
+        var added = additions.build();
+        if (added.size() == 0) {
+            return this;
+        }
+        var merged = new ArrayList<>(levels);
+        while (!merged.isEmpty() && merged.getLast().size() <= 2 * added.size()) {
+            added = merged.removeLast().merge(added);
+        }
+        merged.add(added);
+        return new TieredCapacityIndex(List.copyOf(merged));
+    }
+
+    /**
+     * Returns a new index without one occurrence of each given battery, matched by name, postcode and
+     * capacity; batteries it does not hold are ignored.
+     */
+    public TieredCapacityIndex remove(BatteryCapacityIndex.Builder removals) {
+        var removed = removals.build();
+        var remaining = new ArrayList<BatteryCapacityIndex>(levels.size());
+        var changed = false;
+        for (var level : levels) {
+            var kept = level.remove(removed);
+            changed |= kept != level;
+            if (kept.size() > 0) {
+                remaining.add(kept);
+            }
+        }
+        return changed ? new TieredCapacityIndex(List.copyOf(remaining)) : this;
+    }
+}
@@ -0,0 +1,82 @@
+package org.virtualpowerplant.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveConcurrencyLimitTest {
+
+    private static final long BASE_RTT = TimeUnit.MILLISECONDS.toNanos(10);
+
+    @Test
+    void release_WithFlatLatencyUnderLoad_ShouldGrowLimit() {
+        // Arrange
+        var limit = new AdaptiveConcurrencyLimit(20, 4, 200, 1000);
+
+        // Act
+        for (int i = 0; i < 10; i++) {
+            fill(limit, limit.limit());
+            releaseAll(limit, BASE_RTT);
+        }
+
+        // Assert
+        assertThat(limit.limit()).isGreaterThan(20).isLessThanOrEqualTo(200);
+        assertThat(limit.inflight()).isZero();
+    }
+
+    @Test
+    void release_WithRisingLatency_ShouldShrinkLimit() {
+        // Arrange
+        var limit = new AdaptiveConcurrencyLimit(40, 4, 200, 1000);
+        fill(limit, 1);
+        limit.release(BASE_RTT, false);
+
+        // Act
+        for (int i = 0; i < 50; i++) {
+            fill(limit, limit.limit());
+            releaseAll(limit, BASE_RTT * 10);
+        }
+
+        // Assert
+        assertThat(limit.limit()).isLessThan(10).isGreaterThanOrEqualTo(4);
+    }
+
+    @Test
+    void release_WithFailure_ShouldBackOff() {
+        // Arrange
+        var limit = new AdaptiveConcurrencyLimit(100, 4, 200, 1000);
+        fill(limit, 1);
+
+        // Act
+        limit.release(0, true);
+
+        // Assert
+        assertThat(limit.limit()).isEqualTo(90);
+    }
+
+    @Test
+    void tryAcquire_AtCeiling_ShouldReject() {
+        // Arrange
+        var limit = new AdaptiveConcurrencyLimit(2, 1, 10, 1000);
+        fill(limit, 2);
+
+        // Act & Assert
+        assertThat(limit.tryAcquire(limit.limit())).isFalse();
+        limit.release();
+        assertThat(limit.tryAcquire(limit.limit())).isTrue();
+    }
+
+    private static void fill(AdaptiveConcurrencyLimit limit, int count) {
+        for (int i = 0; i < count; i++) {
+            assertThat(limit.tryAcquire(Integer.MAX_VALUE)).isTrue();
+        }
+    }
+
+    private static void releaseAll(AdaptiveConcurrencyLimit limit, long rttNanos) {
+        while (limit.inflight() > 0) {
+            limit.release(rttNanos, false);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package org.virtualpowerplant.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.restassured.RestAssured;
+import io.restassured.http.ContentType;
+import org.apache.http.HttpStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ContextConfiguration;
+import org.virtualpowerplant.TestContainersConfiguration;
+import org.virtualpowerplant.model.BatteryRequestDto;
+
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+
+import static io.restassured.RestAssured.given;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.notNullValue;
+
+/**
+ * Runs with a single ingest slot, held by a streamed upload whose body is still being sent, so the next
+ * ingest request is certain to find the lane full.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "vpp.admission.ingest.initial-limit=1",
+                "vpp.admission.ingest.min-limit=1",
+                "vpp.admission.ingest.max-limit=1"
+        })
+@ContextConfiguration(classes = {TestContainersConfiguration.class})
+class AdmissionControlIT {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setup() {
+        RestAssured.baseURI = "http://localhost";
+        RestAssured.port = port;
+    }
+
+    @Test
+    @DisplayName("POST /api/v1/batteries should be shed with 503 and Retry-After while the ingest lane is full")
+    void shouldShedIngestBeyondTheLimit() throws Exception {
+        var body = new PipedInputStream();
+        var upload = new PipedOutputStream(body);
+        var streamed = HttpClient.newHttpClient().sendAsync(
+                HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/v1/batteries/stream"))
+                           .header("Content-Type", "application/x-ndjson")
+                           .POST(HttpRequest.BodyPublishers.ofInputStream(() -> body))
+                           .build(),
+                HttpResponse.BodyHandlers.ofString());
+        upload.write("{\"name\":\"Admission Held\",\"postcode\":4813,\"wattCapacity\":1000.0}\n"
+                .getBytes(StandardCharsets.UTF_8));
+        upload.flush();
+        assertThat(awaitIngestInflight(1)).isEqualTo(1);
+
+        var batch = List.of(BatteryRequestDto.builder().name("Admission Shed").postcode(4813).wattCapacity(2000.0).build());
+        given().contentType(ContentType.JSON)
+               .body(batch)
+               .when()
+               .post("/api/v1/batteries")
+               .then()
+               .statusCode(HttpStatus.SC_SERVICE_UNAVAILABLE)
+               .header("Retry-After", notNullValue());
+        assertThat(meterRegistry.get(AdmissionLimiter.REQUESTS_METRIC)
+                                .tag("lane", "ingest")
+                                .tag("outcome", "rejected")
+                                .counter()
+                                .count()).isEqualTo(1);
+
+        // once the upload completes its slot is free again
+        upload.close();
+        assertThat(streamed.get().statusCode()).isEqualTo(HttpStatus.SC_OK);
+        assertThat(awaitIngestInflight(0)).isZero();
+        given().contentType(ContentType.JSON)
+               .body(batch)
+               .when()
+               .post("/api/v1/batteries")
+               .then()
+               .statusCode(HttpStatus.SC_OK);
+    }
+
+    private double awaitIngestInflight(double expected) throws InterruptedException {
+        var deadline = System.nanoTime() + Duration.ofSeconds(15).toNanos();
+        var inflight = ingestInflight();
+        while (inflight != expected && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+            inflight = ingestInflight();
+        }
+        return inflight;
+    }
+
+    private double ingestInflight() {
+        return meterRegistry.get("vpp.admission.inflight").tag("lane", "ingest").gauge().value();
+    }
+}
@@ -0,0 +1,148 @@
+package org.virtualpowerplant.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.mock.http.MockHttpInputMessage;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.DispatcherServlet;
+import org.virtualpowerplant.exception.ThrottledException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AdmissionInterceptorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void preHandle_OverLaneLimit_ShouldRejectWithServiceUnavailable() throws Exception {
+        // Arrange
+        var interceptor = interceptor(new AdmissionProperties.Lane(1, 1, 1, 0), new AdmissionProperties.Lane(1, 1, 1, 1));
+        var handler = handler("ingest");
+        interceptor.preHandle(request(), new MockHttpServletResponse(), handler);
+
+        // Act & Assert
+        assertThatThrownBy(() -> interceptor.preHandle(request(), new MockHttpServletResponse(), handler))
+                .isInstanceOfSatisfying(ThrottledException.class,
+                        e -> assertThat(e.getStatus()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE));
+        assertThat(interceptor.preHandle(request(), new MockHttpServletResponse(), handler("stats"))).isTrue();
+        assertThat(meterRegistry.get(AdmissionLimiter.REQUESTS_METRIC)
+                                .tag("lane", "ingest")
+                                .tag("outcome", "rejected")
+                                .counter()
+                                .count()).isEqualTo(1);
+    }
+
+    @Test
+    void afterCompletion_ShouldReleaseSlot() throws Exception {
+        // Arrange
+        var interceptor = interceptor(new AdmissionProperties.Lane(1, 1, 1, 0), new AdmissionProperties.Lane(1, 1, 1, 1));
+        var handler = handler("ingest");
+        var request = request();
+        var response = new MockHttpServletResponse();
+        interceptor.preHandle(request, response, handler);
+
+        // Act
+        interceptor.afterCompletion(request, response, handler, null);
+
+        // Assert
+        assertThat(interceptor.preHandle(request(), new MockHttpServletResponse(), handler)).isTrue();
+        assertThat(meterRegistry.get("vpp.admission.inflight").tag("lane", "ingest").gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    void preHandle_WhileHigherPriorityLaneIsSaturated_ShouldHoldLowerLaneToMinimum() throws Exception {
+        // Arrange
+        var interceptor = interceptor(new AdmissionProperties.Lane(10, 1, 10, 0), new AdmissionProperties.Lane(1, 1, 1, 1));
+        interceptor.preHandle(request(), new MockHttpServletResponse(), handler("stats"));
+        interceptor.preHandle(request(), new MockHttpServletResponse(), handler("ingest"));
+
+        // Act & Assert
+        assertThatThrownBy(() -> interceptor.preHandle(request(), new MockHttpServletResponse(), handler("ingest")))
+                .isInstanceOf(ThrottledException.class);
+    }
+
+    @Test
+    void preHandle_WithoutAnnotation_ShouldNotLimit() throws Exception {
+        // Arrange
+        var interceptor = interceptor(new AdmissionProperties.Lane(1, 1, 1, 0), new AdmissionProperties.Lane(1, 1, 1, 1));
+
+        // Act & Assert
+        for (int i = 0; i < 3; i++) {
+            assertThat(interceptor.preHandle(request(), new MockHttpServletResponse(), handler("unlimited"))).isTrue();
+        }
+    }
+
+    @Test
+    void afterCompletion_WithResolvedClientError_ShouldNotBackOff() throws Exception {
+        // Arrange
+        var interceptor = interceptor(new AdmissionProperties.Lane(10, 1, 10, 0), new AdmissionProperties.Lane(1, 1, 1, 1));
+        var handler = handler("ingest");
+        var request = request();
+        var response = new MockHttpServletResponse();
+        interceptor.preHandle(request, response, handler);
+        request.setAttribute(DispatcherServlet.EXCEPTION_ATTRIBUTE,
+                new HttpMessageNotReadableException("Unexpected end of input", new MockHttpInputMessage(new byte[0])));
+        response.setStatus(500);
+
+        // Act
+        interceptor.afterCompletion(request, response, handler, null);
+
+        // Assert
+        assertThat(ingestLimit()).isEqualTo(10);
+    }
+
+    @Test
+    void afterCompletion_WithDatabaseFailure_ShouldBackOff() throws Exception {
+        // Arrange
+        var interceptor = interceptor(new AdmissionProperties.Lane(10, 1, 10, 0), new AdmissionProperties.Lane(1, 1, 1, 1));
+        var handler = handler("ingest");
+        var request = request();
+        var response = new MockHttpServletResponse();
+        interceptor.preHandle(request, response, handler);
+        request.setAttribute(DispatcherServlet.EXCEPTION_ATTRIBUTE,
+                new IllegalStateException(new QueryTimeoutException("canceling statement due to statement timeout")));
+        response.setStatus(500);
+
+        // Act
+        interceptor.afterCompletion(request, response, handler, null);
+
+        // Assert
+        assertThat(ingestLimit()).isEqualTo(9);
+    }
+
+    private double ingestLimit() {
+        return meterRegistry.get("vpp.admission.limit").tag("lane", "ingest").gauge().value();
+    }
+
+    private AdmissionInterceptor interceptor(AdmissionProperties.Lane ingest, AdmissionProperties.Lane stats) {
+        var properties = new AdmissionProperties(true, 1000, ingest, stats);
+        return new AdmissionInterceptor(new AdmissionLimiter(properties, meterRegistry));
+    }
+
+    private static HandlerMethod handler(String method) throws NoSuchMethodException {
+        return new HandlerMethod(new Handlers(), Handlers.class.getMethod(method));
+    }
+
+    private static MockHttpServletRequest request() {
+        return new MockHttpServletRequest("GET", "/api/v1/batteries/stats");
+    }
+
+    static class Handlers {
+        @AdmissionLimited(AdmissionLane.INGEST)
+        public void ingest() {
+        }
+
+        @AdmissionLimited(AdmissionLane.STATS)
+        public void stats() {
+        }
+
+        public void unlimited() {
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package org.virtualpowerplant.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.DispatcherType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ApiTimingInterceptorTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ApiTimingInterceptor interceptor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        interceptor = new ApiTimingInterceptor(meterRegistry, new ApiTimingProperties(0, Duration.ZERO));
+    }
+
+    @Test
+    void afterCompletion_ShouldRecordTimerTaggedWithUriTemplate() {
+        // Arrange
+        var request = new MockHttpServletRequest("GET", "/api/v1/batteries/stats");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/v1/batteries/stats");
+        var response = new MockHttpServletResponse();
+
+        // Act
+        interceptor.preHandle(request, response, new Object());
+        interceptor.afterCompletion(request, response, new Object(), null);
+        interceptor.preHandle(request, response, new Object());
+        interceptor.afterCompletion(request, response, new Object(), null);
+
+        // Assert
+        var timer = meterRegistry.get(ApiTimingInterceptor.METRIC_NAME)
+                                 .tag("method", "GET")
+                                 .tag("uri", "/api/v1/batteries/stats")
+                                 .tag("status", "200")
+                                 .timer();
+        assertThat(timer.count()).isEqualTo(2);
+    }
+
+    @Test
+    void preHandle_OnAsyncDispatch_ShouldKeepStartOfOriginalRequest() {
+        // Arrange
+        var request = new MockHttpServletRequest("GET", "/api/v1/batteries/stats/stream");
+        var response = new MockHttpServletResponse();
+        interceptor.preHandle(request, response, new Object());
+        var startNanos = request.getAttribute(ApiTimingInterceptor.START_NANOS);
+        request.setDispatcherType(DispatcherType.ASYNC);
+
+        // Act
+        interceptor.preHandle(request, response, new Object());
+
+        // Assert
+        assertThat(request.getAttribute(ApiTimingInterceptor.START_NANOS)).isEqualTo(startNanos);
+    }
+
+    @Test
+    void afterCompletion_WithoutPreHandle_ShouldRecordNothing() {
+        // Act
+        interceptor.afterCompletion(new MockHttpServletRequest(), new MockHttpServletResponse(), new Object(), null);
+
+        // Assert
+        assertThat(meterRegistry.find(ApiTimingInterceptor.METRIC_NAME).timers()).isEmpty();
+    }
+}
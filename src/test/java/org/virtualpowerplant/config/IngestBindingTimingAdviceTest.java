@@ -0,0 +1,37 @@
+package org.virtualpowerplant.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.virtualpowerplant.service.IngestMetrics;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IngestBindingTimingAdviceTest {
+
+    private final IngestBindingTimingAdvice advice =
+            new IngestBindingTimingAdvice(new IngestMetrics(new SimpleMeterRegistry()));
+
+    @Test
+    void supports_ShouldOnlyTimeMarkedRegistrationHandlers() throws Exception {
+        // Arrange
+        var registration = new MethodParameter(Handlers.class.getMethod("register", List.class), 0);
+        var decommission = new MethodParameter(Handlers.class.getMethod("decommission", List.class), 0);
+
+        // Act & Assert
+        assertThat(advice.supports(registration, List.class, MappingJackson2HttpMessageConverter.class)).isTrue();
+        assertThat(advice.supports(decommission, List.class, MappingJackson2HttpMessageConverter.class)).isFalse();
+    }
+
+    static class Handlers {
+        @TimedIngestBinding
+        public void register(List<String> body) {
+        }
+
+        public void decommission(List<String> body) {
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package org.virtualpowerplant.config;
+
+import io.restassured.RestAssured;
+import io.restassured.http.ContentType;
+import org.apache.http.HttpStatus;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.virtualpowerplant.TestContainersConfiguration;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.utility.DockerImageName;
+import org.virtualpowerplant.model.BatteryRequestDto;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Predicate;
+
+import static io.restassured.RestAssured.given;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs against two independent PostgreSQL containers, the second standing in for a replica, so the
+ * database that answered a query can be told apart by its data.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "vpp.stats.cache.enabled=false",
+                "vpp.datasource.health-check-interval=200ms"
+        })
+@ContextConfiguration(classes = {TestContainersConfiguration.class})
+class ReadReplicaRoutingIT {
+
+    private static final PostgreSQLContainer<?> replica = new PostgreSQLContainer<>(DockerImageName.parse("postgres:latest"))
+            .withDatabaseName("vpp")
+            .withUsername("postgres")
+            .withPassword("admin_test")
+            .withInitScript("sql/replica-schema.sql");
+
+    static {
+        replica.start();
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @DynamicPropertySource
+    static void replicaProperties(DynamicPropertyRegistry registry) {
+        registry.add("vpp.datasource.replicas[0].url", replica::getJdbcUrl);
+        registry.add("vpp.datasource.replicas[0].username", replica::getUsername);
+        registry.add("vpp.datasource.replicas[0].password", replica::getPassword);
+    }
+
+    @AfterAll
+    static void stopReplica() {
+        replica.stop();
+    }
+
+    @BeforeEach
+    void setup() {
+        RestAssured.baseURI = "http://localhost";
+        RestAssured.port = port;
+    }
+
+    @Test
+    @DisplayName("Read-only statistics should use the replica, writes the primary, and reads fall back when the replica is down")
+    void shouldRouteReadsToReplicaAndFallBackToPrimary() throws InterruptedException {
+        // reads are served by the replica once it passes its first health check
+        assertThat(awaitNames(names -> names.contains("Replica Only"))).contains("Replica Only");
+
+        // writes go to the primary, so the replica (which is not really replicating) never sees them
+        given().contentType(ContentType.JSON)
+               .body(List.of(BatteryRequestDto.builder().name("Primary Only").postcode(6002).wattCapacity(2000.0).build()))
+               .when()
+               .post("/api/v1/batteries")
+               .then()
+               .statusCode(HttpStatus.SC_OK);
+        assertThat(statisticsNames()).contains("Replica Only").doesNotContain("Primary Only");
+
+        // once the replica is unreachable, reads fall back to the primary
+        replica.stop();
+        assertThat(awaitNames(names -> names.contains("Primary Only")))
+                .contains("Primary Only")
+                .doesNotContain("Replica Only");
+    }
+
+    private List<String> awaitNames(Predicate<List<String>> condition) throws InterruptedException {
+        var deadline = System.nanoTime() + Duration.ofSeconds(15).toNanos();
+        var names = statisticsNames();
+        while (!condition.test(names) && System.nanoTime() < deadline) {
+            Thread.sleep(100);
+            names = statisticsNames();
+        }
+        return names;
+    }
+
+    private List<String> statisticsNames() {
+        return given().contentType(ContentType.JSON)
+                      .queryParam("startPostcode", 6000)
+                      .queryParam("endPostcode", 6010)
+                      .when()
+                      .get("/api/v1/batteries/stats")
+                      .then()
+                      .statusCode(HttpStatus.SC_OK)
+                      .extract()
+                      .jsonPath()
+                      .getList("batteryNames", String.class);
+    }
+}
@@ -0,0 +1,170 @@
+package org.virtualpowerplant.config;
+
+import com.github.luben.zstd.ZstdOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.unit.DataSize;
+import org.virtualpowerplant.exception.InvalidRequestBodyException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RequestDecompressionFilterTest {
+    private static final String BODY = "[{\"name\": \"Cannington\", \"postcode\": 6107, \"wattCapacity\": 13500.0}]";
+
+    private RequestDecompressionFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = new RequestDecompressionFilter(new RequestDecompressionProperties(
+                DataSize.ofKilobytes(1), DataSize.ofKilobytes(8), List.of("/api/v1/batteries/stream")));
+    }
+
+    @Test
+    void doFilter_WithGzipBody_ShouldPassInflatedBodyDownstream() throws Exception {
+        // Arrange
+        var request = request("gzip", compress(GZIPOutputStream::new, BODY));
+        var chain = new MockFilterChain();
+
+        // Act
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        // Assert
+        var forwarded = (HttpServletRequest) chain.getRequest();
+        assertThat(new String(forwarded.getInputStream().readAllBytes(), StandardCharsets.UTF_8)).isEqualTo(BODY);
+        assertThat(forwarded.getHeader(HttpHeaders.CONTENT_ENCODING)).isNull();
+        assertThat(forwarded.getContentLengthLong()).isEqualTo(-1);
+    }
+
+    @Test
+    void doFilter_WithZstdBody_ShouldPassInflatedBodyDownstream() throws Exception {
+        // Arrange
+        var request = request("zstd", compress(ZstdOutputStream::new, BODY));
+        var chain = new MockFilterChain();
+
+        // Act
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        // Assert
+        var forwarded = (HttpServletRequest) chain.getRequest();
+        assertThat(new String(forwarded.getInputStream().readAllBytes(), StandardCharsets.UTF_8)).isEqualTo(BODY);
+    }
+
+    @Test
+    void doFilter_WithUnsupportedEncoding_ShouldRejectWith415() throws Exception {
+        // Arrange
+        var request = request("br", BODY.getBytes(StandardCharsets.UTF_8));
+        var response = new MockHttpServletResponse();
+        var chain = new MockFilterChain();
+
+        // Act
+        filter.doFilter(request, response, chain);
+
+        // Assert
+        assertThat(response.getStatus()).isEqualTo(415);
+        assertThat(chain.getRequest()).isNull();
+    }
+
+    @Test
+    void doFilter_WithEmptyOrCorruptGzipBody_ShouldRejectWith400() throws Exception {
+        for (var body : new byte[][]{new byte[0], BODY.getBytes(StandardCharsets.UTF_8)}) {
+            // Arrange
+            var response = new MockHttpServletResponse();
+            var chain = new MockFilterChain();
+
+            // Act
+            filter.doFilter(request("gzip", body), response, chain);
+
+            // Assert
+            assertThat(response.getStatus()).isEqualTo(400);
+            assertThat(chain.getRequest()).isNull();
+        }
+    }
+
+    @Test
+    void doFilter_WhenInflatedBodyExceedsLimit_ShouldFailTheReadWith413() throws Exception {
+        // Arrange
+        var request = request("gzip", compress(GZIPOutputStream::new, "x".repeat(4096)));
+        var chain = new MockFilterChain();
+
+        // Act
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        // Assert
+        var forwarded = (HttpServletRequest) chain.getRequest();
+        assertThatThrownBy(() -> forwarded.getInputStream().readAllBytes())
+                .isInstanceOfSatisfying(InvalidRequestBodyException.class,
+                        e -> assertThat(e.getStatus()).isEqualTo(HttpStatus.PAYLOAD_TOO_LARGE))
+                .hasMessageContaining("exceeds");
+    }
+
+    @Test
+    void doFilter_OnStreamedPath_ShouldApplyTheStreamedLimit() throws Exception {
+        // Arrange
+        var request = request("/api/v1/batteries/stream", "gzip", compress(GZIPOutputStream::new, "x".repeat(4096)));
+        var chain = new MockFilterChain();
+
+        // Act
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        // Assert
+        var forwarded = (HttpServletRequest) chain.getRequest();
+        assertThat(forwarded.getInputStream().readAllBytes()).hasSize(4096);
+    }
+
+    @Test
+    void doFilter_WithGzipBodyCorruptAfterTheHeader_ShouldFailTheReadWith400() throws Exception {
+        // Arrange
+        var compressed = compress(GZIPOutputStream::new, BODY);
+        var request = request("gzip", Arrays.copyOf(compressed, compressed.length / 2));
+        var chain = new MockFilterChain();
+
+        // Act
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        // Assert
+        var forwarded = (HttpServletRequest) chain.getRequest();
+        assertThatThrownBy(() -> forwarded.getInputStream().readAllBytes())
+                .isInstanceOfSatisfying(InvalidRequestBodyException.class,
+                        e -> assertThat(e.getStatus()).isEqualTo(HttpStatus.BAD_REQUEST));
+    }
+
+    private static MockHttpServletRequest request(String encoding, byte[] body) {
+        return request("/api/v1/batteries", encoding, body);
+    }
+
+    private static MockHttpServletRequest request(String path, String encoding, byte[] body) {
+        var request = new MockHttpServletRequest("POST", path);
+        request.addHeader(HttpHeaders.CONTENT_ENCODING, encoding);
+        request.setContentType("application/json");
+        request.setContent(body);
+        return request;
+    }
+
+    private static byte[] compress(Compressor compressor, String body) throws IOException {
+        var bytes = new ByteArrayOutputStream();
+        try (var out = compressor.wrap(bytes)) {
+            out.write(body.getBytes(StandardCharsets.UTF_8));
+        }
+        return bytes.toByteArray();
+    }
+
+    @FunctionalInterface
+    private interface Compressor {
+        OutputStream wrap(OutputStream out) throws IOException;
+    }
+}
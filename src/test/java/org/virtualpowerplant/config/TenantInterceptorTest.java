@@ -0,0 +1,174 @@
+package org.virtualpowerplant.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.DispatcherType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.virtualpowerplant.entity.Battery;
+import org.virtualpowerplant.exception.BadRequestException;
+import org.virtualpowerplant.exception.ThrottledException;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TenantInterceptorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+    }
+
+    @Test
+    void preHandle_WithTenantHeader_ShouldBindTenantUntilCompletion() {
+        // Arrange
+        var interceptor = interceptor(List.of(), 0, Map.of());
+        var request = request("acme");
+        var response = new MockHttpServletResponse();
+
+        // Act
+        interceptor.preHandle(request, response, new Object());
+        var during = TenantContext.current();
+        interceptor.afterCompletion(request, response, new Object(), null);
+
+        // Assert
+        assertThat(during).isEqualTo("acme");
+        assertThat(TenantContext.current()).isEqualTo(Battery.DEFAULT_TENANT);
+        assertThat(request.getAttribute(TenantInterceptor.TENANT_ATTRIBUTE)).isEqualTo("acme");
+    }
+
+    @Test
+    void preHandle_WithoutTenantHeader_ShouldUseDefaultTenant() {
+        // Arrange
+        var interceptor = interceptor(List.of("acme"), 0, Map.of());
+
+        // Act
+        interceptor.preHandle(new MockHttpServletRequest(), new MockHttpServletResponse(), new Object());
+
+        // Assert
+        assertThat(TenantContext.current()).isEqualTo(Battery.DEFAULT_TENANT);
+    }
+
+    @Test
+    void preHandle_WithUnknownTenant_ShouldThrowForbidden() {
+        // Arrange
+        var interceptor = interceptor(List.of("acme"), 0, Map.of());
+
+        // Act & Assert
+        assertThatThrownBy(() -> interceptor.preHandle(request("globex"), new MockHttpServletResponse(), new Object()))
+                .isInstanceOfSatisfying(BadRequestException.class,
+                        e -> assertThat(e.getStatus()).isEqualTo(HttpStatus.FORBIDDEN));
+    }
+
+    @Test
+    void preHandle_OverRateLimit_ShouldThrottleOnlyThatTenant() {
+        // Arrange
+        var interceptor = interceptor(List.of("acme", "globex"), 1, Map.of("globex", 1000.0));
+        interceptor.preHandle(request("acme"), new MockHttpServletResponse(), new Object());
+
+        // Act & Assert
+        assertThatThrownBy(() -> interceptor.preHandle(request("acme"), new MockHttpServletResponse(), new Object()))
+                .isInstanceOfSatisfying(ThrottledException.class, e -> {
+                    assertThat(e.getStatus()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+                    assertThat(e.getRetryAfter()).isPositive();
+                });
+        assertThat(interceptor.preHandle(request("globex"), new MockHttpServletResponse(), new Object())).isTrue();
+        assertThat(meterRegistry.get(TenantInterceptor.METRIC_NAME)
+                                .tag("tenant", "acme")
+                                .tag("outcome", "throttled")
+                                .counter()
+                                .count()).isEqualTo(1);
+    }
+
+    @Test
+    void preHandle_OnAsyncDispatch_ShouldNotTakeAnotherToken() {
+        // Arrange
+        var interceptor = interceptor(List.of("acme"), 1, Map.of());
+        var request = request("acme");
+        var response = new MockHttpServletResponse();
+        interceptor.preHandle(request, response, new Object());
+        interceptor.afterConcurrentHandlingStarted(request, response, new Object());
+        request.setDispatcherType(DispatcherType.ASYNC);
+
+        // Act
+        var proceed = interceptor.preHandle(request, response, new Object());
+
+        // Assert
+        assertThat(proceed).isTrue();
+        assertThat(TenantContext.current()).isEqualTo("acme");
+        assertThat(meterRegistry.get(TenantInterceptor.METRIC_NAME)
+                                .tag("tenant", "acme")
+                                .tag("outcome", "allowed")
+                                .counter()
+                                .count()).isEqualTo(1);
+    }
+
+    @Test
+    void preHandle_WithoutAllowList_ShouldCountOtherTenantsTogether() {
+        // Arrange
+        var interceptor = interceptor(List.of(), 0, Map.of());
+
+        // Act
+        interceptor.preHandle(request("acme"), new MockHttpServletResponse(), new Object());
+        interceptor.preHandle(request("globex"), new MockHttpServletResponse(), new Object());
+
+        // Assert
+        assertThat(meterRegistry.get(TenantInterceptor.METRIC_NAME)
+                                .tag("tenant", TenantInterceptor.OTHER_TENANT)
+                                .tag("outcome", "allowed")
+                                .counter()
+                                .count()).isEqualTo(2);
+        assertThat(meterRegistry.find(TenantInterceptor.METRIC_NAME).tag("tenant", "acme").counter()).isNull();
+    }
+
+    @Test
+    void rateLimiter_WithoutAllowList_ShouldFailToStart() {
+        // Arrange
+        var properties = new TenantProperties(List.of(), new TenantProperties.RateLimit(10, 1, Map.of()),
+                Battery.DEFAULT_TENANT);
+
+        // Act & Assert
+        assertThatThrownBy(() -> new TenantRateLimiter(properties))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("vpp.tenants.allowed");
+    }
+
+    @Test
+    void preHandle_OnOperatorOnlyHandler_ShouldForbidOtherTenants() throws Exception {
+        // Arrange
+        var interceptor = interceptor(List.of(), 0, Map.of());
+        var handler = new HandlerMethod(new OperatorEndpoint(), OperatorEndpoint.class.getMethod("capacity"));
+
+        // Act & Assert
+        assertThatThrownBy(() -> interceptor.preHandle(request("acme"), new MockHttpServletResponse(), handler))
+                .isInstanceOfSatisfying(BadRequestException.class,
+                        e -> assertThat(e.getStatus()).isEqualTo(HttpStatus.FORBIDDEN));
+        assertThat(interceptor.preHandle(new MockHttpServletRequest(), new MockHttpServletResponse(), handler)).isTrue();
+    }
+
+    private TenantInterceptor interceptor(List<String> allowed, double requestsPerSecond, Map<String, Double> overrides) {
+        var properties = new TenantProperties(allowed, new TenantProperties.RateLimit(requestsPerSecond, 1, overrides),
+                Battery.DEFAULT_TENANT);
+        return new TenantInterceptor(new TenantRateLimiter(properties), meterRegistry, properties);
+    }
+
+    private static MockHttpServletRequest request(String tenantId) {
+        var request = new MockHttpServletRequest("GET", "/api/v1/batteries/stats");
+        request.addHeader(TenantInterceptor.TENANT_HEADER, tenantId);
+        return request;
+    }
+
+    @OperatorOnly
+    static class OperatorEndpoint {
+        public void capacity() {
+        }
+    }
+}
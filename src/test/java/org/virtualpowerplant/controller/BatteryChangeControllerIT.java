@@ -0,0 +1,83 @@
+package org.virtualpowerplant.controller;
+
+import io.restassured.RestAssured;
+import io.restassured.http.ContentType;
+import org.apache.http.HttpStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ContextConfiguration;
+import org.virtualpowerplant.TestContainersConfiguration;
+import org.virtualpowerplant.model.BatteryRequestDto;
+
+import java.util.List;
+
+import static io.restassured.RestAssured.given;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ContextConfiguration(classes = {TestContainersConfiguration.class})
+class BatteryChangeControllerIT {
+
+    @LocalServerPort
+    private int port;
+
+    @BeforeEach
+    void setup() {
+        RestAssured.baseURI = "http://localhost";
+        RestAssured.port = port;
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/batteries/changes should return registrations committed after the offset")
+    void shouldTailRegistrationsFromOffset() {
+        long head = given().when()
+                           .get("/api/v1/batteries/changes")
+                           .then()
+                           .statusCode(HttpStatus.SC_OK)
+                           .body("events", empty())
+                           .extract()
+                           .jsonPath()
+                           .getLong("nextOffset");
+
+        given().contentType(ContentType.JSON)
+               .body(List.of(
+                       BatteryRequestDto.builder().name("Feed One").postcode(4804).wattCapacity(1000.0).build(),
+                       BatteryRequestDto.builder().name("Feed Two").postcode(4804).wattCapacity(2000.0).build()))
+               .when()
+               .post("/api/v1/batteries")
+               .then()
+               .statusCode(HttpStatus.SC_OK);
+
+        long next = given().queryParam("after", head)
+                           .queryParam("waitSeconds", 5)
+                           .when()
+                           .get("/api/v1/batteries/changes")
+                           .then()
+                           .log()
+                           .everything()
+                           .statusCode(HttpStatus.SC_OK)
+                           .body("events", hasSize(1))
+                           .body("events[0].type", equalTo("REGISTERED"))
+                           .body("events[0].batteries.name", contains("Feed One", "Feed Two"))
+                           .extract()
+                           .jsonPath()
+                           .getLong("nextOffset");
+        assertThat(next).isGreaterThan(head);
+
+        given().queryParam("after", next)
+               .queryParam("waitSeconds", 1)
+               .when()
+               .get("/api/v1/batteries/changes")
+               .then()
+               .statusCode(HttpStatus.SC_OK)
+               .body("events", empty())
+               .body("nextOffset", equalTo((int) next));
+    }
+}
@@ -1,5 +1,7 @@
 package org.virtualpowerplant.controller;
 
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
 import io.restassured.RestAssured;
 import io.restassured.http.ContentType;
 import org.apache.http.HttpStatus;
@@ -11,22 +13,46 @@ import org.springframework.boot.test.web.server.LocalServerPort;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.jdbc.Sql;
 import org.virtualpowerplant.TestContainersConfiguration;
+import org.virtualpowerplant.config.TenantInterceptor;
+import org.virtualpowerplant.config.WireFormats;
+import org.virtualpowerplant.model.BatteryBulkResultDto;
+import org.virtualpowerplant.model.BatteryCapacityDistributionDto;
+import org.virtualpowerplant.model.BatteryCapacityUpdateRequestDto;
+import org.virtualpowerplant.model.BatteryDecommissionRequestDto;
+import org.virtualpowerplant.model.BatteryRefDto;
 import org.virtualpowerplant.model.BatteryRequestDto;
+import org.virtualpowerplant.model.BatteryResponseDto;
+import org.virtualpowerplant.model.BatterySearchCriteria;
+import org.virtualpowerplant.model.BatteryStatisticsDto;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executors;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.IntStream;
+import java.util.zip.GZIPOutputStream;
 
 import static io.restassured.RestAssured.given;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.greaterThanOrEqualTo;
 import static org.hamcrest.Matchers.hasItems;
 import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
 
-
-@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+/**
+ * Admission control is off here: the concurrency test fires more registrations at once than the ingest
+ * lane admits. Shedding itself is covered by {@code AdmissionControlIT}.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "vpp.admission.enabled=false")
 @ContextConfiguration(classes = {TestContainersConfiguration.class})
 @Sql(scripts = "/sql/test-data.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_CLASS)
 class BatteryControllerIT {
@@ -107,6 +133,244 @@ class BatteryControllerIT {
     }
 
 
+    @Test
+    @DisplayName("POST /api/v1/batteries should accept gzip-compressed CBOR and answer /stats in Smile")
+    void shouldRegisterBatteriesFromCompressedCbor() throws IOException {
+        var batch = List.of(
+                BatteryRequestDto.builder().name("Binary One").postcode(4803).wattCapacity(1500.0).build(),
+                BatteryRequestDto.builder().name("Binary Two").postcode(4803).wattCapacity(2500.0).build()
+        );
+        var compressed = new ByteArrayOutputStream();
+        try (var gzip = new GZIPOutputStream(compressed)) {
+            new CBORMapper().writeValue(gzip, batch);
+        }
+
+        byte[] registered = given().contentType(WireFormats.APPLICATION_CBOR_VALUE)
+                                   .accept(WireFormats.APPLICATION_CBOR_VALUE)
+                                   .header("Content-Encoding", "gzip")
+                                   .body(compressed.toByteArray())
+                                   .when()
+                                   .post("/api/v1/batteries")
+                                   .then()
+                                   .statusCode(HttpStatus.SC_OK)
+                                   .contentType(WireFormats.APPLICATION_CBOR_VALUE)
+                                   .extract()
+                                   .asByteArray();
+        assertThat(new CBORMapper().readValue(registered, BatteryResponseDto[].class))
+                .extracting(BatteryResponseDto::name)
+                .containsExactly("Binary One", "Binary Two");
+
+        byte[] stats = given().contentType(ContentType.JSON)
+                              .accept(WireFormats.APPLICATION_SMILE_VALUE)
+                              .queryParam("startPostcode", 4803)
+                              .queryParam("endPostcode", 4803)
+                              .when()
+                              .get("/api/v1/batteries/stats")
+                              .then()
+                              .statusCode(HttpStatus.SC_OK)
+                              .contentType(WireFormats.APPLICATION_SMILE_VALUE)
+                              .extract()
+                              .asByteArray();
+        assertThat(new SmileMapper().readValue(stats, BatteryStatisticsDto.class).totalWattCapacity())
+                .isEqualTo(4000.0);
+    }
+
+
+    @Test
+    @DisplayName("POST /api/v1/batteries?validation=partial should register valid batteries and report invalid ones by index")
+    void shouldRegisterValidBatteriesWithPartialValidation() {
+        var batch = List.of(
+                BatteryRequestDto.builder().name("Partial One").postcode(4802).wattCapacity(1000.0).build(),
+                BatteryRequestDto.builder().postcode(4802).wattCapacity(2000.0).build(),
+                BatteryRequestDto.builder().name("Partial Three").postcode(4802).wattCapacity(3000.0).build(),
+                BatteryRequestDto.builder().name("Partial Four").wattCapacity(4000.0).build()
+        );
+
+        given().contentType(ContentType.JSON)
+               .queryParam("validation", "partial")
+               .body(batch)
+               .when()
+               .post("/api/v1/batteries")
+               .then()
+               .log()
+               .everything()
+               .statusCode(HttpStatus.SC_OK)
+               .body("received", equalTo(4))
+               .body("accepted", equalTo(2))
+               .body("rejected", equalTo(2))
+               .body("batteries.name", contains("Partial One", "Partial Three"))
+               .body("errors.field", contains("[1].name", "[3].postcode"));
+
+        given().contentType(ContentType.JSON)
+               .queryParam("startPostcode", 4802)
+               .queryParam("endPostcode", 4802)
+               .when()
+               .get("/api/v1/batteries/stats")
+               .then()
+               .statusCode(HttpStatus.SC_OK)
+               .body("batteryNames", contains("Partial One", "Partial Three"));
+    }
+
+
+    @Test
+    @DisplayName("POST /api/v1/batteries with an Idempotency-Key should deduplicate by natural key and replay retries")
+    void shouldRegisterIdempotentlyWithIdempotencyKey() {
+        var batch = List.of(
+                BatteryRequestDto.builder().name("Gateway Alpha").postcode(4999).wattCapacity(5000.0).build(),
+                BatteryRequestDto.builder().name("Gateway Beta").postcode(4999).wattCapacity(7000.0).build(),
+                BatteryRequestDto.builder().name("gateway alpha").postcode(4999).wattCapacity(5000.0).build()
+        );
+
+        List<String> ids = given()
+                .contentType(ContentType.JSON)
+                .header("Idempotency-Key", "gateway-batch-1")
+                .body(batch)
+                .when()
+                .post("/api/v1/batteries")
+                .then()
+                .log()
+                .everything()
+                .statusCode(HttpStatus.SC_OK)
+                .body("name", contains("Gateway Alpha", "Gateway Beta", "Gateway Alpha"))
+                .extract()
+                .path("id");
+        assertThat(ids.get(0)).isEqualTo(ids.get(2)).isNotEqualTo(ids.get(1));
+
+        // a retry with the same key replays the response
+        given().contentType(ContentType.JSON)
+               .header("Idempotency-Key", "gateway-batch-1")
+               .body(batch)
+               .when()
+               .post("/api/v1/batteries")
+               .then()
+               .statusCode(HttpStatus.SC_OK)
+               .body("id", contains(ids.toArray()));
+
+        // a new key for the same batteries resolves to the stored rows instead of inserting again
+        given().contentType(ContentType.JSON)
+               .header("Idempotency-Key", "gateway-batch-2")
+               .body(batch.subList(0, 2))
+               .when()
+               .post("/api/v1/batteries")
+               .then()
+               .statusCode(HttpStatus.SC_OK)
+               .body("id", contains(ids.get(0), ids.get(1)));
+
+        // reusing a key for a different body is rejected
+        given().contentType(ContentType.JSON)
+               .header("Idempotency-Key", "gateway-batch-1")
+               .body(batch.subList(0, 1))
+               .when()
+               .post("/api/v1/batteries")
+               .then()
+               .statusCode(HttpStatus.SC_UNPROCESSABLE_ENTITY);
+
+        given().contentType(ContentType.JSON)
+               .queryParam("startPostcode", 4999)
+               .queryParam("endPostcode", 4999)
+               .when()
+               .get("/api/v1/batteries/stats")
+               .then()
+               .statusCode(HttpStatus.SC_OK)
+               .body("batteryNames", contains("Gateway Alpha", "Gateway Beta"));
+    }
+
+    @Test
+    @DisplayName("POST /api/v1/batteries should scope an Idempotency-Key to the tenant that used it")
+    void shouldScopeIdempotencyKeyToTenant() {
+        given().contentType(ContentType.JSON)
+               .header(TenantInterceptor.TENANT_HEADER, "acme")
+               .header("Idempotency-Key", "shared-gateway-key")
+               .body(List.of(BatteryRequestDto.builder().name("Acme Keyed").postcode(4822).wattCapacity(1000.0).build()))
+               .when()
+               .post("/api/v1/batteries")
+               .then()
+               .statusCode(HttpStatus.SC_OK);
+
+        given().contentType(ContentType.JSON)
+               .header("Idempotency-Key", "shared-gateway-key")
+               .body(List.of(BatteryRequestDto.builder().name("Default Keyed").postcode(4822).wattCapacity(2000.0).build()))
+               .when()
+               .post("/api/v1/batteries")
+               .then()
+               .statusCode(HttpStatus.SC_OK)
+               .body("[0].name", equalTo("Default Keyed"));
+    }
+
+    @Test
+    @DisplayName("POST /api/v1/batteries with an Idempotency-Key should keep natural keys of different tenants apart")
+    void shouldNotResolveNaturalKeyToAnotherTenantsBattery() {
+        // "acme|Foo" in the default tenant has the same natural key as "Foo" in tenant acme
+        String acmeId = given()
+                .contentType(ContentType.JSON)
+                .header(TenantInterceptor.TENANT_HEADER, "acme")
+                .header("Idempotency-Key", "natural-key-acme")
+                .body(List.of(BatteryRequestDto.builder().name("Foo").postcode(4812).wattCapacity(1000.0).build()))
+                .when()
+                .post("/api/v1/batteries")
+                .then()
+                .statusCode(HttpStatus.SC_OK)
+                .extract()
+                .path("[0].id");
+
+        given().contentType(ContentType.JSON)
+               .header("Idempotency-Key", "natural-key-default")
+               .body(List.of(BatteryRequestDto.builder().name("acme|Foo").postcode(4812).wattCapacity(2000.0).build()))
+               .when()
+               .post("/api/v1/batteries")
+               .then()
+               .statusCode(HttpStatus.SC_OK)
+               .body("[0].id", not(equalTo(acmeId)))
+               .body("[0].name", equalTo("acme|Foo"))
+               .body("[0].wattCapacity", equalTo(2000.0f));
+
+        given().queryParam("startPostcode", 4812)
+               .queryParam("endPostcode", 4812)
+               .when()
+               .get("/api/v1/batteries/stats")
+               .then()
+               .statusCode(HttpStatus.SC_OK)
+               .body("batteryNames", contains("acme|Foo"));
+        given().header(TenantInterceptor.TENANT_HEADER, "acme")
+               .queryParam("startPostcode", 4812)
+               .queryParam("endPostcode", 4812)
+               .when()
+               .get("/api/v1/batteries/stats")
+               .then()
+               .statusCode(HttpStatus.SC_OK)
+               .body("batteryNames", contains("Foo"));
+    }
+
+    @Test
+    @DisplayName("POST /api/v1/batteries/stream should ingest newline-delimited batteries and report rejects")
+    void shouldStreamIngestNdjsonBatteries() {
+        var body = """
+                {"name": "Cannington", "postcode": 6107, "wattCapacity": 13500.0}
+                {"name": "Midland", "postcode": 6057, "wattCapacity": 50500.0}
+                {"postcode": 6000, "wattCapacity": 23500.0}
+                """;
+
+        var request = given()
+                .log()
+                .everything()
+                .contentType("application/x-ndjson")
+                .accept(ContentType.JSON)
+                .body(body);
+
+        var response = request.when()
+                              .post("/api/v1/batteries/stream");
+
+        response.then()
+                .log()
+                .everything()
+                .assertThat()
+                .statusCode(HttpStatus.SC_OK)
+                .body("received", equalTo(3))
+                .body("accepted", equalTo(2))
+                .body("rejected", equalTo(1))
+                .body("errors", hasSize(1));
+    }
+
     @Test
     @DisplayName("GET /api/v1/batteries/stats should return statistics for batteries within postcode range")
     void shouldReturnBatteryStatisticsForPostcodeRange() {
@@ -133,6 +397,296 @@ class BatteryControllerIT {
                 .body("batteryNames", hasSize(greaterThanOrEqualTo(1)));
     }
 
+    @Test
+    @DisplayName("GET /api/v1/batteries/stats should page names with a cursor while totals cover the range")
+    void shouldPageBatteryNamesWithCursor() {
+        var firstPage = given()
+                .contentType(ContentType.JSON)
+                .queryParam("startPostcode", 6070)
+                .queryParam("endPostcode", 6080)
+                .queryParam("limit", 2)
+                .when()
+                .get("/api/v1/batteries/stats")
+                .then()
+                .log()
+                .everything()
+                .statusCode(HttpStatus.SC_OK)
+                .body("batteryNames", contains("Carmel", "Kalamunda"))
+                .body("totalWattCapacity", equalTo(63000.0f))
+                .body("nextCursor", notNullValue())
+                .extract()
+                .path("nextCursor");
+
+        given()
+                .contentType(ContentType.JSON)
+                .queryParam("startPostcode", 6070)
+                .queryParam("endPostcode", 6080)
+                .queryParam("limit", 2)
+                .queryParam("cursor", firstPage)
+                .when()
+                .get("/api/v1/batteries/stats")
+                .then()
+                .log()
+                .everything()
+                .statusCode(HttpStatus.SC_OK)
+                .body("batteryNames", contains("Lesmurdie"))
+                .body("totalWattCapacity", equalTo(63000.0f))
+                .body("nextCursor", nullValue());
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/batteries/stats/stream should stream the statistics document")
+    void shouldStreamBatteryStatistics() {
+        given()
+                .queryParam("startPostcode", 6070)
+                .queryParam("endPostcode", 6080)
+                .when()
+                .get("/api/v1/batteries/stats/stream")
+                .then()
+                .log()
+                .everything()
+                .statusCode(HttpStatus.SC_OK)
+                .body("batteryNames", contains("Carmel", "Kalamunda", "Lesmurdie"))
+                .body("totalWattCapacity", equalTo(63000.0f));
+    }
+
+    @Test
+    @DisplayName("POST /api/v1/batteries/stats/batch should return statistics for every range in request order")
+    void shouldReturnStatisticsForEveryRange() {
+        given().contentType(ContentType.JSON)
+               .body(List.of(
+                       BatteryRequestDto.builder().name("Batch Two").postcode(4806).wattCapacity(2000.0).build(),
+                       BatteryRequestDto.builder().name("batch one").postcode(4806).wattCapacity(1000.0).build(),
+                       BatteryRequestDto.builder().name("Batch Small").postcode(4807).wattCapacity(500.0).build(),
+                       BatteryRequestDto.builder().name("Batch Large").postcode(4807).wattCapacity(8000.0).build()))
+               .when()
+               .post("/api/v1/batteries")
+               .then()
+               .statusCode(HttpStatus.SC_OK);
+
+        given().contentType(ContentType.JSON)
+               .body(List.of(
+                       BatterySearchCriteria.builder().startPostcode(4806).endPostcode(4806).build(),
+                       BatterySearchCriteria.builder().startPostcode(4807).endPostcode(4807).minCapacity(1000.0).build(),
+                       BatterySearchCriteria.builder().startPostcode(4808).endPostcode(4808).build()))
+               .when()
+               .post("/api/v1/batteries/stats/batch")
+               .then()
+               .log()
+               .everything()
+               .statusCode(HttpStatus.SC_OK)
+               .body("", hasSize(3))
+               .body("[0].batteryNames", contains("batch one", "Batch Two"))
+               .body("[0].totalWattCapacity", equalTo(3000.0f))
+               .body("[0].averageWattCapacity", equalTo(1500.0f))
+               .body("[1].batteryNames", contains("Batch Large"))
+               .body("[1].totalWattCapacity", equalTo(8000.0f))
+               .body("[2].batteryNames", empty())
+               .body("[2].totalWattCapacity", equalTo(0.0f));
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/batteries/stats/distribution should return capacity percentiles and a histogram")
+    void shouldReturnCapacityDistribution() {
+        given().contentType(ContentType.JSON)
+               .body(List.of(
+                       BatteryRequestDto.builder().name("Spread 1").postcode(4809).wattCapacity(1000.0).build(),
+                       BatteryRequestDto.builder().name("Spread 2").postcode(4809).wattCapacity(2000.0).build(),
+                       BatteryRequestDto.builder().name("Spread 3").postcode(4809).wattCapacity(3000.0).build(),
+                       BatteryRequestDto.builder().name("Spread 4").postcode(4809).wattCapacity(4000.0).build()))
+               .when()
+               .post("/api/v1/batteries")
+               .then()
+               .statusCode(HttpStatus.SC_OK);
+
+        var distribution = given().queryParam("startPostcode", 4809)
+                                  .queryParam("endPostcode", 4809)
+                                  .queryParam("quantiles", 0.5, 1.0)
+                                  .queryParam("bins", 2)
+                                  .when()
+                                  .get("/api/v1/batteries/stats/distribution")
+                                  .then()
+                                  .log()
+                                  .everything()
+                                  .statusCode(HttpStatus.SC_OK)
+                                  .extract()
+                                  .as(BatteryCapacityDistributionDto.class);
+
+        assertThat(distribution.count()).isEqualTo(4);
+        assertThat(distribution.minWattCapacity()).isEqualTo(1000.0);
+        assertThat(distribution.maxWattCapacity()).isEqualTo(4000.0);
+        assertThat(distribution.percentiles()).hasSize(2);
+        assertThat(distribution.percentiles().get(0).wattCapacity())
+                .isCloseTo(2000.0, within(2000.0 * distribution.relativeAccuracy()));
+        assertThat(distribution.percentiles().get(1).wattCapacity()).isEqualTo(4000.0);
+        assertThat(distribution.histogram()).extracting(BatteryCapacityDistributionDto.HistogramBin::count)
+                                            .containsExactly(2L, 2L);
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/batteries/stats/distribution should reject quantiles outside 0 to 1")
+    void shouldRejectInvalidQuantile() {
+        given().queryParam("quantiles", 1.5)
+               .when()
+               .get("/api/v1/batteries/stats/distribution")
+               .then()
+               .statusCode(HttpStatus.SC_BAD_REQUEST);
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/batteries/stats should only count batteries of the requesting tenant")
+    void shouldIsolateStatisticsByTenant() {
+        given().contentType(ContentType.JSON)
+               .header(TenantInterceptor.TENANT_HEADER, "retailer-a")
+               .body(List.of(BatteryRequestDto.builder().name("Tenant A").postcode(4805).wattCapacity(1000.0).build()))
+               .when()
+               .post("/api/v1/batteries")
+               .then()
+               .statusCode(HttpStatus.SC_OK);
+        given().contentType(ContentType.JSON)
+               .header(TenantInterceptor.TENANT_HEADER, "retailer-b")
+               .body(List.of(BatteryRequestDto.builder().name("Tenant B").postcode(4805).wattCapacity(2000.0).build()))
+               .when()
+               .post("/api/v1/batteries")
+               .then()
+               .statusCode(HttpStatus.SC_OK);
+
+        given().header(TenantInterceptor.TENANT_HEADER, "retailer-a")
+               .queryParam("startPostcode", 4805)
+               .queryParam("endPostcode", 4805)
+               .queryParam("tenantId", "retailer-b")
+               .when()
+               .get("/api/v1/batteries/stats")
+               .then()
+               .statusCode(HttpStatus.SC_OK)
+               .body("batteryNames", contains("Tenant A"))
+               .body("totalWattCapacity", equalTo(1000.0f));
+        given().queryParam("startPostcode", 4805)
+               .queryParam("endPostcode", 4805)
+               .when()
+               .get("/api/v1/batteries/stats")
+               .then()
+               .statusCode(HttpStatus.SC_OK)
+               .body("batteryNames", empty());
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/batteries/stats should reject a malformed tenant id")
+    void shouldRejectMalformedTenantId() {
+        given().header(TenantInterceptor.TENANT_HEADER, "not a tenant")
+               .queryParam("startPostcode", 4805)
+               .queryParam("endPostcode", 4805)
+               .when()
+               .get("/api/v1/batteries/stats")
+               .then()
+               .statusCode(HttpStatus.SC_BAD_REQUEST);
+    }
+
+    @Test
+    @DisplayName("POST /api/v1/batteries/capacity should derate every battery matching the filter")
+    void shouldDerateBatteriesMatchingFilter() {
+        given().contentType(ContentType.JSON)
+               .body(List.of(
+                       BatteryRequestDto.builder().name("Derate 1").postcode(4810).wattCapacity(1000.0).build(),
+                       BatteryRequestDto.builder().name("Derate 2").postcode(4810).wattCapacity(2000.0).build()))
+               .when()
+               .post("/api/v1/batteries")
+               .then()
+               .statusCode(HttpStatus.SC_OK)
+               .body("version", contains(0, 0));
+
+        var result = given().contentType(ContentType.JSON)
+                            .body(BatteryCapacityUpdateRequestDto.builder()
+                                                                 .filter(BatterySearchCriteria.builder()
+                                                                                              .startPostcode(4810)
+                                                                                              .endPostcode(4810)
+                                                                                              .build())
+                                                                 .capacityFactor(0.5)
+                                                                 .build())
+                            .when()
+                            .post("/api/v1/batteries/capacity")
+                            .then()
+                            .statusCode(HttpStatus.SC_OK)
+                            .extract()
+                            .as(BatteryBulkResultDto.class);
+
+        assertThat(result.affected()).isEqualTo(2);
+        assertThat(result.skipped()).isEmpty();
+        given().queryParam("startPostcode", 4810)
+               .queryParam("endPostcode", 4810)
+               .when()
+               .get("/api/v1/batteries/stats")
+               .then()
+               .statusCode(HttpStatus.SC_OK)
+               .body("totalWattCapacity", equalTo(1500.0f));
+    }
+
+    @Test
+    @DisplayName("POST /api/v1/batteries/decommission should skip batteries whose version has changed")
+    void shouldDecommissionOnlyBatteriesWithExpectedVersion() {
+        var registered = given().contentType(ContentType.JSON)
+                                .body(List.of(
+                                        BatteryRequestDto.builder().name("Churned").postcode(4811).wattCapacity(1000.0).build(),
+                                        BatteryRequestDto.builder().name("Kept").postcode(4811).wattCapacity(2000.0).build()))
+                                .when()
+                                .post("/api/v1/batteries")
+                                .then()
+                                .statusCode(HttpStatus.SC_OK)
+                                .extract()
+                                .as(BatteryResponseDto[].class);
+
+        var result = given().contentType(ContentType.JSON)
+                            .body(BatteryDecommissionRequestDto.builder()
+                                                               .batteries(List.of(
+                                                                       new BatteryRefDto(registered[0].id(), registered[0].version()),
+                                                                       new BatteryRefDto(registered[1].id(), registered[1].version() + 1)))
+                                                               .build())
+                            .when()
+                            .post("/api/v1/batteries/decommission")
+                            .then()
+                            .statusCode(HttpStatus.SC_OK)
+                            .extract()
+                            .as(BatteryBulkResultDto.class);
+
+        assertThat(result.affected()).isEqualTo(1);
+        assertThat(result.skipped()).containsExactly(registered[1].id());
+        given().queryParam("startPostcode", 4811)
+               .queryParam("endPostcode", 4811)
+               .when()
+               .get("/api/v1/batteries/stats")
+               .then()
+               .statusCode(HttpStatus.SC_OK)
+               .body("batteryNames", contains("Kept"));
+    }
+
+    @Test
+    @DisplayName("POST /api/v1/batteries/decommission should require either ids or a filter")
+    void shouldRejectDecommissionWithoutSelection() {
+        given().contentType(ContentType.JSON)
+               .body("{}")
+               .when()
+               .post("/api/v1/batteries/decommission")
+               .then()
+               .statusCode(HttpStatus.SC_BAD_REQUEST);
+    }
+
+    @Test
+    @DisplayName("POST /api/v1/batteries/decommission should reject a filter without a closed postcode range")
+    void shouldRejectDecommissionWithOpenFilter() {
+        given().contentType(ContentType.JSON)
+               .body("{\"filter\":{}}")
+               .when()
+               .post("/api/v1/batteries/decommission")
+               .then()
+               .statusCode(HttpStatus.SC_BAD_REQUEST);
+        given().contentType(ContentType.JSON)
+               .body("{\"filter\":{\"startPostcode\":4800}}")
+               .when()
+               .post("/api/v1/batteries/decommission")
+               .then()
+               .statusCode(HttpStatus.SC_BAD_REQUEST);
+    }
+
     @Test
     @DisplayName("POST /api/v1/batteries should handle concurrent requests successfully")
     void shouldHandleConcurrentBatteryRegistration() {
@@ -0,0 +1,57 @@
+package org.virtualpowerplant.controller;
+
+import io.restassured.RestAssured;
+import org.apache.http.HttpStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ContextConfiguration;
+import org.virtualpowerplant.TestContainersConfiguration;
+
+import static io.restassured.RestAssured.given;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ContextConfiguration(classes = {TestContainersConfiguration.class})
+class FleetControllerIT {
+
+    @LocalServerPort
+    private int port;
+
+    @BeforeEach
+    void setup() {
+        RestAssured.baseURI = "http://localhost";
+        RestAssured.port = port;
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/fleet/capacity should reject a reversed postcode range")
+    void shouldRejectReversedRange() {
+        given().queryParam("startPostcode", 6200)
+               .queryParam("endPostcode", 6100)
+               .when()
+               .get("/api/v1/fleet/capacity")
+               .then()
+               .statusCode(HttpStatus.SC_BAD_REQUEST);
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/fleet/capacity should reject a range with only one bound")
+    void shouldRejectHalfOpenRange() {
+        given().queryParam("startPostcode", 6100)
+               .when()
+               .get("/api/v1/fleet/capacity")
+               .then()
+               .statusCode(HttpStatus.SC_BAD_REQUEST);
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/fleet/capacity should answer for the whole fleet without bounds")
+    void shouldAnswerForWholeFleet() {
+        given().when()
+               .get("/api/v1/fleet/capacity")
+               .then()
+               .statusCode(HttpStatus.SC_OK);
+    }
+}
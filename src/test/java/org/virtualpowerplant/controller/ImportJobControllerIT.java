@@ -0,0 +1,130 @@
+package org.virtualpowerplant.controller;
+
+import io.restassured.RestAssured;
+import org.apache.http.HttpStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ContextConfiguration;
+import org.virtualpowerplant.TestContainersConfiguration;
+
+import java.util.UUID;
+
+import static io.restassured.RestAssured.given;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.notNullValue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "vpp.imports.chunk-size=2",
+                "vpp.imports.max-upload-size=4KB"
+        })
+@ContextConfiguration(classes = {TestContainersConfiguration.class})
+class ImportJobControllerIT {
+
+    @LocalServerPort
+    private int port;
+
+    @BeforeEach
+    void setup() {
+        RestAssured.baseURI = "http://localhost";
+        RestAssured.port = port;
+    }
+
+    @Test
+    @DisplayName("POST /api/v1/batteries/imports should reject an upload over the size limit with 413")
+    void shouldRejectOversizedUpload() {
+        var line = "{\"name\": \"Import Oversized\", \"postcode\": 4821, \"wattCapacity\": 1000.0}\n";
+
+        given().contentType("application/x-ndjson")
+               .body(line.repeat(100))
+               .when()
+               .post("/api/v1/batteries/imports")
+               .then()
+               .statusCode(HttpStatus.SC_REQUEST_TOO_LONG);
+    }
+
+    @Test
+    @DisplayName("POST /api/v1/batteries/imports should import the upload in the background")
+    void shouldImportUploadInBackground() throws InterruptedException {
+        var body = """
+                {"name": "Import One", "postcode": 4801, "wattCapacity": 1000.0}
+                {"name": "Import Two", "postcode": 4801, "wattCapacity": 2000.0}
+                {"postcode": 4801, "wattCapacity": 3000.0}
+                {"name": "Import Three", "postcode": 4801, "wattCapacity": 4000.0}
+                """;
+
+        String id = given().contentType("application/x-ndjson")
+                           .body(body)
+                           .when()
+                           .post("/api/v1/batteries/imports")
+                           .then()
+                           .log()
+                           .everything()
+                           .statusCode(HttpStatus.SC_ACCEPTED)
+                           .header("Location", containsString("/api/v1/batteries/imports/"))
+                           .body("id", notNullValue())
+                           .extract()
+                           .path("id");
+
+        awaitStatus(id, "COMPLETED");
+
+        given().when()
+               .get("/api/v1/batteries/imports/{id}", id)
+               .then()
+               .statusCode(HttpStatus.SC_OK)
+               .body("rowsParsed", equalTo(4))
+               .body("rowsValidated", equalTo(3))
+               .body("rowsFailed", equalTo(1))
+               .body("rowsWritten", equalTo(3))
+               .body("chunksCommitted", equalTo(2));
+
+        given().contentType("application/json")
+               .queryParam("startPostcode", 4801)
+               .queryParam("endPostcode", 4801)
+               .when()
+               .get("/api/v1/batteries/stats")
+               .then()
+               .statusCode(HttpStatus.SC_OK)
+               .body("totalWattCapacity", equalTo(7000.0f));
+
+        given().accept("text/event-stream")
+               .when()
+               .get("/api/v1/batteries/imports/{id}/events", id)
+               .then()
+               .statusCode(HttpStatus.SC_OK)
+               .body(containsString("event:progress"))
+               .body(containsString("\"status\":\"COMPLETED\""));
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/batteries/imports/{id} should return 404 for an unknown job")
+    void shouldReturnNotFoundForUnknownJob() {
+        given().when()
+               .get("/api/v1/batteries/imports/{id}", UUID.randomUUID())
+               .then()
+               .statusCode(HttpStatus.SC_NOT_FOUND);
+    }
+
+    private static void awaitStatus(String id, String status) throws InterruptedException {
+        var deadline = System.nanoTime() + 30_000_000_000L;
+        String current = null;
+        while (System.nanoTime() < deadline) {
+            current = given().when()
+                             .get("/api/v1/batteries/imports/{id}", id)
+                             .then()
+                             .statusCode(HttpStatus.SC_OK)
+                             .extract()
+                             .path("status");
+            if (status.equals(current)) {
+                return;
+            }
+            Thread.sleep(100);
+        }
+        assertThat(current).isEqualTo(status);
+    }
+}
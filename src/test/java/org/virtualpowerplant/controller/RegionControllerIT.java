@@ -0,0 +1,71 @@
+package org.virtualpowerplant.controller;
+
+import io.restassured.RestAssured;
+import org.apache.http.HttpStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.jdbc.Sql;
+import org.virtualpowerplant.TestContainersConfiguration;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "vpp.regions.file=classpath:regions/test-regions.csv")
+@ContextConfiguration(classes = {TestContainersConfiguration.class})
+@Sql(scripts = "/sql/test-data.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_CLASS)
+class RegionControllerIT {
+
+    @LocalServerPort
+    private int port;
+
+    @BeforeEach
+    void setup() {
+        RestAssured.baseURI = "http://localhost";
+        RestAssured.port = port;
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/regions/stats should aggregate the batteries on a feeder")
+    void shouldAggregateBatteriesOnFeeder() {
+        given().queryParam("feeder", "F12")
+               .when()
+               .get("/api/v1/regions/stats")
+               .then()
+               .log()
+               .everything()
+               .statusCode(HttpStatus.SC_OK)
+               .body("batteryNames", contains("Carmel", "Kalamunda", "Lesmurdie", "Midland"))
+               .body("totalWattCapacity", equalTo(113500.0f));
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/regions/stats should aggregate the batteries within a radius")
+    void shouldAggregateBatteriesWithinRadius() {
+        given().queryParam("latitude", -31.9523)
+               .queryParam("longitude", 115.8613)
+               .queryParam("radiusKm", 8)
+               .when()
+               .get("/api/v1/regions/stats")
+               .then()
+               .statusCode(HttpStatus.SC_OK)
+               .body("batteryNames", contains("Bentley", "Hay Street"))
+               .body("totalWattCapacity", equalTo(108500.0f));
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/regions/stats should reject more than one selector")
+    void shouldRejectAmbiguousRegion() {
+        given().queryParam("feeder", "F12")
+               .queryParam("substation", "Midland")
+               .when()
+               .get("/api/v1/regions/stats")
+               .then()
+               .statusCode(HttpStatus.SC_BAD_REQUEST);
+    }
+}
@@ -0,0 +1,37 @@
+package org.virtualpowerplant.entity;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UuidV7GeneratorTest {
+
+    private final UuidV7Generator generator = new UuidV7Generator();
+
+    @Test
+    void generate_ShouldSetVersionVariantAndTimestamp() {
+        // Arrange
+        var before = System.currentTimeMillis();
+
+        // Act
+        var id = generator.generate();
+
+        // Assert
+        var after = System.currentTimeMillis();
+        assertThat(id.version()).isEqualTo(7);
+        assertThat(id.variant()).isEqualTo(2);
+        assertThat(id.getMostSignificantBits() >>> 16).isBetween(before, after);
+    }
+
+    @Test
+    void generate_AcrossMilliseconds_ShouldSortByCreationTime() throws InterruptedException {
+        // Act
+        var first = generator.generate();
+        Thread.sleep(2);
+        var second = generator.generate();
+
+        // Assert
+        assertThat(Long.compareUnsigned(first.getMostSignificantBits(), second.getMostSignificantBits())).isNegative();
+        assertThat(first.toString()).isLessThan(second.toString());
+    }
+}
@@ -0,0 +1,31 @@
+package org.virtualpowerplant.model;
+
+import org.junit.jupiter.api.Test;
+import org.virtualpowerplant.exception.BadRequestException;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BatteryNameCursorTest {
+
+    @Test
+    void encode_ShouldRoundTripNamesContainingSeparators() {
+        // Arrange
+        var cursor = new BatteryNameCursor("hay street: unit 2", UUID.randomUUID());
+
+        // Act
+        var decoded = BatteryNameCursor.decode(cursor.encode());
+
+        // Assert
+        assertThat(decoded).isEqualTo(cursor);
+    }
+
+    @Test
+    void decode_WithGarbage_ShouldThrowBadRequest() {
+        // Act & Assert
+        assertThatThrownBy(() -> BatteryNameCursor.decode("not a cursor"))
+                .isInstanceOf(BadRequestException.class);
+    }
+}
@@ -180,4 +180,26 @@ class BatteryRepositoryIT {
                                 b1.getName().compareToIgnoreCase(b2.getName()))
         );
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Should aggregate capacity and list sorted names in the database")
+    void shouldAggregateBatteriesInDatabase() {
+        // arrange
+        var spec = BatterySpecifications.matching(BatterySearchCriteria.builder()
+                                                                       .startPostcode(6070)
+                                                                       .endPostcode(6080)
+                                                                       .build());
+
+        // act
+        var aggregate = repository.aggregate(spec);
+        var names = repository.findNames(spec);
+
+        // assert
+        assertAll("Database aggregation validation",
+                () -> assertThat(aggregate.count()).isEqualTo(3),
+                () -> assertThat(aggregate.totalWattCapacity()).isEqualTo(63000.0),
+                () -> assertThat(aggregate.averageWattCapacity()).isEqualTo(21000.0),
+                () -> assertThat(names).containsExactly("Carmel", "Kalamunda", "Lesmurdie")
+        );
+    }
+}
@@ -0,0 +1,61 @@
+package org.virtualpowerplant.repository;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ContextConfiguration;
+import org.virtualpowerplant.TestContainersConfiguration;
+import org.virtualpowerplant.model.TelemetryBuffer;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ContextConfiguration(classes = {TestContainersConfiguration.class})
+class TelemetryRepositoryIT {
+
+    @Autowired
+    private TelemetryRepository repository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("Should copy readings spanning two days into daily partitions")
+    void shouldCopyReadingsIntoDailyPartitions() {
+        // arrange
+        var batteryId = UUID.randomUUID();
+        var midnight = Instant.now().truncatedTo(ChronoUnit.DAYS);
+        var beforeMidnight = midnight.minusMillis(1);
+        var buffer = new TelemetryBuffer(4, TelemetryRepository.BYTES_PER_ROW);
+        buffer.add(batteryId.getMostSignificantBits(), batteryId.getLeastSignificantBits(),
+                beforeMidnight.toEpochMilli() * 1000, 42.5, -3000.0);
+        buffer.add(batteryId.getMostSignificantBits(), batteryId.getLeastSignificantBits(),
+                midnight.toEpochMilli() * 1000, 43.0, 1500.0);
+
+        // act
+        var copied = repository.copy(buffer);
+
+        // assert
+        assertThat(copied).isEqualTo(2);
+        var recordedAt = jdbcTemplate.queryForList(
+                "SELECT recorded_at FROM battery_telemetry WHERE battery_id = ? ORDER BY recorded_at",
+                OffsetDateTime.class, batteryId);
+        assertThat(recordedAt).containsExactly(
+                beforeMidnight.atOffset(ZoneOffset.UTC), midnight.atOffset(ZoneOffset.UTC));
+        var partitions = jdbcTemplate.queryForList(
+                "SELECT DISTINCT tableoid::regclass::text FROM battery_telemetry WHERE battery_id = ?",
+                String.class, batteryId);
+        assertThat(partitions).hasSize(2);
+        var stateOfCharge = jdbcTemplate.queryForObject(
+                "SELECT sum(state_of_charge) FROM battery_telemetry WHERE battery_id = ?", Double.class, batteryId);
+        assertThat(stateOfCharge).isEqualTo(85.5);
+    }
+}
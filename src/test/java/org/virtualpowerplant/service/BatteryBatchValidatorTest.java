@@ -0,0 +1,61 @@
+package org.virtualpowerplant.service;
+
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.virtualpowerplant.exception.Error;
+import org.virtualpowerplant.model.BatteryRequestDto;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BatteryBatchValidatorTest {
+
+    private BatteryBatchValidator batchValidator;
+
+    @BeforeEach
+    void setUp() {
+        batchValidator = new BatteryBatchValidator(Validation.buildDefaultValidatorFactory().getValidator());
+    }
+
+    @Test
+    void validate_WithMixedBatch_ShouldKeepValidElementsAndIndexErrors() {
+        // Arrange
+        var cannington = BatteryRequestDto.builder().name("Cannington").postcode(6107).wattCapacity(13500.0).build();
+        var midland = BatteryRequestDto.builder().name("Midland").postcode(6057).wattCapacity(50500.0).build();
+        var requests = Arrays.asList(
+                cannington,
+                BatteryRequestDto.builder().name(" ").postcode(6000).wattCapacity(23500.0).build(),
+                null,
+                midland
+        );
+
+        // Act
+        var result = batchValidator.validate(requests);
+
+        // Assert
+        assertThat(result.valid()).containsExactly(cannington, midland);
+        assertThat(result.rejected()).isEqualTo(2);
+        assertThat(result.errors())
+                .extracting(Error.ErrorDetail::getField)
+                .containsExactly("[1].name", "[2]");
+    }
+
+    @Test
+    void validate_WithElementViolatingSeveralConstraints_ShouldReportEachOnce() {
+        // Arrange
+        var requests = List.of(BatteryRequestDto.builder().build());
+
+        // Act
+        var result = batchValidator.validate(requests);
+
+        // Assert
+        assertThat(result.valid()).isEmpty();
+        assertThat(result.rejected()).isEqualTo(1);
+        assertThat(result.errors())
+                .extracting(Error.ErrorDetail::getField)
+                .containsExactlyInAnyOrder("[0].name", "[0].postcode", "[0].wattCapacity");
+    }
+}
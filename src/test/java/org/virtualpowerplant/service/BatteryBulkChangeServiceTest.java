@@ -0,0 +1,160 @@
+package org.virtualpowerplant.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.virtualpowerplant.config.BulkChangeProperties;
+import org.virtualpowerplant.entity.Battery;
+import org.virtualpowerplant.exception.BadRequestException;
+import org.virtualpowerplant.model.BatteryBulkResultDto;
+import org.virtualpowerplant.model.BatteryCapacityUpdateRequestDto;
+import org.virtualpowerplant.model.BatteryDecommissionRequestDto;
+import org.virtualpowerplant.model.BatteryRefDto;
+import org.virtualpowerplant.model.BatterySearchCriteria;
+import org.virtualpowerplant.repository.BatteryJdbcRepository;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BatteryBulkChangeServiceTest {
+
+    @Mock
+    private BatteryService batteryService;
+
+    @Mock
+    private BatteryJdbcRepository batteryJdbcRepository;
+
+    private BatteryBulkChangeService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new BatteryBulkChangeService(batteryService, batteryJdbcRepository, new BulkChangeProperties(2, 10));
+    }
+
+    @Test
+    void decommission_WithIds_ShouldChangeInChunksAndReportSkippedIds() {
+        // Arrange
+        var first = UUID.randomUUID();
+        var second = UUID.randomUUID();
+        var stale = UUID.randomUUID();
+        var request = BatteryDecommissionRequestDto.builder()
+                                                   .batteries(List.of(new BatteryRefDto(first, null),
+                                                           new BatteryRefDto(second, 3L),
+                                                           new BatteryRefDto(first, null),
+                                                           new BatteryRefDto(stale, 1L)))
+                                                   .build();
+        when(batteryService.decommissionChunk(any(), any())).thenReturn(List.of(battery(first), battery(second)),
+                List.of());
+
+        // Act
+        BatteryBulkResultDto result = service.decommission(request);
+
+        // Assert
+        assertThat(result.affected()).isEqualTo(2);
+        assertThat(result.skipped()).containsExactly(stale);
+        verify(batteryService).decommissionChunk(List.of(new BatteryRefDto(first, null), new BatteryRefDto(second, 3L)),
+                BatterySearchCriteria.builder().tenantId(Battery.DEFAULT_TENANT).build());
+        verify(batteryService).decommissionChunk(eq(List.of(new BatteryRefDto(stale, 1L))), any());
+        verifyNoInteractions(batteryJdbcRepository);
+    }
+
+    @Test
+    void updateCapacity_WithFilter_ShouldResolveIdsOnceAndScopeToTenant() {
+        // Arrange
+        var ids = List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
+        var filter = BatterySearchCriteria.builder().startPostcode(6000).endPostcode(6100).tenantId("other").build();
+        var scoped = filter.withTenantId(Battery.DEFAULT_TENANT);
+        when(batteryJdbcRepository.findMatchingIds(scoped, 11)).thenReturn(ids);
+        when(batteryService.updateCapacityChunk(any(), eq(scoped), isNull(), eq(0.8)))
+                .thenReturn(List.of(battery(ids.get(0)), battery(ids.get(1))), List.of(battery(ids.get(2))));
+        var request = BatteryCapacityUpdateRequestDto.builder().filter(filter).capacityFactor(0.8).build();
+
+        // Act
+        BatteryBulkResultDto result = service.updateCapacity(request);
+
+        // Assert
+        assertThat(result.affected()).isEqualTo(3);
+        assertThat(result.skipped()).isEmpty();
+        verify(batteryService, times(2)).updateCapacityChunk(any(), eq(scoped), isNull(), eq(0.8));
+    }
+
+    @Test
+    void decommission_WithHalfOpenFilter_ShouldThrowBadRequest() {
+        // Arrange
+        var request = BatteryDecommissionRequestDto.builder()
+                                                   .filter(BatterySearchCriteria.builder().startPostcode(6000).build())
+                                                   .build();
+
+        // Act & Assert
+        assertThatThrownBy(() -> service.decommission(request))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("startPostcode and endPostcode");
+        verifyNoInteractions(batteryService, batteryJdbcRepository);
+    }
+
+    @Test
+    void decommission_WithFilterMatchingMoreThanMaxIds_ShouldThrowBeforeChangingAnything() {
+        // Arrange
+        var filter = BatterySearchCriteria.builder().startPostcode(6000).endPostcode(6100).build();
+        var ids = IntStream.range(0, 11).mapToObj(i -> UUID.randomUUID()).toList();
+        when(batteryJdbcRepository.findMatchingIds(filter.withTenantId(Battery.DEFAULT_TENANT), 11)).thenReturn(ids);
+        var request = BatteryDecommissionRequestDto.builder().filter(filter).build();
+
+        // Act & Assert
+        assertThatThrownBy(() -> service.decommission(request))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("more than 10");
+        verifyNoInteractions(batteryService);
+    }
+
+    @Test
+    void updateCapacity_WithoutExactlyOneCapacityChange_ShouldThrowBadRequest() {
+        // Arrange
+        var request = BatteryCapacityUpdateRequestDto.builder()
+                                                     .batteries(List.of(new BatteryRefDto(UUID.randomUUID(), null)))
+                                                     .wattCapacity(1000.0)
+                                                     .capacityFactor(0.5)
+                                                     .build();
+
+        // Act & Assert
+        assertThatThrownBy(() -> service.updateCapacity(request))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("wattCapacity");
+        verifyNoInteractions(batteryService);
+    }
+
+    @Test
+    void decommission_WithBothIdsAndFilter_ShouldThrowBadRequest() {
+        // Arrange
+        var request = BatteryDecommissionRequestDto.builder()
+                                                   .batteries(List.of(new BatteryRefDto(UUID.randomUUID(), null)))
+                                                   .filter(BatterySearchCriteria.builder().build())
+                                                   .build();
+
+        // Act & Assert
+        assertThatThrownBy(() -> service.decommission(request))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("Exactly one of batteries and filter");
+        verifyNoInteractions(batteryService, batteryJdbcRepository);
+    }
+
+    private static Battery battery(UUID id) {
+        var battery = Battery.builder().name("Battery").postcode(6000).wattCapacity(1000.0).build();
+        battery.setId(id);
+        return battery;
+    }
+}
@@ -0,0 +1,116 @@
+package org.virtualpowerplant.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.virtualpowerplant.model.BatteryAggregate;
+import org.virtualpowerplant.model.BatterySearchCriteria;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BatteryCapacityIndexTest {
+
+    private BatteryCapacityIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new BatteryCapacityIndex.Builder(4)
+                .add("Midland", 6057, 50500.0)
+                .add("Cannington", 6107, 13500.0)
+                .add("Hay Street", 6000, 23500.0)
+                .add("Akunda Bay", 2084, 13500.0)
+                .add("carmel", 6076, 36000.0)
+                .build();
+    }
+
+    @Test
+    void aggregate_WithPostcodeRange_ShouldUsePrefixSums() {
+        // Act
+        BatteryAggregate result = index.aggregate(criteria(6000, 6100, null, null));
+
+        // Assert
+        assertThat(result.count()).isEqualTo(3);
+        assertThat(result.totalWattCapacity()).isEqualTo(110000.0);
+        assertThat(result.averageWattCapacity()).isEqualTo(110000.0 / 3);
+    }
+
+    @Test
+    void aggregate_WithCapacityRangeOnly_ShouldUseCapacityIndex() {
+        // Act
+        BatteryAggregate result = index.aggregate(criteria(null, null, 13500.0, 23500.0));
+
+        // Assert
+        assertThat(result.count()).isEqualTo(3);
+        assertThat(result.totalWattCapacity()).isEqualTo(50500.0);
+    }
+
+    @Test
+    void aggregate_WithPostcodeAndCapacityRange_ShouldFilterSlice() {
+        // Act
+        BatteryAggregate result = index.aggregate(criteria(6000, 6999, 20000.0, 40000.0));
+
+        // Assert
+        assertThat(result.count()).isEqualTo(2);
+        assertThat(result.totalWattCapacity()).isEqualTo(59500.0);
+    }
+
+    @Test
+    void aggregate_WithInvertedRange_ShouldBeEmpty() {
+        // Act
+        BatteryAggregate result = index.aggregate(criteria(7000, 6000, null, null));
+
+        // Assert
+        assertThat(result).isEqualTo(BatteryAggregate.EMPTY);
+    }
+
+    @Test
+    void findNames_ShouldSortIgnoringCase() {
+        // Act & Assert
+        assertThat(index.findNames(criteria(6000, 6999, null, null)))
+                .containsExactly("Cannington", "carmel", "Hay Street", "Midland");
+    }
+
+    @Test
+    void merge_ShouldIncludeNewBatteriesInBothDimensions() {
+        // Arrange
+        var additions = new BatteryCapacityIndex.Builder(2)
+                .add("Bentley", 6102, 85000.0)
+                .add("Bagot", 820, 27000.0);
+
+        // Act
+        var merged = index.merge(additions);
+
+        // Assert
+        assertThat(merged.size()).isEqualTo(7);
+        assertThat(merged.aggregate(criteria(6100, 6200, null, null)).totalWattCapacity()).isEqualTo(98500.0);
+        assertThat(merged.aggregate(criteria(null, null, 80000.0, null)).count()).isEqualTo(1);
+        assertThat(merged.findNames(criteria(0, 1000, null, null))).containsExactly("Bagot");
+        assertThat(index.size()).isEqualTo(5);
+    }
+
+    @Test
+    void remove_ShouldDropOneMatchingBatteryFromBothDimensions() {
+        // Arrange
+        var removals = new BatteryCapacityIndex.Builder(2)
+                .add("Cannington", 6107, 13500.0)
+                .add("Unknown", 6107, 13500.0);
+
+        // Act
+        var remaining = index.remove(removals);
+
+        // Assert
+        assertThat(remaining.size()).isEqualTo(4);
+        assertThat(remaining.findNames(criteria(6100, 6200, null, null))).isEmpty();
+        assertThat(remaining.aggregate(criteria(null, null, 13000.0, 14000.0)).count()).isEqualTo(1);
+        assertThat(remaining.findNames(criteria(null, null, 13000.0, 14000.0))).containsExactly("Akunda Bay");
+        assertThat(index.size()).isEqualTo(5);
+    }
+
+    private static BatterySearchCriteria criteria(Integer start, Integer end, Double min, Double max) {
+        return BatterySearchCriteria.builder()
+                                    .startPostcode(start)
+                                    .endPostcode(end)
+                                    .minCapacity(min)
+                                    .maxCapacity(max)
+                                    .build();
+    }
+}
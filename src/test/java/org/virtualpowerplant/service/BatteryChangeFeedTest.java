@@ -0,0 +1,176 @@
+package org.virtualpowerplant.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.virtualpowerplant.config.ChangeFeedProperties;
+import org.virtualpowerplant.entity.Battery;
+import org.virtualpowerplant.entity.BatteryOutboxEvent;
+import org.virtualpowerplant.event.BatteriesModifiedEvent;
+import org.virtualpowerplant.event.BatteriesRegisteredEvent;
+import org.virtualpowerplant.exception.BadRequestException;
+import org.virtualpowerplant.mapper.BatteryMapper;
+import org.virtualpowerplant.model.BatteryChangeEventDto;
+import org.virtualpowerplant.model.BatteryChangesDto;
+import org.virtualpowerplant.repository.BatteryOutboxRepository;
+import org.virtualpowerplant.util.TestDataBuilder;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BatteryChangeFeedTest {
+
+    @Mock
+    private BatteryOutboxRepository batteryOutboxRepository;
+
+    private BatteryChangeFeed changeFeed;
+
+    @BeforeEach
+    void setUp() {
+        changeFeed = new BatteryChangeFeed(batteryOutboxRepository, BatteryMapper.INSTANCE, new ObjectMapper(),
+                new ChangeFeedProperties(100, Duration.ofSeconds(30), Duration.ofMinutes(1),
+                        Duration.ofDays(7), Duration.ofMinutes(30)));
+    }
+
+    @Test
+    void onBatteriesRegistered_ShouldAppendOneEventForTheWholeTransaction() {
+        // Arrange
+        var event = new BatteriesRegisteredEvent(TestDataBuilder.BatteryBuilder.allBatteries());
+
+        // Act
+        changeFeed.onBatteriesRegistered(event);
+
+        // Assert
+        var payload = ArgumentCaptor.forClass(String.class);
+        verify(batteryOutboxRepository).append(eq(Battery.DEFAULT_TENANT), eq(BatteryOutboxEvent.Type.REGISTERED), eq(3),
+                payload.capture());
+        assertThat(payload.getValue()).contains("Cannington", "Midland", "Hay Street");
+    }
+
+    @Test
+    void onBatteriesRegistered_WithSeveralTenants_ShouldAppendOneEventPerTenant() {
+        // Arrange
+        var batteries = TestDataBuilder.BatteryBuilder.allBatteries();
+        batteries.getFirst().setTenantId("acme");
+        var event = new BatteriesRegisteredEvent(batteries);
+
+        // Act
+        changeFeed.onBatteriesRegistered(event);
+
+        // Assert
+        var payload = ArgumentCaptor.forClass(String.class);
+        verify(batteryOutboxRepository).append(eq("acme"), eq(BatteryOutboxEvent.Type.REGISTERED), eq(1), payload.capture());
+        assertThat(payload.getValue()).contains("Cannington");
+        verify(batteryOutboxRepository).append(eq(Battery.DEFAULT_TENANT), eq(BatteryOutboxEvent.Type.REGISTERED), eq(2), any());
+    }
+
+    @Test
+    void onBatteriesModified_WhenDecommissioned_ShouldAppendTheRemovedBatteries() {
+        // Arrange
+        var removed = TestDataBuilder.BatteryBuilder.allBatteries();
+        var event = new BatteriesModifiedEvent(removed, List.of());
+
+        // Act
+        changeFeed.onBatteriesModified(event);
+
+        // Assert
+        var payload = ArgumentCaptor.forClass(String.class);
+        verify(batteryOutboxRepository).append(eq(Battery.DEFAULT_TENANT), eq(BatteryOutboxEvent.Type.DECOMMISSIONED),
+                eq(3), payload.capture());
+        assertThat(payload.getValue()).contains("Cannington", "Midland", "Hay Street");
+    }
+
+    @Test
+    void onBatteriesRegistered_WithNoBatteries_ShouldAppendNothing() {
+        // Act
+        changeFeed.onBatteriesRegistered(new BatteriesRegisteredEvent(List.of()));
+
+        // Assert
+        verify(batteryOutboxRepository, never()).append(any(), any(), anyInt(), any());
+    }
+
+    @Test
+    void poll_WithPendingEvents_ShouldReturnThemWithoutWaiting() throws InterruptedException {
+        // Arrange
+        var events = List.of(event(11), event(12));
+        when(batteryOutboxRepository.readAfter(Battery.DEFAULT_TENANT, 10, 100)).thenReturn(events);
+
+        // Act
+        BatteryChangesDto result = changeFeed.poll(10L, null, Duration.ofSeconds(30));
+
+        // Assert
+        assertThat(result.events()).isEqualTo(events);
+        assertThat(result.nextOffset()).isEqualTo(12);
+    }
+
+    @Test
+    void poll_WithoutOffset_ShouldStartFromTheEndOfTheFeed() throws InterruptedException {
+        // Arrange
+        when(batteryOutboxRepository.latestOffset()).thenReturn(42L);
+        when(batteryOutboxRepository.readAfter(Battery.DEFAULT_TENANT, 42, 5)).thenReturn(List.of());
+
+        // Act
+        BatteryChangesDto result = changeFeed.poll(null, 5, Duration.ZERO);
+
+        // Assert
+        assertThat(result.events()).isEmpty();
+        assertThat(result.nextOffset()).isEqualTo(42);
+    }
+
+    @Test
+    void poll_WhenRegistrationCommitsWhileWaiting_ShouldWakeUpAndReturnIt() throws Exception {
+        // Arrange
+        var committed = List.of(event(8));
+        when(batteryOutboxRepository.readAfter(Battery.DEFAULT_TENANT, 7, 100)).thenReturn(List.of(), committed);
+        var poll = CompletableFuture.supplyAsync(() -> {
+            try {
+                return changeFeed.poll(7L, null, Duration.ofSeconds(30));
+            } catch (InterruptedException e) {
+                throw new CompletionException(e);
+            }
+        });
+
+        // Act
+        while (!poll.isDone()) {
+            changeFeed.onBatteriesCommitted(new BatteriesRegisteredEvent(TestDataBuilder.BatteryBuilder.allBatteries()));
+            Thread.sleep(10);
+        }
+
+        // Assert
+        assertThat(poll.get(5, TimeUnit.SECONDS).events()).isEqualTo(committed);
+    }
+
+    @Test
+    void poll_WithNonPositiveLimit_ShouldThrowBadRequest() {
+        // Act & Assert
+        assertThatThrownBy(() -> changeFeed.poll(0L, 0, Duration.ZERO))
+                .isInstanceOf(BadRequestException.class);
+        verify(batteryOutboxRepository, never()).readAfter(any(), anyLong(), anyInt());
+    }
+
+    private static BatteryChangeEventDto event(long offset) {
+        return BatteryChangeEventDto.builder()
+                                    .offset(offset)
+                                    .type(BatteryOutboxEvent.Type.REGISTERED)
+                                    .batteries("[]")
+                                    .build();
+    }
+}
@@ -0,0 +1,137 @@
+package org.virtualpowerplant.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.virtualpowerplant.config.IngestProperties;
+import org.virtualpowerplant.entity.Battery;
+import org.virtualpowerplant.exception.BadRequestException;
+import org.virtualpowerplant.mapper.BatteryMapper;
+import org.virtualpowerplant.model.BatteryIngestResultDto;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class BatteryIngestServiceTest {
+
+    @Mock
+    private BatteryService batteryService;
+
+    private BatteryIngestService ingestService;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        ingestService = new BatteryIngestService(
+                new ObjectMapper(),
+                Validation.buildDefaultValidatorFactory().getValidator(),
+                BatteryMapper.INSTANCE,
+                batteryService,
+                new IngestProperties(2, 10),
+                new IngestMetrics(meterRegistry)
+        );
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void ingest_WithJsonArray_ShouldWriteFixedSizeChunks() {
+        // Arrange
+        var body = """
+                [
+                  {"name": "Cannington", "postcode": 6107, "wattCapacity": 13500.0},
+                  {"name": "Midland", "postcode": 6057, "wattCapacity": 50500.0},
+                  {"name": "Hay Street", "postcode": 6000, "wattCapacity": 23500.0}
+                ]
+                """;
+
+        // Act
+        BatteryIngestResultDto result = ingestService.ingest(stream(body));
+
+        // Assert
+        ArgumentCaptor<List<Battery>> chunks = ArgumentCaptor.forClass(List.class);
+        verify(batteryService, times(2)).registerChunk(chunks.capture());
+        assertThat(chunks.getAllValues())
+                .extracting(List::size)
+                .containsExactly(2, 1);
+        assertThat(result.received()).isEqualTo(3);
+        assertThat(result.accepted()).isEqualTo(3);
+        assertThat(result.rejected()).isZero();
+        assertThat(result.errors()).isEmpty();
+        assertThat(meterRegistry.get("vpp.ingest.rows").tag("path", "stream").counter().count()).isEqualTo(3.0);
+        assertThat(meterRegistry.get("vpp.ingest.stage").tag("path", "stream").tag("stage", "write").timer().count())
+                .isEqualTo(2);
+    }
+
+    @Test
+    void ingest_WithNdjsonAndInvalidRecord_ShouldSkipAndReportIt() {
+        // Arrange
+        var body = """
+                {"name": "Cannington", "postcode": 6107, "wattCapacity": 13500.0}
+                {"postcode": 6057, "wattCapacity": 50500.0}
+                {"name": "Hay Street", "postcode": 6000, "wattCapacity": 23500.0}
+                """;
+
+        // Act
+        BatteryIngestResultDto result = ingestService.ingest(stream(body));
+
+        // Assert
+        assertThat(result.received()).isEqualTo(3);
+        assertThat(result.accepted()).isEqualTo(2);
+        assertThat(result.rejected()).isEqualTo(1);
+        assertThat(result.errors())
+                .singleElement()
+                .satisfies(error -> assertThat(error.getField()).isEqualTo("[1].name"));
+    }
+
+    @Test
+    void ingest_WithNullElement_ShouldRejectItAndKeepTheRest() {
+        // Arrange
+        var body = """
+                [
+                  {"name": "Cannington", "postcode": 6107, "wattCapacity": 13500.0},
+                  null
+                ]
+                """;
+
+        // Act
+        BatteryIngestResultDto result = ingestService.ingest(stream(body));
+
+        // Assert
+        verify(batteryService).registerChunk(anyList());
+        assertThat(result.received()).isEqualTo(2);
+        assertThat(result.accepted()).isEqualTo(1);
+        assertThat(result.rejected()).isEqualTo(1);
+        assertThat(result.errors())
+                .singleElement()
+                .satisfies(error -> assertThat(error.getField()).isEqualTo("[1]"));
+    }
+
+    @Test
+    void ingest_WithMalformedPayload_ShouldThrowBadRequest() {
+        // Arrange
+        var body = "[{\"name\": \"Cannington\", \"postcode\": \"not-a-number\"}]";
+
+        // Act & Assert
+        assertThatThrownBy(() -> ingestService.ingest(stream(body)))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    private static ByteArrayInputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -6,21 +6,35 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.virtualpowerplant.entity.Battery;
+import org.virtualpowerplant.event.BatteriesRegisteredEvent;
+import org.virtualpowerplant.exception.BadRequestException;
 import org.virtualpowerplant.mapper.BatteryMapper;
+import org.virtualpowerplant.model.BatteryAggregate;
+import org.virtualpowerplant.model.BatteryNameCursor;
+import org.virtualpowerplant.model.BatteryNamePage;
+import org.virtualpowerplant.model.BatteryNamePageRequest;
+import org.virtualpowerplant.model.BatteryRangeStatistics;
 import org.virtualpowerplant.model.BatteryRequestDto;
 import org.virtualpowerplant.model.BatteryResponseDto;
 import org.virtualpowerplant.model.BatterySearchCriteria;
 import org.virtualpowerplant.model.BatteryStatisticsDto;
+import org.virtualpowerplant.repository.BatteryJdbcRepository;
 import org.virtualpowerplant.repository.BatteryRepository;
 import org.virtualpowerplant.util.TestDataBuilder;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -30,9 +44,21 @@ class BatteryServiceTest {
     @Mock
     private BatteryRepository batteryRepository;
 
+    @Mock
+    private BatteryJdbcRepository batteryJdbcRepository;
+
     @Mock
     private BatteryMapper batteryMapper;
 
+    @Mock
+    private BatteryStatisticsSource batteryStatisticsSource;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private IngestMetrics ingestMetrics;
+
     @InjectMocks
     private BatteryService batteryService;
 
@@ -71,6 +97,7 @@ class BatteryServiceTest {
                     assertThat(response.wattCapacity()).isEqualTo(13500);
                 });
 
+        assertThat(battery.getTenantId()).isEqualTo(Battery.DEFAULT_TENANT);
         verify(batteryMapper).toEntity(requestDto);
         verify(batteryRepository).saveAll(anyList());
         verify(batteryMapper).toResponse(battery);
@@ -88,13 +115,32 @@ class BatteryServiceTest {
         assertThat(result).isEmpty();
     }
 
+    @Test
+    void registerBatteriesIfAbsent_WithExistingBattery_ShouldOnlyAnnounceInsertedOnes() {
+        // Arrange
+        var midlandRequest = TestDataBuilder.BatteryRequestBuilder.midland();
+        var midland = TestDataBuilder.BatteryBuilder.midland();
+        when(batteryMapper.toEntity(requestDto)).thenReturn(battery);
+        when(batteryMapper.toEntity(midlandRequest)).thenReturn(midland);
+        when(batteryJdbcRepository.insertMissing(List.of(battery, midland)))
+                .thenReturn(new BatteryJdbcRepository.InsertMissingResult(List.of(battery, midland), List.of(midland)));
+        when(batteryMapper.toResponse(any(Battery.class))).thenReturn(responseDto);
+
+        // Act
+        List<BatteryResponseDto> result = batteryService.registerBatteriesIfAbsent(List.of(requestDto, midlandRequest));
+
+        // Assert
+        assertThat(result).hasSize(2);
+        verify(eventPublisher).publishEvent(new BatteriesRegisteredEvent(List.of(midland)));
+    }
+
     @Test
     void getBatteryStatistics_WithValidCriteria_ShouldReturnStatistics() {
         // Arrange
         var criteria = TestDataBuilder.SearchCriteriaBuilder.defaultCriteria();
         var batteries = TestDataBuilder.BatteryBuilder.allBatteries();
 
-        when(batteryRepository.filter(criteria)).thenReturn(batteries);
+        stubStatistics(batteries);
 
         // Act
         BatteryStatisticsDto result = batteryService.getBatteryStatistics(criteria);
@@ -109,7 +155,7 @@ class BatteryServiceTest {
                     assertThat(stats.averageWattCapacity()).isEqualTo(TestDataBuilder.AVERAGE_CAPACITY);
                 });
 
-        verify(batteryRepository).filter(criteria);
+        verify(batteryStatisticsSource).aggregate(criteria);
     }
 
     @Test
@@ -120,7 +166,7 @@ class BatteryServiceTest {
                                             .endPostcode(2000)
                                             .build();
 
-        when(batteryRepository.filter(criteria)).thenReturn(Collections.emptyList());
+        stubStatistics(Collections.emptyList());
 
         // Act
         BatteryStatisticsDto result = batteryService.getBatteryStatistics(criteria);
@@ -134,7 +180,7 @@ class BatteryServiceTest {
                     assertThat(stats.averageWattCapacity()).isZero();
                 });
 
-        verify(batteryRepository).filter(criteria);
+        verify(batteryStatisticsSource).aggregate(criteria);
     }
 
 
@@ -151,7 +197,7 @@ class BatteryServiceTest {
                              .wattCapacity(150.0)
                              .build();
 
-        when(batteryRepository.filter(criteria)).thenReturn(List.of(batteryCannigton));
+        stubStatistics(List.of(batteryCannigton));
 
         // Act
         BatteryStatisticsDto result = batteryService.getBatteryStatistics(criteria);
@@ -178,7 +224,7 @@ class BatteryServiceTest {
                 Battery.builder().name("Midland").wattCapacity(999999.9).build()
         );
 
-        when(batteryRepository.filter(criteria)).thenReturn(batteries);
+        stubStatistics(batteries);
 
         // Act
         BatteryStatisticsDto result = batteryService.getBatteryStatistics(criteria);
@@ -192,4 +238,74 @@ class BatteryServiceTest {
                 });
     }
 
-}
\ No newline at end of file
+    @Test
+    void getBatteryStatistics_WithPageRequest_ShouldReturnPageAndFullRangeAggregates() {
+        // Arrange
+        var criteria = TestDataBuilder.SearchCriteriaBuilder.defaultCriteria();
+        var next = new BatteryNameCursor("midland", UUID.randomUUID());
+        var page = BatteryNamePageRequest.builder().limit(2).build();
+
+        when(batteryStatisticsSource.aggregate(criteria))
+                .thenReturn(new BatteryAggregate(3, TestDataBuilder.TOTAL_CAPACITY, TestDataBuilder.AVERAGE_CAPACITY));
+        when(batteryRepository.findNamePage(any(), isNull(), eq(2)))
+                .thenReturn(new BatteryNamePage(List.of("Cannington", "Midland"), next));
+
+        // Act
+        BatteryStatisticsDto result = batteryService.getBatteryStatistics(criteria, page);
+
+        // Assert
+        assertThat(result)
+                .satisfies(stats -> {
+                    assertThat(stats.batteryNames()).containsExactly("Cannington", "Midland");
+                    assertThat(stats.totalWattCapacity()).isEqualTo(TestDataBuilder.TOTAL_CAPACITY);
+                    assertThat(stats.averageWattCapacity()).isEqualTo(TestDataBuilder.AVERAGE_CAPACITY);
+                    assertThat(BatteryNameCursor.decode(stats.nextCursor())).isEqualTo(next);
+                });
+    }
+
+    @Test
+    void getBatteryStatistics_WithSeveralCriteria_ShouldReturnOneResultPerCriterionInOrder() {
+        // Arrange
+        var first = TestDataBuilder.SearchCriteriaBuilder.defaultCriteria();
+        var second = BatterySearchCriteria.builder().startPostcode(1000).endPostcode(2000).build();
+        when(batteryStatisticsSource.rangeStatistics(List.of(first, second)))
+                .thenReturn(List.of(
+                        new BatteryRangeStatistics(new BatteryAggregate(2, 64000.0, 32000.0), List.of("Cannington", "Midland")),
+                        BatteryRangeStatistics.EMPTY));
+
+        // Act
+        List<BatteryStatisticsDto> result = batteryService.getBatteryStatistics(List.of(first, second));
+
+        // Assert
+        assertThat(result).hasSize(2);
+        assertThat(result.get(0).batteryNames()).containsExactly("Cannington", "Midland");
+        assertThat(result.get(0).averageWattCapacity()).isEqualTo(32000.0);
+        assertThat(result.get(1).batteryNames()).isEmpty();
+        assertThat(result.get(1).totalWattCapacity()).isZero();
+    }
+
+    @Test
+    void getBatteryStatistics_WithTooManyCriteria_ShouldThrowBadRequest() {
+        // Arrange
+        var criteria = Collections.nCopies(BatteryService.MAX_BATCH_CRITERIA + 1,
+                TestDataBuilder.SearchCriteriaBuilder.defaultCriteria());
+
+        // Act & Assert
+        assertThatThrownBy(() -> batteryService.getBatteryStatistics(criteria))
+                .isInstanceOf(BadRequestException.class);
+        verify(batteryStatisticsSource, never()).rangeStatistics(anyList());
+    }
+
+    private void stubStatistics(List<Battery> batteries) {
+        if (batteries.isEmpty()) {
+            when(batteryStatisticsSource.aggregate(any())).thenReturn(BatteryAggregate.EMPTY);
+            return;
+        }
+        var total = batteries.stream().mapToDouble(Battery::getWattCapacity).sum();
+        when(batteryStatisticsSource.aggregate(any()))
+                .thenReturn(new BatteryAggregate(batteries.size(), total, total / batteries.size()));
+        when(batteryStatisticsSource.findNames(any()))
+                .thenReturn(batteries.stream().map(Battery::getName).toList());
+    }
+
+}
@@ -0,0 +1,126 @@
+package org.virtualpowerplant.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.virtualpowerplant.config.ReadReplicaProperties;
+import org.virtualpowerplant.config.StatisticsCacheProperties;
+import org.virtualpowerplant.event.BatteriesRegisteredEvent;
+import org.virtualpowerplant.model.BatteryNamePageRequest;
+import org.virtualpowerplant.model.BatterySearchCriteria;
+import org.virtualpowerplant.model.BatteryStatisticsDto;
+import org.virtualpowerplant.util.TestDataBuilder;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BatteryStatisticsCacheTest {
+
+    private static final BatteryNamePageRequest UNPAGED = BatteryNamePageRequest.builder().build();
+
+    private SimpleMeterRegistry meterRegistry;
+    private BatteryStatisticsCache cache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new BatteryStatisticsCache(new StatisticsCacheProperties(true, 100, Duration.ofMinutes(1)),
+                withoutReplicas(), meterRegistry);
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    void get_WithSameCriteria_ShouldLoadOnceAndCountHits() {
+        // Arrange
+        var criteria = TestDataBuilder.SearchCriteriaBuilder.defaultCriteria();
+
+        // Act
+        cache.get(criteria, UNPAGED, this::load);
+        cache.get(criteria, UNPAGED, this::load);
+
+        // Assert
+        assertThat(loads).hasValue(1);
+        assertThat(meterRegistry.get("cache.gets")
+                                .tag("cache", BatteryStatisticsCache.CACHE_NAME)
+                                .tag("result", "hit")
+                                .functionCounter()
+                                .count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void onBatteriesRegistered_ShouldOnlyInvalidateOverlappingRanges() {
+        // Arrange
+        var perth = criteria(6000, 6999);
+        var sydney = criteria(2000, 2999);
+        cache.get(perth, UNPAGED, this::load);
+        cache.get(sydney, UNPAGED, this::load);
+
+        // Act
+        cache.onBatteriesRegistered(new BatteriesRegisteredEvent(List.of(TestDataBuilder.BatteryBuilder.cannington())));
+        cache.get(perth, UNPAGED, this::load);
+        cache.get(sydney, UNPAGED, this::load);
+
+        // Assert
+        assertThat(loads).hasValue(3);
+    }
+
+    @Test
+    void get_WithHalfOpenPostcodeRange_ShouldShareEntryWithUnboundedRange() {
+        // Act
+        cache.get(criteria(6000, null), UNPAGED, this::load);
+        cache.get(criteria(null, null), UNPAGED, this::load);
+
+        // Assert
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void get_WhenDisabled_ShouldAlwaysLoad() {
+        // Arrange
+        cache = new BatteryStatisticsCache(new StatisticsCacheProperties(false, 100, Duration.ofMinutes(1)),
+                withoutReplicas(), meterRegistry);
+        var criteria = TestDataBuilder.SearchCriteriaBuilder.defaultCriteria();
+
+        // Act
+        cache.get(criteria, UNPAGED, this::load);
+        cache.get(criteria, UNPAGED, this::load);
+
+        // Assert
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void get_WithinReplicaLagOfAnInvalidation_ShouldNotKeepTheValue() {
+        // Arrange
+        var replica = new ReadReplicaProperties.Replica("jdbc:postgresql://replica/vpp", "vpp", "vpp", 10);
+        var replicas = new ReadReplicaProperties(List.of(replica), Duration.ofMinutes(1), Duration.ofSeconds(5));
+        cache = new BatteryStatisticsCache(new StatisticsCacheProperties(true, 100, Duration.ofMinutes(1)), replicas,
+                meterRegistry);
+        var perth = criteria(6000, 6999);
+        cache.onBatteriesRegistered(new BatteriesRegisteredEvent(List.of(TestDataBuilder.BatteryBuilder.cannington())));
+
+        // Act
+        cache.get(perth, UNPAGED, this::load);
+        cache.get(perth, UNPAGED, this::load);
+
+        // Assert
+        assertThat(loads).hasValue(2);
+    }
+
+    private BatteryStatisticsDto load() {
+        loads.incrementAndGet();
+        return BatteryStatisticsDto.builder().batteryNames(List.of()).build();
+    }
+
+    private static ReadReplicaProperties withoutReplicas() {
+        return new ReadReplicaProperties(List.of(), Duration.ofSeconds(5), Duration.ofSeconds(5));
+    }
+
+    private static BatterySearchCriteria criteria(Integer start, Integer end) {
+        return BatterySearchCriteria.builder().startPostcode(start).endPostcode(end).build();
+    }
+}
@@ -0,0 +1,112 @@
+package org.virtualpowerplant.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class CapacitySketchTest {
+
+    @Test
+    void quantile_ShouldBeWithinRelativeAccuracyOfExactValue() {
+        // Arrange
+        var random = new SplittableRandom(7);
+        var values = new double[10_000];
+        var sketch = new CapacitySketch();
+        for (int i = 0; i < values.length; i++) {
+            values[i] = random.nextDouble(500, 100_000);
+            sketch.add(values[i]);
+        }
+        Arrays.sort(values);
+
+        // Act & Assert
+        for (double quantile : new double[]{0, 0.1, 0.5, 0.9, 0.99, 1}) {
+            var exact = values[(int) Math.floor(quantile * (values.length - 1))];
+            assertThat(sketch.quantile(quantile))
+                    .as("quantile %s", quantile)
+                    .isCloseTo(exact, within(exact * CapacitySketch.RELATIVE_ACCURACY));
+        }
+        assertThat(sketch.min()).isEqualTo(values[0]);
+        assertThat(sketch.max()).isEqualTo(values[values.length - 1]);
+    }
+
+    @Test
+    void merge_ShouldMatchSketchOfAllValues() {
+        // Arrange
+        var low = new CapacitySketch();
+        var high = new CapacitySketch();
+        var all = new CapacitySketch();
+        for (int i = 1; i <= 1000; i++) {
+            (i % 2 == 0 ? low : high).add(i * 10.0);
+            all.add(i * 10.0);
+        }
+
+        // Act
+        var merged = new CapacitySketch();
+        merged.merge(low);
+        merged.merge(high);
+
+        // Assert
+        assertThat(merged.count()).isEqualTo(all.count());
+        assertThat(merged.quantile(0.5)).isEqualTo(all.quantile(0.5));
+        assertThat(merged.histogram(10)).containsExactly(all.histogram(10));
+    }
+
+    @Test
+    void restrict_ShouldKeepOnlyValuesWithinBounds() {
+        // Arrange
+        var sketch = new CapacitySketch();
+        sketch.add(500);
+        sketch.add(2_000);
+        sketch.add(8_000);
+
+        // Act
+        var restricted = sketch.restrict(1_000.0, null);
+
+        // Assert
+        assertThat(restricted.count()).isEqualTo(2);
+        assertThat(restricted.min()).isCloseTo(2_000, within(20.0));
+        assertThat(restricted.max()).isEqualTo(8_000);
+    }
+
+    @Test
+    void remove_ShouldUndoAddAndNarrowExtremes() {
+        // Arrange
+        var sketch = new CapacitySketch();
+        sketch.add(500);
+        sketch.add(2_000);
+        sketch.add(8_000);
+
+        // Act
+        var removedMax = sketch.remove(8_000);
+        var removedUnknown = sketch.remove(50_000);
+
+        // Assert
+        assertThat(removedMax).isTrue();
+        assertThat(removedUnknown).isFalse();
+        assertThat(sketch.count()).isEqualTo(2);
+        assertThat(sketch.min()).isEqualTo(500);
+        assertThat(sketch.max()).isCloseTo(2_000, within(20.0));
+        assertThat(sketch.quantile(1)).isCloseTo(2_000, within(20.0));
+    }
+
+    @Test
+    void histogram_ShouldCountEveryValueOnce() {
+        // Arrange
+        var sketch = new CapacitySketch();
+        for (int i = 0; i < 100; i++) {
+            sketch.add(1_000 + i * 100);
+        }
+        sketch.add(0.5);
+
+        // Act
+        var histogram = sketch.histogram(5);
+
+        // Assert
+        assertThat(Arrays.stream(histogram).sum()).isEqualTo(101);
+        assertThat(histogram[0]).isGreaterThanOrEqualTo(1);
+    }
+}
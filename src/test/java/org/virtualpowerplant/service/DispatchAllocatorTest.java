@@ -0,0 +1,61 @@
+package org.virtualpowerplant.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DispatchAllocatorTest {
+
+    @Test
+    void allocate_ShouldFillHighestStateOfChargeFirst() {
+        // Arrange
+        var allocator = new DispatchAllocator(4);
+        allocator.add(1, 1, 1_000.0, 40.0);
+        allocator.add(2, 2, 2_000.0, 95.0);
+        allocator.add(3, 3, 1_500.0, 70.5);
+        allocator.add(4, 4, 5_000.0, 12.0);
+
+        // Act
+        var allocated = allocator.allocate(3_000.0);
+
+        // Assert
+        assertThat(allocated).isEqualTo(3_000.0);
+        assertThat(allocator.setpoint(1)).isEqualTo(2_000.0);
+        assertThat(allocator.setpoint(2)).isEqualTo(1_000.0);
+        assertThat(allocator.setpoint(0)).isZero();
+        assertThat(allocator.setpoint(3)).isZero();
+    }
+
+    @Test
+    void allocate_WhenTargetExceedsCapacity_ShouldReturnShortfall() {
+        // Arrange
+        var allocator = new DispatchAllocator(2);
+        allocator.add(1, 1, 1_000.0, 100.0);
+        allocator.add(2, 2, 500.0, 0.0);
+
+        // Act
+        var allocated = allocator.allocate(10_000.0);
+
+        // Assert
+        assertThat(allocated).isEqualTo(1_500.0);
+        assertThat(allocator.setpoint(0)).isEqualTo(1_000.0);
+        assertThat(allocator.setpoint(1)).isEqualTo(500.0);
+    }
+
+    @Test
+    void allocate_CalledAgain_ShouldDiscardPreviousSetpoints() {
+        // Arrange
+        var allocator = new DispatchAllocator(2);
+        allocator.add(1, 1, 1_000.0, 90.0);
+        allocator.add(2, 2, 1_000.0, 80.0);
+        allocator.allocate(2_000.0);
+
+        // Act
+        var allocated = allocator.allocate(500.0);
+
+        // Assert
+        assertThat(allocated).isEqualTo(500.0);
+        assertThat(allocator.setpoint(0)).isEqualTo(500.0);
+        assertThat(allocator.setpoint(1)).isZero();
+    }
+}
@@ -0,0 +1,89 @@
+package org.virtualpowerplant.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.virtualpowerplant.config.DispatchProperties;
+import org.virtualpowerplant.config.StartupProperties;
+import org.virtualpowerplant.entity.Battery;
+import org.virtualpowerplant.event.BatteriesRegisteredEvent;
+import org.virtualpowerplant.exception.BadRequestException;
+import org.virtualpowerplant.model.DispatchAllocationDto;
+import org.virtualpowerplant.model.DispatchRequestDto;
+import org.virtualpowerplant.model.DispatchResultDto;
+import org.virtualpowerplant.repository.BatteryJdbcRepository;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+@ExtendWith(MockitoExtension.class)
+class DispatchServiceTest {
+
+    @Mock
+    private BatteryJdbcRepository batteryJdbcRepository;
+
+    private FleetAggregateEngine engine;
+    private DispatchService dispatchService;
+
+    @BeforeEach
+    void setUp() {
+        engine = new FleetAggregateEngine(batteryJdbcRepository, new StartupProperties(true));
+        dispatchService = new DispatchService(engine, new DispatchProperties(10));
+    }
+
+    @Test
+    void dispatch_ShouldUseUsableEnergyAboveReserveOverTheWindow() {
+        // Arrange
+        var full = register(6000, 10_000.0, 90.0);
+        var half = register(6500, 10_000.0, 50.0);
+        register(6600, 10_000.0, 5.0);
+        register(7000, 10_000.0, 100.0);
+        var request = DispatchRequestDto.builder()
+                                        .targetWatts(40_000.0)
+                                        .startPostcode(6000)
+                                        .endPostcode(6999)
+                                        .durationMinutes(15)
+                                        .build();
+
+        // Act
+        DispatchResultDto result = dispatchService.dispatch(request);
+
+        // Assert
+        assertThat(result.eligibleBatteryCount()).isEqualTo(2);
+        assertThat(result.allocatedWatts()).isEqualTo(40_000.0);
+        assertThat(result.shortfallWatts()).isZero();
+        assertThat(result.allocations())
+                .extracting(DispatchAllocationDto::batteryId, DispatchAllocationDto::setpointWatts)
+                .containsExactlyInAnyOrder(tuple(full, 32_000.0), tuple(half, 8_000.0));
+    }
+
+    @Test
+    void dispatch_WithInvertedRange_ShouldThrowBadRequestException() {
+        // Arrange
+        var request = DispatchRequestDto.builder()
+                                        .targetWatts(1_000.0)
+                                        .startPostcode(7000)
+                                        .endPostcode(6000)
+                                        .durationMinutes(15)
+                                        .build();
+
+        // Act & Assert
+        assertThatThrownBy(() -> dispatchService.dispatch(request))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    private UUID register(int postcode, double wattCapacity, double stateOfCharge) {
+        var battery = Battery.builder().name("Battery " + postcode).postcode(postcode).wattCapacity(wattCapacity).build();
+        battery.setId(UUID.randomUUID());
+        engine.onBatteriesRegistered(new BatteriesRegisteredEvent(List.of(battery)));
+        engine.record(battery.getId().getMostSignificantBits(), battery.getId().getLeastSignificantBits(), 1,
+                stateOfCharge, 0);
+        return battery.getId();
+    }
+}
@@ -0,0 +1,195 @@
+package org.virtualpowerplant.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.virtualpowerplant.config.StartupProperties;
+import org.virtualpowerplant.entity.Battery;
+import org.virtualpowerplant.event.BatteriesModifiedEvent;
+import org.virtualpowerplant.event.BatteriesRegisteredEvent;
+import org.virtualpowerplant.event.TelemetryRecordedEvent;
+import org.virtualpowerplant.model.FleetCapacityDto;
+import org.virtualpowerplant.model.TelemetryBuffer;
+import org.virtualpowerplant.repository.BatteryJdbcRepository;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class FleetAggregateEngineTest {
+
+    @Mock
+    private BatteryJdbcRepository batteryJdbcRepository;
+
+    private FleetAggregateEngine engine;
+    private Battery perth;
+    private Battery midland;
+    private Battery cannington;
+
+    @BeforeEach
+    void setUp() {
+        engine = new FleetAggregateEngine(batteryJdbcRepository, new StartupProperties(true));
+        perth = battery(6000, 10_000.0);
+        midland = battery(6057, 20_000.0);
+        cannington = battery(6107, 5_000.0);
+        engine.onBatteriesRegistered(new BatteriesRegisteredEvent(List.of(perth, midland, cannington)));
+    }
+
+    @Test
+    void capacity_AfterTelemetry_ShouldSumAvailableEnergyAndOutputInRange() {
+        // Arrange
+        var readings = new TelemetryBuffer(4, 0);
+        add(readings, perth, 1, 50.0, 2_000.0);
+        add(readings, midland, 1, 25.0, -1_000.0);
+        add(readings, cannington, 1, 100.0, 500.0);
+
+        // Act
+        engine.onTelemetryRecorded(new TelemetryRecordedEvent(readings));
+        FleetCapacityDto result = engine.capacity(6000, 6100);
+
+        // Assert
+        assertThat(result.batteryCount()).isEqualTo(2);
+        assertThat(result.reportingBatteryCount()).isEqualTo(2);
+        assertThat(result.registeredCapacityWattHours()).isEqualTo(30_000.0);
+        assertThat(result.availableEnergyWattHours()).isEqualTo(10_000.0);
+        assertThat(result.currentOutputWatts()).isEqualTo(1_000.0);
+        assertThat(result.averageStateOfCharge()).isEqualTo(37.5);
+    }
+
+    @Test
+    void afterSingletonsInstantiated_WithoutPreload_ShouldNotReadDatabase() {
+        // Arrange
+        var unloaded = new FleetAggregateEngine(batteryJdbcRepository, new StartupProperties(false));
+
+        // Act
+        unloaded.afterSingletonsInstantiated();
+
+        // Assert
+        assertThat(unloaded.capacity(null, null).batteryCount()).isZero();
+        verifyNoInteractions(batteryJdbcRepository);
+    }
+
+    @Test
+    void record_WithNewerAndOutOfOrderReadings_ShouldOnlyApplyTheLatest() {
+        // Arrange
+        var first = new TelemetryBuffer(4, 0);
+        add(first, perth, 10, 50.0, 2_000.0);
+        add(first, perth, 20, 80.0, 0.0);
+        add(first, perth, 15, 10.0, 9_000.0);
+
+        // Act
+        engine.onTelemetryRecorded(new TelemetryRecordedEvent(first));
+        FleetCapacityDto result = engine.capacity(6000, 6000);
+
+        // Assert
+        assertThat(result.reportingBatteryCount()).isEqualTo(1);
+        assertThat(result.availableEnergyWattHours()).isEqualTo(8_000.0);
+        assertThat(result.currentOutputWatts()).isZero();
+        assertThat(result.averageStateOfCharge()).isEqualTo(80.0);
+    }
+
+    @Test
+    void record_ForUnknownBattery_ShouldBeIgnored() {
+        // Arrange
+        var unknown = UUID.randomUUID();
+
+        // Act
+        var applied = engine.record(unknown.getMostSignificantBits(), unknown.getLeastSignificantBits(), 1, 50.0, 1.0);
+
+        // Assert
+        assertThat(applied).isFalse();
+        assertThat(engine.capacity(null, null).reportingBatteryCount()).isZero();
+    }
+
+    @Test
+    void record_FromConcurrentWriters_ShouldKeepTotalsConsistent() throws Exception {
+        // Arrange
+        var batteries = IntStream.range(0, 10_000).mapToObj(i -> battery(7000 + i % 50, 1_000.0)).toList();
+        engine.onBatteriesRegistered(new BatteriesRegisteredEvent(batteries));
+
+        // Act
+        try (var executor = Executors.newFixedThreadPool(8)) {
+            for (int thread = 0; thread < 8; thread++) {
+                var timestamp = thread + 1;
+                executor.submit(() -> {
+                    for (Battery battery : batteries) {
+                        var id = battery.getId();
+                        engine.record(id.getMostSignificantBits(), id.getLeastSignificantBits(), timestamp,
+                                timestamp * 10.0, timestamp);
+                    }
+                });
+            }
+        }
+
+        // Assert
+        FleetCapacityDto result = engine.capacity(7000, 7049);
+        assertThat(result.batteryCount()).isEqualTo(10_000);
+        assertThat(result.reportingBatteryCount()).isEqualTo(10_000);
+        assertThat(result.averageStateOfCharge()).isCloseTo(80.0, within(1e-6));
+        assertThat(result.availableEnergyWattHours()).isCloseTo(8_000_000.0, within(1e-3));
+        assertThat(result.currentOutputWatts()).isCloseTo(80_000.0, within(1e-3));
+    }
+
+    @Test
+    void onBatteriesModified_WithNewCapacity_ShouldRescaleRegisteredCapacityAndEnergy() {
+        // Arrange
+        var readings = new TelemetryBuffer(1, 0);
+        add(readings, perth, 1, 50.0, 2_000.0);
+        engine.onTelemetryRecorded(new TelemetryRecordedEvent(readings));
+        var derated = battery(6000, 8_000.0);
+        derated.setId(perth.getId());
+
+        // Act
+        engine.onBatteriesModified(new BatteriesModifiedEvent(List.of(perth), List.of(derated)));
+        FleetCapacityDto result = engine.capacity(6000, 6000);
+
+        // Assert
+        assertThat(result.batteryCount()).isEqualTo(1);
+        assertThat(result.registeredCapacityWattHours()).isEqualTo(8_000.0);
+        assertThat(result.availableEnergyWattHours()).isEqualTo(4_000.0);
+    }
+
+    @Test
+    void onBatteriesModified_WhenDecommissioned_ShouldRemoveBatteryAndIgnoreLaterReadings() {
+        // Arrange
+        var readings = new TelemetryBuffer(2, 0);
+        add(readings, perth, 1, 50.0, 2_000.0);
+        add(readings, midland, 1, 25.0, -1_000.0);
+        engine.onTelemetryRecorded(new TelemetryRecordedEvent(readings));
+
+        // Act
+        engine.onBatteriesModified(new BatteriesModifiedEvent(List.of(perth), List.of()));
+        var id = perth.getId();
+        var applied = engine.record(id.getMostSignificantBits(), id.getLeastSignificantBits(), 2, 90.0, 1.0);
+        FleetCapacityDto result = engine.capacity(6000, 6100);
+
+        // Assert
+        assertThat(applied).isFalse();
+        assertThat(result.batteryCount()).isEqualTo(1);
+        assertThat(result.reportingBatteryCount()).isEqualTo(1);
+        assertThat(result.registeredCapacityWattHours()).isEqualTo(20_000.0);
+        assertThat(result.availableEnergyWattHours()).isEqualTo(5_000.0);
+        assertThat(result.currentOutputWatts()).isEqualTo(-1_000.0);
+        assertThat(result.averageStateOfCharge()).isEqualTo(25.0);
+    }
+
+    private static Battery battery(int postcode, double wattCapacity) {
+        var battery = Battery.builder().name("Battery " + postcode).postcode(postcode).wattCapacity(wattCapacity).build();
+        battery.setId(UUID.randomUUID());
+        return battery;
+    }
+
+    private static void add(TelemetryBuffer buffer, Battery battery, long recordedAtMicros, double stateOfCharge,
+                            double powerWatts) {
+        var id = battery.getId();
+        buffer.add(id.getMostSignificantBits(), id.getLeastSignificantBits(), recordedAtMicros, stateOfCharge, powerWatts);
+    }
+}
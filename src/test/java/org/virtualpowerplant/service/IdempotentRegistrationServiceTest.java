@@ -0,0 +1,113 @@
+package org.virtualpowerplant.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.virtualpowerplant.config.IdempotencyProperties;
+import org.virtualpowerplant.entity.Battery;
+import org.virtualpowerplant.exception.BadRequestException;
+import org.virtualpowerplant.model.BatteryResponseDto;
+import org.virtualpowerplant.repository.IdempotencyRepository;
+import org.virtualpowerplant.util.TestDataBuilder;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotentRegistrationServiceTest {
+    private static final String KEY = "gateway-42-batch-7";
+    private static final String TENANT = Battery.DEFAULT_TENANT;
+
+    @Mock
+    private IdempotencyRepository idempotencyRepository;
+
+    @Mock
+    private BatteryService batteryService;
+
+    private IdempotentRegistrationService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new IdempotentRegistrationService(idempotencyRepository, batteryService, new ObjectMapper(),
+                new IdempotencyProperties(Duration.ofHours(24), Duration.ofMinutes(1)));
+    }
+
+    @Test
+    void register_WithNewKey_ShouldRegisterAndStoreResponse() {
+        // Arrange
+        var requests = List.of(TestDataBuilder.BatteryRequestBuilder.cannington());
+        var responses = List.of(TestDataBuilder.BatteryResponseBuilder.cannington());
+        when(idempotencyRepository.claim(eq(TENANT), eq(KEY), anyString())).thenReturn(true);
+        when(batteryService.registerBatteriesIfAbsent(requests)).thenReturn(responses);
+
+        // Act
+        List<BatteryResponseDto> result = service.register(KEY, requests);
+
+        // Assert
+        assertThat(result).isEqualTo(responses);
+        var stored = ArgumentCaptor.forClass(String.class);
+        verify(idempotencyRepository).complete(eq(TENANT), eq(KEY), stored.capture());
+        assertThat(stored.getValue()).contains("Cannington");
+        verify(idempotencyRepository, never()).purgeOlderThan(any());
+    }
+
+    @Test
+    void register_WithReplayedKeyAndSameBody_ShouldReturnStoredResponse() {
+        // Arrange
+        var requests = List.of(TestDataBuilder.BatteryRequestBuilder.cannington());
+        var responses = List.of(TestDataBuilder.BatteryResponseBuilder.cannington());
+        var hash = ArgumentCaptor.forClass(String.class);
+        when(idempotencyRepository.claim(eq(TENANT), eq(KEY), hash.capture())).thenReturn(true, false);
+        when(batteryService.registerBatteriesIfAbsent(requests)).thenReturn(responses);
+        var stored = ArgumentCaptor.forClass(String.class);
+        service.register(KEY, requests);
+        verify(idempotencyRepository).complete(eq(TENANT), eq(KEY), stored.capture());
+        when(idempotencyRepository.find(TENANT, KEY))
+                .thenReturn(Optional.of(new IdempotencyRepository.StoredRequest(hash.getValue(), stored.getValue())));
+
+        // Act
+        List<BatteryResponseDto> result = service.register(KEY, requests);
+
+        // Assert
+        assertThat(result).isEqualTo(responses);
+        verify(batteryService).registerBatteriesIfAbsent(any());
+    }
+
+    @Test
+    void register_WithReplayedKeyAndDifferentBody_ShouldThrowUnprocessableEntity() {
+        // Arrange
+        when(idempotencyRepository.claim(eq(TENANT), eq(KEY), anyString())).thenReturn(false);
+        when(idempotencyRepository.find(TENANT, KEY))
+                .thenReturn(Optional.of(new IdempotencyRepository.StoredRequest("other", "[]")));
+
+        // Act & Assert
+        assertThatThrownBy(() -> service.register(KEY, List.of(TestDataBuilder.BatteryRequestBuilder.midland())))
+                .isInstanceOfSatisfying(BadRequestException.class,
+                        e -> assertThat(e.getStatus()).isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY));
+        verify(batteryService, never()).registerBatteriesIfAbsent(any());
+    }
+
+    @Test
+    void purgeExpiredKeys_ShouldDeleteKeysOlderThanRetention() {
+        // Act
+        service.purgeExpiredKeys();
+
+        // Assert
+        verify(idempotencyRepository).purgeOlderThan(Duration.ofHours(24));
+    }
+}
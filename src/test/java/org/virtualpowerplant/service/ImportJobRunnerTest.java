@@ -0,0 +1,176 @@
+package org.virtualpowerplant.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.util.unit.DataSize;
+import org.virtualpowerplant.config.ImportProperties;
+import org.virtualpowerplant.entity.Battery;
+import org.virtualpowerplant.entity.ImportJob;
+import org.virtualpowerplant.mapper.BatteryMapper;
+import org.virtualpowerplant.repository.ImportJobChunkRepository;
+import org.virtualpowerplant.repository.ImportJobRepository;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ImportJobRunnerTest {
+    private static final String UPLOAD = """
+            {"name": "Cannington", "postcode": 6107, "wattCapacity": 13500.0}
+            {"name": "Midland", "postcode": 6057, "wattCapacity": 50500.0}
+            {"postcode": 6000, "wattCapacity": 23500.0}
+            {"name": "Hay Street", "postcode": 6000, "wattCapacity": 23500.0}
+            {"name": "Bentley", "postcode": 6102, "wattCapacity": 85000.0}
+            {"name": "Carmel", "postcode": 6076, "wattCapacity": 36000.0}
+            """;
+
+    @Mock
+    private ImportChunkWriter importChunkWriter;
+
+    @Mock
+    private ImportJobRepository importJobRepository;
+
+    @Mock
+    private ImportJobChunkRepository importJobChunkRepository;
+
+    @TempDir
+    private Path directory;
+
+    private ImportJobRunner runner;
+
+    @BeforeEach
+    void setUp() {
+        runner = new ImportJobRunner(
+                new ObjectMapper(),
+                Validation.buildDefaultValidatorFactory().getValidator(),
+                BatteryMapper.INSTANCE,
+                importChunkWriter,
+                importJobRepository,
+                importJobChunkRepository,
+                new ImportProperties(directory, DataSize.ofMegabytes(1), 2, 2, 1, Duration.ofMinutes(1),
+                        Duration.ofMinutes(1), "node-a")
+        );
+    }
+
+    @AfterEach
+    void tearDown() {
+        runner.destroy();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void run_WithCommittedChunk_ShouldSkipItAndComplete() throws IOException {
+        // Arrange
+        var job = job(UPLOAD);
+        when(importJobRepository.findById(job.getId())).thenReturn(Optional.of(job));
+        when(importJobChunkRepository.findCommittedChunkIndexes(job.getId())).thenReturn(List.of(0));
+
+        // Act
+        runner.run(job.getId());
+
+        // Assert
+        ArgumentCaptor<List<Battery>> second = ArgumentCaptor.forClass(List.class);
+        ArgumentCaptor<List<Battery>> third = ArgumentCaptor.forClass(List.class);
+        verify(importChunkWriter, never()).write(eq(job.getId()), eq(0), anyList());
+        verify(importChunkWriter).write(eq(job.getId()), eq(1), second.capture());
+        verify(importChunkWriter).write(eq(job.getId()), eq(2), third.capture());
+        assertThat(second.getValue()).extracting(Battery::getName).containsExactly("Hay Street", "Bentley");
+        assertThat(third.getValue()).extracting(Battery::getName).containsExactly("Carmel");
+        verify(importJobRepository).updateParseProgress(job.getId(), 6, 5, 1);
+        verify(importJobRepository).updateStatus(job.getId(), ImportJob.Status.COMPLETED, null);
+        verify(importJobChunkRepository).deleteByJobId(job.getId());
+        assertThat(Path.of(job.getSpoolFile())).doesNotExist();
+    }
+
+    @Test
+    void run_WhenChunkWriteFails_ShouldStopAndFailJob() throws IOException {
+        // Arrange
+        var job = job(UPLOAD);
+        when(importJobRepository.findById(job.getId())).thenReturn(Optional.of(job));
+        when(importJobChunkRepository.findCommittedChunkIndexes(job.getId())).thenReturn(List.of());
+        doThrow(new IllegalStateException("connection reset"))
+                .when(importChunkWriter).write(eq(job.getId()), anyInt(), anyList());
+
+        // Act
+        runner.run(job.getId());
+
+        // Assert
+        verify(importJobRepository).updateStatus(eq(job.getId()), eq(ImportJob.Status.FAILED), contains("connection reset"));
+        verify(importJobRepository, never()).updateStatus(job.getId(), ImportJob.Status.COMPLETED, null);
+    }
+
+    @Test
+    void run_WithMalformedUpload_ShouldFailJobAfterWritingEarlierChunks() throws IOException {
+        // Arrange
+        var job = job("""
+                {"name": "Cannington", "postcode": 6107, "wattCapacity": 13500.0}
+                {"name": "Midland", "postcode": 6057, "wattCapacity": 50500.0}
+                {"name": "Hay Street", "postcode": "not-a-number"}
+                """);
+        when(importJobRepository.findById(job.getId())).thenReturn(Optional.of(job));
+        when(importJobChunkRepository.findCommittedChunkIndexes(job.getId())).thenReturn(List.of());
+
+        // Act
+        runner.run(job.getId());
+
+        // Assert
+        verify(importChunkWriter).write(eq(job.getId()), eq(0), anyList());
+        verify(importJobRepository).updateStatus(job.getId(), ImportJob.Status.FAILED,
+                "Malformed battery payload at record 2; 0 batteries from committed chunks were kept");
+    }
+
+    @Test
+    void resumeUnfinishedJobs_ShouldOnlyTouchJobsOfThisInstance() throws IOException {
+        // Arrange
+        var job = job(UPLOAD);
+        var lost = new ImportJob();
+        lost.setId(UUID.randomUUID());
+        lost.setSpoolFile(directory.resolve("gone.json").toString());
+        when(importJobRepository.findByOwnerAndStatusIn("node-a",
+                List.of(ImportJob.Status.QUEUED, ImportJob.Status.RUNNING))).thenReturn(List.of(job, lost));
+        when(importJobRepository.findById(job.getId())).thenReturn(Optional.of(job));
+        when(importJobChunkRepository.findCommittedChunkIndexes(job.getId())).thenReturn(List.of());
+
+        // Act
+        runner.resumeUnfinishedJobs();
+
+        // Assert
+        verify(importJobRepository).updateStatus(lost.getId(), ImportJob.Status.FAILED,
+                "Upload was lost before the import completed");
+        verify(importJobRepository, timeout(5000)).updateStatus(job.getId(), ImportJob.Status.COMPLETED, null);
+    }
+
+    private ImportJob job(String upload) throws IOException {
+        var spoolFile = Files.writeString(directory.resolve("upload.json"), upload);
+        var job = new ImportJob();
+        job.setId(UUID.randomUUID());
+        job.setStatus(ImportJob.Status.QUEUED);
+        job.setSpoolFile(spoolFile.toString());
+        job.setChunkSize(2);
+        return job;
+    }
+}
@@ -0,0 +1,84 @@
+package org.virtualpowerplant.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RegionIndexTest {
+
+    private RegionIndex index;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        try (var reader = new InputStreamReader(
+                getClass().getResourceAsStream("/regions/test-regions.csv"), StandardCharsets.UTF_8)) {
+            index = RegionIndex.load(reader, 5);
+        }
+    }
+
+    @Test
+    void postcodesForFeeder_ShouldReturnDistinctSortedPostcodes() {
+        // Act & Assert
+        assertThat(index.postcodesForFeeder("F12")).containsExactly(6057, 6076);
+        assertThat(index.postcodesForFeeder("F14")).containsExactly(6076);
+        assertThat(index.postcodesForFeeder("missing")).isEmpty();
+    }
+
+    @Test
+    void postcodesForSubstation_ShouldReturnMembers() {
+        // Act & Assert
+        assertThat(index.postcodesForSubstation("Cannington")).containsExactly(6102, 6107);
+    }
+
+    @Test
+    void postcodesWithin_ShouldOnlyIncludePointsInsideTheRadius() {
+        // Act & Assert
+        assertThat(index.postcodesWithin(-31.9523, 115.8613, 8)).containsExactly(6000, 6102);
+        assertThat(index.postcodesWithin(-31.9523, 115.8613, 25)).containsExactly(6000, 6057, 6076, 6102, 6107);
+        assertThat(index.postcodesWithin(-31.9523, 115.8613, 1000)).doesNotContain(2084);
+    }
+
+    @Test
+    void postcodesWithin_ShouldMatchABruteForceScan() {
+        // Arrange
+        var random = new SplittableRandom(7);
+        var builder = new RegionIndex.Builder(5_000);
+        var latitudes = new double[5_000];
+        var longitudes = new double[5_000];
+        for (int i = 0; i < 5_000; i++) {
+            latitudes[i] = random.nextDouble(-35, -30);
+            longitudes[i] = random.nextDouble(114, 118);
+            builder.add(i, "F" + i % 40, "S" + i % 7, latitudes[i], longitudes[i]);
+        }
+        var grid = builder.build(2);
+
+        // Act
+        var result = grid.postcodesWithin(-32.5, 116.0, 40);
+
+        // Assert
+        var expected = IntStream.range(0, 5_000)
+                .filter(i -> RegionIndex.distanceKm(-32.5, 116.0, latitudes[i], longitudes[i]) <= 40)
+                .toArray();
+        assertThat(result).containsExactly(expected);
+    }
+
+    @Test
+    void load_WithMalformedLine_ShouldReportLineNumber() {
+        // Arrange
+        var csv = "postcode,feeder,substation,latitude,longitude\n6000,F01,Perth CBD,-31.95\n";
+
+        // Act & Assert
+        assertThatThrownBy(() -> RegionIndex.load(new StringReader(csv), 5))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Line 2");
+    }
+}
@@ -0,0 +1,154 @@
+package org.virtualpowerplant.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.virtualpowerplant.config.TelemetryProperties;
+import org.virtualpowerplant.event.TelemetryRecordedEvent;
+import org.virtualpowerplant.exception.BadRequestException;
+import org.virtualpowerplant.exception.Error;
+import org.virtualpowerplant.model.TelemetryBuffer;
+import org.virtualpowerplant.model.TelemetryIngestResultDto;
+import org.virtualpowerplant.repository.TelemetryRepository;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class TelemetryIngestServiceTest {
+    private static final UUID BATTERY_ID = UUID.fromString("0192a5c8-7b3e-7d4f-9a1b-2c3d4e5f6a7b");
+
+    @Mock
+    private TelemetryRepository telemetryRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private TelemetryIngestService ingestService;
+    private List<List<String>> copiedChunks;
+
+    @BeforeEach
+    void setUp() {
+        ingestService = new TelemetryIngestService(
+                new ObjectMapper(),
+                telemetryRepository,
+                new TelemetryProperties(2, Duration.ofDays(7), Duration.ofMinutes(5), 10),
+                eventPublisher
+        );
+        copiedChunks = new ArrayList<>();
+        // The buffer is reused between flushes, so snapshot it at call time.
+        lenient().when(telemetryRepository.copy(any())).thenAnswer(invocation -> {
+            TelemetryBuffer buffer = invocation.getArgument(0);
+            var rows = new ArrayList<String>();
+            for (int i = 0; i < buffer.size(); i++) {
+                rows.add(new UUID(buffer.batteryIdMsb(i), buffer.batteryIdLsb(i)) + "|"
+                        + buffer.recordedAtMicros(i) + "|" + buffer.stateOfCharge(i) + "|" + buffer.powerWatts(i));
+            }
+            copiedChunks.add(rows);
+            return (long) buffer.size();
+        });
+    }
+
+    @Test
+    void ingest_WithJsonArray_ShouldCopyFixedSizeChunks() {
+        // Arrange
+        var now = Instant.now().minusSeconds(60);
+        var body = "[" + reading(now.toEpochMilli(), "80.0", "-2500.0") + ","
+                + reading(now.toEpochMilli() + 1000, "80.5", "-2400.0") + ","
+                + "{\"batteryId\": \"" + BATTERY_ID + "\", \"timestamp\": \"" + now + "\","
+                + " \"stateOfCharge\": 81, \"powerWatts\": 0, \"firmware\": {\"version\": 3}}]";
+
+        // Act
+        TelemetryIngestResultDto result = ingestService.ingest(stream(body));
+
+        // Assert
+        assertThat(copiedChunks).extracting(List::size).containsExactly(2, 1);
+        assertThat(copiedChunks.getFirst().getFirst())
+                .isEqualTo(BATTERY_ID + "|" + now.toEpochMilli() * 1000 + "|80.0|-2500.0");
+        assertThat(copiedChunks.get(1).getFirst())
+                .isEqualTo(BATTERY_ID + "|" + (now.getEpochSecond() * 1_000_000 + now.getNano() / 1000) + "|81.0|0.0");
+        assertThat(result.received()).isEqualTo(3);
+        assertThat(result.accepted()).isEqualTo(3);
+        assertThat(result.rejected()).isZero();
+        verify(eventPublisher, times(2)).publishEvent(any(TelemetryRecordedEvent.class));
+    }
+
+    @Test
+    void ingest_WithNdjsonAndInvalidReadings_ShouldSkipAndReportThem() {
+        // Arrange
+        var now = Instant.now().toEpochMilli();
+        var body = reading(now, "50.0", "1000.0") + "\n"
+                + reading(now, "120.0", "1000.0") + "\n"
+                + "{\"batteryId\": \"not-a-uuid\", \"timestamp\": " + now + ", \"stateOfCharge\": 50, \"powerWatts\": 1}\n"
+                + reading(now - Duration.ofDays(30).toMillis(), "50.0", "1000.0") + "\n";
+
+        // Act
+        TelemetryIngestResultDto result = ingestService.ingest(stream(body));
+
+        // Assert
+        assertThat(result.received()).isEqualTo(4);
+        assertThat(result.accepted()).isEqualTo(1);
+        assertThat(result.rejected()).isEqualTo(3);
+        assertThat(result.errors())
+                .extracting(Error.ErrorDetail::getField)
+                .containsExactly("[1].stateOfCharge", "[2].batteryId", "[3].timestamp");
+    }
+
+    @Test
+    void ingest_WithNestedValues_ShouldRejectOnlyThoseReadings() {
+        // Arrange
+        var now = Instant.now().toEpochMilli();
+        var body = "[{\"batteryId\": {\"timestamp\": 1, \"id\": [1, 2]}, \"timestamp\": " + now
+                + ", \"stateOfCharge\": 50, \"powerWatts\": 1},"
+                + "{\"batteryId\": \"" + BATTERY_ID + "\", \"timestamp\": [" + now + "],"
+                + " \"stateOfCharge\": 50, \"powerWatts\": 1},"
+                + reading(now, "50.0", "1000.0") + "]";
+
+        // Act
+        TelemetryIngestResultDto result = ingestService.ingest(stream(body));
+
+        // Assert
+        assertThat(result.received()).isEqualTo(3);
+        assertThat(result.accepted()).isEqualTo(1);
+        assertThat(result.rejected()).isEqualTo(2);
+        assertThat(result.errors())
+                .extracting(Error.ErrorDetail::getField)
+                .containsExactly("[0].batteryId", "[1].timestamp");
+    }
+
+    @Test
+    void ingest_WithMalformedJson_ShouldThrowBadRequestException() {
+        // Arrange
+        var body = "[" + reading(Instant.now().toEpochMilli(), "50.0", "1000.0") + ", {\"batteryId\": ";
+
+        // Act & Assert
+        assertThatThrownBy(() -> ingestService.ingest(stream(body)))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("reading 1");
+    }
+
+    private static String reading(long epochMillis, String stateOfCharge, String powerWatts) {
+        return "{\"batteryId\": \"" + BATTERY_ID + "\", \"timestamp\": " + epochMillis
+                + ", \"stateOfCharge\": " + stateOfCharge + ", \"powerWatts\": " + powerWatts + "}";
+    }
+
+    private static ByteArrayInputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
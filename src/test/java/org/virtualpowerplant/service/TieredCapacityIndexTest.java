@@ -0,0 +1,77 @@
+package org.virtualpowerplant.service;
+
+import org.junit.jupiter.api.Test;
+import org.virtualpowerplant.model.BatterySearchCriteria;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.offset;
+
+class TieredCapacityIndexTest {
+
+    @Test
+    void merge_InSmallChunks_ShouldKeepFewLevelsAndAnswerLikeOneIndex() {
+        // Arrange
+        var tiered = TieredCapacityIndex.EMPTY;
+        var single = new BatteryCapacityIndex.Builder(1000);
+
+        // Act
+        for (int chunk = 0; chunk < 100; chunk++) {
+            var additions = new BatteryCapacityIndex.Builder(10);
+            for (int i = 0; i < 10; i++) {
+                var postcode = 6000 + (chunk * 37 + i * 11) % 200;
+                var capacity = 1000.0 + chunk * 10 + i;
+                additions.add("Battery " + chunk + "-" + i, postcode, capacity);
+                single.add("Battery " + chunk + "-" + i, postcode, capacity);
+            }
+            tiered = tiered.merge(additions);
+        }
+
+        // Assert
+        var index = single.build();
+        assertThat(tiered.size()).isEqualTo(1000);
+        assertThat(tiered.levelCount()).isLessThanOrEqualTo(11);
+        var queries = List.of(criteria(6050, 6120, null, null), criteria(null, null, 1200.0, 1500.0),
+                criteria(6000, 6100, 1100.0, null));
+        for (var criteria : queries) {
+            assertThat(tiered.aggregate(criteria).count()).isEqualTo(index.aggregate(criteria).count());
+            assertThat(tiered.aggregate(criteria).totalWattCapacity())
+                    .isCloseTo(index.aggregate(criteria).totalWattCapacity(), offset(1e-6));
+            assertThat(tiered.findNames(criteria)).isEqualTo(index.findNames(criteria));
+        }
+    }
+
+    @Test
+    void remove_ShouldDropOneOccurrenceAcrossLevels() {
+        // Arrange
+        var tiered = TieredCapacityIndex.of(new BatteryCapacityIndex.Builder(4)
+                                                    .add("Midland", 6057, 50500.0)
+                                                    .add("Cannington", 6107, 13500.0)
+                                                    .add("Hay Street", 6000, 23500.0)
+                                                    .add("Akunda Bay", 2084, 13500.0)
+                                                    .build())
+                                        .merge(new BatteryCapacityIndex.Builder(1).add("Cannington", 6107, 13500.0));
+        var removals = new BatteryCapacityIndex.Builder(2)
+                .add("Cannington", 6107, 13500.0)
+                .add("Akunda Bay", 2084, 13500.0);
+
+        // Act
+        var remaining = tiered.remove(removals);
+
+        // Assert
+        assertThat(tiered.levelCount()).isEqualTo(2);
+        assertThat(remaining.size()).isEqualTo(3);
+        assertThat(remaining.findNames(criteria(null, null, 13000.0, 14000.0))).containsExactly("Cannington");
+        assertThat(tiered.size()).isEqualTo(5);
+    }
+
+    private static BatterySearchCriteria criteria(Integer start, Integer end, Double min, Double max) {
+        return BatterySearchCriteria.builder()
+                                    .startPostcode(start)
+                                    .endPostcode(end)
+                                    .minCapacity(min)
+                                    .maxCapacity(max)
+                                    .build();
+    }
+}
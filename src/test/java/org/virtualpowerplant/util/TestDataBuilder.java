@@ -72,15 +72,15 @@ public class TestDataBuilder {
 
     public static class BatteryResponseBuilder {
         public static BatteryResponseDto cannington() {
-            return new BatteryResponseDto(UUID.randomUUID(), "Cannington", 6107, 13500.0);
+            return new BatteryResponseDto(UUID.randomUUID(), "Cannington", 6107, 13500.0, 0L);
         }
 
         public static BatteryResponseDto midland() {
-            return new BatteryResponseDto(UUID.randomUUID(), "Midland", 6057, 50500.0);
+            return new BatteryResponseDto(UUID.randomUUID(), "Midland", 6057, 50500.0, 0L);
         }
 
         public static BatteryResponseDto hayStreet() {
-            return new BatteryResponseDto(UUID.randomUUID(), "Hay Street", 6000, 23500.0);
+            return new BatteryResponseDto(UUID.randomUUID(), "Hay Street", 6000, 23500.0, 0L);
         }
 
         public static List<BatteryResponseDto> allResponses() {
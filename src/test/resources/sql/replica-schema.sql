@@ -0,0 +1,14 @@
+-- Stands in for a streaming replica in ReadReplicaRoutingIT: same battery table as the primary, with a
+-- row that only exists here so tests can tell which database answered.
+CREATE TABLE battery (
+    id            uuid PRIMARY KEY,
+    created_at    timestamp(6),
+    updated_at    timestamp(6),
+    version       bigint           NOT NULL DEFAULT 0,
+    tenant_id     varchar(64)      NOT NULL DEFAULT 'default',
+    name          varchar(255)     NOT NULL,
+    postcode      integer          NOT NULL,
+    watt_capacity double precision NOT NULL
+);
+
+INSERT INTO battery (id, name, postcode, watt_capacity) VALUES ('7a1f6f4e-2d0b-4c3e-9b8a-1f2e3d4c5b6a', 'Replica Only', 6001, 1000);